@@ -0,0 +1,150 @@
+package com.example.Assignment_2;
+
+import com.example.Assignment_2.model.DataRecord;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared fixtures for the JMH benchmarks.
+ */
+public final class BenchmarkData {
+    
+    /** Column widths of the fixed-width sample file. */
+    public static final int[] FIXED_WIDTHS = {8, 20, 32, 4, 16, 8};
+    
+    private static final String[] NAMES = {"Alice Williams", "Bob Smith", "Carol Jones", "Dan Brown"};
+    private static final String[] DEPARTMENTS = {"Engineering", "Sales", "Marketing", "Finance"};
+    
+    private BenchmarkData() {
+    }
+    
+    /**
+     * Builds a record shaped like a row of data/input.csv.
+     * @param sequenceNumber Sequence number to assign
+     * @return A populated DataRecord
+     */
+    public static DataRecord sampleRecord(long sequenceNumber) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("id", String.valueOf(sequenceNumber));
+        fields.put("name", "Alice Williams");
+        fields.put("email", "alice.williams@company.com");
+        fields.put("age", "31");
+        fields.put("department", "Engineering");
+        fields.put("salary", "88000");
+        
+        return DataRecord.builder()
+                .id("3f2b8c1e-5d4a-4e7b-9c6f-1a2b3c4d5e6f")
+                .sequenceNumber(sequenceNumber)
+                .fields(fields)
+                .build();
+    }
+    
+    /**
+     * Writes a CSV file with a header and the given number of rows shaped like data/input.csv.
+     * @param rows Number of data rows
+     * @return Path of the temporary file
+     * @throws IOException if the file cannot be written
+     */
+    public static Path writeCsv(int rows) throws IOException {
+        Path file = Files.createTempFile("bench-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("id,name,email,age,department,salary\n");
+            for (int i = 0; i < rows; i++) {
+                String name = NAMES[i % NAMES.length];
+                writer.write(i + "," + name + "," + email(name) + "," + (20 + i % 40) + ","
+                        + DEPARTMENTS[i % DEPARTMENTS.length] + "," + (50000 + i % 50000) + "\n");
+            }
+        }
+        return file;
+    }
+    
+    /**
+     * Writes a wide CSV file like our column-heavy exports: a mix of numbers, short text,
+     * quoted text with commas and empty cells.
+     * @param rows Number of data rows
+     * @param columns Number of columns
+     * @return Path of the temporary file
+     * @throws IOException if the file cannot be written
+     */
+    public static Path writeWideCsv(int rows, int columns) throws IOException {
+        Path file = Files.createTempFile("bench-wide-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            StringBuilder line = new StringBuilder();
+            for (int c = 0; c < columns; c++) {
+                line.append(c == 0 ? "" : ",").append("column_").append(c);
+            }
+            writer.write(line.append('\n').toString());
+            for (int i = 0; i < rows; i++) {
+                line.setLength(0);
+                for (int c = 0; c < columns; c++) {
+                    if (c > 0) {
+                        line.append(',');
+                    }
+                    switch (c % 4) {
+                        case 0 -> line.append(i * 31L + c);
+                        case 1 -> line.append(DEPARTMENTS[(i + c) % DEPARTMENTS.length]);
+                        case 2 -> line.append('"').append(NAMES[(i + c) % NAMES.length]).append(", Jr.\"");
+                        default -> {
+                            // empty cell
+                        }
+                    }
+                }
+                writer.write(line.append('\n').toString());
+            }
+        }
+        return file;
+    }
+    
+    /**
+     * Writes a JSON Lines file with the given number of rows shaped like data/input.csv.
+     * @param rows Number of lines
+     * @return Path of the temporary file
+     * @throws IOException if the file cannot be written
+     */
+    public static Path writeJsonl(int rows) throws IOException {
+        Path file = Files.createTempFile("bench-", ".jsonl");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < rows; i++) {
+                String name = NAMES[i % NAMES.length];
+                writer.write("{\"id\":" + i + ",\"name\":\"" + name + "\",\"email\":\"" + email(name)
+                        + "\",\"age\":" + (20 + i % 40) + ",\"department\":\"" + DEPARTMENTS[i % DEPARTMENTS.length]
+                        + "\",\"salary\":" + (50000 + i % 50000) + "}\n");
+            }
+        }
+        return file;
+    }
+    
+    /**
+     * Writes a fixed-width file laid out by {@link #FIXED_WIDTHS} with the given number of rows.
+     * @param rows Number of lines
+     * @return Path of the temporary file
+     * @throws IOException if the file cannot be written
+     */
+    public static Path writeFixedWidth(int rows) throws IOException {
+        Path file = Files.createTempFile("bench-", ".fixed");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < rows; i++) {
+                String name = NAMES[i % NAMES.length];
+                writer.write(pad(String.valueOf(i), FIXED_WIDTHS[0]) + pad(name, FIXED_WIDTHS[1])
+                        + pad(email(name), FIXED_WIDTHS[2]) + pad(String.valueOf(20 + i % 40), FIXED_WIDTHS[3])
+                        + pad(DEPARTMENTS[i % DEPARTMENTS.length], FIXED_WIDTHS[4])
+                        + pad(String.valueOf(50000 + i % 50000), FIXED_WIDTHS[5]) + "\n");
+            }
+        }
+        return file;
+    }
+    
+    private static String email(String name) {
+        return name.toLowerCase().replace(' ', '.') + "@company.com";
+    }
+    
+    private static String pad(String value, int width) {
+        return String.format("%-" + width + "s", value);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.Assignment_2.identity;
+
+import com.example.Assignment_2.config.IdGeneratorConfig;
+import com.example.Assignment_2.model.DataRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of giving a record its id, with and without formatting it as a string, from four
+ * threads sharing one generator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+    
+    @Param({IdGeneratorConfig.GENERATOR_SNOWFLAKE, IdGeneratorConfig.GENERATOR_UUID})
+    public String generator;
+    
+    private IdGenerator idGenerator;
+    
+    @Setup
+    public void setUp() {
+        idGenerator = IdGeneratorConfig.GENERATOR_UUID.equals(generator) ? new UuidIdGenerator() : new SnowflakeIdGenerator(1);
+    }
+    
+    @Benchmark
+    public DataRecord assign() {
+        DataRecord record = new DataRecord();
+        idGenerator.assign(record);
+        return record;
+    }
+    
+    @Benchmark
+    public String assignAndFormat() {
+        DataRecord record = new DataRecord();
+        idGenerator.assign(record);
+        return record.getId();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.Assignment_2.ingestion;
+
+import com.example.Assignment_2.BenchmarkData;
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.transformation.JsonTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the commons-csv reader with the byte-level tokenizer on a wide (200-column)
+ * export, both reading alone and reading plus JSON encoding, where lazy values skip the
+ * String step entirely. One operation is one row.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CsvReaderBenchmark {
+    
+    private static final int ROWS = 2_000;
+    
+    @Param({"csv", "csv-bytes"})
+    public String fileType;
+    
+    @Param({"200"})
+    public int columns;
+    
+    private Path file;
+    private FileReader reader;
+    private JsonTransformer transformer;
+    
+    @Setup
+    public void setUp() throws IOException {
+        reader = "csv-bytes".equals(fileType) ? new ByteCsvFileReader() : new CsvFileReader();
+        transformer = new JsonTransformer();
+        file = BenchmarkData.writeWideCsv(ROWS, columns);
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void read(Blackhole blackhole) {
+        try (Stream<DataRecord> records = reader.readRecords(file.toString())) {
+            records.forEach(blackhole::consume);
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void readAndTransformJson(Blackhole blackhole) {
+        try (Stream<DataRecord> records = reader.readRecords(file.toString())) {
+            records.forEach(record -> blackhole.consume(transformer.transform(record)));
+        }
+    }
+}
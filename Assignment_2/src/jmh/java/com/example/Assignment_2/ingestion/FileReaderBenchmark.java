@@ -0,0 +1,74 @@
+package com.example.Assignment_2.ingestion;
+
+import com.example.Assignment_2.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast each FileReader turns a file into DataRecords.
+ * One operation is one record; the whole file is read per invocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FileReaderBenchmark {
+    
+    private static final int ROWS = 10_000;
+    
+    @Param({"csv", "jsonl", "fixed"})
+    public String format;
+    
+    private Path file;
+    private CsvFileReader csvReader;
+    private JsonlFileReader jsonlReader;
+    private FixedWidthFileReader fixedWidthReader;
+    
+    @Setup
+    public void setUp() throws IOException {
+        csvReader = new CsvFileReader();
+        jsonlReader = new JsonlFileReader();
+        fixedWidthReader = new FixedWidthFileReader();
+        file = switch (format) {
+            case "csv" -> BenchmarkData.writeCsv(ROWS);
+            case "jsonl" -> BenchmarkData.writeJsonl(ROWS);
+            case "fixed" -> BenchmarkData.writeFixedWidth(ROWS);
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void readFile(Blackhole blackhole) {
+        String path = file.toString();
+        switch (format) {
+            case "csv" -> csvReader.readRecords(path).forEach(blackhole::consume);
+            case "jsonl" -> jsonlReader.readRecords(path).forEach(blackhole::consume);
+            default -> fixedWidthReader.readRecords(path, BenchmarkData.FIXED_WIDTHS).forEach(blackhole::consume);
+        }
+    }
+}
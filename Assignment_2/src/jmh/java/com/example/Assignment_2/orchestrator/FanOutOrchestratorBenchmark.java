@@ -0,0 +1,152 @@
+package com.example.Assignment_2.orchestrator;
+
+import com.example.Assignment_2.BenchmarkData;
+import com.example.Assignment_2.config.ExecutorConfig;
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.config.IdGeneratorConfig;
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.ingestion.AvroFileReader;
+import com.example.Assignment_2.ingestion.ByteCsvFileReader;
+import com.example.Assignment_2.ingestion.CsvFileReader;
+import com.example.Assignment_2.ingestion.FileReaderFactory;
+import com.example.Assignment_2.ingestion.FixedWidthFileReader;
+import com.example.Assignment_2.ingestion.JsonlFileReader;
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkEvent;
+import com.example.Assignment_2.model.SinkType;
+import com.example.Assignment_2.observability.MetricsCollector;
+import com.example.Assignment_2.sink.GrpcSink;
+import com.example.Assignment_2.sink.MessageQueueSink;
+import com.example.Assignment_2.sink.RestApiSink;
+import com.example.Assignment_2.sink.WideColumnDbSink;
+import com.example.Assignment_2.transformation.AvroTransformer;
+import com.example.Assignment_2.transformation.JsonTransformer;
+import com.example.Assignment_2.transformation.ProtobufTransformer;
+import com.example.Assignment_2.transformation.TransformerFactory;
+import com.example.Assignment_2.transformation.XmlTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the orchestrator's per-record dispatch path: enqueue into every sink buffer,
+ * batch, transform and hand off to the sink. The sinks complete immediately and the rate
+ * limits are effectively unlimited, so only the engine's own overhead is measured.
+ * One operation is one record fanned out to all four sinks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FanOutOrchestratorBenchmark {
+    
+    private static final int RECORDS = 1_000;
+    
+    private Path deadLetterDirectory;
+    private ExecutorService executor;
+    private FanOutOrchestrator orchestrator;
+    private List<DataRecord> records;
+    
+    @Setup
+    public void setUp() throws IOException {
+        FanOutConfig config = new FanOutConfig();
+        config.getInput().setLingerMs(1);
+        // Keep the dead-letter file out of the working tree
+        deadLetterDirectory = Files.createTempDirectory("fanout-benchmark");
+        config.setDeadLetterPath(deadLetterDirectory.resolve("dlq.txt").toString());
+        Map<String, SinkConfig> sinks = new HashMap<>();
+        for (SinkType sinkType : SinkType.values()) {
+            sinks.put(sinkType.getKey(), SinkConfig.builder()
+                    .sinkType(sinkType.getKey())
+                    .rateLimit(1_000_000_000L)
+                    .bufferSize(RECORDS)
+                    .maxRetries(3)
+                    .enabled(true)
+                    .build());
+        }
+        config.setSinks(sinks);
+        
+        executor = new ExecutorConfig().fanOutExecutor(config);
+        orchestrator = new FanOutOrchestrator(
+                new FileReaderFactory(config, new JsonlFileReader(), new CsvFileReader(), new ByteCsvFileReader(),
+                        new FixedWidthFileReader(), new AvroFileReader()),
+                new TransformerFactory(new JsonTransformer(), new XmlTransformer(),
+                        new ProtobufTransformer(), new AvroTransformer()),
+                new MetricsCollector(),
+                config,
+                new RestApiSink(executor) {
+                    @Override
+                    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+                        return CompletableFuture.completedFuture(successResults(events, 0));
+                    }
+                },
+                new GrpcSink(executor) {
+                    @Override
+                    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+                        return CompletableFuture.completedFuture(successResults(events, 0));
+                    }
+                },
+                new MessageQueueSink(executor) {
+                    @Override
+                    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+                        return CompletableFuture.completedFuture(successResults(events, 0));
+                    }
+                },
+                new WideColumnDbSink(executor) {
+                    @Override
+                    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+                        return CompletableFuture.completedFuture(successResults(events, 0));
+                    }
+                },
+                new IdGeneratorConfig().idGenerator(config));
+        
+        records = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            records.add(BenchmarkData.sampleRecord(i));
+        }
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        try (Stream<Path> files = Files.walk(deadLetterDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void fanOut() throws InterruptedException {
+        if (!orchestrator.fanOut(records.stream(), TimeUnit.SECONDS.toNanos(60))) {
+            throw new FanOutException("Drain workers did not finish");
+        }
+    }
+}
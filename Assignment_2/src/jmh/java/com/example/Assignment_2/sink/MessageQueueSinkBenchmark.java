@@ -0,0 +1,135 @@
+package com.example.Assignment_2.sink;
+
+import com.example.Assignment_2.BenchmarkData;
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkEvent;
+import com.example.Assignment_2.model.SinkType;
+import com.example.Assignment_2.transformation.XmlTransformer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures publishing XML events through the message queue sink into a {@link FileLogBroker}.
+ * One operation is one message; the <code>bytes</code> counter reports payload bytes per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageQueueSinkBenchmark {
+    
+    private static final int SINK_BATCHES = 10;
+    private static final int EVENTS_PER_BATCH = 100;
+    private static final int MESSAGES = SINK_BATCHES * EVENTS_PER_BATCH;
+    
+    @Param({"none", "gzip", "snappy"})
+    public String compression;
+    
+    @Param({"0", "5"})
+    public long lingerMs;
+    
+    private final List<List<SinkEvent>> batches = new ArrayList<>();
+    private long payloadBytes;
+    private Path directory;
+    private ExecutorService executor;
+    private MessageQueueSink sink;
+    
+    /**
+     * Payload bytes published, reported by JMH as a rate next to messages/s.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Throughput {
+        public long bytes;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+    
+    @Setup
+    public void setUp() throws IOException {
+        XmlTransformer transformer = new XmlTransformer();
+        for (int batch = 0; batch < SINK_BATCHES; batch++) {
+            List<SinkEvent> events = new ArrayList<>(EVENTS_PER_BATCH);
+            for (int i = 0; i < EVENTS_PER_BATCH; i++) {
+                long sequence = (long) batch * EVENTS_PER_BATCH + i;
+                SinkEvent event = SinkEvent.builder()
+                        .record(BenchmarkData.sampleRecord(sequence))
+                        .sinkType(SinkType.MESSAGE_QUEUE)
+                        .transformedData(transformer.transform(BenchmarkData.sampleRecord(sequence)))
+                        .build();
+                payloadBytes += ((byte[]) event.getTransformedData()).length;
+                events.add(event);
+            }
+            batches.add(events);
+        }
+        directory = Files.createTempDirectory("mq-benchmark");
+        executor = Executors.newFixedThreadPool(4);
+        SinkConfig.ProducerConfig producer = new SinkConfig.ProducerConfig();
+        producer.setCompression(compression);
+        producer.setLingerMs(lingerMs);
+        SinkConfig config = SinkConfig.builder()
+                .sinkType(SinkType.MESSAGE_QUEUE.getKey())
+                .endpoint("file:" + directory)
+                .rateLimit(Integer.MAX_VALUE)
+                .producer(producer)
+                .build();
+        sink = new MessageQueueSink(config, executor);
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        sink.close();
+        executor.shutdownNow();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public List<ProcessingResult> publish(Throughput throughput) {
+        List<CompletableFuture<List<ProcessingResult>>> futures = new ArrayList<>(SINK_BATCHES);
+        for (List<SinkEvent> events : batches) {
+            futures.add(sink.sendBatch(events));
+        }
+        List<ProcessingResult> last = null;
+        for (CompletableFuture<List<ProcessingResult>> future : futures) {
+            last = future.join();
+        }
+        throughput.bytes += payloadBytes;
+        return last;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.Assignment_2.sink;
+
+import com.example.Assignment_2.BenchmarkData;
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkEvent;
+import com.example.Assignment_2.model.SinkType;
+import com.example.Assignment_2.transformation.AvroTransformer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures UPSERTs through the wide-column DB sink into a three-node {@link InMemoryWideColumnStore}.
+ * One operation is one row; the <code>requests</code> counter reports store round trips per second.
+ * Clustered keys put 100 rows in each of 10 partitions per invocation, scattered keys give every
+ * row its own partition.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WideColumnDbSinkBenchmark {
+    
+    private static final int SINK_BATCHES = 10;
+    private static final int EVENTS_PER_BATCH = 100;
+    private static final int ROWS = SINK_BATCHES * EVENTS_PER_BATCH;
+    
+    @Param({"clustered", "scattered"})
+    public String keys;
+    
+    @Param({"0", "200"})
+    public long latencyMicros;
+    
+    private final List<List<SinkEvent>> batches = new ArrayList<>();
+    private ExecutorService executor;
+    private InMemoryWideColumnStore store;
+    private WideColumnDbSink sink;
+    
+    /**
+     * Store requests made, reported by JMH as a rate next to rows/s.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Requests {
+        public long requests;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+        }
+    }
+    
+    @Setup
+    public void setUp() {
+        AvroTransformer transformer = new AvroTransformer();
+        for (int batch = 0; batch < SINK_BATCHES; batch++) {
+            List<SinkEvent> events = new ArrayList<>(EVENTS_PER_BATCH);
+            for (int i = 0; i < EVENTS_PER_BATCH; i++) {
+                long sequence = (long) batch * EVENTS_PER_BATCH + i;
+                DataRecord record = BenchmarkData.sampleRecord(sequence);
+                record.setId(Long.toString(sequence));
+                record.set("account", "clustered".equals(keys) ? "account-" + (sequence % 10) : "account-" + sequence);
+                events.add(SinkEvent.builder()
+                        .record(record)
+                        .sinkType(SinkType.WIDE_COLUMN_DB)
+                        .transformedData(transformer.transform(record))
+                        .build());
+            }
+            batches.add(events);
+        }
+        executor = Executors.newFixedThreadPool(8);
+        store = new InMemoryWideColumnStore(3, 16, latencyMicros);
+        SinkConfig.WideColumnConfig wideColumn = new SinkConfig.WideColumnConfig();
+        wideColumn.setPartitionKeyField("account");
+        SinkConfig config = SinkConfig.builder()
+                .sinkType(SinkType.WIDE_COLUMN_DB.getKey())
+                .rateLimit(Integer.MAX_VALUE)
+                .wideColumn(wideColumn)
+                .build();
+        sink = new WideColumnDbSink(config, executor, store);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        sink.close();
+        executor.shutdownNow();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<ProcessingResult> upsert(Requests requests) {
+        long before = totalRequests();
+        List<CompletableFuture<List<ProcessingResult>>> futures = new ArrayList<>(SINK_BATCHES);
+        for (List<SinkEvent> events : batches) {
+            futures.add(sink.sendBatch(events));
+        }
+        List<ProcessingResult> last = null;
+        for (CompletableFuture<List<ProcessingResult>> future : futures) {
+            last = future.join();
+        }
+        requests.requests += totalRequests() - before;
+        return last;
+    }
+    
+    private long totalRequests() {
+        long total = 0;
+        for (String node : store.ring().nodes()) {
+            total += store.requests(node);
+        }
+        return total;
+    }
+}
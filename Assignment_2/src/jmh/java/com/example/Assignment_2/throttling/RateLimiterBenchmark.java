@@ -0,0 +1,46 @@
+package com.example.Assignment_2.throttling;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures RateLimiter.tryAcquire with several threads sharing one limiter.
+ * A high rate mostly grants permits; a low rate mostly rejects them, which is
+ * the path a saturated sink takes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+    
+    @Param({"1000000000", "1000"})
+    public long tokensPerSecond;
+    
+    private RateLimiter rateLimiter;
+    
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter(tokensPerSecond);
+    }
+    
+    @Benchmark
+    public boolean tryAcquire() {
+        return rateLimiter.tryAcquire();
+    }
+}
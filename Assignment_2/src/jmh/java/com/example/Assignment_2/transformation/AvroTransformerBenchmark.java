@@ -0,0 +1,76 @@
+package com.example.Assignment_2.transformation;
+
+import com.example.Assignment_2.BenchmarkData;
+import com.example.Assignment_2.model.DataRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Avro binary encoding with the map payload the transformer used to return.
+ * Run with -prof gc to see bytes allocated per record (gc.alloc.rate.norm).
+ * Payload bytes per record are logged once at setup.
+ */
+@Slf4j
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AvroTransformerBenchmark {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AvroTransformer transformer;
+    private DataRecord record;
+    
+    @Setup
+    public void setUp() throws Exception {
+        transformer = new AvroTransformer();
+        record = BenchmarkData.sampleRecord(42);
+        
+        int avroBytes = ((byte[]) transformer.transform(record)).length;
+        int mapAsJsonBytes = objectMapper.writeValueAsBytes(legacyMap()).length;
+        log.info("Payload size: avro={} bytes/record, legacy map as JSON={} bytes/record",
+                avroBytes, mapAsJsonBytes);
+    }
+    
+    @Benchmark
+    public Object avroBinary() {
+        return transformer.transform(record);
+    }
+    
+    /**
+     * The previous transformer output: a CQL-style map that still had to be serialized downstream.
+     */
+    @Benchmark
+    public Map<String, Object> legacyMap() {
+        Map<String, Object> cqlMap = new HashMap<>();
+        cqlMap.put("id", record.getId());
+        cqlMap.put("sequence_number", record.getSequenceNumber());
+        cqlMap.put("fields", record.getFields());
+        cqlMap.put("timestamp", System.currentTimeMillis());
+        return cqlMap;
+    }
+    
+    /**
+     * The previous map output plus the JSON serialization a sink would have needed to send it.
+     */
+    @Benchmark
+    public byte[] legacyMapAsJson() throws Exception {
+        return objectMapper.writeValueAsBytes(legacyMap());
+    }
+}
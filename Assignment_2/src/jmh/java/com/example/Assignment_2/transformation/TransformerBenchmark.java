@@ -0,0 +1,49 @@
+package com.example.Assignment_2.transformation;
+
+import com.example.Assignment_2.BenchmarkData;
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.SinkType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the transformer each sink type uses, one record per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransformerBenchmark {
+    
+    @Param({"REST_API", "GRPC", "MESSAGE_QUEUE", "WIDE_COLUMN_DB"})
+    public SinkType sinkType;
+    
+    private Transformer transformer;
+    private DataRecord record;
+    
+    @Setup
+    public void setUp() {
+        TransformerFactory factory = new TransformerFactory(new JsonTransformer(), new XmlTransformer(),
+                new ProtobufTransformer(), new AvroTransformer());
+        transformer = factory.getTransformer(sinkType);
+        record = BenchmarkData.sampleRecord(42);
+    }
+    
+    @Benchmark
+    public Object transform() {
+        return transformer.transform(record);
+    }
+}
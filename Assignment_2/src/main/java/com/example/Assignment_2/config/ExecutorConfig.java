@@ -0,0 +1,85 @@
+package com.example.Assignment_2.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates the executor shared by the orchestrator and the sinks.
+ * fanout.threadPool.mode selects a virtual-thread-per-task executor or the bounded platform pool.
+ */
+@Slf4j
+@Configuration
+public class ExecutorConfig {
+    
+    public static final String MODE_VIRTUAL = "virtual";
+    public static final String MODE_PLATFORM = "platform";
+    
+    /**
+     * Executor used for sink I/O, retries and other dispatch work.
+     * @param config Fan-out configuration
+     * @return Configured ExecutorService
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService fanOutExecutor(FanOutConfig config) {
+        FanOutConfig.ThreadPoolConfig poolConfig = config.getThreadPool();
+        if (isVirtual(poolConfig)) {
+            log.info("Created virtual-thread-per-task executor");
+            return Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("FanOut-Worker-", 0).factory());
+        }
+        
+        AtomicLong threadCounter = new AtomicLong(0);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolConfig.getCorePoolSize(),
+                poolConfig.getMaxPoolSize(),
+                poolConfig.getKeepAliveSeconds(),
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(poolConfig.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "FanOut-Worker-" + threadCounter.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        
+        executor.allowCoreThreadTimeOut(true);
+        log.info("Created thread pool: core={}, max={}, queue={}",
+                poolConfig.getCorePoolSize(), poolConfig.getMaxPoolSize(), poolConfig.getQueueCapacity());
+        
+        return executor;
+    }
+    
+    /**
+     * Returns a factory for long-running worker threads that matches the configured mode.
+     * @param poolConfig Thread pool configuration
+     * @param namePrefix Prefix for thread names
+     * @return Virtual or daemon platform thread factory
+     */
+    public static ThreadFactory workerThreadFactory(FanOutConfig.ThreadPoolConfig poolConfig, String namePrefix) {
+        if (isVirtual(poolConfig)) {
+            return Thread.ofVirtual().name(namePrefix, 0).factory();
+        }
+        return Thread.ofPlatform().name(namePrefix, 0).daemon(true).factory();
+    }
+    
+    private static boolean isVirtual(FanOutConfig.ThreadPoolConfig poolConfig) {
+        String mode = poolConfig.getMode();
+        if (mode == null || MODE_PLATFORM.equalsIgnoreCase(mode)) {
+            return false;
+        }
+        if (MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unknown thread pool mode: " + mode);
+    }
+}
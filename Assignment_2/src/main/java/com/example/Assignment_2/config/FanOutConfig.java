@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,17 +20,59 @@ public class FanOutConfig {
     private InputConfig input = new InputConfig();
     private Map<String, SinkConfig> sinks;
     private ThreadPoolConfig threadPool = new ThreadPoolConfig();
+    private CheckpointConfig checkpoint = new CheckpointConfig();
+    private IdConfig ids = new IdConfig();
     private long metricsIntervalSeconds = 5;
+    private String deadLetterPath = "./data/dlq.txt"; // file events that exhausted their retries are appended to
     
     @Data
     public static class InputConfig {
-        private String filePath;
-        private String fileType; // csv, jsonl, fixed-width
+        private String filePath; // a file, a directory, or a glob such as ./data/drops/**/*.csv
+        private String fileType; // csv, csv-bytes, jsonl, fixed-width
         private int batchSize = 100;
+        private long lingerMs = 50; // max time a partial batch waits before being sent
+        private int parallelism = 1; // reader threads; above 1 the file is split into chunks parsed in parallel
+        private int fileConcurrency = 1; // files read at the same time when filePath matches several files
+        private String sequenceNumbering = "global"; // global: one sequence across all files; per-file: restarts at 1 per file
+        private boolean follow; // keep reading records appended to filePath (a file or a directory of rolled files) until shutdown
+        private long followPollMs = 250; // longest wait between checks for new data, rotation or truncation in follow mode
+        private FixedWidthConfig fixedWidth = new FixedWidthConfig();
+        
+        public boolean isPerFileSequence() {
+            return "per-file".equalsIgnoreCase(sequenceNumbering);
+        }
+    }
+    
+    @Data
+    public static class FixedWidthConfig {
+        private int recordLength; // bytes per record including any line terminator; 0 = records end at a newline
+        private List<ColumnConfig> columns = new ArrayList<>(); // empty = inferred from the header line
+    }
+    
+    @Data
+    public static class ColumnConfig {
+        private String name;
+        private int offset = -1; // byte offset within the record; -1 = right after the previous column
+        private int width;
+        private String type = "string"; // string, int, long, double, decimal
+    }
+    
+    @Data
+    public static class CheckpointConfig {
+        private boolean enabled = false; // resume a single-file run after a crash instead of starting over
+        private String path = "./data/checkpoint.properties";
+        private long intervalSeconds = 5; // how often the acknowledged position is written
+    }
+    
+    @Data
+    public static class IdConfig {
+        private String generator = "snowflake"; // snowflake, uuid
+        private long nodeId = 0; // 0-1023, must differ between instances writing to the same sinks
     }
     
     @Data
     public static class ThreadPoolConfig {
+        private String mode = "platform"; // platform, virtual
         private int corePoolSize = 10;
         private int maxPoolSize = 50;
         private int queueCapacity = 1000;
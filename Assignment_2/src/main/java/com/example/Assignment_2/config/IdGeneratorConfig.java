@@ -0,0 +1,38 @@
+package com.example.Assignment_2.config;
+
+import com.example.Assignment_2.identity.IdGenerator;
+import com.example.Assignment_2.identity.SnowflakeIdGenerator;
+import com.example.Assignment_2.identity.UuidIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Creates the generator for record and event ids.
+ * fanout.ids.generator selects snowflake (the default) or uuid.
+ */
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+    
+    public static final String GENERATOR_SNOWFLAKE = "snowflake";
+    public static final String GENERATOR_UUID = "uuid";
+    
+    /**
+     * @param config Fan-out configuration
+     * @return Configured IdGenerator
+     */
+    @Bean
+    public IdGenerator idGenerator(FanOutConfig config) {
+        FanOutConfig.IdConfig idConfig = config.getIds();
+        if (GENERATOR_UUID.equalsIgnoreCase(idConfig.getGenerator())) {
+            log.info("Using random UUID ids");
+            return new UuidIdGenerator();
+        }
+        if (!GENERATOR_SNOWFLAKE.equalsIgnoreCase(idConfig.getGenerator())) {
+            throw new IllegalArgumentException("Unknown id generator: " + idConfig.getGenerator());
+        }
+        log.info("Using snowflake ids with node id {}", idConfig.getNodeId());
+        return new SnowflakeIdGenerator(idConfig.getNodeId());
+    }
+}
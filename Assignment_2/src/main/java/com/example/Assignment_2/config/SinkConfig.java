@@ -1,13 +1,17 @@
 package com.example.Assignment_2.config;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * Configuration for a single sink.
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class SinkConfig {
     private String sinkType;
     private String endpoint;
@@ -15,4 +19,55 @@ public class SinkConfig {
     private int bufferSize;
     private int maxRetries;
     private boolean enabled;
+    @Builder.Default
+    private int drainWorkers = 2; // threads draining this sink's buffer
+    @Builder.Default
+    private int maxInFlight = 64; // requests awaiting a response at once
+    @Builder.Default
+    private long requestTimeoutMs = 5000; // a request without a response by then fails
+    @Builder.Default
+    private int connections = 2; // connections to the endpoint the load is spread over
+    @Builder.Default
+    private ProducerConfig producer = new ProducerConfig(); // message queue sink only
+    @Builder.Default
+    private WideColumnConfig wideColumn = new WideColumnConfig(); // wide-column DB sink only
+    @Builder.Default
+    private ConcurrencyConfig concurrency = new ConcurrencyConfig(); // adaptive limit on requests in flight
+    
+    /**
+     * Producer settings of the message queue sink.
+     */
+    @Data
+    public static class ProducerConfig {
+        private String topic = "fanout_events";
+        private int partitions = 8; // partitions of the topic when the broker creates it
+        private String keyField = "id"; // record field hashed to pick the partition
+        private long lingerMs = 5; // how long a batch waits for more records before it is sent
+        private int batchBytes = 16384; // a batch is sent once its records reach this size
+        private String compression = "none"; // none, gzip, snappy
+    }
+    
+    /**
+     * Table and write settings of the wide-column DB sink.
+     */
+    @Data
+    public static class WideColumnConfig {
+        private String table = "fan_out_events";
+        private String partitionKeyField = "id"; // record field whose value is the partition key
+        private int maxBatchRows = 100; // rows of one partition written in a single batch
+        private int maxInFlightPerNode = 4; // batches awaiting a response from one node at once
+    }
+    
+    /**
+     * Adaptive limit on the requests in flight to the sink. The rate limit still applies on top.
+     */
+    @Data
+    public static class ConcurrencyConfig {
+        private String mode = "static"; // static (rate limit only), aimd or vegas
+        private int initialLimit = 4;
+        private int minLimit = 1;
+        private int maxLimit = 64;
+        private double backoffRatio = 0.9; // aimd: limit multiplier after a failed request
+        private int probeInterval = 1000; // vegas: samples between re-measuring the no-load RTT
+    }
 }
@@ -0,0 +1,23 @@
+package com.example.Assignment_2.identity;
+
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.SinkEvent;
+
+/**
+ * Gives records and sink events their ids.
+ * Selected by fanout.ids.generator; see {@link SnowflakeIdGenerator} and {@link UuidIdGenerator}.
+ */
+public interface IdGenerator {
+    
+    /**
+     * Sets a new id on a record.
+     * @param record The record
+     */
+    void assign(DataRecord record);
+    
+    /**
+     * Sets a new id on a sink event.
+     * @param event The event
+     */
+    void assign(SinkEvent event);
+}
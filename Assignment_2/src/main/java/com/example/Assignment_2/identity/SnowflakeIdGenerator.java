@@ -0,0 +1,82 @@
+package com.example.Assignment_2.identity;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.SinkEvent;
+
+/**
+ * 64-bit ids made of time, node and a counter, in the style of Twitter's snowflake:
+ *
+ *   0 | 41 bits milliseconds since 2024-01-01 | 10 bits node | 12 bits counter
+ *
+ * Ids are positive and strictly increasing per generator, and unique across instances as
+ * long as each uses its own node id. They are stored as numbers; the decimal string is
+ * only made when a sink asks for it.
+ *
+ * The last time and counter are kept in one AtomicLong and advanced with a CAS, so
+ * there is no lock. When more than 4096 ids are drawn within one millisecond, or the
+ * clock steps back, the counter carries into the time part: ids run slightly ahead of the
+ * clock until it catches up, instead of waiting or repeating.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+    
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int COUNTER_BITS = 12;
+    static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    
+    private final long node;
+    private final LongSupplier clock;
+    private final AtomicLong last = new AtomicLong(); // time << COUNTER_BITS | counter
+    
+    /**
+     * @param node Node id of this instance, 0 to 1023
+     */
+    public SnowflakeIdGenerator(long node) {
+        this(node, System::currentTimeMillis);
+    }
+    
+    SnowflakeIdGenerator(long node, LongSupplier clock) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.node = node << COUNTER_BITS;
+        this.clock = clock;
+    }
+    
+    /**
+     * @return A new id
+     */
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << COUNTER_BITS;
+        long current;
+        long next;
+        do {
+            current = last.get();
+            next = Math.max(current + 1, now);
+        } while (!last.compareAndSet(current, next));
+        return (next >>> COUNTER_BITS) << (NODE_BITS + COUNTER_BITS) | node | (next & COUNTER_MASK);
+    }
+    
+    @Override
+    public void assign(DataRecord record) {
+        record.setNumericId(nextId());
+    }
+    
+    @Override
+    public void assign(SinkEvent event) {
+        event.setNumericEventId(nextId());
+    }
+    
+    /**
+     * @param id An id from this generator
+     * @return When it was generated, in epoch milliseconds
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + COUNTER_BITS)) + EPOCH_MILLIS;
+    }
+}
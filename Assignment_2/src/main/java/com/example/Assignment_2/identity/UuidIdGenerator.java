@@ -0,0 +1,24 @@
+package com.example.Assignment_2.identity;
+
+import java.util.UUID;
+
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.SinkEvent;
+
+/**
+ * Random UUID strings, as ids were generated before the snowflake generator.
+ * Each id costs a SecureRandom draw and a String, so only use it when downstream systems
+ * expect UUIDs.
+ */
+public class UuidIdGenerator implements IdGenerator {
+    
+    @Override
+    public void assign(DataRecord record) {
+        record.setId(UUID.randomUUID().toString());
+    }
+    
+    @Override
+    public void assign(SinkEvent event) {
+        event.setEventId(UUID.randomUUID().toString());
+    }
+}
@@ -0,0 +1,534 @@
+package com.example.Assignment_2.ingestion;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.xerial.snappy.Snappy;
+
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.RecordSchema;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads Avro object container files (.avro).
+ *
+ * The writer schema embedded in the file header drives decoding: each top-level field of
+ * the record schema becomes a field of the DataRecord, and all records of a file share
+ * one RecordSchema. Values are decoded straight from the binary encoding, without
+ * GenericRecord or JSON in between: strings as String, int/long/float/double/boolean
+ * boxed, bytes and fixed as byte[], enums as their symbol, arrays as List and maps and
+ * nested records as Map. A file whose schema is not a record yields one field, "value".
+ *
+ * A container file is a header followed by blocks, each holding a record count, the
+ * (possibly compressed) records and the file's 16-byte sync marker. The null, deflate and
+ * snappy codecs are supported.
+ *
+ * With fanout.input.parallelism above 1 the block boundaries are found by walking the
+ * block headers and checking each sync marker, which reads a few bytes per block. Runs of
+ * blocks are then decompressed and decoded on that many threads; records are still
+ * returned in file order. Byte offsets are not reported, so a resumed run skips records
+ * by sequence number.
+ */
+@Slf4j
+@Component
+public class AvroFileReader implements FileReader {
+    
+    static final String CODEC_NULL = "null";
+    static final String CODEC_DEFLATE = "deflate";
+    static final String CODEC_SNAPPY = "snappy";
+    
+    private static final byte[] MAGIC = {'O', 'b', 'j', 1};
+    private static final int SYNC_SIZE = 16;
+    private static final int BLOCK_HEADER_BYTES = 20; // two varint longs at most
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final String TOP_LEVEL_VALUE = "value";
+    
+    private final int parallelism;
+    private final long chunkBytes;
+    
+    public AvroFileReader() {
+        this(1, FileChunks.DEFAULT_CHUNK_BYTES);
+    }
+    
+    @Autowired
+    public AvroFileReader(FanOutConfig config) {
+        this(config.getInput().getParallelism(), FileChunks.DEFAULT_CHUNK_BYTES);
+    }
+    
+    AvroFileReader(int parallelism, long chunkBytes) {
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkBytes = chunkBytes;
+    }
+    
+    @Override
+    public Stream<DataRecord> readRecords(String filePath) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+            CountingInputStream input = new CountingInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel), BUFFER_BYTES));
+            Header header = readHeader(input, filePath);
+            if (parallelism > 1) {
+                List<Range> ranges = splitBlocks(channel, input.count, header.sync(), filePath);
+                if (ranges.size() > 1) {
+                    return readRecordsParallel(channel, ranges, header, filePath);
+                }
+            }
+            return stream(new BlockIterator(input, header, filePath), input, filePath);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new FanOutException("Failed to read Avro file: " + filePath, e);
+        }
+    }
+    
+    @Override
+    public Stream<DataRecord> readRecords(InputStream input, String fileName) {
+        try {
+            InputStream buffered = new BufferedInputStream(input, BUFFER_BYTES);
+            Header header = readHeader(buffered, fileName);
+            return stream(new BlockIterator(buffered, header, fileName), buffered, fileName);
+        } catch (IOException e) {
+            closeQuietly(input);
+            throw new FanOutException("Failed to read Avro file: " + fileName, e);
+        }
+    }
+    
+    @Override
+    public boolean canHandle(String filePath) {
+        return filePath.toLowerCase().endsWith(".avro");
+    }
+    
+    @Override
+    public String getFileType() {
+        return "avro";
+    }
+    
+    private Stream<DataRecord> stream(BlockIterator iterator, Closeable input, String fileName) {
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(() -> {
+                    try {
+                        input.close();
+                    } catch (IOException e) {
+                        log.error("Error closing reader for {}", fileName, e);
+                    }
+                });
+    }
+    
+    private Stream<DataRecord> readRecordsParallel(FileChannel channel, List<Range> ranges, Header header,
+                                                   String filePath) {
+        log.info("Reading {} in {} chunk(s) of blocks on {} threads", filePath, ranges.size(), parallelism);
+        List<Callable<List<DataRecord>>> tasks = new ArrayList<>(ranges.size());
+        for (Range range : ranges) {
+            tasks.add(() -> decodeRange(channel, range, header, filePath));
+        }
+        return OrderedChunkStream.of(tasks, parallelism, "Avro-Reader-", () -> closeQuietly(channel));
+    }
+    
+    private static List<DataRecord> decodeRange(FileChannel channel, Range range, Header header,
+                                                String filePath) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate((int) (range.end() - range.start()));
+        readFully(channel, bytes, range.start());
+        List<DataRecord> records = new ArrayList<>();
+        new BlockIterator(new ByteArrayInputStream(bytes.array()), header, filePath).forEachRemaining(records::add);
+        return records;
+    }
+    
+    /**
+     * Reads the file header: magic, metadata map and sync marker.
+     */
+    private static Header readHeader(InputStream input, String fileName) throws IOException {
+        BinaryDecoder decoder = DecoderFactory.get().directBinaryDecoder(input, null);
+        byte[] magic = new byte[MAGIC.length];
+        try {
+            decoder.readFixed(magic);
+        } catch (EOFException e) {
+            throw new FanOutException("Not an Avro container file: " + fileName, e);
+        }
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new FanOutException("Not an Avro container file: " + fileName);
+        }
+        
+        Map<String, byte[]> metadata = new HashMap<>();
+        for (long n = decoder.readMapStart(); n != 0; n = decoder.mapNext()) {
+            for (long i = 0; i < n; i++) {
+                String key = decoder.readString();
+                ByteBuffer value = decoder.readBytes(null);
+                byte[] bytes = new byte[value.remaining()];
+                value.get(bytes);
+                metadata.put(key, bytes);
+            }
+        }
+        byte[] sync = new byte[SYNC_SIZE];
+        decoder.readFixed(sync);
+        
+        byte[] schemaJson = metadata.get("avro.schema");
+        if (schemaJson == null) {
+            throw new FanOutException("Avro file has no schema: " + fileName);
+        }
+        Schema schema = new Schema.Parser().setValidateDefaults(false)
+                .parse(new String(schemaJson, StandardCharsets.UTF_8));
+        byte[] codecName = metadata.get("avro.codec");
+        String codec = codecName != null ? new String(codecName, StandardCharsets.UTF_8) : CODEC_NULL;
+        if (!codec.equals(CODEC_NULL) && !codec.equals(CODEC_DEFLATE) && !codec.equals(CODEC_SNAPPY)) {
+            throw new FanOutException("Unsupported Avro codec '" + codec + "' in " + fileName);
+        }
+        
+        RecordSchema recordSchema = schema.getType() == Schema.Type.RECORD
+                ? RecordSchema.of(schema.getFields().stream().map(Schema.Field::name).toArray(String[]::new))
+                : RecordSchema.of(TOP_LEVEL_VALUE);
+        return new Header(schema, recordSchema, codec, sync);
+    }
+    
+    /**
+     * Walks the block headers from the first block and groups whole blocks into ranges of
+     * about chunkBytes. Each block's sync marker is checked on the way.
+     */
+    private List<Range> splitBlocks(FileChannel channel, long firstBlock, byte[] sync,
+                                    String filePath) throws IOException {
+        List<Range> ranges = new ArrayList<>();
+        ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+        ByteBuffer marker = ByteBuffer.allocate(SYNC_SIZE);
+        long size = channel.size();
+        long start = firstBlock;
+        long position = firstBlock;
+        while (position < size) {
+            blockHeader.clear();
+            channel.read(blockHeader, position);
+            blockHeader.flip();
+            long syncAt;
+            try {
+                readVarLong(blockHeader); // record count
+                long length = readVarLong(blockHeader);
+                syncAt = position + blockHeader.position() + length;
+            } catch (IllegalStateException e) {
+                throw new FanOutException("Corrupt Avro block header in " + filePath + " at byte offset " + position);
+            }
+            marker.clear();
+            if (syncAt < position || syncAt + SYNC_SIZE > size) {
+                throw new FanOutException("Truncated Avro block in " + filePath + " at byte offset " + position);
+            }
+            readFully(channel, marker, syncAt);
+            if (!Arrays.equals(marker.array(), sync)) {
+                throw new FanOutException("Avro sync marker mismatch in " + filePath + " at byte offset " + syncAt);
+            }
+            position = syncAt + SYNC_SIZE;
+            if (position - start >= chunkBytes) {
+                ranges.add(new Range(start, position));
+                start = position;
+            }
+        }
+        if (position > start) {
+            ranges.add(new Range(start, position));
+        }
+        return ranges;
+    }
+    
+    /**
+     * Decodes a zig-zag varint long, as Avro writes block counts and sizes.
+     */
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                throw new IllegalStateException("Varint runs past the block header");
+            }
+            byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return (value >>> 1) ^ -(value & 1);
+            }
+        }
+        throw new IllegalStateException("Varint longer than 10 bytes");
+    }
+    
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of file at byte offset " + (position + buffer.position()));
+            }
+        }
+    }
+    
+    private static void closeQuietly(Closeable resource) {
+        if (resource != null) {
+            try {
+                resource.close();
+            } catch (IOException e) {
+                log.debug("Error closing {}", resource, e);
+            }
+        }
+    }
+    
+    private record Header(Schema schema, RecordSchema recordSchema, String codec, byte[] sync) {
+    }
+    
+    private record Range(long start, long end) {
+    }
+    
+    /**
+     * Counts the bytes read, so the end of the header is known after it was parsed.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+        
+        CountingInputStream(InputStream input) {
+            super(input);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+    
+    /**
+     * Reads blocks one after another from a stream positioned at a block start, and
+     * decodes the records of each.
+     */
+    private static final class BlockIterator implements Iterator<DataRecord> {
+        private final InputStream input;
+        private final BinaryDecoder blockHeader;
+        private final Header header;
+        private final String fileName;
+        private final List<Schema> fieldSchemas;
+        private final byte[] sync = new byte[SYNC_SIZE];
+        private Inflater inflater;
+        private BinaryDecoder records;
+        private long remaining;
+        
+        BlockIterator(InputStream input, Header header, String fileName) {
+            this.input = input;
+            this.blockHeader = DecoderFactory.get().directBinaryDecoder(input, null);
+            this.header = header;
+            this.fileName = fileName;
+            this.fieldSchemas = header.schema().getType() == Schema.Type.RECORD
+                    ? header.schema().getFields().stream().map(Schema.Field::schema).toList()
+                    : List.of(header.schema());
+        }
+        
+        @Override
+        public boolean hasNext() {
+            try {
+                while (remaining == 0) {
+                    if (!nextBlock()) {
+                        return false;
+                    }
+                }
+            } catch (IOException e) {
+                throw new FanOutException("Failed to read Avro block from " + fileName, e);
+            }
+            return true;
+        }
+        
+        @Override
+        public DataRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object[] values = new Object[fieldSchemas.size()];
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = readValue(fieldSchemas.get(i), records);
+                }
+            } catch (IOException e) {
+                throw new FanOutException("Failed to decode Avro record from " + fileName, e);
+            }
+            remaining--;
+            return DataRecord.builder()
+                    .schema(header.recordSchema())
+                    .values(values)
+                    .build();
+        }
+        
+        private boolean nextBlock() throws IOException {
+            long count;
+            try {
+                count = blockHeader.readLong();
+            } catch (EOFException e) {
+                return false;
+            }
+            long length = blockHeader.readLong();
+            if (count < 0 || length < 0 || length > Integer.MAX_VALUE) {
+                throw new FanOutException("Corrupt Avro block header in " + fileName);
+            }
+            byte[] data = input.readNBytes((int) length);
+            if (data.length < length || input.readNBytes(sync, 0, SYNC_SIZE) < SYNC_SIZE) {
+                throw new FanOutException("Truncated Avro block in " + fileName);
+            }
+            if (!Arrays.equals(sync, header.sync())) {
+                throw new FanOutException("Avro sync marker mismatch in " + fileName);
+            }
+            byte[] decompressed = decompress(data);
+            records = DecoderFactory.get().binaryDecoder(decompressed, records);
+            remaining = count;
+            return true;
+        }
+        
+        private byte[] decompress(byte[] data) throws IOException {
+            return switch (header.codec()) {
+                case CODEC_DEFLATE -> inflate(data);
+                case CODEC_SNAPPY -> unsnappy(data);
+                default -> data;
+            };
+        }
+        
+        /**
+         * Deflate blocks are raw deflate data, without zlib header or checksum.
+         */
+        private byte[] inflate(byte[] data) throws IOException {
+            if (inflater == null) {
+                inflater = new Inflater(true);
+            }
+            inflater.reset();
+            inflater.setInput(data);
+            byte[] out = new byte[Math.max(BUFFER_BYTES, data.length * 4)];
+            int length = 0;
+            try {
+                while (!inflater.finished()) {
+                    if (length == out.length) {
+                        out = Arrays.copyOf(out, out.length << 1);
+                    }
+                    int inflated = inflater.inflate(out, length, out.length - length);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new FanOutException("Truncated deflate data in Avro block of " + fileName);
+                    }
+                    length += inflated;
+                }
+            } catch (DataFormatException e) {
+                throw new FanOutException("Corrupt deflate data in Avro block of " + fileName, e);
+            }
+            return Arrays.copyOf(out, length);
+        }
+        
+        /**
+         * Snappy blocks end with the big-endian CRC32 of the uncompressed data.
+         */
+        private byte[] unsnappy(byte[] data) throws IOException {
+            int length = data.length - 4;
+            if (length < 0) {
+                throw new FanOutException("Truncated snappy data in Avro block of " + fileName);
+            }
+            byte[] out = new byte[Snappy.uncompressedLength(data, 0, length)];
+            Snappy.uncompress(data, 0, length, out, 0);
+            CRC32 crc = new CRC32();
+            crc.update(out);
+            int expected = ByteBuffer.wrap(data, length, 4).getInt();
+            if ((int) crc.getValue() != expected) {
+                throw new FanOutException("Snappy checksum mismatch in Avro block of " + fileName);
+            }
+            return out;
+        }
+        
+        private static Object readValue(Schema schema, Decoder decoder) throws IOException {
+            return switch (schema.getType()) {
+                case NULL -> {
+                    decoder.readNull();
+                    yield null;
+                }
+                case BOOLEAN -> decoder.readBoolean();
+                case INT -> decoder.readInt();
+                case LONG -> decoder.readLong();
+                case FLOAT -> decoder.readFloat();
+                case DOUBLE -> decoder.readDouble();
+                case STRING -> decoder.readString();
+                case BYTES -> {
+                    ByteBuffer bytes = decoder.readBytes(null);
+                    byte[] value = new byte[bytes.remaining()];
+                    bytes.get(value);
+                    yield value;
+                }
+                case FIXED -> {
+                    byte[] value = new byte[schema.getFixedSize()];
+                    decoder.readFixed(value);
+                    yield value;
+                }
+                case ENUM -> schema.getEnumSymbols().get(decoder.readEnum());
+                case UNION -> readValue(schema.getTypes().get(decoder.readIndex()), decoder);
+                case ARRAY -> {
+                    List<Object> values = new ArrayList<>();
+                    for (long n = decoder.readArrayStart(); n != 0; n = decoder.arrayNext()) {
+                        for (long i = 0; i < n; i++) {
+                            values.add(readValue(schema.getElementType(), decoder));
+                        }
+                    }
+                    yield values;
+                }
+                case MAP -> {
+                    Map<String, Object> values = new LinkedHashMap<>();
+                    for (long n = decoder.readMapStart(); n != 0; n = decoder.mapNext()) {
+                        for (long i = 0; i < n; i++) {
+                            values.put(decoder.readString(), readValue(schema.getValueType(), decoder));
+                        }
+                    }
+                    yield values;
+                }
+                case RECORD -> {
+                    Map<String, Object> fields = new LinkedHashMap<>();
+                    for (Schema.Field field : schema.getFields()) {
+                        fields.put(field.name(), readValue(field.schema(), decoder));
+                    }
+                    yield fields;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.Assignment_2.ingestion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.RecordSchema;
+import com.example.Assignment_2.model.Utf8Slice;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads CSV files with {@link CsvTokenizer} instead of commons-csv.
+ * Selected with fanout.input.fileType: csv-bytes.
+ *
+ * Values are {@link Utf8Slice}s over one byte[] copy of each row rather than one String
+ * per cell; a String is only decoded if something asks for it. The JSON, Protobuf and
+ * Avro transformers copy the bytes straight into their output, which pays off most on
+ * wide files where many cells are never looked at individually.
+ *
+ * With fanout.input.parallelism above 1 the file is split and parsed in parallel the same
+ * way as {@link CsvFileReader}.
+ */
+@Slf4j
+@Component
+public class ByteCsvFileReader implements FileReader {
+    
+    private static final byte COMMA = ',';
+    
+    private final int parallelism;
+    private final long chunkBytes;
+    
+    public ByteCsvFileReader() {
+        this(1, FileChunks.DEFAULT_CHUNK_BYTES);
+    }
+    
+    @Autowired
+    public ByteCsvFileReader(FanOutConfig config) {
+        this(config.getInput().getParallelism(), FileChunks.DEFAULT_CHUNK_BYTES);
+    }
+    
+    ByteCsvFileReader(int parallelism, long chunkBytes) {
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkBytes = chunkBytes;
+    }
+    
+    @Override
+    public Stream<DataRecord> readRecords(String filePath) {
+        return readRecords(filePath, 0);
+    }
+    
+    @Override
+    public Stream<DataRecord> readRecords(String filePath, long fromOffset) {
+        if (parallelism > 1) {
+            return readRecordsParallel(filePath, fromOffset);
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+            long headerEnd = FileChunks.nextRecordStart(channel, 0, false);
+            RecordSchema schema = readHeader(channel, headerEnd, filePath);
+            long start = Math.max(headerEnd, fromOffset);
+            channel.position(start);
+            
+            InputStream input = Channels.newInputStream(channel);
+            CsvTokenizer tokenizer = new CsvTokenizer(input, COMMA, CsvTokenizer.DEFAULT_BUFFER_SIZE);
+            return stream(tokenizer, schema, start, input, filePath);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(channel);
+            throw readError(filePath, e);
+        }
+    }
+    
+    @Override
+    public Stream<DataRecord> readRecords(InputStream input, String fileName) {
+        try {
+            CsvTokenizer tokenizer = new CsvTokenizer(input, COMMA, CsvTokenizer.DEFAULT_BUFFER_SIZE);
+            RecordSchema schema = readHeader(tokenizer, fileName);
+            return stream(tokenizer, schema, -1, input, fileName);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(input);
+            throw readError(fileName, e);
+        }
+    }
+    
+    @Override
+    public boolean canHandle(String filePath) {
+        return filePath.toLowerCase().endsWith(".csv");
+    }
+    
+    @Override
+    public boolean hasHeaderLine() {
+        return true;
+    }
+    
+    @Override
+    public String getFileType() {
+        return "csv-bytes";
+    }
+    
+    /**
+     * @param baseOffset File offset the tokenizer starts at, or -1 if unknown
+     */
+    private Stream<DataRecord> stream(CsvTokenizer tokenizer, RecordSchema schema, long baseOffset,
+                                      InputStream input, String fileName) {
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(new RecordIterator(tokenizer, schema, baseOffset),
+                                Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(() -> {
+                    try {
+                        input.close();
+                    } catch (IOException e) {
+                        log.error("Error closing CSV file {}", fileName, e);
+                    }
+                });
+    }
+    
+    private Stream<DataRecord> readRecordsParallel(String filePath, long fromOffset) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+            long headerEnd = FileChunks.nextRecordStart(channel, 0, false);
+            RecordSchema schema = readHeader(channel, headerEnd, filePath);
+            List<FileChunks.Chunk> chunks = FileChunks.split(channel, Math.max(headerEnd, fromOffset),
+                    parallelism, chunkBytes, true);
+            log.info("Reading {} in {} chunk(s) on {} threads", filePath, chunks.size(), parallelism);
+            
+            FileChannel source = channel;
+            List<Callable<List<DataRecord>>> tasks = new ArrayList<>(chunks.size());
+            for (FileChunks.Chunk chunk : chunks) {
+                tasks.add(() -> parseChunk(source, chunk, schema));
+            }
+            return OrderedChunkStream.of(tasks, parallelism, "Csv-Reader-", () -> {
+                try {
+                    source.close();
+                } catch (IOException e) {
+                    log.error("Error closing CSV file {}", filePath, e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(channel);
+            throw readError(filePath, e);
+        }
+    }
+    
+    private List<DataRecord> parseChunk(FileChannel channel, FileChunks.Chunk chunk,
+                                        RecordSchema schema) throws IOException {
+        byte[] bytes = copy(channel, chunk);
+        CsvTokenizer tokenizer = new CsvTokenizer(bytes, bytes.length, COMMA);
+        List<DataRecord> records = new ArrayList<>();
+        new RecordIterator(tokenizer, schema, chunk.start()).forEachRemaining(records::add);
+        return records;
+    }
+    
+    private static byte[] copy(FileChannel channel, FileChunks.Chunk chunk) throws IOException {
+        MappedByteBuffer buffer = FileChunks.map(channel, chunk);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+    
+    private static RecordSchema readHeader(FileChannel channel, long headerEnd, String filePath) throws IOException {
+        return readHeader(new CsvTokenizer(copy(channel, new FileChunks.Chunk(0, headerEnd)), (int) headerEnd, COMMA),
+                filePath);
+    }
+    
+    private static RecordSchema readHeader(CsvTokenizer tokenizer, String filePath) throws IOException {
+        int count = tokenizer.nextRow();
+        if (count < 0) {
+            return RecordSchema.EMPTY;
+        }
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = tokenizer.field(i);
+        }
+        try {
+            return RecordSchema.of(names);
+        } catch (IllegalArgumentException e) {
+            throw new FanOutException("Invalid CSV header in " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private static FanOutException readError(String fileName, Exception e) {
+        if (e instanceof FanOutException fanOutException) {
+            return fanOutException;
+        }
+        return new FanOutException("Failed to read CSV file: " + fileName, e);
+    }
+    
+    private static void closeQuietly(Closeable resource) {
+        if (resource != null) {
+            try {
+                resource.close();
+            } catch (IOException e) {
+                log.debug("Error closing {}", resource, e);
+            }
+        }
+    }
+    
+    /**
+     * Pulls one record per row from a tokenizer positioned after the header.
+     */
+    private static final class RecordIterator implements Iterator<DataRecord> {
+        private final CsvTokenizer tokenizer;
+        private final RecordSchema schema;
+        private final long baseOffset;
+        private int fieldCount = -2; // -2 = not read yet, -1 = end of input
+        
+        RecordIterator(CsvTokenizer tokenizer, RecordSchema schema, long baseOffset) {
+            this.tokenizer = tokenizer;
+            this.schema = schema;
+            this.baseOffset = baseOffset;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (fieldCount == -2) {
+                try {
+                    fieldCount = tokenizer.nextRow();
+                } catch (IOException e) {
+                    throw new FanOutException("Failed to read CSV row " + (tokenizer.rowNumber() + 1), e);
+                }
+            }
+            return fieldCount >= 0;
+        }
+        
+        @Override
+        public DataRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            for (int i = fieldCount; i < schema.size(); i++) {
+                log.warn("Missing field: {}", schema.name(i));
+            }
+            Object[] values = tokenizer.values(schema.size());
+            fieldCount = -2;
+            return DataRecord.builder()
+                    .offset(baseOffset >= 0 ? baseOffset + tokenizer.position() : 0)
+                    .schema(schema)
+                    .values(values)
+                    .build();
+        }
+    }
+}
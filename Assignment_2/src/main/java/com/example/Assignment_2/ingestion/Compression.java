@@ -0,0 +1,112 @@
+package com.example.Assignment_2.ingestion;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compressed input formats, recognized by file extension.
+ *
+ * The compression extension is stripped before a reader is chosen, so data.csv.gz is read
+ * by the CSV reader from a decompressing stream. Nothing is staged on disk.
+ */
+@Slf4j
+enum Compression {
+    NONE(""),
+    GZIP(".gz"),
+    /** zlib-wrapped deflate, as written by DeflaterOutputStream */
+    DEFLATE(".deflate", ".zz");
+    
+    /** Compressed bytes read from disk per call. */
+    static final int INPUT_BUFFER_BYTES = 1 << 20;
+    /** Decompressed bytes produced per call. */
+    static final int OUTPUT_BUFFER_BYTES = 1 << 16;
+    /** Average member size above which parallel gzip decoding would hold too much in memory. */
+    private static final long MAX_PARALLEL_MEMBER_BYTES = 64L << 20;
+    
+    private final String[] extensions;
+    
+    Compression(String... extensions) {
+        this.extensions = extensions;
+    }
+    
+    /**
+     * @param filePath Path to a file
+     * @return Compression of the file, NONE if the extension is not a compressed one
+     */
+    static Compression of(String filePath) {
+        String lower = filePath.toLowerCase(Locale.ROOT);
+        for (Compression compression : values()) {
+            for (String extension : compression.extensions) {
+                if (!extension.isEmpty() && lower.endsWith(extension)) {
+                    return compression;
+                }
+            }
+        }
+        return NONE;
+    }
+    
+    /**
+     * @param filePath Path to a file
+     * @return The path without its compression extension
+     */
+    static String stripExtension(String filePath) {
+        String lower = filePath.toLowerCase(Locale.ROOT);
+        for (String extension : of(filePath).extensions) {
+            if (!extension.isEmpty() && lower.endsWith(extension)) {
+                return filePath.substring(0, filePath.length() - extension.length());
+            }
+        }
+        return filePath;
+    }
+    
+    /**
+     * Opens a decompressing stream over a file.
+     * Gzip files made of several members are decoded member by member on up to
+     * {@code parallelism} threads, still in file order.
+     * @param file The compressed file
+     * @param parallelism Threads for multi-member gzip decoding
+     * @return Stream of decompressed bytes
+     * @throws IOException if the file cannot be opened
+     */
+    InputStream open(Path file, int parallelism) throws IOException {
+        return switch (this) {
+            case NONE -> new BufferedInputStream(Files.newInputStream(file), INPUT_BUFFER_BYTES);
+            case DEFLATE -> new InflaterInputStream(
+                    new BufferedInputStream(Files.newInputStream(file), INPUT_BUFFER_BYTES),
+                    new Inflater(), OUTPUT_BUFFER_BYTES);
+            case GZIP -> openGzip(file, parallelism);
+        };
+    }
+    
+    private static InputStream openGzip(Path file, int parallelism) throws IOException {
+        if (parallelism > 1) {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                List<Long> members = GzipMembers.candidates(channel);
+                if (members.size() > 1 && channel.size() / members.size() <= MAX_PARALLEL_MEMBER_BYTES) {
+                    log.info("Decoding {} gzip member(s) of {} on {} threads", members.size(), file, parallelism);
+                    return new ParallelGzipInputStream(channel, members, parallelism);
+                }
+                channel.close();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        // GZIPInputStream reads concatenated members one after another by itself
+        return new GZIPInputStream(
+                new BufferedInputStream(Files.newInputStream(file), INPUT_BUFFER_BYTES), OUTPUT_BUFFER_BYTES);
+    }
+}
@@ -1,48 +1,99 @@
 package com.example.Assignment_2.ingestion;
 
+import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.stream.Stream;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.example.Assignment_2.config.FanOutConfig;
 import com.example.Assignment_2.exception.FanOutException;
 import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.RecordSchema;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Reads CSV files with support for different delimiters and formats.
+ *
+ * The header row becomes one RecordSchema shared by every record of the file; each row
+ * only carries its values, by column index.
+ *
+ * With fanout.input.parallelism above 1 the file is memory-mapped, split into chunks
+ * aligned on record boundaries (quoted newlines included) and parsed on that many threads.
+ * Records are still returned in file order.
  */
 @Slf4j
 @Component
 public class CsvFileReader implements FileReader {
     
+    private final int parallelism;
+    private final long chunkBytes;
+    
+    public CsvFileReader() {
+        this(1, FileChunks.DEFAULT_CHUNK_BYTES);
+    }
+    
+    @Autowired
+    public CsvFileReader(FanOutConfig config) {
+        this(config.getInput().getParallelism(), FileChunks.DEFAULT_CHUNK_BYTES);
+    }
+    
+    CsvFileReader(int parallelism, long chunkBytes) {
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkBytes = chunkBytes;
+    }
+    
     @Override
     public Stream<DataRecord> readRecords(String filePath) {
+        if (parallelism > 1) {
+            return readRecordsParallel(filePath);
+        }
+        try {
+            return readRecords(Files.newInputStream(Paths.get(filePath)), filePath);
+        } catch (IOException e) {
+            throw new FanOutException("Failed to read CSV file: " + filePath, e);
+        }
+    }
+    
+    @Override
+    public Stream<DataRecord> readRecords(InputStream input, String fileName) {
         try {
             CSVParser csvParser = CSVFormat.DEFAULT
                     .withFirstRecordAsHeader()
-                    .parse(Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8));
+                    .parse(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+            RecordSchema schema = schemaOf(csvParser.getHeaderNames(), fileName);
             
             return csvParser.stream()
-                    .map(this::parseRecord)
+                    .map(csvRecord -> parseRecord(csvRecord, schema))
                     .onClose(() -> {
                         try {
                             csvParser.close();
                         } catch (IOException e) {
-                            log.error("Error closing CSV parser for {}", filePath, e);
+                            log.error("Error closing CSV parser for {}", fileName, e);
                         }
                     });
-        } catch (IOException e) {
-            throw new FanOutException("Failed to read CSV file: " + filePath, e);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(input);
+            if (e instanceof FanOutException fanOutException) {
+                throw fanOutException;
+            }
+            throw new FanOutException("Failed to read CSV file: " + fileName, e);
         }
     }
     
@@ -51,20 +102,102 @@ public class CsvFileReader implements FileReader {
         return filePath.toLowerCase().endsWith(".csv");
     }
     
-    private DataRecord parseRecord(CSVRecord csvRecord) {
-        Map<String, Object> fields = new HashMap<>();
-        
-        for (String header : csvRecord.getParser().getHeaderNames()) {
+    @Override
+    public boolean hasHeaderLine() {
+        return true;
+    }
+    
+    @Override
+    public String getFileType() {
+        return "csv";
+    }
+    
+    private Stream<DataRecord> readRecordsParallel(String filePath) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+            long headerEnd = FileChunks.nextRecordStart(channel, 0, false);
+            RecordSchema schema = schemaOf(parseHeader(channel, headerEnd), filePath);
+            List<FileChunks.Chunk> chunks = FileChunks.split(channel, headerEnd, parallelism, chunkBytes, true);
+            log.info("Reading {} in {} chunk(s) on {} threads", filePath, chunks.size(), parallelism);
+            
+            FileChannel source = channel;
+            List<Callable<List<DataRecord>>> tasks = new ArrayList<>(chunks.size());
+            for (FileChunks.Chunk chunk : chunks) {
+                tasks.add(() -> parseChunk(source, chunk, schema));
+            }
+            return OrderedChunkStream.of(tasks, parallelism, "Csv-Reader-", () -> {
+                try {
+                    source.close();
+                } catch (IOException e) {
+                    log.error("Error closing CSV file {}", filePath, e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(channel);
+            if (e instanceof FanOutException fanOutException) {
+                throw fanOutException;
+            }
+            throw new FanOutException("Failed to read CSV file: " + filePath, e);
+        }
+    }
+    
+    private List<String> parseHeader(FileChannel channel, long headerEnd) throws IOException {
+        if (headerEnd == 0) {
+            return List.of();
+        }
+        String headerLine = StandardCharsets.UTF_8
+                .decode(FileChunks.map(channel, new FileChunks.Chunk(0, headerEnd)))
+                .toString();
+        try (CSVParser parser = CSVParser.parse(headerLine, CSVFormat.DEFAULT)) {
+            List<CSVRecord> records = parser.getRecords();
+            return records.isEmpty() ? List.of() : records.get(0).toList();
+        }
+    }
+    
+    private List<DataRecord> parseChunk(FileChannel channel, FileChunks.Chunk chunk,
+                                        RecordSchema schema) throws IOException {
+        String text = StandardCharsets.UTF_8.decode(FileChunks.map(channel, chunk)).toString();
+        List<DataRecord> records = new ArrayList<>();
+        try (CSVParser parser = CSVParser.parse(text, CSVFormat.DEFAULT)) {
+            for (CSVRecord csvRecord : parser) {
+                records.add(parseRecord(csvRecord, schema));
+            }
+        }
+        return records;
+    }
+    
+    private void closeQuietly(Closeable resource) {
+        if (resource != null) {
             try {
-                fields.put(header, csvRecord.get(header));
-            } catch (IllegalArgumentException e) {
-                log.warn("Missing field: {}", header);
-                fields.put(header, null);
+                resource.close();
+            } catch (IOException e) {
+                log.debug("Error closing {}", resource, e);
             }
         }
+    }
+    
+    private RecordSchema schemaOf(List<String> headers, String filePath) {
+        try {
+            return RecordSchema.of(headers);
+        } catch (IllegalArgumentException e) {
+            throw new FanOutException("Invalid CSV header in " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private DataRecord parseRecord(CSVRecord csvRecord, RecordSchema schema) {
+        Object[] values = new Object[schema.size()];
+        int present = Math.min(values.length, csvRecord.size());
+        for (int i = 0; i < present; i++) {
+            values[i] = csvRecord.get(i);
+        }
+        for (int i = present; i < values.length; i++) {
+            log.warn("Missing field: {}", schema.name(i));
+        }
         
         return DataRecord.builder()
-                .fields(fields)
+                .schema(schema)
+                .values(values)
                 .build();
     }
 }
@@ -0,0 +1,298 @@
+package com.example.Assignment_2.ingestion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.Utf8Slice;
+
+/**
+ * RFC 4180 tokenizer over UTF-8 bytes.
+ *
+ * Rows are scanned in a reused input buffer. Unquoted fields are skipped eight bytes at a
+ * time, looking for the delimiter or a line break in a whole long at once; quoted fields
+ * jump from quote to quote the same way. Field contents, with doubled quotes collapsed,
+ * go into a reused row buffer as offset/length pairs, so a row costs no allocation until
+ * {@link #values(int)} copies it out.
+ *
+ * Blank lines are skipped. Rows end at LF, CR or CRLF.
+ */
+final class CsvTokenizer {
+    
+    static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    
+    private final InputStream in;
+    private final byte delimiter;
+    private final long delimiters;
+    
+    private byte[] buf;
+    private int pos;
+    private int limit;
+    private boolean eof;
+    
+    private byte[] row = new byte[256];
+    private int rowLength;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fieldCount;
+    private long rowNumber;
+    private long discarded;
+    
+    /**
+     * Tokenizes a stream, reading it through a buffer of the given size.
+     * @param in Source of UTF-8 bytes
+     * @param delimiter Field delimiter
+     * @param bufferSize Initial input buffer size; grows for rows that do not fit
+     */
+    CsvTokenizer(InputStream in, byte delimiter, int bufferSize) {
+        this.in = in;
+        this.delimiter = delimiter;
+        this.delimiters = broadcast(delimiter);
+        this.buf = new byte[Math.max(bufferSize, 16)];
+    }
+    
+    /**
+     * Tokenizes bytes already in memory.
+     * @param bytes Source of UTF-8 bytes
+     * @param length Number of bytes to read from the start of the array
+     * @param delimiter Field delimiter
+     */
+    CsvTokenizer(byte[] bytes, int length, byte delimiter) {
+        this.in = null;
+        this.delimiter = delimiter;
+        this.delimiters = broadcast(delimiter);
+        this.buf = bytes;
+        this.limit = length;
+        this.eof = true;
+    }
+    
+    /**
+     * Advances to the next non-blank row.
+     * @return Number of fields in the row, or -1 at the end of the input
+     * @throws IOException if the stream cannot be read
+     */
+    int nextRow() throws IOException {
+        while (true) {
+            int rowStart = pos;
+            int next = tokenize();
+            if (next >= 0) {
+                pos = next;
+                if (fieldCount == 1 && (buf[rowStart] == LF || buf[rowStart] == CR)) {
+                    continue;
+                }
+                rowNumber++;
+                return fieldCount;
+            }
+            if (eof) {
+                return -1;
+            }
+            fill();
+        }
+    }
+    
+    /**
+     * @param index Field index in the current row
+     * @return The field decoded as a String
+     */
+    String field(int index) {
+        return new String(row, starts[index], ends[index] - starts[index], StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Copies the current row into a new array and returns lazy slices over it.
+     * Missing trailing fields are null; extra fields are dropped.
+     * @param width Number of values to return
+     * @return One {@link Utf8Slice} per field
+     */
+    Object[] values(int width) {
+        byte[] copy = Arrays.copyOf(row, rowLength);
+        Object[] values = new Object[width];
+        int present = Math.min(width, fieldCount);
+        for (int i = 0; i < present; i++) {
+            values[i] = new Utf8Slice(copy, starts[i], ends[i] - starts[i]);
+        }
+        return values;
+    }
+    
+    /**
+     * @return 1-based number of the current row among non-blank rows
+     */
+    long rowNumber() {
+        return rowNumber;
+    }
+    
+    /**
+     * @return Number of input bytes consumed so far, up to the end of the current row
+     */
+    long position() {
+        return discarded + pos;
+    }
+    
+    /**
+     * Tokenizes one row starting at pos.
+     * @return Position after the row, or -1 if the buffer ends first (always -1 at the end of input)
+     */
+    private int tokenize() {
+        int p = pos;
+        if (p == limit) {
+            return -1;
+        }
+        rowLength = 0;
+        fieldCount = 0;
+        while (true) {
+            int fieldStart = rowLength;
+            if (p < limit && buf[p] == QUOTE) {
+                p++;
+                while (true) {
+                    int q = indexOfQuote(p);
+                    if (q < 0) {
+                        if (eof) {
+                            throw new FanOutException("Unterminated quoted field in CSV row " + (rowNumber + 1));
+                        }
+                        return -1;
+                    }
+                    append(p, q - p);
+                    if (q + 1 == limit && !eof) {
+                        // Can't tell a closing quote from the first half of "" yet
+                        return -1;
+                    }
+                    if (q + 1 < limit && buf[q + 1] == QUOTE) {
+                        append(q, 1);
+                        p = q + 2;
+                    } else {
+                        p = q + 1;
+                        break;
+                    }
+                }
+                if (p < limit && buf[p] != delimiter && buf[p] != CR && buf[p] != LF) {
+                    throw new FanOutException("Invalid character after closing quote in CSV row " + (rowNumber + 1));
+                }
+            } else {
+                int q = indexOfSpecial(p);
+                if (q < 0) {
+                    if (!eof) {
+                        return -1;
+                    }
+                    q = limit;
+                }
+                append(p, q - p);
+                p = q;
+            }
+            addField(fieldStart);
+            
+            if (p == limit) {
+                // Only reached at the end of input; otherwise we returned -1 above
+                return p;
+            }
+            byte b = buf[p++];
+            if (b == delimiter) {
+                continue;
+            }
+            if (b == CR) {
+                if (p == limit && !eof) {
+                    return -1;
+                }
+                if (p < limit && buf[p] == LF) {
+                    p++;
+                }
+            }
+            return p;
+        }
+    }
+    
+    private void append(int from, int length) {
+        if (rowLength + length > row.length) {
+            row = Arrays.copyOf(row, Math.max(row.length << 1, rowLength + length));
+        }
+        System.arraycopy(buf, from, row, rowLength, length);
+        rowLength += length;
+    }
+    
+    private void addField(int start) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount << 1);
+            ends = Arrays.copyOf(ends, fieldCount << 1);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount++] = rowLength;
+    }
+    
+    /**
+     * Moves the unread bytes to the front of the buffer and reads more after them.
+     */
+    private void fill() throws IOException {
+        if (pos > 0) {
+            discarded += pos;
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        } else if (limit == buf.length) {
+            // A single row fills the buffer
+            buf = Arrays.copyOf(buf, buf.length << 1);
+        }
+        int read = in.read(buf, limit, buf.length - limit);
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+        }
+    }
+    
+    private int indexOfSpecial(int from) {
+        int i = from;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            long word = (long) LONGS.get(buf, i);
+            long found = zeroBytes(word ^ delimiters) | zeroBytes(word ^ (ONES * LF)) | zeroBytes(word ^ (ONES * CR));
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < limit; i++) {
+            byte b = buf[i];
+            if (b == delimiter || b == LF || b == CR) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private int indexOfQuote(int from) {
+        int i = from;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            long found = zeroBytes((long) LONGS.get(buf, i) ^ (ONES * QUOTE));
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < limit; i++) {
+            if (buf[i] == QUOTE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static long broadcast(byte b) {
+        return ONES * (b & 0xFF);
+    }
+    
+    /**
+     * Sets the high bit of each zero byte. Bits above the lowest zero byte can be false
+     * positives, so only the lowest set bit is meaningful.
+     */
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGH_BITS;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.Assignment_2.ingestion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.example.Assignment_2.exception.FanOutException;
+
+/**
+ * Splits a memory-mapped file into byte ranges that start and end on record boundaries,
+ * so each range can be parsed on its own thread.
+ *
+ * Records end at a newline. For quote-aware formats (CSV) a newline inside a quoted field
+ * does not end a record: the quotes of each raw range are counted in parallel first, and
+ * the running parity tells whether a range starts inside quotes. A doubled quote ("")
+ * toggles the parity twice, so escaped quotes need no special handling.
+ */
+final class FileChunks {
+    
+    /** Target size of one chunk; large files get more chunks than worker threads. */
+    static final long DEFAULT_CHUNK_BYTES = 16L << 20;
+    
+    private static final byte NEWLINE = '\n';
+    private static final byte QUOTE = '"';
+    
+    /**
+     * A byte range of the file holding whole records.
+     * @param start Offset of the first byte
+     * @param length Number of bytes
+     */
+    record Chunk(long start, long length) {
+    }
+    
+    private FileChunks() {
+    }
+    
+    /**
+     * Splits the file from an offset to its end into chunks aligned on record boundaries.
+     * @param channel Open file channel
+     * @param from Offset of the first record
+     * @param minChunks Minimum number of chunks to aim for, usually the number of workers
+     * @param chunkBytes Target chunk size
+     * @param quoteAware Whether newlines inside double quotes belong to the record
+     * @return Chunks covering [from, size) in file order
+     * @throws IOException if the file cannot be mapped
+     */
+    static List<Chunk> split(FileChannel channel, long from, int minChunks,
+                             long chunkBytes, boolean quoteAware) throws IOException {
+        long size = channel.size();
+        long length = size - from;
+        if (length <= 0) {
+            return List.of();
+        }
+        int count = (int) Math.min(length, Math.max(minChunks, (length + chunkBytes - 1) / chunkBytes));
+        long step = length / count;
+        
+        boolean[] startsInQuote = new boolean[count];
+        if (quoteAware && count > 1) {
+            long[] quotes = countQuotes(channel, from, step, count, size);
+            long running = 0;
+            for (int i = 0; i < count; i++) {
+                startsInQuote[i] = (running & 1) == 1;
+                running += quotes[i];
+            }
+        }
+        
+        List<Chunk> chunks = new ArrayList<>(count);
+        long start = from;
+        for (int i = 1; i < count; i++) {
+            long rawStart = from + i * step;
+            if (rawStart <= start) {
+                continue; // the previous boundary search ran past this range
+            }
+            long boundary = nextRecordStart(channel, rawStart, startsInQuote[i]);
+            if (boundary >= size) {
+                break;
+            }
+            chunks.add(new Chunk(start, boundary - start));
+            start = boundary;
+        }
+        chunks.add(new Chunk(start, size - start));
+        return chunks;
+    }
+    
+    /**
+     * Splits fixed-length records into chunks without scanning: every boundary is a
+     * multiple of the record length.
+     * @param size File size
+     * @param from Offset of the first record
+     * @param recordLength Bytes per record
+     * @param minChunks Minimum number of chunks to aim for, usually the number of workers
+     * @param chunkBytes Target chunk size
+     * @return Chunks covering [from, size) in file order
+     */
+    static List<Chunk> splitFixed(long size, long from, int recordLength, int minChunks, long chunkBytes) {
+        long length = size - from;
+        if (length <= 0) {
+            return List.of();
+        }
+        long records = (length + recordLength - 1) / recordLength;
+        long perChunk = Math.max(1, Math.min(chunkBytes / recordLength, (records + minChunks - 1) / minChunks));
+        List<Chunk> chunks = new ArrayList<>();
+        for (long start = from; start < size; start += perChunk * recordLength) {
+            chunks.add(new Chunk(start, Math.min(perChunk * recordLength, size - start)));
+        }
+        return chunks;
+    }
+    
+    /**
+     * Finds where the record after a position begins.
+     * @param channel Open file channel
+     * @param position Offset to scan from
+     * @param inQuote Whether the position is inside a quoted field
+     * @return Offset just past the first record-ending newline, or the file size if there is none
+     * @throws IOException if the file cannot be mapped
+     */
+    static long nextRecordStart(FileChannel channel, long position, boolean inQuote) throws IOException {
+        long size = channel.size();
+        while (position < size) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(size - position, Integer.MAX_VALUE));
+            int limit = buffer.limit();
+            for (int i = 0; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == QUOTE) {
+                    inQuote = !inQuote;
+                } else if (b == NEWLINE && !inQuote) {
+                    return position + i + 1;
+                }
+            }
+            position += limit;
+        }
+        return size;
+    }
+    
+    /**
+     * Maps a chunk read-only.
+     * @param channel Open file channel
+     * @param chunk The chunk to map
+     * @return Buffer over the chunk's bytes
+     * @throws IOException if the file cannot be mapped
+     */
+    static MappedByteBuffer map(FileChannel channel, Chunk chunk) throws IOException {
+        if (chunk.length() > Integer.MAX_VALUE) {
+            throw new FanOutException("Chunk at offset " + chunk.start() + " is too large to map: "
+                    + chunk.length() + " bytes");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.length());
+    }
+    
+    private static long[] countQuotes(FileChannel channel, long from, long step, int count, long size) throws IOException {
+        try {
+            return IntStream.range(0, count).parallel().mapToLong(i -> {
+                long start = from + i * step;
+                long end = i == count - 1 ? size : start + step;
+                try {
+                    MappedByteBuffer buffer = map(channel, new Chunk(start, end - start));
+                    long quotes = 0;
+                    for (int j = 0, limit = buffer.limit(); j < limit; j++) {
+                        if (buffer.get(j) == QUOTE) {
+                            quotes++;
+                        }
+                    }
+                    return quotes;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).toArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.Assignment_2.ingestion;
 
 import com.example.Assignment_2.model.DataRecord;
+import java.io.InputStream;
 import java.util.stream.Stream;
 
 /**
@@ -15,10 +16,47 @@ public interface FileReader {
      */
     Stream<DataRecord> readRecords(String filePath);
     
+    /**
+     * Reads the records of a file that end after a byte offset, as reported by
+     * {@link DataRecord#getOffset()}; used to resume a run without parsing what was
+     * already sent. A header line is still read from the start of the file.
+     * Readers that cannot seek parse the whole file and drop the records that end at or
+     * before the offset; records without an offset are kept, so nothing is lost.
+     * @param filePath Path to the file
+     * @param fromOffset Offset just past the last record to skip
+     * @return Stream of DataRecord objects
+     */
+    default Stream<DataRecord> readRecords(String filePath, long fromOffset) {
+        return readRecords(filePath)
+                .dropWhile(record -> record.getOffset() > 0 && record.getOffset() <= fromOffset);
+    }
+    
+    /**
+     * Reads records from an open stream of the file's bytes, e.g. a decompressing one.
+     * The records are read in order on the calling thread; closing the returned stream
+     * closes the input.
+     * @param input Bytes of the file
+     * @param fileName Name of the file, for log and error messages
+     * @return Stream of DataRecord objects
+     */
+    Stream<DataRecord> readRecords(InputStream input, String fileName);
+    
     /**
      * Checks if this reader can handle the given file type.
      * @param filePath Path to check
      * @return true if this reader can handle this file type
      */
     boolean canHandle(String filePath);
+    
+    /**
+     * @return true if every file starts with a header line, e.g. CSV column names
+     */
+    default boolean hasHeaderLine() {
+        return false;
+    }
+    
+    /**
+     * @return Value of fanout.input.fileType that selects this reader
+     */
+    String getFileType();
 }
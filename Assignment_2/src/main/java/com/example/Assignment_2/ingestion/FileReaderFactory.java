@@ -1,29 +1,59 @@
 package com.example.Assignment_2.ingestion;
 
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.exception.FanOutException;
 import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.FileProgress;
+import com.example.Assignment_2.resilience.Checkpoint;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
  * Factory for creating appropriate file readers based on file type.
  * Uses strategy pattern to handle different file formats.
+ *
+ * fanout.input.fileType picks between readers that can all handle a file's extension,
+ * e.g. csv (commons-csv) or csv-bytes (byte-level tokenizer) for .csv files. If it names
+ * no such reader, the first one matching the extension is used.
+ *
+ * {@link #readInput(String)} also accepts a directory or glob. Each matching file gets
+ * the reader for its own extension, so one input can mix formats, and
+ * fanout.input.fileConcurrency files are read at the same time.
+ *
+ * Files ending in .gz, .deflate or .zz are decompressed while they are read; the reader is
+ * chosen by the name without that extension, so data.csv.gz goes to the CSV reader.
  */
 @Slf4j
 @Component
 public class FileReaderFactory {
     
     private final List<FileReader> readers;
+    private final FanOutConfig.InputConfig input;
+    private final List<FileProgress> fileProgress = new CopyOnWriteArrayList<>();
+    private volatile TailInputStream follower;
     
     @Autowired
-    public FileReaderFactory(JsonlFileReader jsonlReader, 
+    public FileReaderFactory(FanOutConfig config,
+                            JsonlFileReader jsonlReader, 
                             CsvFileReader csvReader,
-                            FixedWidthFileReader fixedWidthReader) {
-        this.readers = Arrays.asList(jsonlReader, csvReader, fixedWidthReader);
+                            ByteCsvFileReader byteCsvReader,
+                            FixedWidthFileReader fixedWidthReader,
+                            AvroFileReader avroReader) {
+        this.readers = Arrays.asList(jsonlReader, csvReader, byteCsvReader, fixedWidthReader, avroReader);
+        this.input = config.getInput();
     }
     
     /**
@@ -33,11 +63,17 @@ public class FileReaderFactory {
      * @throws IllegalArgumentException if no suitable reader found
      */
     public FileReader getReader(String filePath) {
-        return readers.stream()
-                .filter(reader -> reader.canHandle(filePath))
+        String uncompressedPath = Compression.stripExtension(filePath);
+        List<FileReader> candidates = readers.stream()
+                .filter(reader -> reader.canHandle(uncompressedPath))
+                .toList();
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("No suitable reader found for file: " + filePath);
+        }
+        return candidates.stream()
+                .filter(reader -> reader.getFileType().equalsIgnoreCase(input.getFileType()))
                 .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException(
-                    "No suitable reader found for file: " + filePath));
+                .orElse(candidates.get(0));
     }
     
     /**
@@ -47,7 +83,153 @@ public class FileReaderFactory {
      */
     public Stream<DataRecord> readRecords(String filePath) {
         FileReader reader = getReader(filePath);
-        log.info("Using reader: {} for file: {}", reader.getClass().getSimpleName(), filePath);
-        return reader.readRecords(filePath);
+        Compression compression = Compression.of(filePath);
+        if (compression == Compression.NONE) {
+            log.info("Using reader: {} for file: {}", reader.getClass().getSimpleName(), filePath);
+            return reader.readRecords(filePath);
+        }
+        
+        log.info("Using reader: {} for {} compressed file: {}", reader.getClass().getSimpleName(),
+                compression, filePath);
+        InputStream decompressed;
+        try {
+            decompressed = compression.open(Paths.get(filePath), input.getParallelism());
+        } catch (IOException e) {
+            throw new FanOutException("Failed to open compressed file: " + filePath, e);
+        }
+        return reader.readRecords(decompressed, filePath);
+    }
+    
+    /**
+     * Reads records from a file, a directory or a glob.
+     * Several files are read concurrently and their records merged into one stream; each
+     * record's source is set to its file, and with per-file sequence numbering its
+     * sequence number restarts at 1 for every file.
+     * @param inputPath A file, directory or glob
+     * @return Stream of DataRecord objects
+     * @throws FanOutException if a directory or glob matches no readable file
+     */
+    public Stream<DataRecord> readInput(String inputPath) {
+        fileProgress.clear();
+        if (!InputFiles.isMultiFile(inputPath)) {
+            return readRecords(inputPath);
+        }
+        
+        List<FileProgress> files = new ArrayList<>();
+        for (Path file : InputFiles.resolve(inputPath)) {
+            String path = file.toString();
+            String uncompressedPath = Compression.stripExtension(path);
+            if (readers.stream().noneMatch(reader -> reader.canHandle(uncompressedPath))) {
+                log.warn("Skipping input file {}: no reader for this file type", path);
+                continue;
+            }
+            files.add(new FileProgress(path, sizeOf(file)));
+        }
+        if (files.isEmpty()) {
+            throw new FanOutException("No readable input files match: " + inputPath);
+        }
+        fileProgress.addAll(files);
+        
+        int concurrency = Math.max(1, input.getFileConcurrency());
+        log.info("Reading {} file(s) from {}, {} at a time, {} sequence numbers", files.size(), inputPath,
+                Math.min(concurrency, files.size()), input.isPerFileSequence() ? "per-file" : "global");
+        return MultiFileStream.of(files, concurrency, input.isPerFileSequence(),
+                file -> readRecords(file.toString()));
+    }
+    
+    /**
+     * Reads the records of a single file that come after a checkpoint.
+     * If the checkpoint has a byte offset from the same reader, the reader starts right
+     * there; otherwise the file is parsed from the start and the records up to the
+     * checkpoint's sequence number are skipped.
+     * @param filePath Path to the file
+     * @param checkpoint Where the previous run got to
+     * @return Stream of the remaining DataRecord objects
+     */
+    public Stream<DataRecord> resumeInput(String filePath, Checkpoint checkpoint) {
+        fileProgress.clear();
+        FileReader reader = getReader(filePath);
+        if (checkpoint.offset() > 0 && Compression.of(filePath) == Compression.NONE
+                && reader.getFileType().equalsIgnoreCase(checkpoint.fileType())) {
+            log.warn("Resuming {} after record {} at byte offset {}", filePath, checkpoint.sequence(),
+                    checkpoint.offset());
+            return reader.readRecords(filePath, checkpoint.offset());
+        }
+        log.warn("Resuming {} after record {}, skipping the records before it", filePath, checkpoint.sequence());
+        return readRecords(filePath).skip(checkpoint.sequence());
+    }
+    
+    /**
+     * @param inputPath A file, directory or glob
+     * @return true if the input can match more than one file
+     */
+    public boolean isMultiFile(String inputPath) {
+        return InputFiles.isMultiFile(inputPath);
+    }
+    
+    /**
+     * Reads records from a file, or a directory of rolled files, and keeps reading what is
+     * appended until {@link #stopFollowing()} is called.
+     * A directory is read with the reader for fanout.input.fileType, oldest file first;
+     * when a newer file appears, the current one is finished and the newer one followed.
+     * @param inputPath A file or directory
+     * @return Endless stream of DataRecord objects
+     * @throws FanOutException if the input cannot be followed
+     */
+    public Stream<DataRecord> followInput(String inputPath) {
+        fileProgress.clear();
+        Path path = Paths.get(inputPath);
+        boolean glob = InputFiles.isMultiFile(inputPath) && !Files.isDirectory(path);
+        if (glob || Compression.of(inputPath) != Compression.NONE) {
+            throw new FanOutException("Follow mode needs an uncompressed file or a directory: " + inputPath);
+        }
+        FileReader reader = Files.isDirectory(path) ? getReaderForType() : getReader(inputPath);
+        Predicate<Path> accept = file -> Compression.of(file.toString()) == Compression.NONE
+                && reader.canHandle(file.toString());
+        try {
+            follower = new TailInputStream(path, accept, reader.hasHeaderLine(), input.getFollowPollMs());
+        } catch (IOException e) {
+            throw new FanOutException("Failed to follow input: " + inputPath, e);
+        }
+        log.info("Following {} with reader: {}", inputPath, reader.getClass().getSimpleName());
+        return reader.readRecords(follower, inputPath);
+    }
+    
+    /**
+     * Ends the stream returned by {@link #followInput(String)}. Safe to call from any thread;
+     * a reader blocked waiting for new data returns at once.
+     */
+    public void stopFollowing() {
+        TailInputStream current = follower;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.warn("Error closing followed input", e);
+            }
+        }
+    }
+    
+    /**
+     * Returns the progress of each file of the last multi-file input.
+     * @return Progress by file, empty for single-file input
+     */
+    public List<FileProgress> getFileProgress() {
+        return fileProgress;
+    }
+    
+    private FileReader getReaderForType() {
+        return readers.stream()
+                .filter(reader -> reader.getFileType().equalsIgnoreCase(input.getFileType()))
+                .findFirst()
+                .orElseThrow(() -> new FanOutException("Unknown fanout.input.fileType: " + input.getFileType()));
+    }
+    
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
     }
 }
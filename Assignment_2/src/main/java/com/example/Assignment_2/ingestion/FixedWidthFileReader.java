@@ -1,14 +1,27 @@
 package com.example.Assignment_2.ingestion;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.example.Assignment_2.config.FanOutConfig;
 import com.example.Assignment_2.exception.FanOutException;
 import com.example.Assignment_2.model.DataRecord;
 
@@ -17,13 +30,53 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Reads fixed-width format files.
  * Column widths should be specified in a configuration file or format specification.
+ *
+ * The layout (column names, byte offsets, widths and types) comes from
+ * fanout.input.fixedWidth. Without one, the first line is read as a header and each
+ * column spans from its name to the next. Records end at a newline, or are exactly
+ * recordLength bytes long when that is set.
+ *
+ * The file is memory-mapped and cut into chunks of whole records; fields are sliced from
+ * the record bytes and numeric columns are parsed without intermediate Strings. With
+ * fanout.input.parallelism above 1 the chunks are parsed on that many threads, still in
+ * file order.
  */
 @Slf4j
 @Component
 public class FixedWidthFileReader implements FileReader {
     
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte SPACE = ' ';
+    
+    private final FixedWidthLayout configuredLayout;
+    private final int parallelism;
+    private final long chunkBytes;
+    
+    public FixedWidthFileReader() {
+        this(null, 1, FileChunks.DEFAULT_CHUNK_BYTES);
+    }
+    
+    @Autowired
+    public FixedWidthFileReader(FanOutConfig config) {
+        this(FixedWidthLayout.fromConfig(config.getInput().getFixedWidth()),
+                config.getInput().getParallelism(), FileChunks.DEFAULT_CHUNK_BYTES);
+    }
+    
+    FixedWidthFileReader(FixedWidthLayout layout, int parallelism, long chunkBytes) {
+        this.configuredLayout = layout;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkBytes = chunkBytes;
+    }
+    
+    @Override
     public Stream<DataRecord> readRecords(String filePath) {
-        return readRecords(filePath, null);
+        return readRecords(filePath, configuredLayout, 0);
+    }
+    
+    @Override
+    public Stream<DataRecord> readRecords(String filePath, long fromOffset) {
+        return readRecords(filePath, configuredLayout, fromOffset);
     }
     
     /**
@@ -33,60 +86,255 @@ public class FixedWidthFileReader implements FileReader {
      * @return Stream of DataRecord objects
      */
     public Stream<DataRecord> readRecords(String filePath, int[] columnWidths) {
+        return readRecords(filePath, columnWidths != null ? FixedWidthLayout.ofWidths(columnWidths) : configuredLayout, 0);
+    }
+    
+    @Override
+    public Stream<DataRecord> readRecords(InputStream input, String fileName) {
         try {
-            BufferedReader reader = new BufferedReader(
-                new java.io.FileReader(filePath, StandardCharsets.UTF_8),
-                65536  // 64KB buffer
-            );
-            
-            // If no column widths provided, try to infer from first line
-            final int[] widths = columnWidths != null ? columnWidths : inferColumnWidths(reader, filePath);
-            
-            return reader.lines()
-                    .filter(line -> !line.trim().isEmpty())
-                    .map(line -> parseFixedWidthLine(line, widths))
+            RecordIterator records = new RecordIterator(
+                    new BufferedInputStream(input, Compression.OUTPUT_BUFFER_BYTES), configuredLayout, fileName);
+            return StreamSupport.stream(
+                            Spliterators.spliteratorUnknownSize(records, Spliterator.ORDERED | Spliterator.NONNULL),
+                            false)
                     .onClose(() -> {
                         try {
-                            reader.close();
+                            input.close();
                         } catch (IOException e) {
-                            log.error("Error closing reader for {}", filePath, e);
+                            log.error("Error closing reader for {}", fileName, e);
                         }
                     });
-        } catch (IOException e) {
-            throw new FanOutException("Failed to read fixed-width file: " + filePath, e);
+        } catch (IOException | RuntimeException e) {
+            try {
+                input.close();
+            } catch (IOException closeError) {
+                log.debug("Error closing input", closeError);
+            }
+            if (e instanceof FanOutException fanOutException) {
+                throw fanOutException;
+            }
+            throw new FanOutException("Failed to read fixed-width file: " + fileName, e);
         }
     }
     
     @Override
     public boolean canHandle(String filePath) {
-        return filePath.toLowerCase().endsWith(".txt") || 
+        return filePath.toLowerCase().endsWith(".txt") ||
                filePath.toLowerCase().endsWith(".fixed");
     }
     
-    private int[] inferColumnWidths(BufferedReader reader, String filePath) throws IOException {
-        String firstLine = reader.readLine();
-        if (firstLine == null) {
-            throw new FanOutException("Empty file: " + filePath);
+    @Override
+    public boolean hasHeaderLine() {
+        // Without a configured layout, it is inferred from the header line
+        return configuredLayout == null;
+    }
+    
+    @Override
+    public String getFileType() {
+        return "fixed-width";
+    }
+    
+    private Stream<DataRecord> readRecords(String filePath, FixedWidthLayout layout, long fromOffset) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+            long from = 0;
+            if (layout == null) {
+                // No layout configured, so infer it from the header line
+                from = FileChunks.nextRecordStart(channel, 0, false);
+                if (from == 0) {
+                    throw new FanOutException("Empty file: " + filePath);
+                }
+                layout = inferColumnWidths(channel, from);
+            }
+            from = Math.max(from, fromOffset);
+            
+            List<FileChunks.Chunk> chunks = layout.recordLength() > 0
+                    ? FileChunks.splitFixed(channel.size(), from, layout.recordLength(), parallelism, chunkBytes)
+                    : FileChunks.split(channel, from, parallelism, chunkBytes, false);
+            
+            FileChannel source = channel;
+            FixedWidthLayout recordLayout = layout;
+            Runnable close = () -> {
+                try {
+                    source.close();
+                } catch (IOException e) {
+                    log.error("Error closing reader for {}", filePath, e);
+                }
+            };
+            if (parallelism == 1) {
+                return chunks.stream()
+                        .flatMap(chunk -> parseChunkUnchecked(source, chunk, recordLayout).stream())
+                        .onClose(close);
+            }
+            
+            log.info("Reading {} in {} chunk(s) on {} threads", filePath, chunks.size(), parallelism);
+            List<Callable<List<DataRecord>>> tasks = new ArrayList<>(chunks.size());
+            for (FileChunks.Chunk chunk : chunks) {
+                tasks.add(() -> parseChunk(source, chunk, recordLayout));
+            }
+            return OrderedChunkStream.of(tasks, parallelism, "Fixed-Reader-", close);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException closeError) {
+                    log.debug("Error closing file channel", closeError);
+                }
+            }
+            if (e instanceof FanOutException fanOutException) {
+                throw fanOutException;
+            }
+            throw new FanOutException("Failed to read fixed-width file: " + filePath, e);
+        }
+    }
+    
+    private FixedWidthLayout inferColumnWidths(FileChannel channel, long headerEnd) throws IOException {
+        MappedByteBuffer buffer = FileChunks.map(channel, new FileChunks.Chunk(0, headerEnd));
+        byte[] header = new byte[buffer.remaining()];
+        buffer.get(header);
+        return FixedWidthLayout.inferFromHeader(header, lineLength(header, header.length));
+    }
+    
+    private List<DataRecord> parseChunkUnchecked(FileChannel channel, FileChunks.Chunk chunk, FixedWidthLayout layout) {
+        try {
+            return parseChunk(channel, chunk, layout);
+        } catch (IOException e) {
+            throw new FanOutException("Failed to read fixed-width chunk at offset " + chunk.start(), e);
         }
+    }
+    
+    private List<DataRecord> parseChunk(FileChannel channel, FileChunks.Chunk chunk,
+                                        FixedWidthLayout layout) throws IOException {
+        MappedByteBuffer buffer = FileChunks.map(channel, chunk);
+        int limit = buffer.limit();
+        int recordLength = layout.recordLength();
+        byte[] record = new byte[recordLength > 0 ? recordLength : 256];
+        List<DataRecord> records = new ArrayList<>();
         
-        // For demo, split by consistent spacing (at least 2+ spaces)
-        String[] parts = firstLine.trim().split("  +");
-        return new int[parts.length];
+        int start = 0;
+        while (start < limit) {
+            int end;
+            int next;
+            if (recordLength > 0) {
+                end = Math.min(start + recordLength, limit);
+                next = end;
+            } else {
+                end = start;
+                while (end < limit && buffer.get(end) != NEWLINE) {
+                    end++;
+                }
+                next = end + 1;
+            }
+            
+            int length = end - start;
+            if (length > record.length) {
+                record = new byte[Math.max(length, record.length << 1)];
+            }
+            buffer.get(start, record, 0, length);
+            length = lineLength(record, length);
+            if (!isBlank(record, length)) {
+                records.add(DataRecord.builder()
+                        .offset(chunk.start() + Math.min(next, limit))
+                        .schema(layout.schema())
+                        .values(layout.parse(record, length))
+                        .build());
+            }
+            start = next;
+        }
+        return records;
+    }
+    
+    private static int lineLength(byte[] line, int length) {
+        while (length > 0 && (line[length - 1] == NEWLINE || line[length - 1] == CARRIAGE_RETURN)) {
+            length--;
+        }
+        return length;
     }
     
-    private DataRecord parseFixedWidthLine(String line, int[] columnWidths) {
-        Map<String, Object> fields = new HashMap<>();
-        int startIndex = 0;
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            if (line[i] != SPACE) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Pulls one record per line, or per recordLength bytes, from a stream. Without a
+     * configured layout the first line is read as the header.
+     */
+    private static final class RecordIterator implements Iterator<DataRecord> {
+        private final InputStream input;
+        private final FixedWidthLayout layout;
+        private final String fileName;
+        private byte[] record = new byte[256];
+        private DataRecord next;
         
-        for (int i = 0; i < columnWidths.length && startIndex < line.length(); i++) {
-            int endIndex = Math.min(startIndex + columnWidths[i], line.length());
-            String value = line.substring(startIndex, endIndex).trim();
-            fields.put("Column_" + (i + 1), value);
-            startIndex = endIndex;
+        RecordIterator(InputStream input, FixedWidthLayout layout, String fileName) throws IOException {
+            this.input = input;
+            this.fileName = fileName;
+            if (layout == null) {
+                int length = readLine();
+                if (length < 0) {
+                    throw new FanOutException("Empty file: " + fileName);
+                }
+                layout = FixedWidthLayout.inferFromHeader(record, lineLength(record, length));
+            }
+            this.layout = layout;
+            if (layout.recordLength() > record.length) {
+                record = new byte[layout.recordLength()];
+            }
         }
         
-        return DataRecord.builder()
-                .fields(fields)
-                .build();
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    int length = layout.recordLength() > 0 ? readFixed() : readLine();
+                    if (length < 0) {
+                        return false;
+                    }
+                    length = lineLength(record, length);
+                    if (!isBlank(record, length)) {
+                        next = DataRecord.builder()
+                                .schema(layout.schema())
+                                .values(layout.parse(record, length))
+                                .build();
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new FanOutException("Failed to read fixed-width record from " + fileName, e);
+            }
+        }
+        
+        @Override
+        public DataRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            DataRecord current = next;
+            next = null;
+            return current;
+        }
+        
+        private int readFixed() throws IOException {
+            int length = input.readNBytes(record, 0, layout.recordLength());
+            return length == 0 ? -1 : length;
+        }
+        
+        private int readLine() throws IOException {
+            int length = 0;
+            int b;
+            while ((b = input.read()) >= 0 && b != NEWLINE) {
+                if (length == record.length) {
+                    record = Arrays.copyOf(record, length << 1);
+                }
+                record[length++] = (byte) b;
+            }
+            return b < 0 && length == 0 ? -1 : length;
+        }
     }
 }
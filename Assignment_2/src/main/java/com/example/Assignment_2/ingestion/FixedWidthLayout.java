@@ -0,0 +1,314 @@
+package com.example.Assignment_2.ingestion;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.RecordSchema;
+
+/**
+ * Column layout of a fixed-width file: name, byte offset, width and type of each column.
+ *
+ * Fields are sliced out of the record bytes and trimmed of padding spaces. String columns
+ * are decoded as UTF-8; numeric columns are parsed from the digits directly, without an
+ * intermediate String. A blank numeric column is null.
+ */
+final class FixedWidthLayout {
+    
+    enum ColumnType {
+        STRING, INT, LONG, DOUBLE, DECIMAL;
+        
+        static ColumnType of(String name) {
+            try {
+                return name == null ? STRING : valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new FanOutException("Unknown fixed-width column type: " + name, e);
+            }
+        }
+    }
+    
+    /**
+     * One column of the layout.
+     * @param name Field name
+     * @param offset Byte offset within the record
+     * @param width Width in bytes
+     * @param type Value type
+     */
+    record Column(String name, int offset, int width, ColumnType type) {
+    }
+    
+    private static final byte SPACE = ' ';
+    private static final int MAX_EXACT_DIGITS = 18;
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    
+    private final Column[] columns;
+    private final RecordSchema schema;
+    private final int recordLength;
+    
+    FixedWidthLayout(List<Column> columns, int recordLength) {
+        this.columns = columns.toArray(new Column[0]);
+        try {
+            this.schema = RecordSchema.of(columns.stream().map(Column::name).toList());
+        } catch (IllegalArgumentException e) {
+            throw new FanOutException("Invalid fixed-width layout: " + e.getMessage(), e);
+        }
+        this.recordLength = recordLength;
+    }
+    
+    /**
+     * Builds the layout configured under fanout.input.fixedWidth.
+     * @param config Fixed-width configuration
+     * @return The layout, or null if no columns are configured
+     */
+    static FixedWidthLayout fromConfig(FanOutConfig.FixedWidthConfig config) {
+        if (config == null || config.getColumns() == null || config.getColumns().isEmpty()) {
+            return null;
+        }
+        List<Column> columns = new ArrayList<>(config.getColumns().size());
+        int nextOffset = 0;
+        for (FanOutConfig.ColumnConfig column : config.getColumns()) {
+            int offset = column.getOffset() >= 0 ? column.getOffset() : nextOffset;
+            if (column.getName() == null || column.getWidth() <= 0) {
+                throw new FanOutException("Fixed-width column needs a name and a positive width: " + column);
+            }
+            columns.add(new Column(column.getName(), offset, column.getWidth(), ColumnType.of(column.getType())));
+            nextOffset = offset + column.getWidth();
+        }
+        return new FixedWidthLayout(columns, config.getRecordLength());
+    }
+    
+    /**
+     * Builds a layout of consecutive string columns named Column_1, Column_2, ...
+     * @param widths Column widths in bytes
+     * @return The layout
+     */
+    static FixedWidthLayout ofWidths(int[] widths) {
+        List<Column> columns = new ArrayList<>(widths.length);
+        int offset = 0;
+        for (int i = 0; i < widths.length; i++) {
+            columns.add(new Column("Column_" + (i + 1), offset, widths[i], ColumnType.STRING));
+            offset += widths[i];
+        }
+        return new FixedWidthLayout(columns, 0);
+    }
+    
+    /**
+     * Infers string columns from a header line. A column starts at each header name,
+     * where names are separated by two or more spaces, and runs up to the next name;
+     * the last column runs to the end of the record.
+     * @param header Header line bytes, without the line terminator
+     * @param length Number of header bytes
+     * @return The layout
+     */
+    static FixedWidthLayout inferFromHeader(byte[] header, int length) {
+        List<Integer> starts = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int i = 0;
+        while (i < length) {
+            while (i < length && header[i] == SPACE) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            int start = i;
+            int end = i;
+            while (i < length && !(header[i] == SPACE && (i + 1 == length || header[i + 1] == SPACE))) {
+                end = ++i;
+            }
+            starts.add(names.isEmpty() ? 0 : start);
+            names.add(new String(header, start, end - start, StandardCharsets.UTF_8));
+        }
+        
+        List<Column> columns = new ArrayList<>(names.size());
+        for (int c = 0; c < names.size(); c++) {
+            int offset = starts.get(c);
+            int width = c + 1 < names.size() ? starts.get(c + 1) - offset : Integer.MAX_VALUE - offset;
+            columns.add(new Column(names.get(c), offset, width, ColumnType.STRING));
+        }
+        return new FixedWidthLayout(columns, 0);
+    }
+    
+    /**
+     * @return Bytes per record including any line terminator, or 0 if records end at a newline
+     */
+    int recordLength() {
+        return recordLength;
+    }
+    
+    /**
+     * @return Schema of the parsed records, one field per column in layout order
+     */
+    RecordSchema schema() {
+        return schema;
+    }
+    
+    /**
+     * Parses the fields of one record.
+     * @param record Buffer holding the record bytes from index 0
+     * @param length Number of record bytes
+     * @return Field values in {@link #schema()} order
+     */
+    Object[] parse(byte[] record, int length) {
+        Object[] values = new Object[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            Column column = columns[c];
+            int start = Math.min(column.offset(), length);
+            int end = (int) Math.min((long) start + column.width(), length);
+            while (start < end && record[start] == SPACE) {
+                start++;
+            }
+            while (end > start && record[end - 1] == SPACE) {
+                end--;
+            }
+            values[c] = parseValue(column, record, start, end);
+        }
+        return values;
+    }
+    
+    private Object parseValue(Column column, byte[] bytes, int start, int end) {
+        if (column.type() == ColumnType.STRING) {
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+        if (start == end) {
+            return null;
+        }
+        return switch (column.type()) {
+            case INT -> {
+                long value = parseLong(column, bytes, start, end);
+                if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                    throw invalid(column, bytes, start, end);
+                }
+                yield (int) value;
+            }
+            case LONG -> parseLong(column, bytes, start, end);
+            case DOUBLE -> parseDouble(column, bytes, start, end);
+            case DECIMAL -> parseDecimal(column, bytes, start, end);
+            default -> throw new IllegalStateException("Unhandled column type " + column.type());
+        };
+    }
+    
+    private static long parseLong(Column column, byte[] bytes, int start, int end) {
+        boolean negative = bytes[start] == '-';
+        int i = negative || bytes[start] == '+' ? start + 1 : start;
+        if (i == end) {
+            throw invalid(column, bytes, start, end);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(column, bytes, start, end);
+            }
+            // Accumulate negatively so Long.MIN_VALUE parses too
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw invalid(column, bytes, start, end);
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw invalid(column, bytes, start, end);
+            }
+            value = -value;
+        }
+        return value;
+    }
+    
+    private static BigDecimal parseDecimal(Column column, byte[] bytes, int start, int end) {
+        boolean negative = bytes[start] == '-';
+        int i = negative || bytes[start] == '+' ? start + 1 : start;
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+            if (b == 'e' || b == 'E') {
+                // Exponent notation, as BigDecimal accepts it
+                return slowDecimal(column, bytes, start, end);
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(column, bytes, start, end);
+            }
+            if (++digits > MAX_EXACT_DIGITS) {
+                return slowDecimal(column, bytes, start, end);
+            }
+            unscaled = unscaled * 10 + digit;
+            if (scale >= 0) {
+                scale++;
+            }
+        }
+        if (digits == 0) {
+            throw invalid(column, bytes, start, end);
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+    
+    private static double parseDouble(Column column, byte[] bytes, int start, int end) {
+        boolean negative = bytes[start] == '-';
+        int i = negative || bytes[start] == '+' ? start + 1 : start;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9 || ++digits > MAX_EXACT_DIGITS) {
+                return slowDouble(column, bytes, start, end);
+            }
+            mantissa = mantissa * 10 + digit;
+            if (scale >= 0) {
+                scale++;
+            }
+        }
+        if (digits == 0) {
+            throw invalid(column, bytes, start, end);
+        }
+        scale = Math.max(scale, 0);
+        if (mantissa > MAX_EXACT_DOUBLE || scale >= POWERS_OF_TEN.length) {
+            return slowDouble(column, bytes, start, end);
+        }
+        // Both operands are exact doubles, so one division gives the correctly rounded result
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+    
+    private static BigDecimal slowDecimal(Column column, byte[] bytes, int start, int end) {
+        try {
+            return new BigDecimal(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw invalid(column, bytes, start, end);
+        }
+    }
+    
+    private static double slowDouble(Column column, byte[] bytes, int start, int end) {
+        try {
+            return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw invalid(column, bytes, start, end);
+        }
+    }
+    
+    private static FanOutException invalid(Column column, byte[] bytes, int start, int end) {
+        return new FanOutException("Invalid " + column.type().name().toLowerCase(Locale.ROOT)
+                + " value for column " + column.name() + ": '"
+                + new String(bytes, start, end - start, StandardCharsets.UTF_8) + "'");
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.Assignment_2.ingestion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Finds and decodes the members of a multi-member gzip file independently.
+ *
+ * A gzip file may be several complete gzip streams back to back. Each member starts with
+ * the bytes 1f 8b 08, but those bytes can also occur inside compressed data, so a scan
+ * only yields candidate offsets. Decoding a candidate either fails (not a real member) or
+ * ends exactly where the next real member starts, which lets the reader chain the real
+ * members from offset 0 and skip false candidates.
+ */
+final class GzipMembers {
+    
+    private static final int ID1 = 0x1f;
+    private static final int ID2 = 0x8b;
+    private static final int DEFLATE_METHOD = 8;
+    private static final int FHCRC = 0x02;
+    private static final int FEXTRA = 0x04;
+    private static final int FNAME = 0x08;
+    private static final int FCOMMENT = 0x10;
+    private static final int RESERVED_FLAGS = 0xe0;
+    private static final int HEADER_BYTES = 10;
+    private static final int TRAILER_BYTES = 8;
+    private static final int SCAN_WINDOW = 16 << 20;
+    private static final int MAX_MEMBER_BYTES = 1 << 30;
+    
+    /**
+     * One decoded member.
+     * @param data Buffer holding the decompressed bytes from index 0
+     * @param length Number of decompressed bytes
+     * @param end File offset just past the member's trailer
+     */
+    record Member(byte[] data, int length, long end) {
+    }
+    
+    private GzipMembers() {
+    }
+    
+    /**
+     * Lists the offsets where a gzip member may start. Offset 0 is always included.
+     * @param channel The gzip file
+     * @return Candidate member offsets in ascending order
+     * @throws IOException if the file cannot be read
+     */
+    static List<Long> candidates(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> offsets = new ArrayList<>();
+        offsets.add(0L);
+        for (long windowStart = 0; windowStart < size; windowStart += SCAN_WINDOW) {
+            // Overlap windows by a header so a member straddling the edge is still seen
+            long length = Math.min(size - windowStart, (long) SCAN_WINDOW + HEADER_BYTES);
+            MappedByteBuffer buffer = FileChunks.map(channel, new FileChunks.Chunk(windowStart, length));
+            int scanEnd = (int) Math.min(SCAN_WINDOW, length);
+            for (int i = 0; i < scanEnd && i + HEADER_BYTES <= length; i++) {
+                long offset = windowStart + i;
+                if (offset > 0 && (buffer.get(i) & 0xff) == ID1 && looksLikeHeader(buffer, i)) {
+                    offsets.add(offset);
+                }
+            }
+        }
+        return offsets;
+    }
+    
+    /**
+     * Decodes the member starting at an offset and checks its CRC and length.
+     * @param channel The gzip file
+     * @param offset Offset of the member header
+     * @return The decoded member
+     * @throws IOException if there is no valid member at that offset
+     */
+    static Member decode(FileChannel channel, long offset) throws IOException {
+        long length = Math.min(channel.size() - offset, Integer.MAX_VALUE);
+        MappedByteBuffer mapped = FileChunks.map(channel, new FileChunks.Chunk(offset, length));
+        ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_BYTES + TRAILER_BYTES || !looksLikeHeader(buffer, 0)) {
+            throw new IOException("No gzip header at offset " + offset);
+        }
+        int headerLength = headerLength(buffer);
+        buffer.position(headerLength);
+        
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(buffer);
+            byte[] data = new byte[Compression.OUTPUT_BUFFER_BYTES << 2];
+            int count = 0;
+            while (!inflater.finished()) {
+                if (count == data.length) {
+                    if (data.length > MAX_MEMBER_BYTES >> 1) {
+                        throw new IOException("Gzip member at offset " + offset + " is too large to decode in memory");
+                    }
+                    data = Arrays.copyOf(data, data.length << 1);
+                }
+                int produced = inflater.inflate(data, count, data.length - count);
+                if (produced == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated gzip member at offset " + offset);
+                }
+                count += produced;
+            }
+            
+            long trailer = headerLength + inflater.getBytesRead();
+            if (trailer + TRAILER_BYTES > buffer.limit()) {
+                throw new IOException("Missing gzip trailer at offset " + offset);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, count);
+            long expectedCrc = buffer.getInt((int) trailer) & 0xffffffffL;
+            long expectedSize = buffer.getInt((int) trailer + 4) & 0xffffffffL;
+            if (crc.getValue() != expectedCrc || (count & 0xffffffffL) != expectedSize) {
+                throw new IOException("Corrupt gzip member at offset " + offset);
+            }
+            return new Member(data, count, offset + trailer + TRAILER_BYTES);
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid deflate data in gzip member at offset " + offset, e);
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    private static boolean looksLikeHeader(ByteBuffer buffer, int i) {
+        if ((buffer.get(i) & 0xff) != ID1 || (buffer.get(i + 1) & 0xff) != ID2
+                || buffer.get(i + 2) != DEFLATE_METHOD) {
+            return false;
+        }
+        int flags = buffer.get(i + 3) & 0xff;
+        int extraFlags = buffer.get(i + 8) & 0xff;
+        int os = buffer.get(i + 9) & 0xff;
+        return (flags & RESERVED_FLAGS) == 0
+                && (extraFlags == 0 || extraFlags == 2 || extraFlags == 4)
+                && (os <= 13 || os == 255);
+    }
+    
+    private static int headerLength(ByteBuffer buffer) throws IOException {
+        int flags = buffer.get(3) & 0xff;
+        int position = HEADER_BYTES;
+        if ((flags & FEXTRA) != 0) {
+            position += 2 + (buffer.getShort(position) & 0xffff);
+        }
+        if ((flags & FNAME) != 0) {
+            position = skipZeroTerminated(buffer, position);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            position = skipZeroTerminated(buffer, position);
+        }
+        if ((flags & FHCRC) != 0) {
+            position += 2;
+        }
+        if (position > buffer.limit()) {
+            throw new IOException("Truncated gzip header");
+        }
+        return position;
+    }
+    
+    private static int skipZeroTerminated(ByteBuffer buffer, int position) throws IOException {
+        while (position < buffer.limit()) {
+            if (buffer.get(position++) == 0) {
+                return position;
+            }
+        }
+        throw new IOException("Truncated gzip header");
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.Assignment_2.ingestion;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.example.Assignment_2.exception.FanOutException;
+
+/**
+ * Resolves fanout.input.filePath into the files to read.
+ *
+ * The input is either a single file, a directory (its regular files, not recursive) or a
+ * glob such as ./data/drops/*.csv or ./data/drops/**&#47;*.jsonl. Globs are matched against
+ * paths relative to the directory before the first wildcard. Results are sorted by path.
+ */
+final class InputFiles {
+    
+    private static final String GLOB_CHARS = "*?[{";
+    
+    private InputFiles() {
+    }
+    
+    /**
+     * @param input A file, directory or glob
+     * @return true if the input can match more than one file
+     */
+    static boolean isMultiFile(String input) {
+        return isGlob(input) || Files.isDirectory(Paths.get(input));
+    }
+    
+    /**
+     * Lists the regular files an input refers to.
+     * @param input A file, directory or glob
+     * @return The matching files, sorted
+     * @throws FanOutException if a directory cannot be listed
+     */
+    static List<Path> resolve(String input) {
+        try {
+            if (isGlob(input)) {
+                return resolveGlob(input);
+            }
+            Path path = Paths.get(input);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> entries = Files.list(path)) {
+                    return entries.filter(Files::isRegularFile).sorted().toList();
+                }
+            }
+            return List.of(path);
+        } catch (IOException e) {
+            throw new FanOutException("Failed to list input files: " + input, e);
+        }
+    }
+    
+    private static List<Path> resolveGlob(String input) throws IOException {
+        String normalized = input.replace('\\', '/');
+        int firstWildcard = indexOfGlobChar(normalized);
+        int baseEnd = normalized.lastIndexOf('/', firstWildcard);
+        Path base = Paths.get(baseEnd < 0 ? "." : baseEnd == 0 ? "/" : normalized.substring(0, baseEnd));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + normalized.substring(baseEnd + 1));
+        if (!Files.isDirectory(base)) {
+            return List.of();
+        }
+        try (Stream<Path> entries = Files.walk(base)) {
+            return entries
+                    .filter(Files::isRegularFile)
+                    .filter(file -> matcher.matches(base.relativize(file)))
+                    .sorted()
+                    .toList();
+        }
+    }
+    
+    private static boolean isGlob(String input) {
+        return indexOfGlobChar(input) >= 0;
+    }
+    
+    private static int indexOfGlobChar(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (GLOB_CHARS.indexOf(input.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,86 +1,301 @@
 package com.example.Assignment_2.ingestion;
 
-import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.example.Assignment_2.config.FanOutConfig;
 import com.example.Assignment_2.exception.FanOutException;
 import com.example.Assignment_2.model.DataRecord;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.Assignment_2.model.RecordSchema;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Reads JSONL (JSON Lines) files line by line.
  * Each line should be a valid JSON object.
+ *
+ * Lines are read with a streaming JsonParser straight into the record's fields, keeping
+ * their JSON types: strings, Integer/Long/BigInteger, Double, Boolean, null, and Map/List
+ * for nested objects and arrays. All parsers come from one JsonFactory, so repeated field
+ * names are canonicalized and shared instead of allocated per line. Consecutive lines with
+ * the same keys in the same order share one RecordSchema.
+ *
+ * With fanout.input.parallelism above 1 the file is memory-mapped, split into chunks of
+ * whole lines and decoded on that many threads. Records are still returned in file order.
  */
 @Slf4j
 @Component
 public class JsonlFileReader implements FileReader {
     
-    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final int parallelism;
+    private final long chunkBytes;
     
     public JsonlFileReader() {
-        this.objectMapper = new ObjectMapper();
+        this(1, FileChunks.DEFAULT_CHUNK_BYTES);
+    }
+    
+    @Autowired
+    public JsonlFileReader(FanOutConfig config) {
+        this(config.getInput().getParallelism(), FileChunks.DEFAULT_CHUNK_BYTES);
+    }
+    
+    JsonlFileReader(int parallelism, long chunkBytes) {
+        this.jsonFactory = new JsonFactory();
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkBytes = chunkBytes;
     }
     
     @Override
     public Stream<DataRecord> readRecords(String filePath) {
+        return readRecords(filePath, 0);
+    }
+    
+    @Override
+    public Stream<DataRecord> readRecords(String filePath, long fromOffset) {
+        if (parallelism > 1) {
+            return readRecordsParallel(filePath, fromOffset);
+        }
+        FileChannel channel = null;
         try {
-            BufferedReader reader = new BufferedReader(
-                new java.io.FileReader(filePath, StandardCharsets.UTF_8),
-                65536  // 64KB buffer for better performance
-            );
-            
-            return reader.lines()
-                    .filter(line -> !line.trim().isEmpty())
-                    .map(line -> parseJsonLine(line, filePath))
-                    .onClose(() -> {
-                        try {
-                            reader.close();
-                        } catch (IOException e) {
-                            log.error("Error closing reader for {}", filePath, e);
-                        }
-                    });
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ).position(fromOffset);
+            return readStream(Channels.newInputStream(channel), filePath, fromOffset, true);
         } catch (IOException e) {
+            closeQuietly(channel);
             throw new FanOutException("Failed to read JSONL file: " + filePath, e);
         }
     }
     
+    @Override
+    public Stream<DataRecord> readRecords(InputStream input, String fileName) {
+        return readStream(input, fileName, 0, false);
+    }
+    
     @Override
     public boolean canHandle(String filePath) {
-        return filePath.toLowerCase().endsWith(".jsonl") || 
+        return filePath.toLowerCase().endsWith(".jsonl") ||
                filePath.toLowerCase().endsWith(".ndjson");
     }
     
-    private DataRecord parseJsonLine(String line, String filePath) {
+    @Override
+    public String getFileType() {
+        return "jsonl";
+    }
+    
+    private Stream<DataRecord> readStream(InputStream input, String fileName, long baseOffset, boolean offsetsKnown) {
+        try {
+            JsonParser parser = jsonFactory.createParser(input);
+            
+            return StreamSupport.stream(
+                            Spliterators.spliteratorUnknownSize(
+                                    new RecordIterator(parser, fileName, baseOffset, offsetsKnown),
+                                    Spliterator.ORDERED | Spliterator.NONNULL),
+                            false)
+                    .onClose(() -> {
+                        try {
+                            parser.close();
+                        } catch (IOException e) {
+                            log.error("Error closing reader for {}", fileName, e);
+                        }
+                    });
+        } catch (IOException e) {
+            closeQuietly(input);
+            throw new FanOutException("Failed to read JSONL file: " + fileName, e);
+        }
+    }
+    
+    private Stream<DataRecord> readRecordsParallel(String filePath, long fromOffset) {
+        FileChannel channel = null;
         try {
-            JsonNode node = objectMapper.readTree(line);
-            Map<String, Object> fields = new HashMap<>();
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+            List<FileChunks.Chunk> chunks = FileChunks.split(channel, fromOffset, parallelism, chunkBytes, false);
+            log.info("Reading {} in {} chunk(s) on {} threads", filePath, chunks.size(), parallelism);
             
-            node.fields().forEachRemaining(entry -> {
-                JsonNode value = entry.getValue();
-                if (value.isTextual()) {
-                    fields.put(entry.getKey(), value.asText());
-                } else if (value.isNumber()) {
-                    fields.put(entry.getKey(), value.asText());
-                } else {
-                    fields.put(entry.getKey(), value.asText());
+            FileChannel source = channel;
+            List<Callable<List<DataRecord>>> tasks = new ArrayList<>(chunks.size());
+            for (FileChunks.Chunk chunk : chunks) {
+                tasks.add(() -> parseChunk(source, chunk, filePath));
+            }
+            return OrderedChunkStream.of(tasks, parallelism, "Jsonl-Reader-", () -> {
+                try {
+                    source.close();
+                } catch (IOException e) {
+                    log.error("Error closing reader for {}", filePath, e);
                 }
             });
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new FanOutException("Failed to read JSONL file: " + filePath, e);
+        }
+    }
+    
+    private List<DataRecord> parseChunk(FileChannel channel, FileChunks.Chunk chunk,
+                                        String filePath) throws IOException {
+        MappedByteBuffer buffer = FileChunks.map(channel, chunk);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        
+        List<DataRecord> records = new ArrayList<>();
+        try (JsonParser parser = jsonFactory.createParser(bytes)) {
+            new RecordIterator(parser, filePath, chunk.start(), true).forEachRemaining(records::add);
+        }
+        return records;
+    }
+    
+    private static void closeQuietly(Closeable resource) {
+        if (resource != null) {
+            try {
+                resource.close();
+            } catch (IOException e) {
+                log.debug("Error closing {}", resource, e);
+            }
+        }
+    }
+    
+    /**
+     * Pulls one record per top-level JSON object from a parser positioned before the first line.
+     */
+    private static final class RecordIterator implements Iterator<DataRecord> {
+        private final JsonParser parser;
+        private final String filePath;
+        private final long baseOffset;
+        private final boolean offsetsKnown;
+        private JsonToken next;
+        private RecordSchema schema = RecordSchema.EMPTY;
+        private String[] names = new String[16];
+        private Object[] values = new Object[16];
+        
+        RecordIterator(JsonParser parser, String filePath, long baseOffset, boolean offsetsKnown) {
+            this.parser = parser;
+            this.filePath = filePath;
+            this.baseOffset = baseOffset;
+            this.offsetsKnown = offsetsKnown;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = parser.nextToken();
+                } catch (IOException e) {
+                    throw parseError(e);
+                }
+            }
+            return next != null;
+        }
+        
+        @Override
+        public DataRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                if (next != JsonToken.START_OBJECT) {
+                    throw new FanOutException("Expected a JSON object per line in " + filePath
+                            + " at byte offset " + offset() + " but found " + next);
+                }
+                next = null;
+                return readRecord();
+            } catch (IOException e) {
+                throw parseError(e);
+            }
+        }
+        
+        private long offset() {
+            return baseOffset + parser.currentTokenLocation().getByteOffset();
+        }
+        
+        private DataRecord readRecord() throws IOException {
+            int count = 0;
+            String name;
+            while ((name = parser.nextFieldName()) != null) {
+                if (count == names.length) {
+                    names = Arrays.copyOf(names, count << 1);
+                    values = Arrays.copyOf(values, count << 1);
+                }
+                names[count] = name;
+                values[count++] = readValue(parser, parser.nextToken());
+            }
+            long end = offsetsKnown ? baseOffset + parser.currentLocation().getByteOffset() : 0;
             
+            if (!schema.matches(names, count)) {
+                try {
+                    schema = RecordSchema.of(Arrays.copyOf(names, count));
+                } catch (IllegalArgumentException e) {
+                    // Repeated key within the line: the last value wins, as with a map
+                    DataRecord record = new DataRecord();
+                    record.setOffset(end);
+                    for (int i = 0; i < count; i++) {
+                        record.set(names[i], values[i]);
+                    }
+                    return record;
+                }
+            }
             return DataRecord.builder()
-                    .fields(fields)
+                    .offset(end)
+                    .schema(schema)
+                    .values(Arrays.copyOf(values, count))
                     .build();
-        } catch (Exception e) {
-            log.error("Error parsing JSON line from {}: {}", filePath, line, e);
-            throw new FanOutException("Failed to parse JSON line", e);
+        }
+        
+        private FanOutException parseError(IOException e) {
+            log.error("Error parsing JSON line from {} at byte offset {}", filePath, offset(), e);
+            return new FanOutException("Failed to parse JSON line", e);
+        }
+        
+        private static Map<String, Object> readObject(JsonParser parser, Map<String, Object> fields) throws IOException {
+            String name;
+            while ((name = parser.nextFieldName()) != null) {
+                fields.put(name, readValue(parser, parser.nextToken()));
+            }
+            return fields;
+        }
+        
+        private static Object readValue(JsonParser parser, JsonToken token) throws IOException {
+            return switch (token) {
+                case VALUE_STRING -> parser.getText();
+                case VALUE_NUMBER_INT -> parser.getNumberValue();
+                case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+                case VALUE_TRUE -> Boolean.TRUE;
+                case VALUE_FALSE -> Boolean.FALSE;
+                case VALUE_NULL -> null;
+                case START_OBJECT -> readObject(parser, new LinkedHashMap<>());
+                case START_ARRAY -> readArray(parser);
+                default -> throw new FanOutException("Unexpected JSON token: " + token);
+            };
+        }
+        
+        private static List<Object> readArray(JsonParser parser) throws IOException {
+            List<Object> values = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                values.add(readValue(parser, token));
+            }
+            return values;
         }
     }
 }
@@ -0,0 +1,181 @@
+package com.example.Assignment_2.ingestion;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.FileProgress;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads several files at once on a bounded pool and merges their records into one stream.
+ *
+ * Files wait in one shared queue, largest first; each worker takes the next file as soon
+ * as it finishes its current one, so a few big files don't leave the other workers idle
+ * at the end. Records are handed to the consumer in batches through a bounded queue,
+ * which keeps memory flat and lets a slow consumer hold the readers back.
+ *
+ * Records of one file keep their order; records of different files interleave. A file
+ * that fails to read is marked failed in its progress and the others carry on.
+ */
+@Slf4j
+final class MultiFileStream {
+    
+    private static final int BATCH_SIZE = 256;
+    private static final List<DataRecord> END = Collections.emptyList();
+    
+    private MultiFileStream() {
+    }
+    
+    /**
+     * Creates a stream over the records of all files.
+     * @param files Files to read, each with its progress tracker
+     * @param concurrency Number of files read at the same time
+     * @param perFileSequence Whether to number records from 1 within each file
+     * @param open Opens the record stream of one file
+     * @return Merged stream of records
+     */
+    static Stream<DataRecord> of(List<FileProgress> files, int concurrency, boolean perFileSequence,
+                                 Function<Path, Stream<DataRecord>> open) {
+        List<FileProgress> bySize = new ArrayList<>(files);
+        bySize.sort(Comparator.comparingLong(FileProgress::getSizeBytes).reversed());
+        Queue<FileProgress> pending = new ConcurrentLinkedQueue<>(bySize);
+        
+        int workerCount = Math.max(1, Math.min(concurrency, files.size()));
+        BlockingQueue<List<DataRecord>> batches = new ArrayBlockingQueue<>(workerCount * 4);
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount,
+                Thread.ofPlatform().name("File-Reader-", 0).daemon(true).factory());
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(() -> readFiles(pending, batches, perFileSequence, open));
+        }
+        workers.shutdown();
+        
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(new BatchIterator(batches, workerCount),
+                                Spliterator.NONNULL),
+                        false)
+                .onClose(workers::shutdownNow);
+    }
+    
+    private static void readFiles(Queue<FileProgress> pending, BlockingQueue<List<DataRecord>> batches,
+                                  boolean perFileSequence, Function<Path, Stream<DataRecord>> open) {
+        try {
+            FileProgress file;
+            while ((file = pending.poll()) != null && !Thread.currentThread().isInterrupted()) {
+                readFile(file, batches, perFileSequence, open);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                batches.put(END);
+            } catch (InterruptedException e) {
+                // Stream was closed; nobody is waiting for the end marker
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private static void readFile(FileProgress file, BlockingQueue<List<DataRecord>> batches,
+                                 boolean perFileSequence, Function<Path, Stream<DataRecord>> open)
+            throws InterruptedException {
+        file.started();
+        log.info("Reading input file {}", file.getPath());
+        long sequence = 0;
+        List<DataRecord> batch = new ArrayList<>(BATCH_SIZE);
+        try (Stream<DataRecord> records = open.apply(Path.of(file.getPath()))) {
+            Iterator<DataRecord> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                DataRecord record = iterator.next();
+                record.setSource(file.getPath());
+                if (perFileSequence) {
+                    record.setSequenceNumber(++sequence);
+                }
+                batch.add(record);
+                file.recordRead();
+                if (batch.size() == BATCH_SIZE) {
+                    batches.put(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.put(batch);
+            }
+            file.finished();
+            log.info("Finished input file {}: {} records in {} s", file.getPath(),
+                    file.getRecordsRead().get(), String.format("%.2f", file.getElapsedSeconds()));
+        } catch (RuntimeException e) {
+            if (!batch.isEmpty()) {
+                batches.put(batch);
+            }
+            file.failed(e.getMessage());
+            log.error("Failed to read input file {} after {} records", file.getPath(),
+                    file.getRecordsRead().get(), e);
+        }
+    }
+    
+    /**
+     * Iterator over the batches handed over by the workers, ending once every worker is done.
+     */
+    private static final class BatchIterator implements Iterator<DataRecord> {
+        private final BlockingQueue<List<DataRecord>> batches;
+        private int runningWorkers;
+        private Iterator<DataRecord> current = Collections.emptyIterator();
+        
+        BatchIterator(BlockingQueue<List<DataRecord>> batches, int workers) {
+            this.batches = batches;
+            this.runningWorkers = workers;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (runningWorkers == 0) {
+                    return false;
+                }
+                List<DataRecord> batch = take();
+                if (batch == END) {
+                    runningWorkers--;
+                } else {
+                    current = batch.iterator();
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public DataRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+        
+        private List<DataRecord> take() {
+            try {
+                return batches.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FanOutException("Interrupted while waiting for input records", e);
+            }
+        }
+    }
+}
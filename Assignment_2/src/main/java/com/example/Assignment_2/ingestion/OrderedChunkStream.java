@@ -0,0 +1,119 @@
+package com.example.Assignment_2.ingestion;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.example.Assignment_2.exception.FanOutException;
+
+/**
+ * Parses the chunks of a file on a pool of worker threads and hands their records back
+ * as one stream, in chunk order.
+ *
+ * Only a window of chunks is parsed ahead of the consumer, so memory stays bounded by
+ * the window rather than the file size. Records come out in the same order as a
+ * sequential read, which keeps sequence numbers deterministic.
+ */
+final class OrderedChunkStream {
+    
+    private OrderedChunkStream() {
+    }
+    
+    /**
+     * Creates a stream over the records of all chunks.
+     * @param chunks Parsers for each chunk, in file order
+     * @param parallelism Number of worker threads
+     * @param threadPrefix Prefix for worker thread names
+     * @param onClose Action run when the stream is closed, after the workers are stopped
+     * @param <T> Record type
+     * @return Ordered stream of records
+     */
+    static <T> Stream<T> of(List<Callable<List<T>>> chunks, int parallelism,
+                            String threadPrefix, Runnable onClose) {
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name(threadPrefix, 0).daemon(true).factory());
+        ChunkIterator<T> iterator = new ChunkIterator<>(chunks, workers, parallelism * 2);
+        
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(() -> {
+                    workers.shutdownNow();
+                    onClose.run();
+                });
+    }
+    
+    /**
+     * Iterator that keeps up to a window of chunk parses in flight and drains them in order.
+     */
+    private static final class ChunkIterator<T> implements Iterator<T> {
+        private final List<Callable<List<T>>> chunks;
+        private final ExecutorService workers;
+        private final int window;
+        private final Deque<Future<List<T>>> inFlight = new ArrayDeque<>();
+        private Iterator<T> current = Collections.emptyIterator();
+        private int nextChunk;
+        
+        ChunkIterator(List<Callable<List<T>>> chunks, ExecutorService workers, int window) {
+            this.chunks = chunks;
+            this.workers = workers;
+            this.window = Math.max(1, window);
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                submitAhead();
+                Future<List<T>> next = inFlight.poll();
+                if (next == null) {
+                    workers.shutdown();
+                    return false;
+                }
+                current = await(next).iterator();
+            }
+            return true;
+        }
+        
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+        
+        private void submitAhead() {
+            while (inFlight.size() < window && nextChunk < chunks.size()) {
+                inFlight.add(workers.submit(chunks.get(nextChunk++)));
+            }
+        }
+        
+        private List<T> await(Future<List<T>> future) {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                workers.shutdownNow();
+                throw new FanOutException("Interrupted while waiting for chunk to be parsed", e);
+            } catch (ExecutionException e) {
+                workers.shutdownNow();
+                if (e.getCause() instanceof FanOutException fanOutException) {
+                    throw fanOutException;
+                }
+                throw new FanOutException("Failed to parse chunk", e.getCause());
+            }
+        }
+    }
+}
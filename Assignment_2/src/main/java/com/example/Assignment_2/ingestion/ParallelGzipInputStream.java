@@ -0,0 +1,142 @@
+package com.example.Assignment_2.ingestion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Decompresses a multi-member gzip file by decoding several members at once, while
+ * handing out the bytes strictly in file order.
+ *
+ * Candidate members from {@link GzipMembers#candidates} are decoded ahead of the reader
+ * on a small pool, at most two per thread at a time. The stream then walks the real
+ * members from offset 0: each member's end offset is where the next one starts, so the
+ * results of candidates that were not real members are simply dropped.
+ */
+final class ParallelGzipInputStream extends InputStream {
+    
+    private final FileChannel channel;
+    private final List<Long> candidates;
+    private final long size;
+    private final int window;
+    private final ExecutorService pool;
+    private final Map<Long, Future<GzipMembers.Member>> decoding = new HashMap<>();
+    private int submitted;
+    private int discarded;
+    
+    private long nextMember;
+    private byte[] data = new byte[0];
+    private int position;
+    private int limit;
+    private boolean closed;
+    
+    ParallelGzipInputStream(FileChannel channel, List<Long> candidates, int parallelism) throws IOException {
+        this.channel = channel;
+        this.candidates = candidates;
+        this.size = channel.size();
+        this.window = parallelism * 2;
+        this.pool = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("Gzip-Inflater-", 0).daemon(true).factory());
+    }
+    
+    @Override
+    public int read() throws IOException {
+        if (position == limit && !nextMember()) {
+            return -1;
+        }
+        return data[position++] & 0xff;
+    }
+    
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position == limit && !nextMember()) {
+            return -1;
+        }
+        int count = Math.min(len, limit - position);
+        System.arraycopy(data, position, b, off, count);
+        position += count;
+        return count;
+    }
+    
+    @Override
+    public int available() {
+        return limit - position;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            pool.shutdownNow();
+            channel.close();
+        }
+    }
+    
+    private boolean nextMember() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        // Empty members are valid gzip, so keep going until one has data or the file ends
+        while (nextMember < size) {
+            int index = Collections.binarySearch(candidates, nextMember);
+            if (index < 0) {
+                throw new IOException("Unexpected data after gzip member, at offset " + nextMember);
+            }
+            discardBefore(index);
+            submitUpTo(index + window);
+            GzipMembers.Member member = await(decoding.remove(nextMember));
+            discarded = index + 1;
+            nextMember = member.end();
+            if (member.length() > 0) {
+                data = member.data();
+                position = 0;
+                limit = member.length();
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void discardBefore(int index) {
+        // Candidates skipped over were inside the previous member, not real members
+        for (; discarded < index; discarded++) {
+            Future<GzipMembers.Member> stale = decoding.remove(candidates.get(discarded));
+            if (stale != null) {
+                stale.cancel(false);
+            }
+        }
+        submitted = Math.max(submitted, index);
+    }
+    
+    private void submitUpTo(int end) {
+        for (; submitted < Math.min(end, candidates.size()); submitted++) {
+            long offset = candidates.get(submitted);
+            decoding.put(offset, pool.submit(() -> GzipMembers.decode(channel, offset)));
+        }
+    }
+    
+    private static GzipMembers.Member await(Future<GzipMembers.Member> member) throws IOException {
+        try {
+            return member.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding gzip member", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to decode gzip member", e.getCause());
+        }
+    }
+}
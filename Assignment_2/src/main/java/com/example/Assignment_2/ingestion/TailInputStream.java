@@ -0,0 +1,265 @@
+package com.example.Assignment_2.ingestion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An endless InputStream over a file that keeps growing, like tail -F.
+ *
+ * At the end of the current file, read blocks until more bytes are appended instead of
+ * returning -1. It wakes on WatchService events for the file's directory and, since those
+ * can be coalesced or missed, also re-checks the file every pollMs.
+ *
+ * The followed target is either one path or a directory of rolled files. A file is told
+ * apart by its file key (inode), not its name, so:
+ * - rotation (the path now names a different file, or a new file appears in the directory)
+ *   is picked up once the current file has been read to its end; files that appeared
+ *   meanwhile are read oldest first;
+ * - truncation (the file got shorter than what was read) restarts it from the beginning.
+ *
+ * When the reader parses a header line, the header of every file after the first is
+ * skipped so the records of all files continue as one stream. A newline is inserted
+ * between files if the previous one did not end with one.
+ *
+ * Only {@link #close()} ends the stream; it may be called from another thread to stop a
+ * reader blocked in read.
+ */
+@Slf4j
+final class TailInputStream extends InputStream {
+    
+    private static final byte NEWLINE = '\n';
+    
+    private final Path target;
+    private final boolean directory;
+    private final Predicate<Path> accept;
+    private final boolean skipHeaderOfNextFiles;
+    private final long pollMs;
+    private final WatchService watchService;
+    private final Set<Object> seen = new HashSet<>();
+    
+    private FileChannel channel;
+    private Path current;
+    private boolean skippingHeader;
+    private boolean pendingNewline;
+    private int lastByte = NEWLINE;
+    private volatile boolean closed;
+    
+    /**
+     * @param target A file, or a directory of rolled files
+     * @param accept Which files of a directory to read
+     * @param skipHeaderOfNextFiles Whether every file starts with a header line the reader only expects once
+     * @param pollMs Longest wait between checks for new data
+     * @throws IOException if the directory cannot be watched
+     */
+    TailInputStream(Path target, Predicate<Path> accept, boolean skipHeaderOfNextFiles, long pollMs)
+            throws IOException {
+        this.target = target;
+        this.directory = Files.isDirectory(target);
+        this.accept = accept;
+        this.skipHeaderOfNextFiles = skipHeaderOfNextFiles;
+        this.pollMs = Math.max(1, pollMs);
+        this.watchService = target.getFileSystem().newWatchService();
+        Path watched = directory ? target : target.toAbsolutePath().getParent();
+        try {
+            watched.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+    }
+    
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int count = read(one, 0, 1);
+        return count < 0 ? -1 : one[0] & 0xff;
+    }
+    
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        try {
+            while (!closed) {
+                if (pendingNewline) {
+                    pendingNewline = false;
+                    lastByte = NEWLINE;
+                    b[off] = NEWLINE;
+                    return 1;
+                }
+                int count = channel != null ? channel.read(ByteBuffer.wrap(b, off, len)) : -1;
+                if (count > 0) {
+                    count = dropHeader(b, off, count);
+                    if (count > 0) {
+                        lastByte = b[off + count - 1];
+                        return count;
+                    }
+                } else if (!switchFile() && !restartIfTruncated()) {
+                    await();
+                }
+            }
+        } catch (ClosedChannelException | ClosedWatchServiceException e) {
+            if (!closed) {
+                throw e;
+            }
+        }
+        return -1;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            watchService.close();
+        } finally {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+    
+    /**
+     * Moves on to the oldest file not read yet, if there is one.
+     * Only called once the current file has been read to its end.
+     */
+    private boolean switchFile() throws IOException {
+        List<Path> unread = unreadFiles();
+        if (unread.isEmpty()) {
+            return false;
+        }
+        if (channel != null && channel.size() > channel.position()) {
+            // Appends that landed between the last read and the rotation check come first
+            return true;
+        }
+        for (Path candidate : unread) {
+            FileChannel next;
+            try {
+                next = FileChannel.open(candidate, StandardOpenOption.READ);
+                seen.add(fileKey(candidate, Files.readAttributes(candidate, BasicFileAttributes.class)));
+            } catch (NoSuchFileException e) {
+                continue; // rotated away between listing and opening
+            }
+            if (channel != null) {
+                log.info("Input rotated: {} -> {}", current, candidate);
+                channel.close();
+                startNextFile();
+            } else {
+                log.info("Following input file {}", candidate);
+            }
+            channel = next;
+            current = candidate;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Starts the current file over if it was truncated below what has been read.
+     */
+    private boolean restartIfTruncated() throws IOException {
+        if (channel == null || channel.size() >= channel.position()) {
+            return false;
+        }
+        log.info("Input truncated: {} is now {} bytes, reading it from the start", current, channel.size());
+        channel.position(0);
+        startNextFile();
+        return true;
+    }
+    
+    private void startNextFile() {
+        skippingHeader = skipHeaderOfNextFiles;
+        pendingNewline = lastByte != NEWLINE;
+    }
+    
+    /**
+     * Drops the bytes of a header line being skipped from a freshly read range.
+     * @return Number of bytes left at {@code off}
+     */
+    private int dropHeader(byte[] b, int off, int count) {
+        if (!skippingHeader) {
+            return count;
+        }
+        for (int i = off; i < off + count; i++) {
+            if (b[i] == NEWLINE) {
+                skippingHeader = false;
+                int remaining = off + count - (i + 1);
+                System.arraycopy(b, i + 1, b, off, remaining);
+                return remaining;
+            }
+        }
+        return 0;
+    }
+    
+    private List<Path> unreadFiles() throws IOException {
+        List<FileEntry> entries = new ArrayList<>();
+        if (directory) {
+            try (Stream<Path> files = Files.list(target)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    addEntry(entries, file);
+                }
+            }
+        } else {
+            addEntry(entries, target);
+        }
+        entries.sort(Comparator.comparingLong(FileEntry::modified).thenComparing(FileEntry::path));
+        return entries.stream().map(FileEntry::path).toList();
+    }
+    
+    private void addEntry(List<FileEntry> entries, Path file) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attributes.isRegularFile() && accept.test(file)
+                    && !seen.contains(fileKey(file, attributes))) {
+                entries.add(new FileEntry(file, attributes.lastModifiedTime().toMillis()));
+            }
+        } catch (NoSuchFileException e) {
+            // Not there (yet); checked again on the next wake-up
+        }
+    }
+    
+    private static Object fileKey(Path file, BasicFileAttributes attributes) {
+        Object key = attributes.fileKey();
+        // File systems without inodes: a recreated file has a new creation time
+        return key != null ? key : file.toAbsolutePath() + "@" + attributes.creationTime().toMillis();
+    }
+    
+    private void await() throws IOException {
+        try {
+            WatchKey key = watchService.poll(pollMs, TimeUnit.MILLISECONDS);
+            if (key != null) {
+                key.pollEvents();
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while following " + target);
+        }
+    }
+    
+    private record FileEntry(Path path, long modified) {
+    }
+}
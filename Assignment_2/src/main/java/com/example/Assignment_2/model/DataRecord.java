@@ -1,33 +1,228 @@
 package com.example.Assignment_2.model;
 
 import com.fasterxml.jackson.annotation.JsonAnySetter;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import lombok.NoArgsConstructor;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Represents a single data record from the source file.
  * Flexible schema to support CSV, JSON, and fixed-width data.
+ *
+ * Field names live in a {@link RecordSchema} shared by all records of a source; the record
+ * itself only holds a flat array of values in schema order. Use {@link #size()},
+ * {@link #getSchema()} and {@link #get(int)} to walk the fields by index.
+ * {@link #getFields()} is a live map view kept for code that works with names.
+ *
+ * The source is the file the record was read from, set when a run reads several files.
+ * The offset is the byte position in the file just past the record, where reading can
+ * resume after it; 0 when the reader cannot tell, e.g. for compressed input.
+ *
+ * A generated id may be kept as a 64-bit number only; its string form is then made the
+ * first time {@link #getId()} is called, usually by a sink, and kept.
  */
 @Data
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
 public class DataRecord {
     private String id;
+    private long numericId;
     private long sequenceNumber;
-    private Map<String, Object> fields = new HashMap<>();
+    private String source;
+    private long offset;
+    private RecordSchema schema;
+    private Object[] values;
+    
+    public DataRecord() {
+        this(null, 0, null, 0, null, null);
+    }
+    
+    @Builder
+    public DataRecord(String id, long sequenceNumber, String source, long offset, RecordSchema schema,
+                      Object[] values) {
+        this.id = id;
+        this.sequenceNumber = sequenceNumber;
+        this.source = source;
+        this.offset = offset;
+        this.schema = schema != null ? schema : RecordSchema.EMPTY;
+        this.values = values != null ? values : new Object[this.schema.size()];
+        if (this.values.length != this.schema.size()) {
+            throw new IllegalArgumentException("Expected " + this.schema.size()
+                    + " values for " + this.schema + " but got " + this.values.length);
+        }
+    }
+    
+    /**
+     * @return The record id, formatted from the numeric id if only that was set
+     */
+    public String getId() {
+        if (id == null && numericId != 0) {
+            id = Long.toString(numericId);
+        }
+        return id;
+    }
     
     @JsonAnySetter
     public void set(String fieldName, Object value) {
-        fields.put(fieldName, value);
+        int index = schema.indexOf(fieldName);
+        if (index < 0) {
+            // Field not in the shared schema: give this record its own, extended schema
+            schema = schema.with(fieldName);
+            values = Arrays.copyOf(values, values.length + 1);
+            index = values.length - 1;
+        }
+        values[index] = value;
     }
     
     public Object get(String fieldName) {
-        return fields.get(fieldName);
+        int index = schema.indexOf(fieldName);
+        return index >= 0 ? values[index] : null;
+    }
+    
+    /**
+     * @param index Field index in the record's schema
+     * @return Value of the field at that index
+     */
+    public Object get(int index) {
+        return values[index];
+    }
+    
+    /**
+     * @return Number of fields
+     */
+    public int size() {
+        return values.length;
+    }
+    
+    /**
+     * Returns the fields as a map from name to value.
+     * The map is a view: it reads from and writes to this record.
+     * @return Map view of the fields
+     */
+    public Map<String, Object> getFields() {
+        return new FieldsView();
+    }
+    
+    /**
+     * Replaces the fields with the entries of a map, in its iteration order.
+     * @param fields Field values by name
+     */
+    public void setFields(Map<String, Object> fields) {
+        String[] names = fields.keySet().toArray(new String[0]);
+        Object[] newValues = new Object[names.length];
+        for (int i = 0; i < names.length; i++) {
+            newValues[i] = fields.get(names[i]);
+        }
+        this.schema = RecordSchema.of(names);
+        this.values = newValues;
+    }
+    
+    public static class DataRecordBuilder {
+        /**
+         * Sets the fields from a map, with a schema built from its keys.
+         * Readers should prefer schema() and values() with a shared schema.
+         * @param fields Field values by name
+         * @return This builder
+         */
+        public DataRecordBuilder fields(Map<String, Object> fields) {
+            DataRecord record = new DataRecord();
+            record.setFields(fields);
+            this.schema = record.schema;
+            this.values = record.values;
+            return this;
+        }
+    }
+    
+    /**
+     * Live map view over the record's schema and values.
+     */
+    private final class FieldsView extends AbstractMap<String, Object> {
+        @Override
+        public int size() {
+            return values.length;
+        }
+        
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String name && schema.indexOf(name) >= 0;
+        }
+        
+        @Override
+        public Object get(Object key) {
+            return key instanceof String name ? DataRecord.this.get(name) : null;
+        }
+        
+        @Override
+        public Object put(String key, Object value) {
+            Object previous = DataRecord.this.get(key);
+            set(key, value);
+            return previous;
+        }
+        
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return values.length;
+                }
+                
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+                        
+                        @Override
+                        public boolean hasNext() {
+                            return next < values.length;
+                        }
+                        
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next++;
+                            return new Entry<>() {
+                                @Override
+                                public String getKey() {
+                                    return schema.name(index);
+                                }
+                                
+                                @Override
+                                public Object getValue() {
+                                    return values[index];
+                                }
+                                
+                                @Override
+                                public Object setValue(Object value) {
+                                    Object previous = values[index];
+                                    values[index] = value;
+                                    return previous;
+                                }
+                                
+                                @Override
+                                public boolean equals(Object o) {
+                                    return o instanceof Entry<?, ?> e
+                                            && getKey().equals(e.getKey())
+                                            && Objects.equals(getValue(), e.getValue());
+                                }
+                                
+                                @Override
+                                public int hashCode() {
+                                    return getKey().hashCode() ^ Objects.hashCode(getValue());
+                                }
+                            };
+                        }
+                    };
+                }
+            };
+        }
     }
 }
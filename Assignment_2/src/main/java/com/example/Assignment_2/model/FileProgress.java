@@ -0,0 +1,62 @@
+package com.example.Assignment_2.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Data;
+
+/**
+ * Read progress of one input file when several files are fanned out in one run.
+ */
+@Data
+public class FileProgress {
+    
+    public enum State {
+        PENDING, READING, DONE, FAILED
+    }
+    
+    private final String path;
+    private final long sizeBytes;
+    private final AtomicLong recordsRead;
+    private volatile State state;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile String error;
+    
+    public FileProgress(String path, long sizeBytes) {
+        this.path = path;
+        this.sizeBytes = sizeBytes;
+        this.recordsRead = new AtomicLong(0);
+        this.state = State.PENDING;
+    }
+    
+    public void started() {
+        startNanos = System.nanoTime();
+        state = State.READING;
+    }
+    
+    public void recordRead() {
+        recordsRead.incrementAndGet();
+    }
+    
+    public void finished() {
+        endNanos = System.nanoTime();
+        state = State.DONE;
+    }
+    
+    public void failed(String message) {
+        endNanos = System.nanoTime();
+        error = message;
+        state = State.FAILED;
+    }
+    
+    /**
+     * @return Seconds spent reading so far, or in total once finished
+     */
+    public double getElapsedSeconds() {
+        if (state == State.PENDING) {
+            return 0;
+        }
+        long end = state == State.READING ? System.nanoTime() : endNanos;
+        return (end - startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.Assignment_2.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordered field names shared by every record read from the same source.
+ * A record stores only its values, by index; names are resolved through the schema.
+ * Names are interned, so records from different schemas still share the strings.
+ */
+public final class RecordSchema {
+    
+    public static final RecordSchema EMPTY = new RecordSchema(new String[0]);
+    
+    private final String[] names;
+    private final Map<String, Integer> indexes;
+    
+    private RecordSchema(String[] names) {
+        this.names = names;
+        this.indexes = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            if (indexes.putIfAbsent(names[i], i) != null) {
+                throw new IllegalArgumentException("Duplicate field name: " + names[i]);
+            }
+        }
+    }
+    
+    /**
+     * Creates a schema from field names.
+     * @param names Field names in record order
+     * @return The schema
+     * @throws IllegalArgumentException if a name is null or appears twice
+     */
+    public static RecordSchema of(List<String> names) {
+        return of(names.toArray(new String[0]));
+    }
+    
+    /**
+     * Creates a schema from field names.
+     * @param names Field names in record order
+     * @return The schema
+     * @throws IllegalArgumentException if a name is null or appears twice
+     */
+    public static RecordSchema of(String... names) {
+        String[] interned = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] == null) {
+                throw new IllegalArgumentException("Field name at index " + i + " is null");
+            }
+            interned[i] = names[i].intern();
+        }
+        return new RecordSchema(interned);
+    }
+    
+    /**
+     * Returns a schema with one more field at the end.
+     * @param name Name of the new field
+     * @return The extended schema
+     */
+    public RecordSchema with(String name) {
+        String[] extended = Arrays.copyOf(names, names.length + 1);
+        extended[names.length] = name;
+        return of(extended);
+    }
+    
+    /**
+     * @return Number of fields
+     */
+    public int size() {
+        return names.length;
+    }
+    
+    /**
+     * @param index Field index
+     * @return Name of the field at that index
+     */
+    public String name(int index) {
+        return names[index];
+    }
+    
+    /**
+     * @param name Field name
+     * @return Index of the field, or -1 if the schema has no such field
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index != null ? index : -1;
+    }
+    
+    /**
+     * Checks whether this schema has exactly the given names in the given order.
+     * Lets readers of self-describing formats reuse a schema across rows.
+     * @param candidate Field names to compare
+     * @param count Number of names to compare from the start of the array
+     * @return true if the names match
+     */
+    public boolean matches(String[] candidate, int count) {
+        if (count != names.length) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!names[i].equals(candidate[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * @return Field names in record order
+     */
+    public List<String> names() {
+        return List.of(names);
+    }
+    
+    @Override
+    public String toString() {
+        return "RecordSchema" + Arrays.toString(names);
+    }
+}
@@ -9,6 +9,7 @@ import java.time.Instant;
 
 /**
  * Represents an event to be sent to a sink.
+ * Like the record id, a numeric event id is only formatted when {@link #getEventId()} is called.
  */
 @Data
 @NoArgsConstructor
@@ -16,6 +17,7 @@ import java.time.Instant;
 @Builder
 public class SinkEvent {
     private String eventId;
+    private long numericEventId;
     private DataRecord record;
     private SinkType sinkType;
     private Object transformedData; // Can be JSON, Protobuf, XML, Avro
@@ -23,6 +25,13 @@ public class SinkEvent {
     private int retryCount;
     private String lastError;
     
+    public String getEventId() {
+        if (eventId == null && numericEventId != 0) {
+            eventId = Long.toString(numericEventId);
+        }
+        return eventId;
+    }
+    
     public boolean canRetry() {
         return retryCount < 3;
     }
@@ -0,0 +1,93 @@
+package com.example.Assignment_2.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A field value held as a range of UTF-8 bytes, decoded to a String only when asked for.
+ * Readers that tokenize raw bytes store these instead of Strings; transformers that
+ * emit UTF-8 can copy the bytes straight through via {@link #array()},
+ * {@link #offset()} and {@link #byteLength()}.
+ *
+ * The backing array belongs to the record and must not be modified.
+ */
+public final class Utf8Slice implements CharSequence {
+    
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+    private String string;
+    
+    public Utf8Slice(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+    
+    /**
+     * @return Backing array holding the value's bytes
+     */
+    public byte[] array() {
+        return bytes;
+    }
+    
+    /**
+     * @return Index of the first byte of the value in {@link #array()}
+     */
+    public int offset() {
+        return offset;
+    }
+    
+    /**
+     * @return Number of UTF-8 bytes in the value
+     */
+    public int byteLength() {
+        return length;
+    }
+    
+    @Override
+    public int length() {
+        return toString().length();
+    }
+    
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+    
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return length == 0;
+    }
+    
+    @Override
+    public String toString() {
+        String decoded = string;
+        if (decoded == null) {
+            // Racy but benign: every thread decodes to an equal String
+            decoded = new String(bytes, offset, length, StandardCharsets.UTF_8);
+            string = decoded;
+        }
+        return decoded;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Utf8Slice other
+                && Arrays.equals(bytes, offset, offset + length, other.bytes, other.offset, other.offset + other.length);
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+}
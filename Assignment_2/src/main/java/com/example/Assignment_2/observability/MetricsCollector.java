@@ -1,12 +1,17 @@
 package com.example.Assignment_2.observability;
 
+import com.example.Assignment_2.model.FileProgress;
 import com.example.Assignment_2.model.Metrics;
 import com.example.Assignment_2.model.ProcessingResult;
 import com.example.Assignment_2.model.SinkType;
+import com.example.Assignment_2.throttling.BackpressureBuffer;
+import com.example.Assignment_2.throttling.ConcurrencyLimiter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -18,11 +23,59 @@ import java.util.concurrent.atomic.AtomicLong;
 public class MetricsCollector {
     
     private final Metrics metrics;
+    private final Map<SinkType, BackpressureBuffer> buffers = new ConcurrentHashMap<>();
+    private final Map<SinkType, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private volatile List<FileProgress> files = List.of();
     
     public MetricsCollector() {
         this.metrics = new Metrics();
     }
     
+    /**
+     * Registers a sink's buffer so its queue depth is reported.
+     * @param sinkType The sink type
+     * @param buffer The sink's backpressure buffer
+     */
+    public void registerBuffer(SinkType sinkType, BackpressureBuffer buffer) {
+        buffers.put(sinkType, buffer);
+    }
+    
+    /**
+     * Registers a sink's adaptive concurrency limiter so its limit and RTT are reported.
+     * @param sinkType The sink type
+     * @param limiter The sink's concurrency limiter
+     */
+    public void registerLimiter(SinkType sinkType, ConcurrencyLimiter limiter) {
+        limiters.put(sinkType, limiter);
+    }
+    
+    /**
+     * Returns a sink's adaptive concurrency limiter.
+     * @param sinkType The sink type
+     * @return The limiter, or null if the sink has a static limit
+     */
+    public ConcurrencyLimiter getLimiter(SinkType sinkType) {
+        return limiters.get(sinkType);
+    }
+    
+    /**
+     * Registers the input files of a multi-file run so their progress is reported.
+     * @param files Progress of each input file
+     */
+    public void registerFiles(List<FileProgress> files) {
+        this.files = files;
+    }
+    
+    /**
+     * Returns the number of events waiting in a sink's buffer.
+     * @param sinkType The sink type
+     * @return Queue depth, or 0 if the sink has no registered buffer
+     */
+    public int getQueueDepth(SinkType sinkType) {
+        BackpressureBuffer buffer = buffers.get(sinkType);
+        return buffer != null ? buffer.size() : 0;
+    }
+    
     public void recordProcessed() {
         metrics.recordProcessed();
     }
@@ -62,11 +115,46 @@ public class MetricsCollector {
                     .getOrDefault(sinkType, new AtomicLong(0)).get();
             long failure = metrics.getFailureBySink()
                     .getOrDefault(sinkType, new AtomicLong(0)).get();
-            sb.append(String.format("  %s: %d success, %d failure\n", 
+            sb.append(String.format("  %s: %d success, %d failure", 
                     sinkType.getDisplayName(), success, failure));
+            BackpressureBuffer buffer = buffers.get(sinkType);
+            if (buffer != null) {
+                sb.append(String.format(", queue depth %d/%d", buffer.size(), buffer.capacity()));
+            }
+            ConcurrencyLimiter limiter = limiters.get(sinkType);
+            if (limiter != null) {
+                sb.append(String.format(", %s limit %d (%d in flight), rtt %.1f ms (min %.1f ms)",
+                        limiter.getAlgorithmName(), limiter.getLimit(), limiter.getInFlight(),
+                        limiter.getSmoothedRttMs(), limiter.getMinRttMs()));
+            }
+            sb.append("\n");
         }
+        appendFileProgress(sb);
         sb.append("=============================\n");
         
         log.info(sb.toString());
     }
+    
+    private void appendFileProgress(StringBuilder sb) {
+        List<FileProgress> current = files;
+        if (current.isEmpty()) {
+            return;
+        }
+        long done = current.stream().filter(file -> file.getState() == FileProgress.State.DONE).count();
+        long failed = current.stream().filter(file -> file.getState() == FileProgress.State.FAILED).count();
+        sb.append(String.format("\nInput Files: %d/%d done, %d failed\n", done, current.size(), failed));
+        for (FileProgress file : current) {
+            if (file.getState() == FileProgress.State.PENDING) {
+                continue;
+            }
+            long records = file.getRecordsRead().get();
+            double elapsed = file.getElapsedSeconds();
+            sb.append(String.format("  %s [%s]: %d records, %.1f s, %.0f records/sec", file.getPath(),
+                    file.getState(), records, elapsed, elapsed > 0 ? records / elapsed : 0.0));
+            if (file.getError() != null) {
+                sb.append(" - ").append(file.getError());
+            }
+            sb.append("\n");
+        }
+    }
 }
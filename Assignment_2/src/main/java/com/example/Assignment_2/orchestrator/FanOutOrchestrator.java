@@ -1,55 +1,90 @@
 package com.example.Assignment_2.orchestrator;
 
+import com.example.Assignment_2.config.ExecutorConfig;
 import com.example.Assignment_2.config.FanOutConfig;
 import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.identity.IdGenerator;
 import com.example.Assignment_2.ingestion.FileReaderFactory;
 import com.example.Assignment_2.model.DataRecord;
 import com.example.Assignment_2.model.ProcessingResult;
 import com.example.Assignment_2.model.SinkEvent;
 import com.example.Assignment_2.model.SinkType;
 import com.example.Assignment_2.observability.MetricsCollector;
+import com.example.Assignment_2.resilience.Checkpoint;
+import com.example.Assignment_2.resilience.CheckpointStore;
+import com.example.Assignment_2.resilience.CheckpointTracker;
 import com.example.Assignment_2.resilience.DeadLetterQueue;
 import com.example.Assignment_2.sink.BaseSink;
 import com.example.Assignment_2.sink.GrpcSink;
 import com.example.Assignment_2.sink.MessageQueueSink;
 import com.example.Assignment_2.sink.RestApiSink;
 import com.example.Assignment_2.sink.WideColumnDbSink;
+import com.example.Assignment_2.throttling.AimdLimit;
 import com.example.Assignment_2.throttling.BackpressureBuffer;
+import com.example.Assignment_2.throttling.ConcurrencyLimiter;
 import com.example.Assignment_2.throttling.RateLimiter;
+import com.example.Assignment_2.throttling.VegasLimit;
+import com.example.Assignment_2.transformation.Transformer;
 import com.example.Assignment_2.transformation.TransformerFactory;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * Main orchestrator for the fan-out engine.
  * Coordinates data ingestion, transformation, and distribution to multiple sinks.
+ *
+ * The reader thread puts one event per enabled sink into that sink's backpressure buffer.
+ * Each sink has its own drain workers that take batches from its buffer, transform them
+ * and send them, so a slow sink only holds back the reader once its own buffer is full.
  */
 @Slf4j
 @Component
 public class FanOutOrchestrator {
     
+    private static final long DRAIN_POLL_MS = 100;
+    private static final long ENQUEUE_WARN_SECONDS = 30;
+    private static final int DRAIN_TIMEOUT_SECONDS = 300;
+    private static final long RETRY_ENQUEUE_SECONDS = 5;
+    
     private final FileReaderFactory fileReaderFactory;
     private final TransformerFactory transformerFactory;
     private final MetricsCollector metricsCollector;
     private final FanOutConfig config;
     private final Map<SinkType, BaseSink> sinks;
     private final Map<SinkType, RateLimiter> rateLimiters;
+    private final Map<SinkType, ConcurrencyLimiter> concurrencyLimiters;
     private final Map<SinkType, BackpressureBuffer> buffers;
+    private final Map<SinkType, AtomicLong> pendingEvents;
+    private final Map<SinkType, List<Thread>> drainWorkers;
     private final DeadLetterQueue deadLetterQueue;
-    private final ExecutorService executorService;
+    private final ScheduledExecutorService retryScheduler;
+    private final IdGenerator idGenerator;
     private final AtomicLong recordCounter = new AtomicLong(0);
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile boolean inputFinished;
+    private volatile boolean following;
+    private CheckpointTracker checkpoints;
     
     @Autowired
     public FanOutOrchestrator(FileReaderFactory fileReaderFactory,
@@ -59,7 +94,8 @@ public class FanOutOrchestrator {
                             RestApiSink restApiSink,
                             GrpcSink grpcSink,
                             MessageQueueSink messageQueueSink,
-                            WideColumnDbSink wideColumnDbSink) {
+                            WideColumnDbSink wideColumnDbSink,
+                            IdGenerator idGenerator) {
         this.fileReaderFactory = fileReaderFactory;
         this.transformerFactory = transformerFactory;
         this.metricsCollector = metricsCollector;
@@ -72,36 +108,44 @@ public class FanOutOrchestrator {
         sinks.put(SinkType.WIDE_COLUMN_DB, wideColumnDbSink);
         
         this.rateLimiters = new HashMap<>();
-        this.buffers = new HashMap<>();
+        this.concurrencyLimiters = new EnumMap<>(SinkType.class);
+        this.buffers = new EnumMap<>(SinkType.class);
+        this.pendingEvents = new EnumMap<>(SinkType.class);
+        this.drainWorkers = new EnumMap<>(SinkType.class);
         initializeSinks();
         
-        this.deadLetterQueue = new DeadLetterQueue("./data/dlq.txt");
-        this.executorService = createExecutorService();
+        this.deadLetterQueue = new DeadLetterQueue(config.getDeadLetterPath());
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                ExecutorConfig.workerThreadFactory(config.getThreadPool(), "Retry-"));
+        this.idGenerator = idGenerator;
     }
     
     /**
      * Starts the fan-out process.
      * Reads from source file and dispatches to all configured sinks.
+     *
+     * With fanout.input.follow the input is tailed and records appended to it are
+     * dispatched as they arrive, until the application context closes; {@link #stopFollowing()}
+     * then stops the reader and waits for the events already read to be sent.
      */
     public void start() {
         log.info("Starting Fan-Out Orchestrator");
-        log.info("Input file: {}", config.getInput().getFilePath());
+        boolean follow = config.getInput().isFollow();
+        log.info("Input file: {}{}", config.getInput().getFilePath(), follow ? " (following)" : "");
         
         // Start metrics collector thread
         startMetricsThread();
         
-        try {
-            // Read records from source file
-            fileReaderFactory.readRecords(config.getInput().getFilePath())
-                    .forEach(this::processRecord);
+        boolean completed = false;
+        try (Stream<DataRecord> records = openInput(config.getInput().getFilePath(), follow)) {
+            metricsCollector.registerFiles(fileReaderFactory.getFileProgress());
+            following = follow;
             
-            // Wait for all pending operations to complete
-            int timeoutSeconds = 300;
-            boolean completed = executorService.awaitTermination(timeoutSeconds, TimeUnit.SECONDS);
+            // Read records from the source file(s)
+            completed = fanOut(records, TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS));
             
             if (!completed) {
-                log.warn("Executor service did not terminate within {} seconds", timeoutSeconds);
-                executorService.shutdownNow();
+                log.warn("Drain workers did not finish within {} seconds", DRAIN_TIMEOUT_SECONDS);
             }
             
             metricsCollector.printStatus();
@@ -109,68 +153,241 @@ public class FanOutOrchestrator {
             log.error("Orchestrator interrupted", e);
             Thread.currentThread().interrupt();
         } finally {
+            if (checkpoints != null) {
+                checkpoints.close(completed);
+            }
             cleanup();
+            stopped.countDown();
+        }
+    }
+    
+    /**
+     * Opens the input records. A single file is checkpointed when fanout.checkpoint is
+     * enabled, and resumed after the last checkpoint a previous run left behind.
+     * @param inputPath A file, directory or glob
+     * @param follow Whether to keep following the input
+     * @return The records to dispatch
+     */
+    private Stream<DataRecord> openInput(String inputPath, boolean follow) {
+        if (follow) {
+            return fileReaderFactory.followInput(inputPath);
         }
+        FanOutConfig.CheckpointConfig checkpointConfig = config.getCheckpoint();
+        if (!checkpointConfig.isEnabled() || fileReaderFactory.isMultiFile(inputPath)) {
+            if (checkpointConfig.isEnabled()) {
+                log.info("Checkpoints are only kept for single-file input");
+            }
+            return fileReaderFactory.readInput(inputPath);
+        }
+        
+        CheckpointStore store = new CheckpointStore(checkpointConfig.getPath());
+        Optional<Checkpoint> previous = store.load(inputPath);
+        Checkpoint start = previous.orElseGet(() -> new Checkpoint(inputPath,
+                CheckpointStore.identityOf(Paths.get(inputPath)),
+                fileReaderFactory.getReader(inputPath).getFileType(), 0, 0));
+        Stream<DataRecord> records = previous.isPresent()
+                ? fileReaderFactory.resumeInput(inputPath, start)
+                : fileReaderFactory.readInput(inputPath);
+        recordCounter.set(start.sequence());
+        
+        checkpoints = new CheckpointTracker(store, start, buffers.keySet());
+        checkpoints.start(checkpointConfig.getIntervalSeconds());
+        return records;
+    }
+    
+    /**
+     * Fans records out to every enabled sink and waits until each event is sent or dead-lettered.
+     * Package-private so benchmarks can drive the dispatch path without a file or a shutdown.
+     * @param records The records to dispatch
+     * @param timeoutNanos Maximum time to wait for the drain workers after the last record
+     * @return true if every event was settled in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean fanOut(Stream<DataRecord> records, long timeoutNanos) throws InterruptedException {
+        startDrainWorkers();
+        records.forEach(this::processRecord);
+        
+        // Let the drain workers finish once every event has been sent or dead-lettered
+        inputFinished = true;
+        return awaitDrainWorkers(timeoutNanos);
+    }
+    
+    /**
+     * Returns the number of events waiting in each enabled sink's buffer.
+     * @return Queue depth by sink type
+     */
+    public Map<SinkType, Integer> getQueueDepths() {
+        Map<SinkType, Integer> depths = new EnumMap<>(SinkType.class);
+        buffers.forEach((sinkType, buffer) -> depths.put(sinkType, buffer.size()));
+        return depths;
     }
     
     /**
-     * Processes a single record by distributing it to all enabled sinks.
+     * Processes a single record by putting an event for it into the buffer of every enabled sink.
+     * Blocks while any of those buffers is full.
      * @param record The data record to process
      */
     private void processRecord(DataRecord record) {
-        record.setId(UUID.randomUUID().toString());
-        record.setSequenceNumber(recordCounter.incrementAndGet());
+        idGenerator.assign(record);
+        long globalSequence = recordCounter.incrementAndGet();
+        if (record.getSource() == null || !config.getInput().isPerFileSequence()) {
+            record.setSequenceNumber(globalSequence);
+        }
         metricsCollector.recordProcessed();
+        if (checkpoints != null) {
+            checkpoints.recordRead(globalSequence, record.getOffset());
+        }
         
-        for (SinkType sinkType : SinkType.values()) {
-            SinkConfig sinkConfig = config.getSinks().get(sinkType.getKey());
-            if (sinkConfig == null || !sinkConfig.isEnabled()) {
-                continue;
+        for (Map.Entry<SinkType, BackpressureBuffer> entry : buffers.entrySet()) {
+            SinkType sinkType = entry.getKey();
+            pendingEvents.get(sinkType).incrementAndGet();
+            enqueue(entry.getValue(), createEvent(record, sinkType));
+        }
+    }
+    
+    /**
+     * Puts an event into a sink buffer, waiting for as long as the sink needs to make room.
+     * @param buffer The sink's buffer
+     * @param event The event to enqueue
+     */
+    private void enqueue(BackpressureBuffer buffer, SinkEvent event) {
+        try {
+            while (!buffer.offer(event, ENQUEUE_WARN_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Buffer for {} has been full for {} seconds, still waiting",
+                        event.getSinkType().getDisplayName(), ENQUEUE_WARN_SECONDS);
             }
-            
-            // Create event and dispatch asynchronously
-            CompletableFuture.runAsync(() -> {
-                try {
-                    SinkEvent event = createEvent(record, sinkType);
-                    dispatchToSink(event, sinkType);
-                } catch (Exception e) {
-                    log.error("Error processing record for sink {}", sinkType, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FanOutException("Interrupted while enqueueing event " + event.getEventId(), e);
+        }
+    }
+    
+    /**
+     * Drain loop run by each worker of a sink.
+     * Takes batches from the sink's buffer until input is finished and every event is settled.
+     * @param sinkType The sink this worker drains
+     */
+    private void drain(SinkType sinkType) {
+        BackpressureBuffer buffer = buffers.get(sinkType);
+        AtomicLong pending = pendingEvents.get(sinkType);
+        int batchSize = config.getInput().getBatchSize();
+        long lingerMs = config.getInput().getLingerMs();
+        
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<SinkEvent> batch = buffer.pollBatch(batchSize, DRAIN_POLL_MS, lingerMs, TimeUnit.MILLISECONDS);
+                if (!batch.isEmpty()) {
+                    List<SinkEvent> transformed = transformBatch(batch, sinkType);
+                    if (!transformed.isEmpty()) {
+                        dispatchBatch(transformed, sinkType);
+                    }
+                } else if (inputFinished && pending.get() == 0) {
+                    return;
                 }
-            }, executorService);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Error draining buffer for sink {}", sinkType, e);
+            }
         }
     }
     
     /**
-     * Dispatches an event to a sink with retry logic and backpressure handling.
-     * @param event The event to dispatch
+     * Transforms the events of a batch that do not carry a payload yet.
+     * Retried events keep the payload from their first attempt.
+     * @param batch The events to transform
      * @param sinkType The target sink type
+     * @return The events that were transformed successfully
      */
-    private void dispatchToSink(SinkEvent event, SinkType sinkType) {
+    private List<SinkEvent> transformBatch(List<SinkEvent> batch, SinkType sinkType) {
+        Transformer transformer = transformerFactory.getTransformer(sinkType);
+        List<SinkEvent> transformed = new ArrayList<>(batch.size());
+        for (SinkEvent event : batch) {
+            try {
+                if (event.getTransformedData() == null) {
+                    event.setTransformedData(transformer.transform(event.getRecord()));
+                }
+                transformed.add(event);
+            } catch (Exception e) {
+                log.error("Error processing record {} for sink {}", event.getRecord().getId(), sinkType, e);
+                settle(event, sinkType);
+            }
+        }
+        return transformed;
+    }
+    
+    /**
+     * Dispatches a batch to a sink as one request, with retry logic for failed events.
+     * The rate limit counts requests, so a batch takes a single token.
+     * @param batch The events to dispatch
+     * @param sinkType The target sink type
+     */
+    private void dispatchBatch(List<SinkEvent> batch, SinkType sinkType) {
         BaseSink sink = sinks.get(sinkType);
         RateLimiter rateLimiter = rateLimiters.get(sinkType);
+        ConcurrencyLimiter concurrencyLimiter = concurrencyLimiters.get(sinkType);
         SinkConfig sinkConfig = config.getSinks().get(sinkType.getKey());
         
         try {
             // Apply rate limiting
             rateLimiter.acquire();
+            if (concurrencyLimiter != null) {
+                concurrencyLimiter.acquire();
+            }
             
             // Send to sink
-            CompletableFuture<ProcessingResult> future = sink.send(event);
+            CompletableFuture<List<ProcessingResult>> future;
+            try {
+                future = sink.sendBatch(batch);
+            } catch (RuntimeException e) {
+                // A sink that fails before returning a future still owes every event a retry or the DLQ
+                if (concurrencyLimiter != null) {
+                    concurrencyLimiter.release(0, true);
+                }
+                log.error("Sink {} failed to accept a batch of {} events", sinkType, batch.size(), e);
+                batch.forEach(event -> handleError(event, sinkType, e, sinkConfig));
+                return;
+            }
             
-            future.whenComplete((result, exception) -> {
+            future.whenComplete((results, exception) -> {
+                if (concurrencyLimiter != null) {
+                    releaseWithSample(concurrencyLimiter, results, exception);
+                }
                 if (exception != null) {
-                    handleError(event, sinkType, exception, sinkConfig);
-                } else if (result != null) {
-                    handleResult(result, event, sinkType, sinkConfig);
+                    batch.forEach(event -> handleError(event, sinkType, exception, sinkConfig));
+                } else if (results != null) {
+                    for (int i = 0; i < results.size(); i++) {
+                        handleResult(results.get(i), batch.get(i), sinkType, sinkConfig);
+                    }
                 }
             });
         } catch (InterruptedException e) {
             log.error("Rate limiter interrupted for sink {}", sinkType, e);
-            handleError(event, sinkType, e, sinkConfig);
+            batch.forEach(event -> handleError(event, sinkType, e, sinkConfig));
             Thread.currentThread().interrupt();
         }
     }
     
+    /**
+     * Gives a batch's permit back. The batch is one request, so its RTT is the longest
+     * processing time among its results, and it counts as dropped if any event failed.
+     * @param limiter The sink's concurrency limiter
+     * @param results Results of the batch, or null if it failed as a whole
+     * @param exception Failure of the whole batch, or null
+     */
+    private static void releaseWithSample(ConcurrencyLimiter limiter, List<ProcessingResult> results,
+                                          Throwable exception) {
+        long rttMs = 0;
+        boolean dropped = exception != null || results == null;
+        if (results != null) {
+            for (ProcessingResult result : results) {
+                rttMs = Math.max(rttMs, result.getProcessingTimeMs());
+                dropped |= !result.isSuccess();
+            }
+        }
+        limiter.release(rttMs, dropped);
+    }
+    
     /**
      * Handles successful or failed processing results.
      * @param result The processing result
@@ -178,14 +395,15 @@ public class FanOutOrchestrator {
      * @param sinkType The sink type
      * @param sinkConfig The sink configuration
      */
-    private void handleResult(ProcessingResult result, SinkEvent event, 
+    private void handleResult(ProcessingResult result, SinkEvent event,
                             SinkType sinkType, SinkConfig sinkConfig) {
         metricsCollector.recordResult(result);
         
         if (!result.isSuccess()) {
             handleError(event, sinkType, result.getException(), sinkConfig);
         } else {
-            log.debug("Successfully processed event {} for sink {}", 
+            settle(event, sinkType);
+            log.debug("Successfully processed event {} for sink {}",
                     event.getEventId(), sinkType);
         }
     }
@@ -197,43 +415,94 @@ public class FanOutOrchestrator {
      * @param exception The exception that occurred
      * @param sinkConfig The sink configuration
      */
-    private void handleError(SinkEvent event, SinkType sinkType, 
+    private void handleError(SinkEvent event, SinkType sinkType,
                            Throwable exception, SinkConfig sinkConfig) {
         event.incrementRetry(exception.getMessage());
         
         if (event.canRetry()) {
-            log.warn("Retrying event {} for sink {} (attempt {}/3)", 
+            log.warn("Retrying event {} for sink {} (attempt {}/3)",
                     event.getEventId(), sinkType, event.getRetryCount());
             
-            // Retry with exponential backoff
+            // Retry with exponential backoff, back through the sink's own buffer
             long delayMs = (long) Math.pow(2, event.getRetryCount()) * 100;
-            CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, executorService)
-                    .execute(() -> dispatchToSink(event, sinkType));
+            try {
+                retryScheduler.schedule(() -> retry(event, sinkType), delayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                log.error("Event {} failed for sink {} during cleanup, not retried. Error: {}",
+                        event.getEventId(), sinkType, exception.getMessage());
+                deadLetter(event, sinkType);
+            }
         } else {
-            log.error("Event {} failed for sink {} - exceeded max retries. Error: {}", 
+            log.error("Event {} failed for sink {} - exceeded max retries. Error: {}",
                     event.getEventId(), sinkType, exception.getMessage());
-            deadLetterQueue.add(event);
+            deadLetter(event, sinkType);
         }
     }
     
+    /**
+     * Puts a retried event back into its sink's buffer. The retry scheduler has a single
+     * thread shared by every sink, so it only waits a bounded time for room and dead-letters
+     * the event rather than holding up the retries of the other sinks.
+     * @param event The event to retry
+     * @param sinkType The sink type
+     */
+    private void retry(SinkEvent event, SinkType sinkType) {
+        if (retryScheduler.isShutdown()) {
+            // Cleanup has begun and no drain worker will take the event any more
+            deadLetter(event, sinkType);
+            return;
+        }
+        try {
+            if (buffers.get(sinkType).offer(event, RETRY_ENQUEUE_SECONDS, TimeUnit.SECONDS)) {
+                return;
+            }
+            log.error("Buffer for {} stayed full for {} seconds, dead-lettering retried event {}",
+                    sinkType.getDisplayName(), RETRY_ENQUEUE_SECONDS, event.getEventId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deadLetter(event, sinkType);
+    }
+    
+    /**
+     * Writes an event to the dead letter queue and settles it.
+     * @param event The event
+     * @param sinkType The sink type
+     */
+    private void deadLetter(SinkEvent event, SinkType sinkType) {
+        deadLetterQueue.add(event);
+        settle(event, sinkType);
+    }
+    
+    /**
+     * Marks an event as done for its sink: sent, dead-lettered or dropped.
+     * The checkpoint hears of it first, so it is current once nothing is pending.
+     * @param event The event
+     * @param sinkType The sink type
+     */
+    private void settle(SinkEvent event, SinkType sinkType) {
+        if (checkpoints != null) {
+            checkpoints.settled(sinkType, event.getRecord().getSequenceNumber());
+        }
+        pendingEvents.get(sinkType).decrementAndGet();
+    }
+    
     /**
      * Creates a SinkEvent from a DataRecord.
+     * The payload is filled in later by the drain worker that transforms the batch.
      * @param record The data record
      * @param sinkType The target sink type
      * @return A new SinkEvent
      */
     private SinkEvent createEvent(DataRecord record, SinkType sinkType) {
-        Object transformedData = transformerFactory.getTransformer(sinkType)
-                .transform(record);
-        
-        return SinkEvent.builder()
-                .eventId(UUID.randomUUID().toString())
+        SinkEvent event = SinkEvent.builder()
                 .record(record)
                 .sinkType(sinkType)
-                .transformedData(transformedData)
                 .createdAt(java.time.Instant.now())
                 .retryCount(0)
                 .build();
+        idGenerator.assign(event);
+        return event;
     }
     
     /**
@@ -246,45 +515,113 @@ public class FanOutOrchestrator {
                 continue;
             }
             
-            BaseSink sink = sinks.get(sinkType);
             RateLimiter rateLimiter = new RateLimiter(sinkConfig.getRateLimit());
             BackpressureBuffer buffer = new BackpressureBuffer(
-                    sinkConfig.getBufferSize(), 
+                    sinkConfig.getBufferSize(),
                     sinkType.getDisplayName());
             
             rateLimiters.put(sinkType, rateLimiter);
             buffers.put(sinkType, buffer);
+            pendingEvents.put(sinkType, new AtomicLong(0));
+            metricsCollector.registerBuffer(sinkType, buffer);
+            ConcurrencyLimiter concurrencyLimiter = concurrencyLimiter(sinkConfig.getConcurrency());
+            if (concurrencyLimiter != null) {
+                concurrencyLimiters.put(sinkType, concurrencyLimiter);
+                metricsCollector.registerLimiter(sinkType, concurrencyLimiter);
+                log.info("Sink {} adapts its in-flight limit with {}, starting at {} within [{}, {}]",
+                        sinkType.getDisplayName(), concurrencyLimiter.getAlgorithmName(),
+                        concurrencyLimiter.getLimit(), sinkConfig.getConcurrency().getMinLimit(),
+                        sinkConfig.getConcurrency().getMaxLimit());
+            }
             
-            log.info("Initialized sink: {} with rate limit: {} req/sec and buffer size: {}",
-                    sinkType.getDisplayName(), sinkConfig.getRateLimit(), sinkConfig.getBufferSize());
+            log.info("Initialized sink: {} with rate limit: {} req/sec, buffer size: {} and {} drain worker(s)",
+                    sinkType.getDisplayName(), sinkConfig.getRateLimit(), sinkConfig.getBufferSize(),
+                    sinkConfig.getDrainWorkers());
         }
     }
     
     /**
-     * Creates a thread pool executor for concurrent processing.
-     * @return Configured ExecutorService
+     * Creates the adaptive in-flight limiter a sink is configured with.
+     * @param concurrency The sink's concurrency settings
+     * @return The limiter, or null for a static (rate limit only) sink
      */
-    private ExecutorService createExecutorService() {
-        FanOutConfig.ThreadPoolConfig poolConfig = config.getThreadPool();
-        ThreadPoolExecutor executor = new ThreadPoolExecutor(
-                poolConfig.getCorePoolSize(),
-                poolConfig.getMaxPoolSize(),
-                poolConfig.getKeepAliveSeconds(),
-                TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(poolConfig.getQueueCapacity()),
-                r -> {
-                    Thread t = new Thread(r, "FanOut-Worker-" + recordCounter.get());
-                    t.setDaemon(true);
-                    return t;
-                },
-                new ThreadPoolExecutor.CallerRunsPolicy()
-        );
-        
-        executor.allowCoreThreadTimeOut(true);
-        log.info("Created thread pool: core={}, max={}, queue={}",
-                poolConfig.getCorePoolSize(), poolConfig.getMaxPoolSize(), poolConfig.getQueueCapacity());
-        
-        return executor;
+    private static ConcurrencyLimiter concurrencyLimiter(SinkConfig.ConcurrencyConfig concurrency) {
+        if (concurrency == null || concurrency.getMode() == null) {
+            return null;
+        }
+        return switch (concurrency.getMode().trim().toLowerCase(Locale.ROOT)) {
+            case "static", "" -> null;
+            case "aimd" -> new ConcurrencyLimiter(new AimdLimit(concurrency.getBackoffRatio()),
+                    concurrency.getInitialLimit(), concurrency.getMinLimit(), concurrency.getMaxLimit());
+            case "vegas" -> new ConcurrencyLimiter(new VegasLimit(concurrency.getProbeInterval()),
+                    concurrency.getInitialLimit(), concurrency.getMinLimit(), concurrency.getMaxLimit());
+            default -> throw new IllegalArgumentException("Unknown concurrency mode '" + concurrency.getMode()
+                    + "', expected static, aimd or vegas");
+        };
+    }
+    
+    /**
+     * Starts the dedicated drain workers of every enabled sink.
+     */
+    private void startDrainWorkers() {
+        inputFinished = false;
+        for (SinkType sinkType : buffers.keySet()) {
+            int workerCount = Math.max(1, config.getSinks().get(sinkType.getKey()).getDrainWorkers());
+            ThreadFactory threadFactory = ExecutorConfig.workerThreadFactory(
+                    config.getThreadPool(), "Drain-" + sinkType.getKey() + "-");
+            List<Thread> workers = new ArrayList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                Thread worker = threadFactory.newThread(() -> drain(sinkType));
+                worker.start();
+                workers.add(worker);
+            }
+            drainWorkers.put(sinkType, workers);
+        }
+    }
+    
+    /**
+     * Waits for all drain workers to exit.
+     * @param timeoutNanos Maximum time to wait across all workers
+     * @return true if every worker finished in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private boolean awaitDrainWorkers(long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        for (List<Thread> workers : drainWorkers.values()) {
+            for (Thread worker : workers) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    return false;
+                }
+                worker.join(remainingMs);
+                if (worker.isAlive()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Ends a followed input when the application context closes, and holds the shutdown until
+     * the events already read have been sent and the sinks closed. Spring calls this before it
+     * destroys the beans the orchestrator depends on, so the shared executor is still running
+     * while those events drain.
+     */
+    @PreDestroy
+    public void stopFollowing() {
+        if (!following) {
+            return;
+        }
+        log.info("Shutdown requested, no longer following input");
+        fileReaderFactory.stopFollowing();
+        try {
+            if (!stopped.await(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Fan-out did not stop within {} seconds", DRAIN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
     
     /**
@@ -311,23 +648,27 @@ public class FanOutOrchestrator {
     private void cleanup() {
         log.info("Cleaning up resources");
         
-        // Close all sinks
-        sinks.values().forEach(BaseSink::close);
-        
-        // Close DLQ
-        deadLetterQueue.close();
+        // Stop any drain worker still running after a timeout or interrupt
+        drainWorkers.values().forEach(workers -> workers.forEach(Thread::interrupt));
         
-        // Shutdown executor
+        // Dead-letter the retries still waiting for their backoff, while the DLQ is open
+        retryScheduler.shutdown();
         try {
-            executorService.shutdown();
-            if (!executorService.awaitTermination(10, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
+            if (!retryScheduler.awaitTermination(RETRY_ENQUEUE_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Retry scheduler did not stop within {} seconds", RETRY_ENQUEUE_SECONDS);
             }
         } catch (InterruptedException e) {
-            executorService.shutdownNow();
             Thread.currentThread().interrupt();
         }
         
+        // Close all sinks
+        sinks.values().forEach(BaseSink::close);
+        
+        // Close DLQ
+        deadLetterQueue.close();
+        
+        // The shared executor is a container bean, shut down by Spring after this orchestrator
+        
         log.info("Cleanup completed");
     }
 }
@@ -0,0 +1,63 @@
+package com.example.Assignment_2.resilience;
+
+import java.util.BitSet;
+
+/**
+ * Tracks the highest sequence number below which every record has been acknowledged.
+ *
+ * Acknowledgements arrive out of order (batches complete in any order, retries come back
+ * later), so acks above the watermark are remembered in a bitmap relative to it. The
+ * bitmap only spans the records in flight and is re-based as the watermark moves up.
+ */
+public class AckWatermark {
+    
+    private static final int REBASE_BITS = 4096;
+    
+    private long watermark;
+    private BitSet acked = new BitSet();
+    private int base; // bit of watermark + 1
+    
+    /**
+     * @param start Sequence number already acknowledged, with everything below it
+     */
+    public AckWatermark(long start) {
+        this.watermark = start;
+    }
+    
+    /**
+     * Marks one record as acknowledged.
+     * @param sequence Sequence number of the record
+     */
+    public void ack(long sequence) {
+        ack(sequence, sequence);
+    }
+    
+    /**
+     * Marks a range of records as acknowledged. Only the part above the watermark is
+     * touched, so a cumulative ack costs no more than the records it newly covers.
+     * @param first Sequence number of the first record, inclusive
+     * @param last Sequence number of the last record, inclusive
+     */
+    public synchronized void ack(long first, long last) {
+        long from = Math.max(first - watermark - 1, 0);
+        long to = Math.min(last - watermark - 1, Integer.MAX_VALUE - 1L - base);
+        if (from > to) {
+            return; // already below the watermark, or not records of this run
+        }
+        acked.set(base + (int) from, base + (int) to + 1);
+        int next = acked.nextClearBit(base);
+        watermark += next - base;
+        base = next;
+        if (base >= REBASE_BITS) {
+            acked = acked.get(base, Math.max(base, acked.length()));
+            base = 0;
+        }
+    }
+    
+    /**
+     * @return Sequence number up to which every record has been acknowledged
+     */
+    public synchronized long get() {
+        return watermark;
+    }
+}
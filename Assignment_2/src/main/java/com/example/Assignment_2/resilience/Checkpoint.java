@@ -0,0 +1,23 @@
+package com.example.Assignment_2.resilience;
+
+/**
+ * How far a run over one input file got: every record up to {@code sequence} has been
+ * acknowledged by every enabled sink, and that record ends at byte {@code offset}.
+ *
+ * @param file Input file path
+ * @param fileIdentity File key (inode) of the input, to notice a replaced file
+ * @param fileType Reader that produced the offset
+ * @param offset Byte offset just past the last acknowledged record; 0 if the reader did not report offsets
+ * @param sequence Sequence number of the last acknowledged record
+ */
+public record Checkpoint(String file, String fileIdentity, String fileType, long offset, long sequence) {
+    
+    /**
+     * @param newOffset Offset just past the record at {@code newSequence}
+     * @param newSequence Last acknowledged sequence number
+     * @return This checkpoint moved forward
+     */
+    public Checkpoint advanceTo(long newOffset, long newSequence) {
+        return new Checkpoint(file, fileIdentity, fileType, newOffset, newSequence);
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.Assignment_2.resilience;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the latest {@link Checkpoint} in a small properties file.
+ *
+ * Each save writes a temporary file next to it, forces it to disk and renames it over the
+ * old one with an atomic move, so a crash leaves either the old or the new checkpoint,
+ * never a torn one.
+ */
+@Slf4j
+public class CheckpointStore {
+    
+    private static final int FINGERPRINT_BYTES = 4096;
+    
+    private final Path path;
+    private final Path tempPath;
+    
+    public CheckpointStore(String path) {
+        this.path = Paths.get(path);
+        this.tempPath = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+    }
+    
+    /**
+     * Loads the checkpoint of an input file.
+     * @param inputFile The input file about to be read
+     * @return The checkpoint, if there is one for this very file
+     */
+    public Optional<Checkpoint> load(String inputFile) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.error("Failed to read checkpoint {}, starting from the beginning", path, e);
+            return Optional.empty();
+        }
+        
+        Checkpoint checkpoint;
+        try {
+            checkpoint = new Checkpoint(
+                    properties.getProperty("file"),
+                    properties.getProperty("fileIdentity"),
+                    properties.getProperty("fileType"),
+                    Long.parseLong(properties.getProperty("offset", "0")),
+                    Long.parseLong(properties.getProperty("sequence", "0")));
+        } catch (NumberFormatException e) {
+            log.error("Ignoring malformed checkpoint {}", path, e);
+            return Optional.empty();
+        }
+        if (!inputFile.equals(checkpoint.file())) {
+            log.info("Ignoring checkpoint {}: it is for {}", path, checkpoint.file());
+            return Optional.empty();
+        }
+        if (!isSameFile(Paths.get(inputFile), checkpoint.fileIdentity())) {
+            log.warn("Ignoring checkpoint {}: {} has been replaced since it was written", path, inputFile);
+            return Optional.empty();
+        }
+        return Optional.of(checkpoint);
+    }
+    
+    /**
+     * Replaces the stored checkpoint atomically.
+     * @param checkpoint The checkpoint to store
+     * @throws IOException if it cannot be written
+     */
+    public void save(Checkpoint checkpoint) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("file", checkpoint.file());
+        properties.setProperty("fileIdentity", checkpoint.fileIdentity());
+        properties.setProperty("fileType", checkpoint.fileType());
+        properties.setProperty("offset", Long.toString(checkpoint.offset()));
+        properties.setProperty("sequence", Long.toString(checkpoint.sequence()));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        properties.store(bytes, "Fan-out checkpoint");
+        
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * Removes the checkpoint, so the next run starts from the beginning.
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(tempPath);
+        } catch (IOException e) {
+            log.error("Failed to delete checkpoint {}", path, e);
+        }
+    }
+    
+    /**
+     * Identifies a file by its file key (inode) and a CRC of its first bytes, which an
+     * append does not change but a replacement almost surely does, even one that reuses
+     * the inode.
+     * @param file An input file
+     * @return Identity of the file, as stored in a checkpoint
+     */
+    public static String identityOf(Path file) {
+        try {
+            return identityOf(file, (int) Math.min(Files.size(file), FINGERPRINT_BYTES));
+        } catch (IOException e) {
+            return "missing";
+        }
+    }
+    
+    private static boolean isSameFile(Path file, String identity) {
+        int separator = identity == null ? -1 : identity.lastIndexOf('|');
+        int headBytes = separator < 0 ? -1 : identity.lastIndexOf('|', separator - 1);
+        if (headBytes < 0) {
+            return false;
+        }
+        try {
+            int length = Integer.parseInt(identity.substring(headBytes + 1, separator));
+            return Files.size(file) >= length && identity.equals(identityOf(file, length));
+        } catch (NumberFormatException | IOException e) {
+            return false;
+        }
+    }
+    
+    private static String identityOf(Path file, int headBytes) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        Object key = attributes.fileKey();
+        byte[] head = new byte[headBytes];
+        try (InputStream in = Files.newInputStream(file)) {
+            in.readNBytes(head, 0, headBytes);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(head);
+        return (key != null ? key : "") + "|" + headBytes + "|" + Long.toHexString(crc.getValue());
+    }
+}
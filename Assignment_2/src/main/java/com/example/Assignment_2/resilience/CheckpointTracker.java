@@ -0,0 +1,161 @@
+package com.example.Assignment_2.resilience;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.example.Assignment_2.model.SinkType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the checkpoint of a run forward as sinks acknowledge records.
+ *
+ * Each enabled sink has an {@link AckWatermark}; a record counts for a sink once it was
+ * sent, dead-lettered or failed to transform, since none of those is sent again. The
+ * checkpoint is the lowest watermark across sinks, together with the byte offset the
+ * reader reported for that record. Offsets are kept only for records above the last
+ * checkpoint, i.e. roughly what is in flight.
+ *
+ * The checkpoint is written every interval by a background thread and once more when the
+ * run ends; a run that finishes cleanly removes it instead.
+ */
+@Slf4j
+public class CheckpointTracker {
+    
+    private final CheckpointStore store;
+    private final Map<SinkType, AckWatermark> watermarks = new EnumMap<>(SinkType.class);
+    private Checkpoint checkpoint;
+    private long writtenSequence;
+    private long[] offsets = new long[1024];
+    private long firstOffsetSequence; // sequence number of offsets[0]
+    private int offsetCount;
+    private ScheduledExecutorService writer;
+    
+    /**
+     * @param store Where checkpoints are written
+     * @param start Checkpoint the run starts from
+     * @param sinks Sinks that must acknowledge each record
+     */
+    public CheckpointTracker(CheckpointStore store, Checkpoint start, Collection<SinkType> sinks) {
+        this.store = store;
+        this.checkpoint = start;
+        this.writtenSequence = start.sequence();
+        this.firstOffsetSequence = start.sequence() + 1;
+        for (SinkType sink : sinks) {
+            watermarks.put(sink, new AckWatermark(start.sequence()));
+        }
+    }
+    
+    /**
+     * Starts writing the checkpoint periodically.
+     * @param intervalSeconds Time between writes
+     */
+    public void start(long intervalSeconds) {
+        writer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("Checkpoint-Writer").daemon(true).factory());
+        long interval = Math.max(1, intervalSeconds);
+        writer.scheduleWithFixedDelay(this::write, interval, interval, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Notes the offset of a record handed to the sinks. Called in sequence order.
+     * @param sequence Sequence number of the record
+     * @param offset Byte offset just past the record, 0 if unknown
+     */
+    public synchronized void recordRead(long sequence, long offset) {
+        int index = (int) (sequence - firstOffsetSequence);
+        if (index != offsetCount) {
+            log.warn("Record {} read out of order, expected {}", sequence, firstOffsetSequence + offsetCount);
+            return;
+        }
+        if (offsetCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsetCount << 1);
+        }
+        offsets[offsetCount++] = offset;
+    }
+    
+    /**
+     * Notes that a sink is done with a record, successfully or not.
+     * @param sink The sink
+     * @param sequence Sequence number of the record
+     */
+    public void settled(SinkType sink, long sequence) {
+        AckWatermark watermark = watermarks.get(sink);
+        if (watermark != null) {
+            watermark.ack(sequence);
+        }
+    }
+    
+    /**
+     * @return The latest checkpoint, written or not
+     */
+    public synchronized Checkpoint current() {
+        advance();
+        return checkpoint;
+    }
+    
+    /**
+     * Writes the checkpoint if it moved since the last write.
+     */
+    public synchronized void write() {
+        advance();
+        if (checkpoint.sequence() == writtenSequence) {
+            return;
+        }
+        try {
+            store.save(checkpoint);
+            writtenSequence = checkpoint.sequence();
+            log.debug("Checkpoint at record {}, byte offset {}", checkpoint.sequence(), checkpoint.offset());
+        } catch (IOException e) {
+            log.error("Failed to write checkpoint at record {}", checkpoint.sequence(), e);
+        }
+    }
+    
+    /**
+     * Stops the periodic writes and leaves the checkpoint for the next run, or removes it.
+     * @param completed true if every record was settled, so there is nothing to resume
+     */
+    public void close(boolean completed) {
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (completed) {
+            store.delete();
+            log.info("Input fully processed, checkpoint removed");
+        } else {
+            write();
+            Checkpoint last = current();
+            log.info("Checkpoint kept at record {}, byte offset {}", last.sequence(), last.offset());
+        }
+    }
+    
+    private void advance() {
+        long acknowledged = Long.MAX_VALUE;
+        for (AckWatermark watermark : watermarks.values()) {
+            acknowledged = Math.min(acknowledged, watermark.get());
+        }
+        // Only records whose offset is known can become the checkpoint
+        acknowledged = Math.min(acknowledged, firstOffsetSequence + offsetCount - 1);
+        if (watermarks.isEmpty() || acknowledged <= checkpoint.sequence()) {
+            return;
+        }
+        int last = (int) (acknowledged - firstOffsetSequence);
+        checkpoint = checkpoint.advanceTo(offsets[last], acknowledged);
+        
+        int dropped = last + 1;
+        System.arraycopy(offsets, dropped, offsets, 0, offsetCount - dropped);
+        offsetCount -= dropped;
+        firstOffsetSequence += dropped;
+    }
+}
@@ -3,7 +3,12 @@ package com.example.Assignment_2.sink;
 import com.example.Assignment_2.model.SinkEvent;
 import com.example.Assignment_2.model.ProcessingResult;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Abstract base class for all sink implementations.
@@ -13,18 +18,40 @@ public abstract class BaseSink {
     
     protected final String name;
     protected final long rateLimitPerSec;
+    protected final Executor executor;
     
     public BaseSink(String name, long rateLimitPerSec) {
+        this(name, rateLimitPerSec, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * @param name Sink name
+     * @param rateLimitPerSec Rate limit in requests per second
+     * @param executor Executor that runs the sink's blocking I/O
+     */
+    public BaseSink(String name, long rateLimitPerSec, Executor executor) {
         this.name = name;
         this.rateLimitPerSec = rateLimitPerSec;
+        this.executor = executor;
     }
     
     /**
      * Asynchronously sends an event to the sink.
+     * Equivalent to a batch of one.
      * @param event The event to send
      * @return CompletableFuture with the processing result
      */
-    public abstract CompletableFuture<ProcessingResult> send(SinkEvent event);
+    public CompletableFuture<ProcessingResult> send(SinkEvent event) {
+        return sendBatch(Collections.singletonList(event))
+                .thenApply(results -> results.get(0));
+    }
+    
+    /**
+     * Asynchronously sends a batch of events to the sink as a single request.
+     * @param events The events to send, in dispatch order
+     * @return CompletableFuture with one processing result per event, in the same order
+     */
+    public abstract CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events);
     
     /**
      * Gets the name of this sink.
@@ -42,6 +69,38 @@ public abstract class BaseSink {
         return rateLimitPerSec;
     }
     
+    /**
+     * Builds a success result for every event of a batch that was sent in one request.
+     * @param events The events of the batch
+     * @param processingTimeMs Time taken by the batch request
+     * @return One success result per event
+     */
+    protected List<ProcessingResult> successResults(List<SinkEvent> events, long processingTimeMs) {
+        List<ProcessingResult> results = new ArrayList<>(events.size());
+        for (SinkEvent event : events) {
+            results.add(ProcessingResult.success(event.getEventId(), event.getSinkType(), processingTimeMs));
+        }
+        return results;
+    }
+    
+    /**
+     * Builds a failure result for every event of a batch whose request failed.
+     * @param events The events of the batch
+     * @param message Failure description
+     * @param exception The cause of the failure
+     * @param processingTimeMs Time taken by the batch request
+     * @return One failure result per event
+     */
+    protected List<ProcessingResult> failureResults(List<SinkEvent> events, String message,
+                                                    Throwable exception, long processingTimeMs) {
+        List<ProcessingResult> results = new ArrayList<>(events.size());
+        for (SinkEvent event : events) {
+            results.add(ProcessingResult.failure(event.getEventId(), event.getSinkType(),
+                    message, exception, processingTimeMs));
+        }
+        return results;
+    }
+    
     /**
      * Closes the sink and releases any resources.
      */
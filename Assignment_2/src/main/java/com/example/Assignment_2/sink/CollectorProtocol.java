@@ -0,0 +1,137 @@
+package com.example.Assignment_2.sink;
+
+import com.example.Assignment_2.exception.SinkException;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import io.grpc.MethodDescriptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Wire contract between {@link GrpcSink} and the downstream event collector:
+ * <pre>
+ * service EventCollector {
+ *   rpc Stream(stream Event) returns (stream Ack);
+ * }
+ * message Event {
+ *   int64 sequence = 1;  // per stream, starting at 1
+ *   bytes record = 2;    // FanOutRecord, see ProtobufTransformer
+ * }
+ * message Ack {
+ *   int64 first = 1;     // acknowledges sequence numbers first..last, inclusive
+ *   int64 last = 2;
+ * }
+ * </pre>
+ * There is no generated code: the method uses byte[] marshallers and the two small
+ * messages are encoded here with CodedOutputStream.
+ */
+final class CollectorProtocol {
+    
+    static final String SERVICE = "fanout.v1.EventCollector";
+    
+    static final MethodDescriptor.Marshaller<byte[]> BYTES = new MethodDescriptor.Marshaller<>() {
+        @Override
+        public InputStream stream(byte[] value) {
+            return new ByteArrayInputStream(value);
+        }
+        
+        @Override
+        public byte[] parse(InputStream stream) {
+            try {
+                return stream.readAllBytes();
+            } catch (IOException e) {
+                throw new SinkException("Failed to read gRPC message", e);
+            }
+        }
+    };
+    
+    static final MethodDescriptor<byte[], byte[]> STREAM = MethodDescriptor.<byte[], byte[]>newBuilder()
+            .setType(MethodDescriptor.MethodType.BIDI_STREAMING)
+            .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE, "Stream"))
+            .setRequestMarshaller(BYTES)
+            .setResponseMarshaller(BYTES)
+            .build();
+    
+    private static final int SEQUENCE_FIELD = 1;
+    private static final int RECORD_FIELD = 2;
+    private static final int FIRST_FIELD = 1;
+    private static final int LAST_FIELD = 2;
+    
+    private CollectorProtocol() {
+    }
+    
+    static byte[] encodeEvent(long sequence, byte[] record) {
+        byte[] message = new byte[CodedOutputStream.computeInt64Size(SEQUENCE_FIELD, sequence)
+                + CodedOutputStream.computeByteArraySize(RECORD_FIELD, record)];
+        CodedOutputStream output = CodedOutputStream.newInstance(message);
+        try {
+            output.writeInt64(SEQUENCE_FIELD, sequence);
+            output.writeByteArray(RECORD_FIELD, record);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new SinkException("Failed to encode gRPC event", e);
+        }
+        return message;
+    }
+    
+    static Event decodeEvent(byte[] message) {
+        long sequence = 0;
+        byte[] record = new byte[0];
+        try {
+            CodedInputStream input = CodedInputStream.newInstance(message);
+            int tag;
+            while ((tag = input.readTag()) != 0) {
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case SEQUENCE_FIELD -> sequence = input.readInt64();
+                    case RECORD_FIELD -> record = input.readByteArray();
+                    default -> input.skipField(tag);
+                }
+            }
+        } catch (IOException e) {
+            throw new SinkException("Malformed gRPC event", e);
+        }
+        return new Event(sequence, record);
+    }
+    
+    static byte[] encodeAck(long first, long last) {
+        byte[] message = new byte[CodedOutputStream.computeInt64Size(FIRST_FIELD, first)
+                + CodedOutputStream.computeInt64Size(LAST_FIELD, last)];
+        CodedOutputStream output = CodedOutputStream.newInstance(message);
+        try {
+            output.writeInt64(FIRST_FIELD, first);
+            output.writeInt64(LAST_FIELD, last);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new SinkException("Failed to encode gRPC ack", e);
+        }
+        return message;
+    }
+    
+    static Ack decodeAck(byte[] message) {
+        long first = 0;
+        long last = 0;
+        try {
+            CodedInputStream input = CodedInputStream.newInstance(message);
+            int tag;
+            while ((tag = input.readTag()) != 0) {
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case FIRST_FIELD -> first = input.readInt64();
+                    case LAST_FIELD -> last = input.readInt64();
+                    default -> input.skipField(tag);
+                }
+            }
+        } catch (IOException e) {
+            throw new SinkException("Malformed gRPC ack", e);
+        }
+        return new Ack(first, last);
+    }
+    
+    record Event(long sequence, byte[] record) {
+    }
+    
+    record Ack(long first, long last) {
+    }
+}
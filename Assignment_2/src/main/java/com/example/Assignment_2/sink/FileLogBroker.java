@@ -0,0 +1,196 @@
+package com.example.Assignment_2.sink;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local stand-in for a message broker: each topic partition is an append-only file,
+ * <code>&lt;directory&gt;/&lt;topic&gt;-&lt;partition&gt;.log</code>.
+ *
+ * Every entry is a 16-byte header (offset of its first record, record count, batch length)
+ * followed by the batch bytes. On open, the headers of an existing log are walked to find
+ * the next offset, so a restarted broker keeps numbering records where it stopped; a torn
+ * entry at the end of a log is cut off. Appends are written with one positional write and
+ * are not forced to disk until the broker is closed.
+ */
+@Slf4j
+public class FileLogBroker implements MessageBroker {
+    
+    private static final int ENTRY_HEADER_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+    
+    private final Path directory;
+    private final int defaultPartitions;
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    
+    /**
+     * @param directory Directory holding the log files, created if missing
+     * @param defaultPartitions Partitions of a topic that has no log files yet
+     * @throws IOException if the directory cannot be created
+     */
+    public FileLogBroker(Path directory, int defaultPartitions) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.defaultPartitions = Math.max(1, defaultPartitions);
+    }
+    
+    @Override
+    public int partitions(String topic) {
+        int existing = 0;
+        while (Files.exists(logFile(topic, existing))) {
+            existing++;
+        }
+        return existing > 0 ? existing : defaultPartitions;
+    }
+    
+    @Override
+    public long append(String topic, int partition, byte[] batch, int recordCount) throws IOException {
+        return partition(topic, partition).append(batch, recordCount);
+    }
+    
+    /**
+     * Reads back the entries of a partition, for consumers and tests.
+     * @param topic Topic name
+     * @param partition Partition number
+     * @return Entries in log order
+     * @throws IOException if the log cannot be read
+     */
+    public List<Entry> read(String topic, int partition) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        Path file = logFile(topic, partition);
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(ENTRY_HEADER_BYTES);
+            while (position + ENTRY_HEADER_BYTES <= channel.size()) {
+                header.clear();
+                readFully(channel, header, position);
+                header.flip();
+                long offset = header.getLong();
+                int recordCount = header.getInt();
+                ByteBuffer batch = ByteBuffer.allocate(header.getInt());
+                readFully(channel, batch, position + ENTRY_HEADER_BYTES);
+                entries.add(new Entry(offset, recordCount, batch.array()));
+                position += ENTRY_HEADER_BYTES + batch.capacity();
+            }
+        }
+        return entries;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Partition partition : partitions.values()) {
+            try {
+                partition.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        partitions.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+    
+    private Partition partition(String topic, int partition) throws IOException {
+        Path file = logFile(topic, partition);
+        try {
+            return partitions.computeIfAbsent(file.toString(), key -> {
+                try {
+                    return new Partition(file);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private Path logFile(String topic, int partition) {
+        return directory.resolve(topic + "-" + partition + ".log");
+    }
+    
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Log ends inside an entry at byte " + (position + buffer.position()));
+            }
+        }
+    }
+    
+    /**
+     * One stored batch.
+     * @param offset Offset of the batch's first record
+     * @param recordCount Number of records
+     * @param batch Encoded batch
+     */
+    public record Entry(long offset, int recordCount, byte[] batch) {
+    }
+    
+    /**
+     * An open partition log and the offset its next record gets.
+     */
+    private static final class Partition {
+        private final FileChannel channel;
+        private long size;
+        private long nextOffset;
+        
+        Partition(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(ENTRY_HEADER_BYTES);
+            long length = channel.size();
+            while (size + ENTRY_HEADER_BYTES <= length) {
+                header.clear();
+                readFully(channel, header, size);
+                header.flip();
+                long offset = header.getLong();
+                int recordCount = header.getInt();
+                int batchLength = header.getInt();
+                if (size + ENTRY_HEADER_BYTES + batchLength > length) {
+                    break;
+                }
+                nextOffset = offset + recordCount;
+                size += ENTRY_HEADER_BYTES + batchLength;
+            }
+            if (size < length) {
+                log.warn("Cutting off {} bytes of an incomplete entry at the end of {}", length - size, file);
+                channel.truncate(size);
+            }
+        }
+        
+        synchronized long append(byte[] batch, int recordCount) throws IOException {
+            long offset = nextOffset;
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_BYTES + batch.length);
+            entry.putLong(offset).putInt(recordCount).putInt(batch.length).put(batch).flip();
+            while (entry.hasRemaining()) {
+                size += channel.write(entry, size);
+            }
+            nextOffset += recordCount;
+            return offset;
+        }
+        
+        synchronized void close() throws IOException {
+            try {
+                channel.force(true);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
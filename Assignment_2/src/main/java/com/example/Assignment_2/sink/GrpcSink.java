@@ -1,54 +1,217 @@
 package com.example.Assignment_2.sink;
 
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.exception.SinkException;
 import com.example.Assignment_2.model.SinkEvent;
 import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkType;
+import com.example.Assignment_2.resilience.AckWatermark;
+import io.grpc.CallOptions;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ClientResponseObserver;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
- * Mock gRPC Sink that simulates sending data via gRPC.
- * Implements bi-directional streaming simulation and rate limiting.
+ * gRPC Sink that streams events to the downstream collector over long-lived bidi streams.
+ *
+ * The sink opens `connections` channels to the endpoint and keeps one EventCollector/Stream
+ * call open on each (see {@link CollectorProtocol}); batches are spread over them round
+ * robin. Every event of a batch is written as its own message with a per-stream sequence
+ * number, but only while the call's isReady() allows: the rest waits in the stream's
+ * outbound queue and is written from the onReady callback, so gRPC flow control, not an
+ * unbounded transport buffer, decides how far the sink runs ahead of the server.
+ *
+ * The collector answers with acks covering ranges of sequence numbers, in any order and
+ * as coarse as it likes. A batch succeeds once all of its sequence numbers are acknowledged.
+ * At most maxInFlight batches await acks. A batch not acknowledged within requestTimeoutMs
+ * fails and cancels its stream, which fails the other batches waiting on it; the next
+ * batch opens a new stream.
+ *
+ * Without an endpoint the sink only simulates network latency.
  */
 @Slf4j
 @Component
 public class GrpcSink extends BaseSink {
     
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+    
     private final AtomicLong requestCount = new AtomicLong(0);
+    private final AtomicLong eventCount = new AtomicLong(0);
+    private final AtomicLong ackCount = new AtomicLong(0);
     private final String grpcEndpoint;
+    private final List<Lane> lanes;
+    private final AtomicInteger nextLane = new AtomicInteger();
+    private final Semaphore inFlight;
+    private final long requestTimeoutMs;
+    
+    /**
+     * Creates a sink that only simulates requests.
+     * @param fanOutExecutor Executor that runs the simulated requests
+     */
+    public GrpcSink(ExecutorService fanOutExecutor) {
+        this(SinkConfig.builder().rateLimit(100).build(), fanOutExecutor);
+    }
+    
+    @Autowired
+    public GrpcSink(FanOutConfig config, ExecutorService fanOutExecutor) {
+        this(sinkConfig(config), fanOutExecutor);
+    }
+    
+    /**
+     * @param sinkConfig Endpoint (host:port), rate limit, connections, in-flight limit and timeout
+     * @param fanOutExecutor Executor for simulated requests and stream callbacks
+     */
+    public GrpcSink(SinkConfig sinkConfig, ExecutorService fanOutExecutor) {
+        this(sinkConfig, fanOutExecutor, isBlank(sinkConfig.getEndpoint()) ? null
+                : () -> Grpc.newChannelBuilder(sinkConfig.getEndpoint(), InsecureChannelCredentials.create())
+                        .executor(fanOutExecutor)
+                        .build());
+    }
     
-    public GrpcSink() {
-        super("gRPC Sink", 100); // 100 requests per second
-        this.grpcEndpoint = "localhost:50051";
+    GrpcSink(SinkConfig sinkConfig, ExecutorService fanOutExecutor, Supplier<ManagedChannel> channels) {
+        super("gRPC Sink", sinkConfig.getRateLimit(), fanOutExecutor);
+        this.requestTimeoutMs = Math.max(1, sinkConfig.getRequestTimeoutMs());
+        if (channels == null) {
+            this.grpcEndpoint = "simulated";
+            this.lanes = List.of();
+            this.inFlight = null;
+            return;
+        }
+        this.grpcEndpoint = isBlank(sinkConfig.getEndpoint()) ? "in-process" : sinkConfig.getEndpoint();
+        this.inFlight = new Semaphore(Math.max(1, sinkConfig.getMaxInFlight()));
+        int connections = Math.max(1, sinkConfig.getConnections());
+        List<Lane> created = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            created.add(new Lane(i, channels.get()));
+        }
+        this.lanes = List.copyOf(created);
+        log.info("gRPC Sink streaming to {} over {} connection(s) with up to {} batches awaiting acks",
+                grpcEndpoint, connections, sinkConfig.getMaxInFlight());
     }
     
     @Override
-    public CompletableFuture<ProcessingResult> send(SinkEvent event) {
+    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+        if (lanes.isEmpty()) {
+            return simulateBatch(events);
+        }
+        
+        List<byte[]> records = new ArrayList<>(events.size());
+        for (SinkEvent event : events) {
+            records.add(recordBytes(event.getTransformedData()));
+        }
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(
+                    failureResults(events, "Interrupted while waiting for a gRPC stream slot", e, 0));
+        }
+        
+        long startTime = System.nanoTime();
+        Lane lane = lanes.get(Math.floorMod(nextLane.getAndIncrement(), lanes.size()));
+        CompletableFuture<Void> acked = new CompletableFuture<>();
+        Lane.Stream stream = lane.submit(records, acked);
+        return acked.orTimeout(requestTimeoutMs, TimeUnit.MILLISECONDS).handle((ignored, error) -> {
+            inFlight.release();
+            long processingTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            requestCount.incrementAndGet();
+            if (error instanceof TimeoutException) {
+                stream.cancel("no ack within " + requestTimeoutMs + " ms");
+                String message = "gRPC batch not acknowledged within " + requestTimeoutMs + " ms";
+                log.warn("gRPC: {} ({} events on connection {})", message, events.size(), lane.index);
+                return failureResults(events, message, new SinkException(message, error), processingTime);
+            }
+            if (error != null) {
+                log.error("gRPC: Failed to send batch of {} events to {}", events.size(), grpcEndpoint, error);
+                return failureResults(events, "gRPC request failed: " + error.getMessage(), error, processingTime);
+            }
+            eventCount.addAndGet(events.size());
+            log.debug("gRPC: Successfully sent batch of {} events to {}", events.size(), grpcEndpoint);
+            return successResults(events, processingTime);
+        });
+    }
+    
+    @Override
+    public void close() {
+        for (Lane lane : lanes) {
+            lane.halfClose();
+        }
+        for (Lane lane : lanes) {
+            lane.channel.shutdown();
+        }
+        for (Lane lane : lanes) {
+            try {
+                if (!lane.channel.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    lane.channel.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                lane.channel.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("gRPC Sink closed. Total requests sent: {}, events sent: {}, acks received: {}",
+                requestCount.get(), eventCount.get(), ackCount.get());
+    }
+    
+    /**
+     * @return Messages waiting for their stream to become ready, over all connections
+     */
+    int queuedMessages() {
+        int queued = 0;
+        for (Lane lane : lanes) {
+            queued += lane.queued();
+        }
+        return queued;
+    }
+    
+    private static byte[] recordBytes(Object payload) {
+        if (payload instanceof byte[] bytes) {
+            return bytes;
+        }
+        return String.valueOf(payload).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private CompletableFuture<List<ProcessingResult>> simulateBatch(List<SinkEvent> events) {
         return CompletableFuture.supplyAsync(() -> {
             long startTime = System.currentTimeMillis();
             try {
-                // Simulate gRPC streaming
+                // Simulate one gRPC streaming write carrying the whole batch
                 simulateGrpcDelay();
                 
                 long processingTime = System.currentTimeMillis() - startTime;
                 requestCount.incrementAndGet();
+                eventCount.addAndGet(events.size());
                 
-                log.debug("gRPC: Successfully sent event {} to {}", event.getEventId(), grpcEndpoint);
-                return ProcessingResult.success(event.getEventId(), event.getSinkType(), processingTime);
+                log.debug("gRPC: Successfully sent batch of {} events to {}", events.size(), grpcEndpoint);
+                return successResults(events, processingTime);
             } catch (Exception e) {
                 long processingTime = System.currentTimeMillis() - startTime;
-                log.error("gRPC: Failed to send event {}", event.getEventId(), e);
-                return ProcessingResult.failure(event.getEventId(), event.getSinkType(),
-                    "gRPC request failed: " + e.getMessage(), e, processingTime);
+                log.error("gRPC: Failed to send batch of {} events", events.size(), e);
+                return failureResults(events, "gRPC request failed: " + e.getMessage(), e, processingTime);
             }
-        });
-    }
-    
-    @Override
-    public void close() {
-        log.info("gRPC Sink closed. Total requests sent: {}", requestCount.get());
+        }, executor);
     }
     
     private void simulateGrpcDelay() throws InterruptedException {
@@ -56,4 +219,159 @@ public class GrpcSink extends BaseSink {
         long delay = 2 + (long)(Math.random() * 8);
         Thread.sleep(delay);
     }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+    
+    private static SinkConfig sinkConfig(FanOutConfig config) {
+        SinkConfig sinkConfig = config.getSinks() != null ? config.getSinks().get(SinkType.GRPC.getKey()) : null;
+        return sinkConfig != null ? sinkConfig : SinkConfig.builder().rateLimit(100).build();
+    }
+    
+    /**
+     * A batch written to a stream, done once its last sequence number is acknowledged.
+     */
+    private record PendingBatch(long lastSequence, CompletableFuture<Void> acked) {
+    }
+    
+    /**
+     * One channel and the stream currently open on it. All stream state is guarded by the
+     * lane; futures are completed outside the lock.
+     */
+    private final class Lane {
+        private final int index;
+        private final ManagedChannel channel;
+        private Stream current;
+        
+        Lane(int index, ManagedChannel channel) {
+            this.index = index;
+            this.channel = channel;
+        }
+        
+        /**
+         * Queues the records of a batch on the current stream, opening one if needed.
+         * @return The stream the batch was written to
+         */
+        synchronized Stream submit(List<byte[]> records, CompletableFuture<Void> acked) {
+            if (current == null) {
+                current = new Stream();
+                current.open();
+            }
+            current.add(records, acked);
+            current.drain();
+            return current;
+        }
+        
+        synchronized int queued() {
+            return current != null ? current.outbound.size() : 0;
+        }
+        
+        synchronized void halfClose() {
+            if (current != null) {
+                current.requests.onCompleted();
+            }
+        }
+        
+        /**
+         * One EventCollector/Stream call. Sequence numbers start at 1 for every stream.
+         */
+        private final class Stream implements ClientResponseObserver<byte[], byte[]> {
+            private final Deque<byte[]> outbound = new ArrayDeque<>();
+            private final Deque<PendingBatch> pending = new ArrayDeque<>();
+            private final AckWatermark acks = new AckWatermark(0);
+            private ClientCallStreamObserver<byte[]> requests;
+            private long nextSequence;
+            
+            void open() {
+                ClientCalls.asyncBidiStreamingCall(channel.newCall(CollectorProtocol.STREAM, CallOptions.DEFAULT), this);
+            }
+            
+            void add(List<byte[]> records, CompletableFuture<Void> acked) {
+                for (byte[] record : records) {
+                    outbound.add(CollectorProtocol.encodeEvent(++nextSequence, record));
+                }
+                pending.add(new PendingBatch(nextSequence, acked));
+            }
+            
+            /**
+             * Writes queued messages while the stream accepts them without buffering.
+             */
+            void drain() {
+                while (requests.isReady() && !outbound.isEmpty()) {
+                    requests.onNext(outbound.poll());
+                }
+            }
+            
+            /**
+             * Gives up on the stream, e.g. when an ack is overdue, and fails its batches.
+             */
+            void cancel(String reason) {
+                synchronized (Lane.this) {
+                    if (current == this) {
+                        requests.cancel(reason, null);
+                    }
+                }
+                fail(new SinkException("gRPC stream cancelled: " + reason));
+            }
+            
+            @Override
+            public void beforeStart(ClientCallStreamObserver<byte[]> requestStream) {
+                requests = requestStream;
+                requestStream.setOnReadyHandler(() -> {
+                    synchronized (Lane.this) {
+                        if (current == this) {
+                            drain();
+                        }
+                    }
+                });
+            }
+            
+            @Override
+            public void onNext(byte[] message) {
+                CollectorProtocol.Ack ack = CollectorProtocol.decodeAck(message);
+                ackCount.incrementAndGet();
+                List<PendingBatch> done = new ArrayList<>();
+                synchronized (Lane.this) {
+                    acks.ack(ack.first(), Math.min(ack.last(), nextSequence));
+                    long acknowledged = acks.get();
+                    while (!pending.isEmpty() && pending.peek().lastSequence() <= acknowledged) {
+                        done.add(pending.poll());
+                    }
+                }
+                for (PendingBatch batch : done) {
+                    batch.acked().complete(null);
+                }
+            }
+            
+            @Override
+            public void onError(Throwable error) {
+                Status status = Status.fromThrowable(error);
+                if (status.getCode() != Status.Code.CANCELLED) {
+                    log.warn("gRPC: stream on connection {} ended: {}", index, status);
+                }
+                fail(new SinkException("gRPC stream failed: " + status, error));
+            }
+            
+            @Override
+            public void onCompleted() {
+                fail(new SinkException("gRPC stream closed by the server"));
+            }
+            
+            private void fail(SinkException error) {
+                List<PendingBatch> failed;
+                synchronized (Lane.this) {
+                    if (current == this) {
+                        current = null;
+                    }
+                    failed = new ArrayList<>(pending);
+                    pending.clear();
+                    outbound.clear();
+                }
+                for (PendingBatch batch : failed) {
+                    batch.acked().completeExceptionally(error);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,158 @@
+package com.example.Assignment_2.sink;
+
+import com.example.Assignment_2.exception.SinkException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Local stand-in for a wide-column database cluster, kept in memory.
+ *
+ * Each node holds the partitions it owns on the token ring, as rows by clustering key in
+ * insertion order. A request sent to a node that does not own the partition is forwarded
+ * to the owner, the way a coordinator would, and counted as misrouted. An optional latency
+ * per request stands in for the network round trip.
+ */
+@Slf4j
+public class InMemoryWideColumnStore implements WideColumnStore {
+    
+    private final TokenRing ring;
+    private final long latencyNanos;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final AtomicLong misroutedWrites = new AtomicLong(0);
+    
+    /**
+     * @param nodeCount Number of nodes, named node-0, node-1, ...
+     * @param tokensPerNode Virtual-node tokens of each node
+     * @param latencyMicros Time each request takes, or 0
+     */
+    public InMemoryWideColumnStore(int nodeCount, int tokensPerNode, long latencyMicros) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, nodeCount); i++) {
+            names.add("node-" + i);
+            nodes.put("node-" + i, new Node());
+        }
+        this.ring = new TokenRing(names, tokensPerNode);
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, latencyMicros));
+    }
+    
+    @Override
+    public TokenRing ring() {
+        return ring;
+    }
+    
+    @Override
+    public void write(String node, String table, String partitionKey, List<Row> rows) {
+        Node receiver = nodes.get(node);
+        if (receiver == null) {
+            throw new SinkException("Unknown node " + node);
+        }
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        receiver.requests.incrementAndGet();
+        String owner = ring.owner(partitionKey);
+        if (!owner.equals(node)) {
+            misroutedWrites.incrementAndGet();
+        }
+        nodes.get(owner).upsert(table, partitionKey, rows);
+    }
+    
+    /**
+     * @param table Table name
+     * @param partitionKey Partition key
+     * @return Rows of the partition by clustering key, empty if it has none
+     */
+    public Map<String, byte[]> partition(String table, String partitionKey) {
+        return nodes.get(ring.owner(partitionKey)).partition(table, partitionKey);
+    }
+    
+    /**
+     * @param table Table name
+     * @return Rows stored in the table across all nodes
+     */
+    public long rowCount(String table) {
+        long rows = 0;
+        for (Node node : nodes.values()) {
+            rows += node.rowCount(table);
+        }
+        return rows;
+    }
+    
+    /**
+     * @param node Node name
+     * @return Write requests the node received
+     */
+    public long requests(String node) {
+        return nodes.get(node).requests.get();
+    }
+    
+    /**
+     * @return Write requests sent to a node that does not own the partition
+     */
+    public long misroutedWrites() {
+        return misroutedWrites.get();
+    }
+    
+    @Override
+    public void close() {
+        for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+            log.info("In-memory store {}: {} write requests, {} partitions", entry.getKey(),
+                    entry.getValue().requests.get(), entry.getValue().partitionCount());
+        }
+    }
+    
+    /**
+     * Tables of one node: partitions by key, each a map of rows guarded by its own lock.
+     */
+    private static final class Node {
+        private final Map<String, Map<String, Map<String, byte[]>>> tables = new ConcurrentHashMap<>();
+        private final AtomicLong requests = new AtomicLong(0);
+        
+        void upsert(String table, String partitionKey, List<Row> rows) {
+            Map<String, byte[]> partition = tables.computeIfAbsent(table, t -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(partitionKey, k -> new LinkedHashMap<>());
+            synchronized (partition) {
+                for (Row row : rows) {
+                    partition.put(row.key(), row.value());
+                }
+            }
+        }
+        
+        Map<String, byte[]> partition(String table, String partitionKey) {
+            Map<String, byte[]> partition = tables.getOrDefault(table, Map.of()).get(partitionKey);
+            if (partition == null) {
+                return Map.of();
+            }
+            synchronized (partition) {
+                return Collections.unmodifiableMap(new LinkedHashMap<>(partition));
+            }
+        }
+        
+        long rowCount(String table) {
+            long rows = 0;
+            for (Map<String, byte[]> partition : tables.getOrDefault(table, Map.of()).values()) {
+                synchronized (partition) {
+                    rows += partition.size();
+                }
+            }
+            return rows;
+        }
+        
+        long partitionCount() {
+            long partitions = 0;
+            for (Map<String, Map<String, byte[]>> table : tables.values()) {
+                partitions += table.size();
+            }
+            return partitions;
+        }
+    }
+}
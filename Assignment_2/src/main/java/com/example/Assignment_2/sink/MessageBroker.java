@@ -0,0 +1,28 @@
+package com.example.Assignment_2.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The broker side of the message queue sink: an append-only log per topic partition.
+ */
+public interface MessageBroker extends Closeable {
+    
+    /**
+     * @param topic Topic name
+     * @return Number of partitions of the topic
+     */
+    int partitions(String topic);
+    
+    /**
+     * Appends one producer batch to the end of a partition's log.
+     * Batches appended to the same partition are stored in call order.
+     * @param topic Topic name
+     * @param partition Partition number
+     * @param batch Encoded batch, as made by {@link ProducerBatch#encode}
+     * @param recordCount Number of records in the batch
+     * @return Offset of the batch's first record in the partition
+     * @throws IOException if the batch could not be stored
+     */
+    long append(String topic, int partition, byte[] batch, int recordCount) throws IOException;
+}
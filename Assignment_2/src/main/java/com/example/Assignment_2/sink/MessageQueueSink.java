@@ -1,54 +1,398 @@
 package com.example.Assignment_2.sink;
 
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.exception.SinkException;
 import com.example.Assignment_2.model.SinkEvent;
 import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkType;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Mock Message Queue Sink that simulates publishing to Kafka/RabbitMQ.
- * Implements asynchronous publishing with configurable throughput.
+ * Message Queue Sink that publishes events to a topic like a batching producer.
+ *
+ * Each event becomes one record; its key is the value of the configured key field, and
+ * the key's hash picks the partition. Events without a key stick to one partition until
+ * its batch is sent, then move on to the next. Records are collected per partition into
+ * a producer batch, which is sent once the next record would take it past batchBytes or once lingerMs
+ * has passed since its first record, whichever is first. Batches therefore span the
+ * sink's own batches when events arrive faster than the linger time, and are compressed
+ * as a whole with the configured codec.
+ *
+ * At most maxInFlight batches are written to the broker at once; a drain worker that fills
+ * a batch blocks until one of them completes. Batches of one partition are written in the
+ * order they were filled. The future of a sink batch completes once the broker stored every
+ * producer batch holding one of its events.
+ *
+ * The endpoint selects the broker: <code>file:&lt;directory&gt;</code> writes to a
+ * {@link FileLogBroker}. Without an endpoint the sink only simulates broker latency.
  */
 @Slf4j
 @Component
 public class MessageQueueSink extends BaseSink {
     
+    private static final String FILE_SCHEME = "file:";
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+    
     private final AtomicLong messageCount = new AtomicLong(0);
+    private final AtomicLong eventCount = new AtomicLong(0);
+    private final AtomicLong bytesWritten = new AtomicLong(0);
+    private final AtomicLong uncompressedBytes = new AtomicLong(0);
     private final String topic;
+    private final MessageBroker broker;
+    private final String keyField;
+    private final ProducerBatch.Codec codec;
+    private final long lingerMs;
+    private final int batchBytes;
+    private final PartitionQueue[] queues;
+    private final AtomicInteger stickyPartition = new AtomicInteger(0);
+    private final Semaphore inFlight;
+    private final ScheduledExecutorService lingerTimer;
+    
+    /**
+     * Creates a sink that only simulates publishing.
+     * @param fanOutExecutor Executor that runs the simulated publishes
+     */
+    public MessageQueueSink(ExecutorService fanOutExecutor) {
+        this(SinkConfig.builder().rateLimit(500).build(), fanOutExecutor); // 500 messages per second
+    }
+    
+    @Autowired
+    public MessageQueueSink(FanOutConfig config, ExecutorService fanOutExecutor) {
+        this(sinkConfig(config), fanOutExecutor);
+    }
+    
+    /**
+     * @param sinkConfig Endpoint, rate limit, in-flight limit and producer settings of the sink
+     * @param fanOutExecutor Executor for simulated publishes and broker writes
+     */
+    public MessageQueueSink(SinkConfig sinkConfig, ExecutorService fanOutExecutor) {
+        this(sinkConfig, fanOutExecutor, openBroker(sinkConfig));
+    }
+    
+    /**
+     * @param sinkConfig Rate limit, in-flight limit and producer settings of the sink
+     * @param fanOutExecutor Executor for broker writes
+     * @param broker Broker to publish to, or null to simulate publishing
+     */
+    MessageQueueSink(SinkConfig sinkConfig, ExecutorService fanOutExecutor, MessageBroker broker) {
+        super("Message Queue Sink", sinkConfig.getRateLimit(), fanOutExecutor);
+        SinkConfig.ProducerConfig producer = sinkConfig.getProducer() != null
+                ? sinkConfig.getProducer() : new SinkConfig.ProducerConfig();
+        this.topic = producer.getTopic();
+        this.broker = broker;
+        this.keyField = producer.getKeyField();
+        this.codec = ProducerBatch.Codec.named(producer.getCompression());
+        this.lingerMs = Math.max(0, producer.getLingerMs());
+        this.batchBytes = Math.max(1, producer.getBatchBytes());
+        if (broker == null) {
+            this.queues = null;
+            this.inFlight = null;
+            this.lingerTimer = null;
+            return;
+        }
+        int partitions = broker.partitions(topic);
+        this.queues = new PartitionQueue[partitions];
+        for (int i = 0; i < partitions; i++) {
+            queues[i] = new PartitionQueue(i);
+        }
+        this.inFlight = new Semaphore(Math.max(1, sinkConfig.getMaxInFlight()));
+        this.lingerTimer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "MQ-Linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Message Queue Sink publishing to topic {} ({} partitions) by key '{}', linger {} ms, "
+                        + "batches of {} bytes, {} compression, up to {} batches in flight",
+                topic, partitions, keyField, lingerMs, batchBytes, codec, sinkConfig.getMaxInFlight());
+    }
     
-    public MessageQueueSink() {
-        super("Message Queue Sink", 500); // 500 messages per second
-        this.topic = "fanout_events";
+    @Override
+    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+        if (broker == null) {
+            return simulateBatch(events);
+        }
+        
+        long startTime = System.nanoTime();
+        Map<ProducerBatch, List<Integer>> positionsByBatch = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            SinkEvent event = events.get(i);
+            byte[] key = keyOf(event);
+            PartitionQueue queue = queues[key != null ? partitionFor(key, queues.length) : stickyPartition.get()];
+            ProducerBatch batch = queue.append(key, recordBytes(event.getTransformedData()));
+            positionsByBatch.computeIfAbsent(batch, b -> new ArrayList<>()).add(i);
+        }
+        
+        // Results go back in event order, whichever producer batch each event went into
+        ProcessingResult[] results = new ProcessingResult[events.size()];
+        List<CompletableFuture<?>> written = new ArrayList<>(positionsByBatch.size());
+        for (Map.Entry<ProducerBatch, List<Integer>> entry : positionsByBatch.entrySet()) {
+            List<Integer> positions = entry.getValue();
+            List<SinkEvent> batchEvents = new ArrayList<>(positions.size());
+            positions.forEach(position -> batchEvents.add(events.get(position)));
+            written.add(entry.getKey().result().handle((offset, error) -> {
+                long processingTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                List<ProcessingResult> batchResults;
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    batchResults = failureResults(batchEvents, "Publish failed: " + cause.getMessage(), cause,
+                            processingTime);
+                } else {
+                    eventCount.addAndGet(batchEvents.size());
+                    batchResults = successResults(batchEvents, processingTime);
+                }
+                for (int i = 0; i < positions.size(); i++) {
+                    results[positions.get(i)] = batchResults.get(i);
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(written.toArray(new CompletableFuture[0]))
+                .thenApply(done -> Arrays.asList(results));
     }
     
     @Override
-    public CompletableFuture<ProcessingResult> send(SinkEvent event) {
+    public void close() {
+        if (broker != null) {
+            lingerTimer.shutdownNow();
+            List<CompletableFuture<Void>> tails = new ArrayList<>(queues.length);
+            for (PartitionQueue queue : queues) {
+                tails.add(queue.flush());
+            }
+            try {
+                CompletableFuture.allOf(tails.toArray(new CompletableFuture[0]))
+                        .get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("MessageQueue: not every batch was written before close", e);
+            }
+            try {
+                broker.close();
+            } catch (IOException e) {
+                log.error("MessageQueue: Failed to close the broker", e);
+            }
+        }
+        log.info("Message Queue Sink closed. Total batches published: {}, messages published: {}, "
+                        + "bytes written: {} ({} uncompressed)",
+                messageCount.get(), eventCount.get(), bytesWritten.get(), uncompressedBytes.get());
+    }
+    
+    /**
+     * @param key Record key
+     * @param partitions Number of partitions
+     * @return Partition of the key
+     */
+    static int partitionFor(byte[] key, int partitions) {
+        return Math.floorMod(Arrays.hashCode(key), partitions);
+    }
+    
+    private byte[] keyOf(SinkEvent event) {
+        Object value = keyField != null && event.getRecord() != null ? event.getRecord().get(keyField) : null;
+        return value != null ? value.toString().getBytes(StandardCharsets.UTF_8) : null;
+    }
+    
+    private static byte[] recordBytes(Object payload) {
+        if (payload instanceof byte[] bytes) {
+            return bytes;
+        }
+        return String.valueOf(payload).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Writes a sealed batch to the broker and completes its future.
+     */
+    private void write(ProducerBatch batch) {
+        try {
+            byte[] encoded = batch.encode(codec);
+            long offset = broker.append(topic, batch.partition(), encoded, batch.recordCount());
+            messageCount.incrementAndGet();
+            bytesWritten.addAndGet(encoded.length);
+            uncompressedBytes.addAndGet(batch.sizeInBytes());
+            log.debug("MessageQueue: Wrote batch of {} records to {}-{} at offset {}",
+                    batch.recordCount(), topic, batch.partition(), offset);
+            batch.result().complete(offset);
+        } catch (IOException | RuntimeException e) {
+            log.error("MessageQueue: Failed to write batch of {} records to {}-{}",
+                    batch.recordCount(), topic, batch.partition(), e);
+            batch.result().completeExceptionally(e instanceof IOException
+                    ? new SinkException("Broker write failed: " + e.getMessage(), e) : e);
+        } finally {
+            inFlight.release();
+        }
+    }
+    
+    /**
+     * Record accumulator of one partition: the batch being filled, batches sealed but not
+     * yet handed to the executor, and the last write, which the next one is chained to.
+     */
+    private final class PartitionQueue {
+        private final int partition;
+        private final ArrayDeque<ProducerBatch> sealed = new ArrayDeque<>();
+        private ProducerBatch open;
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        
+        PartitionQueue(int partition) {
+            this.partition = partition;
+        }
+        
+        /**
+         * Appends a record, sending every batch it seals.
+         * @return The batch the record went into
+         */
+        ProducerBatch append(byte[] key, byte[] value) {
+            int sealedBatches = 0;
+            ProducerBatch batch;
+            synchronized (this) {
+                if (open != null && !open.tryAppend(key, value)) {
+                    seal();
+                    sealedBatches++;
+                }
+                if (open == null) {
+                    open = new ProducerBatch(partition, batchBytes);
+                    open.tryAppend(key, value);
+                    ProducerBatch lingering = open;
+                    lingerTimer.schedule(() -> expire(lingering), lingerMs, TimeUnit.MILLISECONDS);
+                }
+                batch = open;
+                if (batch.isFull()) {
+                    seal();
+                    sealedBatches++;
+                }
+            }
+            for (int i = 0; i < sealedBatches; i++) {
+                dispatch();
+            }
+            return batch;
+        }
+        
+        /**
+         * Sends the batch if it is still open once its linger time has passed.
+         */
+        void expire(ProducerBatch batch) {
+            synchronized (this) {
+                if (open != batch) {
+                    return;
+                }
+                seal();
+            }
+            dispatch();
+        }
+        
+        /**
+         * Sends the open batch, if any.
+         * @return Completed once every batch of the partition is written
+         */
+        CompletableFuture<Void> flush() {
+            boolean sealedOpen = false;
+            synchronized (this) {
+                if (open != null) {
+                    seal();
+                    sealedOpen = true;
+                }
+            }
+            if (sealedOpen) {
+                dispatch();
+            }
+            synchronized (this) {
+                return tail;
+            }
+        }
+        
+        private void seal() {
+            sealed.add(open);
+            open = null;
+            // Keyless events move on to the next partition once their batch is sent
+            stickyPartition.compareAndSet(partition, (partition + 1) % queues.length);
+        }
+        
+        /**
+         * Waits for an in-flight slot, then chains the oldest sealed batch after the
+         * previous write. Called once per sealed batch, so batches leave in sealing order.
+         * Each link of the chain completes normally whether its write succeeded, failed or
+         * could not be scheduled, so one bad batch never holds up the ones behind it.
+         */
+        private void dispatch() {
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            ProducerBatch batch;
+            CompletableFuture<Void> previous;
+            synchronized (this) {
+                batch = sealed.poll();
+                previous = tail;
+                tail = done;
+            }
+            previous.whenComplete((ignored, error) -> schedule(batch, done));
+        }
+        
+        private void schedule(ProducerBatch batch, CompletableFuture<Void> done) {
+            try {
+                if (executor instanceof ExecutorService service && service.isShutdown()) {
+                    // CallerRunsPolicy discards tasks of a shut-down pool without telling the caller
+                    throw new RejectedExecutionException("Executor is shut down");
+                }
+                executor.execute(() -> {
+                    try {
+                        write(batch);
+                    } finally {
+                        done.complete(null);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.error("MessageQueue: Could not schedule batch of {} records to {}-{}",
+                        batch.recordCount(), topic, batch.partition(), e);
+                batch.result().completeExceptionally(
+                        new SinkException("Batch not scheduled: " + e.getMessage(), e));
+                inFlight.release();
+                done.complete(null);
+            }
+        }
+    }
+    
+    private CompletableFuture<List<ProcessingResult>> simulateBatch(List<SinkEvent> events) {
         return CompletableFuture.supplyAsync(() -> {
             long startTime = System.currentTimeMillis();
             try {
-                // Simulate message publication
+                // Simulate publishing the whole batch in one produce request
                 simulatePublish();
                 
                 long processingTime = System.currentTimeMillis() - startTime;
                 messageCount.incrementAndGet();
+                eventCount.addAndGet(events.size());
                 
-                log.debug("MessageQueue: Published event {} to topic: {}", event.getEventId(), topic);
-                return ProcessingResult.success(event.getEventId(), event.getSinkType(), processingTime);
+                log.debug("MessageQueue: Published batch of {} events to topic: {}", events.size(), topic);
+                return successResults(events, processingTime);
             } catch (Exception e) {
                 long processingTime = System.currentTimeMillis() - startTime;
-                log.error("MessageQueue: Failed to publish event {}", event.getEventId(), e);
-                return ProcessingResult.failure(event.getEventId(), event.getSinkType(),
-                    "Publish failed: " + e.getMessage(), e, processingTime);
+                log.error("MessageQueue: Failed to publish batch of {} events", events.size(), e);
+                return failureResults(events, "Publish failed: " + e.getMessage(), e, processingTime);
             }
-        });
-    }
-    
-    @Override
-    public void close() {
-        log.info("Message Queue Sink closed. Total messages published: {}", messageCount.get());
+        }, executor);
     }
     
     private void simulatePublish() throws InterruptedException {
@@ -56,4 +400,31 @@ public class MessageQueueSink extends BaseSink {
         long delay = 1 + (long)(Math.random() * 4);
         Thread.sleep(delay);
     }
+    
+    /**
+     * Opens the broker named by the endpoint.
+     * @return The broker, or null when no endpoint is configured
+     */
+    private static MessageBroker openBroker(SinkConfig sinkConfig) {
+        String endpoint = sinkConfig.getEndpoint();
+        if (endpoint == null || endpoint.isBlank()) {
+            return null;
+        }
+        if (!endpoint.startsWith(FILE_SCHEME)) {
+            throw new IllegalArgumentException("Unsupported message queue endpoint '" + endpoint
+                    + "', expected file:<directory>");
+        }
+        int partitions = sinkConfig.getProducer() != null ? sinkConfig.getProducer().getPartitions() : 1;
+        Path directory = Path.of(endpoint.substring(FILE_SCHEME.length()));
+        try {
+            return new FileLogBroker(directory, partitions);
+        } catch (IOException e) {
+            throw new SinkException("Cannot open the broker log directory " + directory, e);
+        }
+    }
+    
+    private static SinkConfig sinkConfig(FanOutConfig config) {
+        SinkConfig sinkConfig = config.getSinks() != null ? config.getSinks().get(SinkType.MESSAGE_QUEUE.getKey()) : null;
+        return sinkConfig != null ? sinkConfig : SinkConfig.builder().rateLimit(500).build();
+    }
 }
@@ -0,0 +1,277 @@
+package com.example.Assignment_2.sink;
+
+import com.example.Assignment_2.exception.SinkException;
+import org.xerial.snappy.Snappy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records collected for one topic partition and sent to the broker as a single entry.
+ *
+ * Records are appended to one growing buffer as (key length, key, value length, value);
+ * a key length of -1 marks a record without key. {@link #encode} prefixes the buffer,
+ * compressed with the batch's codec, with an 18-byte header:
+ * magic (1), codec (1), record count (4), uncompressed length (4), CRC32 of the stored
+ * records (4) and their stored length (4).
+ *
+ * Not thread-safe: the accumulator appends under its partition lock, and a sealed batch
+ * is only read by the thread that sends it.
+ */
+final class ProducerBatch {
+    
+    static final byte MAGIC = 1;
+    static final int HEADER_BYTES = 18;
+    private static final int RECORD_OVERHEAD = 2 * Integer.BYTES;
+    
+    private final int partition;
+    private final int capacity;
+    private final long createdNanos;
+    private final CompletableFuture<Long> result = new CompletableFuture<>();
+    private byte[] buffer;
+    private int size;
+    private int recordCount;
+    
+    /**
+     * @param partition Partition the batch goes to
+     * @param capacity Record bytes after which the batch is full
+     */
+    ProducerBatch(int partition, int capacity) {
+        this.partition = partition;
+        this.capacity = Math.max(1, capacity);
+        this.createdNanos = System.nanoTime();
+        this.buffer = new byte[Math.min(this.capacity, 4096)];
+    }
+    
+    /**
+     * Appends a record if it fits. An empty batch always takes the record, so a record
+     * larger than the capacity is sent in a batch of its own.
+     * @param key Key bytes, or null
+     * @param value Value bytes
+     * @return Whether the record was appended
+     */
+    boolean tryAppend(byte[] key, byte[] value) {
+        int recordBytes = RECORD_OVERHEAD + (key != null ? key.length : 0) + value.length;
+        if (recordCount > 0 && size + recordBytes > capacity) {
+            return false;
+        }
+        if (size + recordBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(size + recordBytes, Math.min(capacity, buffer.length * 2)));
+        }
+        ByteBuffer out = ByteBuffer.wrap(buffer, size, recordBytes);
+        if (key != null) {
+            out.putInt(key.length).put(key);
+        } else {
+            out.putInt(-1);
+        }
+        out.putInt(value.length).put(value);
+        size += recordBytes;
+        recordCount++;
+        return true;
+    }
+    
+    boolean isFull() {
+        return size >= capacity;
+    }
+    
+    int partition() {
+        return partition;
+    }
+    
+    int recordCount() {
+        return recordCount;
+    }
+    
+    /**
+     * @return Uncompressed size of the records in bytes
+     */
+    int sizeInBytes() {
+        return size;
+    }
+    
+    long createdNanos() {
+        return createdNanos;
+    }
+    
+    /**
+     * @return Completed with the offset of the batch's first record once the broker stored it
+     */
+    CompletableFuture<Long> result() {
+        return result;
+    }
+    
+    /**
+     * Encodes the batch as it is stored by the broker.
+     * @param codec Compression of the records
+     * @return Header followed by the (compressed) records
+     */
+    byte[] encode(Codec codec) {
+        byte[] records = codec.compress(buffer, size);
+        CRC32 crc = new CRC32();
+        crc.update(records, 0, records.length);
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + records.length);
+        out.put(MAGIC)
+                .put(codec.id)
+                .putInt(recordCount)
+                .putInt(size)
+                .putInt((int) crc.getValue())
+                .putInt(records.length)
+                .put(records);
+        return out.array();
+    }
+    
+    /**
+     * Decodes an entry written by {@link #encode}, for consumers and tests.
+     * @param batch Encoded batch
+     * @return Records in append order
+     * @throws SinkException if the batch is corrupt
+     */
+    static List<Message> decode(byte[] batch) {
+        ByteBuffer in = ByteBuffer.wrap(batch);
+        if (batch.length < HEADER_BYTES || in.get() != MAGIC) {
+            throw new SinkException("Not a producer batch");
+        }
+        Codec codec = Codec.of(in.get());
+        int recordCount = in.getInt();
+        int uncompressedLength = in.getInt();
+        int checksum = in.getInt();
+        int storedLength = in.getInt();
+        if (storedLength != in.remaining()) {
+            throw new SinkException("Batch holds " + in.remaining() + " record bytes, header says " + storedLength);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(batch, HEADER_BYTES, storedLength);
+        if ((int) crc.getValue() != checksum) {
+            throw new SinkException("Batch checksum mismatch");
+        }
+        ByteBuffer records = ByteBuffer.wrap(codec.decompress(batch, HEADER_BYTES, storedLength, uncompressedLength));
+        List<Message> messages = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            int keyLength = records.getInt();
+            byte[] key = null;
+            if (keyLength >= 0) {
+                key = new byte[keyLength];
+                records.get(key);
+            }
+            byte[] value = new byte[records.getInt()];
+            records.get(value);
+            messages.add(new Message(key, value));
+        }
+        return messages;
+    }
+    
+    /**
+     * One record of a batch.
+     * @param key Key bytes, or null
+     * @param value Value bytes
+     */
+    record Message(byte[] key, byte[] value) {
+    }
+    
+    /**
+     * Compression of the records of a batch. The header stays uncompressed.
+     */
+    enum Codec {
+        NONE((byte) 0) {
+            @Override
+            byte[] compress(byte[] data, int length) {
+                return Arrays.copyOf(data, length);
+            }
+            
+            @Override
+            byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) {
+                return Arrays.copyOfRange(data, offset, offset + length);
+            }
+        },
+        GZIP((byte) 1) {
+            @Override
+            byte[] compress(byte[] data, int length) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 4));
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+                    gzip.write(data, 0, length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return out.toByteArray();
+            }
+            
+            @Override
+            byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) {
+                try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data, offset, length))) {
+                    return gzip.readNBytes(uncompressedLength);
+                } catch (IOException e) {
+                    throw new SinkException("Corrupt gzip batch", e);
+                }
+            }
+        },
+        SNAPPY((byte) 2) {
+            @Override
+            byte[] compress(byte[] data, int length) {
+                try {
+                    byte[] out = new byte[Snappy.maxCompressedLength(length)];
+                    int written = Snappy.compress(data, 0, length, out, 0);
+                    return Arrays.copyOf(out, written);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            
+            @Override
+            byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) {
+                try {
+                    byte[] out = new byte[uncompressedLength];
+                    Snappy.uncompress(data, offset, length, out, 0);
+                    return out;
+                } catch (IOException e) {
+                    throw new SinkException("Corrupt snappy batch", e);
+                }
+            }
+        };
+        
+        private final byte id;
+        
+        Codec(byte id) {
+            this.id = id;
+        }
+        
+        abstract byte[] compress(byte[] data, int length);
+        
+        abstract byte[] decompress(byte[] data, int offset, int length, int uncompressedLength);
+        
+        /**
+         * @param name Codec name from the configuration, case-insensitive; null means none
+         * @return The codec
+         * @throws IllegalArgumentException for an unknown name
+         */
+        static Codec named(String name) {
+            if (name == null || name.isBlank()) {
+                return NONE;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown compression '" + name + "', expected none, gzip or snappy");
+            }
+        }
+        
+        static Codec of(byte id) {
+            for (Codec codec : values()) {
+                if (codec.id == id) {
+                    return codec;
+                }
+            }
+            throw new SinkException("Unknown batch codec " + id);
+        }
+    }
+}
@@ -1,54 +1,245 @@
 package com.example.Assignment_2.sink;
 
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.exception.SinkException;
 import com.example.Assignment_2.model.SinkEvent;
 import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkType;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Mock REST API Sink that simulates sending data to an HTTP endpoint.
- * Implements rate limiting and simulates network delays.
+ * REST API Sink that POSTs each batch to the configured endpoint as a JSON array.
+ *
+ * Requests go through one java.net.http.HttpClient with sendAsync, so no thread waits
+ * for a response. The client negotiates HTTP/2 where the server supports it and
+ * multiplexes requests over one connection; otherwise it keeps a pool of HTTP/1.1
+ * keep-alive connections. At most maxInFlight requests await a response: a drain worker
+ * blocks until one completes, which holds the sink's buffer back like a slow endpoint would.
+ *
+ * The JSON payloads are already serialized by the transformer; the body is a chain of
+ * publishers over their byte arrays, so they are not copied into a new buffer. A request
+ * that gets no response within requestTimeoutMs, a connection error or a non-2xx status
+ * fails every event of the batch.
+ *
+ * Without an endpoint the sink only simulates network latency.
  */
 @Slf4j
 @Component
 public class RestApiSink extends BaseSink {
     
+    private static final byte[] ARRAY_START = {'['};
+    private static final byte[] ARRAY_END = {']'};
+    private static final byte[] SEPARATOR = {','};
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+    
     private final AtomicLong requestCount = new AtomicLong(0);
+    private final AtomicLong eventCount = new AtomicLong(0);
+    private final AtomicLong bytesSent = new AtomicLong(0);
+    private final AtomicLong failedRequests = new AtomicLong(0);
     private final String endpoint;
+    private final HttpClient client;
+    private final URI uri;
+    private final Duration requestTimeout;
+    private final Semaphore inFlight;
+    
+    /**
+     * Creates a sink that only simulates requests.
+     * @param fanOutExecutor Executor that runs the simulated requests
+     */
+    public RestApiSink(ExecutorService fanOutExecutor) {
+        this(SinkConfig.builder().rateLimit(50).build(), fanOutExecutor);
+    }
+    
+    @Autowired
+    public RestApiSink(FanOutConfig config, ExecutorService fanOutExecutor) {
+        this(sinkConfig(config), fanOutExecutor);
+    }
+    
+    /**
+     * @param sinkConfig Endpoint, rate limit, in-flight limit and timeout of the sink
+     * @param fanOutExecutor Executor for simulated requests and response handling
+     */
+    public RestApiSink(SinkConfig sinkConfig, ExecutorService fanOutExecutor) {
+        super("REST API Sink", sinkConfig.getRateLimit(), fanOutExecutor);
+        String configured = sinkConfig.getEndpoint();
+        if (configured == null || configured.isBlank()) {
+            this.endpoint = "simulated";
+            this.client = null;
+            this.uri = null;
+            this.requestTimeout = null;
+            this.inFlight = null;
+            return;
+        }
+        this.endpoint = configured;
+        this.uri = URI.create(configured);
+        this.requestTimeout = Duration.ofMillis(Math.max(1, sinkConfig.getRequestTimeoutMs()));
+        this.inFlight = new Semaphore(Math.max(1, sinkConfig.getMaxInFlight()));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(requestTimeout)
+                .executor(fanOutExecutor)
+                .build();
+        log.info("REST API Sink posting to {} with up to {} requests in flight, {} ms timeout",
+                uri, sinkConfig.getMaxInFlight(), requestTimeout.toMillis());
+    }
     
-    public RestApiSink() {
-        super("REST API Sink", 50); // 50 requests per second
-        this.endpoint = "http://mock-api.example.com/events";
+    @Override
+    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+        if (client == null) {
+            return simulateBatch(events);
+        }
+        
+        long payloadBytes = payloadBytes(events);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(body(events))
+                .build();
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(
+                    failureResults(events, "Interrupted while waiting for an HTTP request slot", e, 0));
+        }
+        
+        long startTime = System.nanoTime();
+        CompletableFuture<HttpResponse<Void>> response;
+        try {
+            response = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+        return response.handle((result, error) -> {
+            inFlight.release();
+            long processingTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            requestCount.incrementAndGet();
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof HttpTimeoutException) {
+                failedRequests.incrementAndGet();
+                log.warn("REST API: request with {} events to {} timed out after {} ms",
+                        events.size(), uri, requestTimeout.toMillis());
+                return failureResults(events, "HTTP request timed out after " + requestTimeout.toMillis() + " ms",
+                        cause, processingTime);
+            }
+            if (cause != null) {
+                failedRequests.incrementAndGet();
+                log.error("REST API: Failed to send batch of {} events to {}", events.size(), uri, cause);
+                return failureResults(events, "HTTP request failed: " + cause.getMessage(), cause, processingTime);
+            }
+            if (result.statusCode() / 100 != 2) {
+                failedRequests.incrementAndGet();
+                String message = "HTTP " + result.statusCode() + " from " + uri;
+                log.warn("REST API: {} for batch of {} events", message, events.size());
+                return failureResults(events, message, new SinkException(message), processingTime);
+            }
+            eventCount.addAndGet(events.size());
+            bytesSent.addAndGet(payloadBytes);
+            log.debug("REST API: Successfully sent batch of {} events to {} over {}",
+                    events.size(), uri, result.version());
+            return successResults(events, processingTime);
+        });
     }
     
     @Override
-    public CompletableFuture<ProcessingResult> send(SinkEvent event) {
+    public void close() {
+        if (client != null) {
+            client.shutdown();
+            try {
+                if (!client.awaitTermination(Duration.ofSeconds(CLOSE_TIMEOUT_SECONDS))) {
+                    client.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                client.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("REST API Sink closed. Total requests sent: {}, failed: {}, events sent: {}, bytes sent: {}",
+                requestCount.get(), failedRequests.get(), eventCount.get(), bytesSent.get());
+    }
+    
+    /**
+     * Builds the JSON array body from the serialized payloads without copying them.
+     */
+    private static HttpRequest.BodyPublisher body(List<SinkEvent> events) {
+        List<HttpRequest.BodyPublisher> parts = new ArrayList<>(events.size() * 2 + 1);
+        parts.add(HttpRequest.BodyPublishers.ofByteArray(ARRAY_START));
+        for (int i = 0; i < events.size(); i++) {
+            if (i > 0) {
+                parts.add(HttpRequest.BodyPublishers.ofByteArray(SEPARATOR));
+            }
+            parts.add(publisherOf(events.get(i).getTransformedData()));
+        }
+        parts.add(HttpRequest.BodyPublishers.ofByteArray(ARRAY_END));
+        return HttpRequest.BodyPublishers.concat(parts.toArray(new HttpRequest.BodyPublisher[0]));
+    }
+    
+    private static HttpRequest.BodyPublisher publisherOf(Object payload) {
+        if (payload instanceof ByteBuffer buffer && buffer.hasArray()) {
+            return HttpRequest.BodyPublishers.ofByteArray(buffer.array(),
+                    buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        if (payload instanceof ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return HttpRequest.BodyPublishers.ofByteArray(bytes);
+        }
+        return HttpRequest.BodyPublishers.ofString(String.valueOf(payload), StandardCharsets.UTF_8);
+    }
+    
+    private CompletableFuture<List<ProcessingResult>> simulateBatch(List<SinkEvent> events) {
         return CompletableFuture.supplyAsync(() -> {
             long startTime = System.currentTimeMillis();
             try {
-                // Simulate HTTP POST request
+                // Simulate a single HTTP POST carrying the whole batch
                 simulateHttpDelay();
                 
                 long processingTime = System.currentTimeMillis() - startTime;
                 requestCount.incrementAndGet();
+                eventCount.addAndGet(events.size());
+                bytesSent.addAndGet(payloadBytes(events));
                 
-                log.debug("REST API: Successfully sent event {} to {}", event.getEventId(), endpoint);
-                return ProcessingResult.success(event.getEventId(), event.getSinkType(), processingTime);
+                log.debug("REST API: Successfully sent batch of {} events to {}", events.size(), endpoint);
+                return successResults(events, processingTime);
             } catch (Exception e) {
                 long processingTime = System.currentTimeMillis() - startTime;
-                log.error("REST API: Failed to send event {}", event.getEventId(), e);
-                return ProcessingResult.failure(event.getEventId(), event.getSinkType(), 
-                    "HTTP request failed: " + e.getMessage(), e, processingTime);
+                log.error("REST API: Failed to send batch of {} events", events.size(), e);
+                return failureResults(events, "HTTP request failed: " + e.getMessage(), e, processingTime);
             }
-        });
+        }, executor);
     }
     
-    @Override
-    public void close() {
-        log.info("REST API Sink closed. Total requests sent: {}", requestCount.get());
+    private long payloadBytes(List<SinkEvent> events) {
+        // JSON payloads arrive already serialized; the request body is just their bytes
+        long total = 0;
+        for (SinkEvent event : events) {
+            if (event.getTransformedData() instanceof ByteBuffer payload) {
+                total += payload.remaining();
+            }
+        }
+        return total;
     }
     
     private void simulateHttpDelay() throws InterruptedException {
@@ -56,4 +247,9 @@ public class RestApiSink extends BaseSink {
         long delay = 5 + (long)(Math.random() * 15);
         Thread.sleep(delay);
     }
+    
+    private static SinkConfig sinkConfig(FanOutConfig config) {
+        SinkConfig sinkConfig = config.getSinks() != null ? config.getSinks().get(SinkType.REST_API.getKey()) : null;
+        return sinkConfig != null ? sinkConfig : SinkConfig.builder().rateLimit(50).build();
+    }
 }
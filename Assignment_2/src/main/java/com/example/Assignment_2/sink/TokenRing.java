@@ -0,0 +1,69 @@
+package com.example.Assignment_2.sink;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring mapping partition keys to the nodes that own them.
+ *
+ * Each node places tokensPerNode virtual-node tokens on a ring of 64-bit values, derived
+ * from its name so every client builds the same ring. A partition key's token is a 64-bit
+ * hash of its UTF-8 bytes; the key belongs to the node holding the first token at or after
+ * it, wrapping around past the largest token. One owner per key: replicas are not modelled.
+ */
+public final class TokenRing {
+    
+    private final List<String> nodes;
+    private final TreeMap<Long, String> tokens = new TreeMap<>();
+    
+    /**
+     * @param nodes Node names
+     * @param tokensPerNode Virtual-node tokens of each node
+     * @throws IllegalArgumentException if there are no nodes
+     */
+    public TokenRing(List<String> nodes, int tokensPerNode) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A token ring needs at least one node");
+        }
+        this.nodes = List.copyOf(nodes);
+        for (String node : this.nodes) {
+            for (int i = 0; i < Math.max(1, tokensPerNode); i++) {
+                tokens.put(token(node + "#" + i), node);
+            }
+        }
+    }
+    
+    public List<String> nodes() {
+        return nodes;
+    }
+    
+    /**
+     * @param partitionKey Partition key
+     * @return Node that owns the key
+     */
+    public String owner(String partitionKey) {
+        Map.Entry<Long, String> entry = tokens.ceilingEntry(token(partitionKey));
+        return entry != null ? entry.getValue() : tokens.firstEntry().getValue();
+    }
+    
+    /**
+     * FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 64-bit mix so that similar
+     * keys spread over the whole ring.
+     * @param key Partition key
+     * @return Token of the key
+     */
+    public static long token(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -1,54 +1,312 @@
 package com.example.Assignment_2.sink;
 
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.exception.SinkException;
 import com.example.Assignment_2.model.SinkEvent;
 import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkType;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Mock Wide-Column Database Sink that simulates async UPSERT operations.
- * Compatible with Cassandra, Aerospike, DynamoDB, and ScyllaDB.
+ * Wide-Column Database Sink that UPSERTs events as rows grouped by partition.
+ *
+ * The value of the configured partition-key field is each row's partition key and the
+ * record id its clustering key. The events of a batch are grouped by partition, and each
+ * partition's rows are written in requests of at most maxBatchRows, so clustered keys cost
+ * one round trip per partition rather than one per event. Every request goes straight to
+ * the node that owns the partition on the store's token ring.
+ *
+ * Each node has its own lane: a queue of requests and at most maxInFlightPerNode of them
+ * awaiting the node at once, so a slow node does not hold back writes to the others. At most
+ * maxInFlight sink batches are being written at once; a drain worker blocks until one
+ * completes. Results come back in event order; an event without a partition key fails.
+ *
+ * The endpoint selects the store: <code>memory:&lt;nodes&gt;</code> writes to an
+ * {@link InMemoryWideColumnStore} with that many nodes. Without an endpoint the sink only
+ * simulates database latency.
  */
 @Slf4j
 @Component
 public class WideColumnDbSink extends BaseSink {
     
+    private static final String MEMORY_SCHEME = "memory:";
+    private static final int TOKENS_PER_NODE = 16;
+    
     private final AtomicLong upsertCount = new AtomicLong(0);
+    private final AtomicLong eventCount = new AtomicLong(0);
     private final String tableName;
+    private final WideColumnStore store;
+    private final String partitionKeyField;
+    private final int maxBatchRows;
+    private final Map<String, NodeLane> lanes = new LinkedHashMap<>();
+    private final Semaphore inFlight;
+    
+    /**
+     * Creates a sink that only simulates UPSERTs.
+     * @param fanOutExecutor Executor that runs the simulated UPSERTs
+     */
+    public WideColumnDbSink(ExecutorService fanOutExecutor) {
+        this(SinkConfig.builder().rateLimit(1000).build(), fanOutExecutor); // 1000 UPSERTs per second
+    }
     
-    public WideColumnDbSink() {
-        super("Wide-Column DB Sink", 1000); // 1000 UPSERTs per second
-        this.tableName = "fan_out_events";
+    @Autowired
+    public WideColumnDbSink(FanOutConfig config, ExecutorService fanOutExecutor) {
+        this(sinkConfig(config), fanOutExecutor);
+    }
+    
+    /**
+     * @param sinkConfig Endpoint, rate limit, in-flight limits and table settings of the sink
+     * @param fanOutExecutor Executor for simulated UPSERTs and store writes
+     */
+    public WideColumnDbSink(SinkConfig sinkConfig, ExecutorService fanOutExecutor) {
+        this(sinkConfig, fanOutExecutor, openStore(sinkConfig));
+    }
+    
+    /**
+     * @param sinkConfig Rate limit, in-flight limits and table settings of the sink
+     * @param fanOutExecutor Executor for store writes
+     * @param store Store to write to, or null to simulate UPSERTs
+     */
+    WideColumnDbSink(SinkConfig sinkConfig, ExecutorService fanOutExecutor, WideColumnStore store) {
+        super("Wide-Column DB Sink", sinkConfig.getRateLimit(), fanOutExecutor);
+        SinkConfig.WideColumnConfig wideColumn = sinkConfig.getWideColumn() != null
+                ? sinkConfig.getWideColumn() : new SinkConfig.WideColumnConfig();
+        this.tableName = wideColumn.getTable();
+        this.store = store;
+        this.partitionKeyField = wideColumn.getPartitionKeyField();
+        this.maxBatchRows = Math.max(1, wideColumn.getMaxBatchRows());
+        if (store == null) {
+            this.inFlight = null;
+            return;
+        }
+        this.inFlight = new Semaphore(Math.max(1, sinkConfig.getMaxInFlight()));
+        for (String node : store.ring().nodes()) {
+            lanes.put(node, new NodeLane(node, Math.max(1, wideColumn.getMaxInFlightPerNode())));
+        }
+        log.info("Wide-Column DB Sink writing to table {} on {} nodes by partition key '{}', "
+                        + "up to {} rows per request and {} requests in flight per node",
+                tableName, lanes.size(), partitionKeyField, maxBatchRows, wideColumn.getMaxInFlightPerNode());
     }
     
     @Override
-    public CompletableFuture<ProcessingResult> send(SinkEvent event) {
+    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+        if (store == null) {
+            return simulateBatch(events);
+        }
+        
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(
+                    failureResults(events, "Interrupted while waiting for a write slot", e, 0));
+        }
+        long startTime = System.nanoTime();
+        ProcessingResult[] results = new ProcessingResult[events.size()];
+        Map<String, List<Integer>> positionsByPartition = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            Object key = partitionKeyField != null && events.get(i).getRecord() != null
+                    ? events.get(i).getRecord().get(partitionKeyField) : null;
+            if (key == null) {
+                String message = "Missing partition key field '" + partitionKeyField + "'";
+                results[i] = failureResults(List.of(events.get(i)), message, new SinkException(message), 0).get(0);
+                continue;
+            }
+            positionsByPartition.computeIfAbsent(key.toString(), k -> new ArrayList<>()).add(i);
+        }
+        
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> partition : positionsByPartition.entrySet()) {
+            NodeLane lane = lanes.get(store.ring().owner(partition.getKey()));
+            List<Integer> positions = partition.getValue();
+            for (int from = 0; from < positions.size(); from += maxBatchRows) {
+                List<Integer> chunk = positions.subList(from, Math.min(positions.size(), from + maxBatchRows));
+                List<SinkEvent> chunkEvents = new ArrayList<>(chunk.size());
+                List<WideColumnStore.Row> rows = new ArrayList<>(chunk.size());
+                for (int position : chunk) {
+                    SinkEvent event = events.get(position);
+                    chunkEvents.add(event);
+                    rows.add(new WideColumnStore.Row(clusteringKey(event), rowBytes(event.getTransformedData())));
+                }
+                writes.add(lane.submit(partition.getKey(), rows).handle((done, error) -> {
+                    long processingTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                    List<ProcessingResult> chunkResults;
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        chunkResults = failureResults(chunkEvents, "UPSERT failed: " + cause.getMessage(), cause,
+                                processingTime);
+                    } else {
+                        chunkResults = successResults(chunkEvents, processingTime);
+                    }
+                    for (int i = 0; i < chunk.size(); i++) {
+                        results[chunk.get(i)] = chunkResults.get(i);
+                    }
+                    return null;
+                }));
+            }
+        }
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]))
+                .whenComplete((done, error) -> inFlight.release())
+                .thenApply(done -> Arrays.asList(results));
+    }
+    
+    @Override
+    public void close() {
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                log.error("WideColumnDB: Failed to close the store", e);
+            }
+        }
+        log.info("Wide-Column DB Sink closed. Total batched UPSERTs performed: {}, rows written: {}", upsertCount.get(), eventCount.get());
+    }
+    
+    private static String clusteringKey(SinkEvent event) {
+        String id = event.getRecord() != null ? event.getRecord().getId() : null;
+        return id != null ? id : event.getEventId();
+    }
+    
+    private static byte[] rowBytes(Object payload) {
+        if (payload instanceof byte[] bytes) {
+            return bytes;
+        }
+        return String.valueOf(payload).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Requests bound for one node. Up to maxInFlightPerNode workers take requests off the
+     * queue and write them one after another; a worker is started when a request arrives
+     * and fewer are running.
+     */
+    private final class NodeLane {
+        private final String node;
+        private final int maxInFlight;
+        private final ConcurrentLinkedQueue<Upsert> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger workers = new AtomicInteger(0);
+        
+        NodeLane(String node, int maxInFlight) {
+            this.node = node;
+            this.maxInFlight = maxInFlight;
+        }
+        
+        CompletableFuture<Void> submit(String partitionKey, List<WideColumnStore.Row> rows) {
+            Upsert upsert = new Upsert(partitionKey, rows, new CompletableFuture<>());
+            pending.add(upsert);
+            startWorkers();
+            return upsert.result();
+        }
+        
+        private void startWorkers() {
+            while (!pending.isEmpty()) {
+                int running = workers.get();
+                if (running >= maxInFlight) {
+                    return;
+                }
+                if (workers.compareAndSet(running, running + 1)) {
+                    schedule();
+                }
+            }
+        }
+        
+        /**
+         * Hands a new worker to the executor. If the executor refuses it, the worker slot is
+         * given back and every queued request fails, so no caller waits on a worker that
+         * will never run.
+         */
+        private void schedule() {
+            try {
+                if (executor instanceof ExecutorService service && service.isShutdown()) {
+                    // CallerRunsPolicy discards tasks of a shut-down pool without telling the caller
+                    throw new RejectedExecutionException("Executor is shut down");
+                }
+                executor.execute(this::work);
+            } catch (RejectedExecutionException e) {
+                workers.decrementAndGet();
+                log.error("WideColumnDB: Could not schedule a writer for {}", node, e);
+                SinkException failure = new SinkException("Write not scheduled: " + e.getMessage(), e);
+                Upsert upsert;
+                while ((upsert = pending.poll()) != null) {
+                    upsert.result().completeExceptionally(failure);
+                }
+            }
+        }
+        
+        private void work() {
+            try {
+                Upsert upsert;
+                while ((upsert = pending.poll()) != null) {
+                    write(upsert);
+                }
+            } finally {
+                workers.decrementAndGet();
+            }
+            // A request queued while this worker was stopping would otherwise wait for the next one
+            startWorkers();
+        }
+        
+        private void write(Upsert upsert) {
+            try {
+                store.write(node, tableName, upsert.partitionKey(), upsert.rows());
+                upsertCount.incrementAndGet();
+                eventCount.addAndGet(upsert.rows().size());
+                log.debug("WideColumnDB: UPSERT {} rows of partition {} on {}",
+                        upsert.rows().size(), upsert.partitionKey(), node);
+                upsert.result().complete(null);
+            } catch (RuntimeException e) {
+                log.error("WideColumnDB: Failed to UPSERT {} rows of partition {} on {}",
+                        upsert.rows().size(), upsert.partitionKey(), node, e);
+                upsert.result().completeExceptionally(e);
+            }
+        }
+    }
+    
+    /**
+     * Rows of one partition written in one request.
+     */
+    private record Upsert(String partitionKey, List<WideColumnStore.Row> rows, CompletableFuture<Void> result) {
+    }
+    
+    private CompletableFuture<List<ProcessingResult>> simulateBatch(List<SinkEvent> events) {
         return CompletableFuture.supplyAsync(() -> {
             long startTime = System.currentTimeMillis();
             try {
-                // Simulate async UPSERT operation
+                // Simulate one async batched UPSERT for the whole batch
                 simulateDbOperation();
                 
                 long processingTime = System.currentTimeMillis() - startTime;
                 upsertCount.incrementAndGet();
+                eventCount.addAndGet(events.size());
                 
-                log.debug("WideColumnDB: UPSERT event {} into table: {}", event.getEventId(), tableName);
-                return ProcessingResult.success(event.getEventId(), event.getSinkType(), processingTime);
+                log.debug("WideColumnDB: UPSERT batch of {} events into table: {}", events.size(), tableName);
+                return successResults(events, processingTime);
             } catch (Exception e) {
                 long processingTime = System.currentTimeMillis() - startTime;
-                log.error("WideColumnDB: Failed to UPSERT event {}", event.getEventId(), e);
-                return ProcessingResult.failure(event.getEventId(), event.getSinkType(),
-                    "UPSERT failed: " + e.getMessage(), e, processingTime);
+                log.error("WideColumnDB: Failed to UPSERT batch of {} events", events.size(), e);
+                return failureResults(events, "UPSERT failed: " + e.getMessage(), e, processingTime);
             }
-        });
-    }
-    
-    @Override
-    public void close() {
-        log.info("Wide-Column DB Sink closed. Total UPSERTs performed: {}", upsertCount.get());
+        }, executor);
     }
     
     private void simulateDbOperation() throws InterruptedException {
@@ -56,4 +314,30 @@ public class WideColumnDbSink extends BaseSink {
         long delay = 1 + (long)(Math.random() * 9);
         Thread.sleep(delay);
     }
+    
+    /**
+     * Opens the store named by the endpoint.
+     * @return The store, or null when no endpoint is configured
+     */
+    private static WideColumnStore openStore(SinkConfig sinkConfig) {
+        String endpoint = sinkConfig.getEndpoint();
+        if (endpoint == null || endpoint.isBlank()) {
+            return null;
+        }
+        if (!endpoint.startsWith(MEMORY_SCHEME)) {
+            throw new IllegalArgumentException("Unsupported wide-column endpoint '" + endpoint
+                    + "', expected memory:<nodes>");
+        }
+        try {
+            return new InMemoryWideColumnStore(Integer.parseInt(endpoint.substring(MEMORY_SCHEME.length()).trim()),
+                    TOKENS_PER_NODE, 0);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid node count in wide-column endpoint '" + endpoint + "'", e);
+        }
+    }
+    
+    private static SinkConfig sinkConfig(FanOutConfig config) {
+        SinkConfig sinkConfig = config.getSinks() != null ? config.getSinks().get(SinkType.WIDE_COLUMN_DB.getKey()) : null;
+        return sinkConfig != null ? sinkConfig : SinkConfig.builder().rateLimit(1000).build();
+    }
 }
@@ -0,0 +1,35 @@
+package com.example.Assignment_2.sink;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * The database side of the wide-column DB sink: a cluster of nodes that each own the
+ * partitions whose token falls in their ranges of the token ring.
+ */
+public interface WideColumnStore extends Closeable {
+    
+    /**
+     * @return Token ring of the cluster, used to send each partition to the node that owns it
+     */
+    TokenRing ring();
+    
+    /**
+     * Upserts rows of one partition in a single request to a node.
+     * The rows of a partition are applied together; a row replaces any row with the same key.
+     * @param node Node the request is sent to
+     * @param table Table name
+     * @param partitionKey Partition key of every row
+     * @param rows Rows to upsert
+     * @throws com.example.Assignment_2.exception.SinkException if the write fails
+     */
+    void write(String node, String table, String partitionKey, List<Row> rows);
+    
+    /**
+     * One row of a partition.
+     * @param key Clustering key, unique within the partition
+     * @param value Serialized row
+     */
+    record Row(String key, byte[] value) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.Assignment_2.throttling;
+
+/**
+ * Additive increase, multiplicative decrease: the limit grows by one for every request that
+ * succeeds while at least half of it is in use, and is multiplied by the backoff ratio when a
+ * request fails. Reacts to failures only, so a downstream that slows down without failing is
+ * driven up to the maximum limit.
+ */
+public class AimdLimit implements LimitAlgorithm {
+    
+    private final double backoffRatio;
+    
+    /**
+     * @param backoffRatio Factor applied to the limit after a failure, between 0.5 and 1
+     */
+    public AimdLimit(double backoffRatio) {
+        if (backoffRatio < 0.5 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be in [0.5, 1): " + backoffRatio);
+        }
+        this.backoffRatio = backoffRatio;
+    }
+    
+    @Override
+    public int update(int limit, double rttMs, int inFlight, boolean dropped) {
+        if (dropped) {
+            return (int) (limit * backoffRatio);
+        }
+        if (inFlight * 2 >= limit) {
+            return limit + 1;
+        }
+        return limit;
+    }
+    
+    @Override
+    public String name() {
+        return "aimd";
+    }
+}
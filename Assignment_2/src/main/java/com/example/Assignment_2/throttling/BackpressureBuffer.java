@@ -3,6 +3,9 @@ package com.example.Assignment_2.throttling;
 import com.example.Assignment_2.model.SinkEvent;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -35,6 +38,18 @@ public class BackpressureBuffer {
         }
     }
     
+    /**
+     * Puts an event into the queue, waiting up to the given time for space.
+     * @param event The event to add
+     * @param timeout Time to wait
+     * @param unit Time unit
+     * @return true if added, false if the queue stayed full
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean offer(SinkEvent event, long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.offer(event, timeout, unit);
+    }
+    
     /**
      * Tries to put an event without blocking.
      * @param event The event to add
@@ -64,6 +79,43 @@ public class BackpressureBuffer {
         return queue.poll(timeout, unit);
     }
     
+    /**
+     * Takes a batch of up to maxSize events.
+     * Waits up to timeout for the first event, then up to linger for the batch to fill.
+     * @param maxSize Maximum number of events in the batch
+     * @param timeout Time to wait for the first event
+     * @param linger Time to wait for further events once the first has arrived
+     * @param unit Time unit for timeout and linger
+     * @return The batch in queue order, or an empty list if nothing arrived within the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<SinkEvent> pollBatch(int maxSize, long timeout, long linger, TimeUnit unit)
+            throws InterruptedException {
+        SinkEvent first = queue.poll(timeout, unit);
+        if (first == null) {
+            return Collections.emptyList();
+        }
+        
+        List<SinkEvent> batch = new ArrayList<>(maxSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + unit.toNanos(linger);
+        while (batch.size() < maxSize) {
+            if (queue.drainTo(batch, maxSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            SinkEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+    
     /**
      * Returns the current size of the queue.
      * @return Queue size
@@ -72,6 +124,14 @@ public class BackpressureBuffer {
         return queue.size();
     }
     
+    /**
+     * Returns the total capacity.
+     * @return Capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+    
     /**
      * Returns the remaining capacity.
      * @return Remaining capacity
@@ -0,0 +1,139 @@
+package com.example.Assignment_2.throttling;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the requests in flight to a sink, with a limit that adapts to the sink's responses.
+ *
+ * A caller takes a permit before sending and gives it back with the request's RTT and outcome;
+ * the {@link LimitAlgorithm} then moves the limit within [minLimit, maxLimit]. When the limit
+ * drops below the requests in flight, new requests wait until enough of them complete. The
+ * limiter also keeps the RTT estimates shown in the status report: an exponentially weighted
+ * average and the lowest RTT seen.
+ */
+public class ConcurrencyLimiter {
+    
+    private static final double RTT_SMOOTHING = 0.2;
+    
+    private final LimitAlgorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private volatile int limit;
+    private volatile int inFlight;
+    private volatile double smoothedRttMs;
+    private volatile double minRttMs;
+    private volatile long drops;
+    
+    /**
+     * @param algorithm Algorithm that adjusts the limit
+     * @param initialLimit Limit before the first sample
+     * @param minLimit Lowest limit
+     * @param maxLimit Highest limit
+     */
+    public ConcurrencyLimiter(LimitAlgorithm algorithm, int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds [" + minLimit + ", " + maxLimit + "]");
+        }
+        this.algorithm = algorithm;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = clamp(initialLimit);
+    }
+    
+    /**
+     * Takes a permit, waiting while the requests in flight are at the limit.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= limit) {
+                permitReleased.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Takes a permit if the requests in flight are below the limit.
+     * @return true if a permit was taken
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gives a permit back and adjusts the limit with the request's sample.
+     * @param rttMs Round-trip time of the request in ms
+     * @param dropped Whether the request failed
+     */
+    public void release(long rttMs, boolean dropped) {
+        // Sub-millisecond responses still count as one, so the ratios of RTTs stay defined
+        double rtt = Math.max(1, rttMs);
+        lock.lock();
+        try {
+            limit = clamp(algorithm.update(limit, rtt, inFlight, dropped));
+            inFlight--;
+            smoothedRttMs = smoothedRttMs == 0 ? rtt : smoothedRttMs + RTT_SMOOTHING * (rtt - smoothedRttMs);
+            if (dropped) {
+                drops++;
+            } else {
+                minRttMs = minRttMs == 0 ? rtt : Math.min(minRttMs, rtt);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight;
+    }
+    
+    /**
+     * @return Exponentially weighted average RTT in ms, 0 before the first sample
+     */
+    public double getSmoothedRttMs() {
+        return smoothedRttMs;
+    }
+    
+    /**
+     * @return Lowest RTT of a successful request in ms, 0 before the first one
+     */
+    public double getMinRttMs() {
+        return minRttMs;
+    }
+    
+    /**
+     * @return Requests that failed
+     */
+    public long getDrops() {
+        return drops;
+    }
+    
+    public String getAlgorithmName() {
+        return algorithm.name();
+    }
+    
+    private int clamp(int value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.Assignment_2.throttling;
+
+/**
+ * Computes the next in-flight limit of a {@link ConcurrencyLimiter} from one completed request.
+ * Called under the limiter's lock, so implementations may keep state without synchronizing.
+ */
+public interface LimitAlgorithm {
+    
+    /**
+     * @param limit Current limit
+     * @param rttMs Round-trip time of the request
+     * @param inFlight Requests in flight when it completed, itself included
+     * @param dropped Whether the request failed
+     * @return New limit, before clamping to the limiter's bounds
+     */
+    int update(int limit, double rttMs, int inFlight, boolean dropped);
+    
+    /**
+     * @return Name shown in the status report
+     */
+    String name();
+}
@@ -1,33 +1,114 @@
 package com.example.Assignment_2.throttling;
 
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Token-bucket rate limiter implementation.
+ * Lock-free token-bucket rate limiter.
  * Allows for smooth rate limiting with burst capacity.
+ *
+ * Instead of counting tokens under a lock, the limiter keeps a single "next free slot"
+ * timestamp: the time at which the bucket would be full again. Taking n permits moves that
+ * timestamp n intervals forward with a CAS, and a request fits if the timestamp stays within
+ * one burst of now. Reserving permits moves the timestamp unconditionally and tells the caller
+ * how long to wait before using them.
  */
-@RequiredArgsConstructor
 public class RateLimiter {
     
     private final long tokensPerSecond;
     private final long maxBurstSize;
-    private volatile long lastRefillTime = System.nanoTime();
-    private volatile double availableTokens;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong nextFreeNanos;
     
     public RateLimiter(long tokensPerSecond) {
+        this(tokensPerSecond, Math.max(tokensPerSecond, 10)); // At least 10 tokens burst
+    }
+    
+    public RateLimiter(long tokensPerSecond, long maxBurstSize) {
+        if (tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + tokensPerSecond);
+        }
         this.tokensPerSecond = tokensPerSecond;
-        this.maxBurstSize = Math.max(tokensPerSecond, 10); // At least 10 tokens burst
-        this.availableTokens = maxBurstSize;
+        this.maxBurstSize = Math.max(1, maxBurstSize);
+        this.nanosPerToken = Math.max(1, 1_000_000_000L / tokensPerSecond);
+        this.burstNanos = this.maxBurstSize * nanosPerToken;
+        this.nextFreeNanos = new AtomicLong(System.nanoTime());
+    }
+    
+    /**
+     * Acquires a token for processing. Parks the calling thread until it is available.
+     * @throws InterruptedException if thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        acquire(1);
     }
     
     /**
-     * Acquires a token for processing. Blocks if no tokens available.
+     * Acquires permits for processing. Parks the calling thread until they are available.
+     * @param permits Number of permits to acquire
      * @throws InterruptedException if thread is interrupted while waiting
      */
-    public synchronized void acquire() throws InterruptedException {
-        while (!tryAcquire()) {
-            long waitTime = calculateWaitTime();
-            Thread.sleep(Math.min(waitTime / 1_000_000, 1)); // Sleep max 1ms at a time
+    public void acquire(int permits) throws InterruptedException {
+        long deadline = System.nanoTime() + reserve(permits);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException("Interrupted while waiting for rate limiter");
+            }
+        }
+    }
+    
+    /**
+     * Acquires permits without blocking the caller.
+     * The returned future completes on the common async pool once the permits are available.
+     * @param permits Number of permits to acquire
+     * @return Future completed when the permits may be used
+     */
+    public CompletableFuture<Void> acquireAsync(int permits) {
+        long waitNanos = reserve(permits);
+        if (waitNanos == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+    
+    /**
+     * Acquires permits without blocking the caller.
+     * The returned future completes on the given executor once the permits are available.
+     * Permits are reserved immediately, so cancelling the future does not give them back.
+     * @param permits Number of permits to acquire
+     * @param executor Executor that completes the future
+     * @return Future completed when the permits may be used
+     */
+    public CompletableFuture<Void> acquireAsync(int permits, Executor executor) {
+        long waitNanos = reserve(permits);
+        if (waitNanos == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS, executor));
+    }
+    
+    /**
+     * Reserves permits ahead of time, whether or not they are available now.
+     * @param permits Number of permits to reserve
+     * @return Nanoseconds the caller must wait before using the permits, 0 if they are available now
+     */
+    public long reserve(int permits) {
+        long cost = permits * nanosPerToken;
+        while (true) {
+            long now = System.nanoTime();
+            long nextFree = nextFreeNanos.get();
+            long newNextFree = Math.max(nextFree - now, 0) + now + cost;
+            if (nextFreeNanos.compareAndSet(nextFree, newNextFree)) {
+                return Math.max(0, newNextFree - burstNanos - now);
+            }
         }
     }
     
@@ -35,15 +116,8 @@ public class RateLimiter {
      * Tries to acquire a token without blocking.
      * @return true if token acquired, false otherwise
      */
-    public synchronized boolean tryAcquire() {
-        refillTokens();
-        
-        if (availableTokens >= 1.0) {
-            availableTokens -= 1.0;
-            return true;
-        }
-        
-        return false;
+    public boolean tryAcquire() {
+        return tryAcquire(1);
     }
     
     /**
@@ -51,30 +125,34 @@ public class RateLimiter {
      * @param tokens Number of tokens to acquire
      * @return true if all tokens acquired, false otherwise
      */
-    public synchronized boolean tryAcquire(int tokens) {
-        refillTokens();
-        
-        if (availableTokens >= tokens) {
-            availableTokens -= tokens;
-            return true;
+    public boolean tryAcquire(int tokens) {
+        long cost = tokens * nanosPerToken;
+        while (true) {
+            long now = System.nanoTime();
+            long nextFree = nextFreeNanos.get();
+            long newNextFree = Math.max(nextFree - now, 0) + now + cost;
+            if (newNextFree - now > burstNanos) {
+                return false;
+            }
+            if (nextFreeNanos.compareAndSet(nextFree, newNextFree)) {
+                return true;
+            }
         }
-        
-        return false;
     }
     
-    private void refillTokens() {
-        long now = System.nanoTime();
-        long timePassed = now - lastRefillTime;
-        double tokensToAdd = (timePassed * tokensPerSecond) / 1_000_000_000.0;
-        
-        availableTokens = Math.min(maxBurstSize, availableTokens + tokensToAdd);
-        lastRefillTime = now;
+    /**
+     * Returns the configured rate.
+     * @return Tokens per second
+     */
+    public long getTokensPerSecond() {
+        return tokensPerSecond;
     }
     
-    private long calculateWaitTime() {
-        long now = System.nanoTime();
-        long timeSinceLastRefill = now - lastRefillTime;
-        long timeToNextToken = (long)((1.0 - availableTokens) * 1_000_000_000.0 / tokensPerSecond);
-        return Math.max(0, timeToNextToken - timeSinceLastRefill);
+    /**
+     * Returns the burst capacity.
+     * @return Maximum tokens available at once
+     */
+    public long getMaxBurstSize() {
+        return maxBurstSize;
     }
 }
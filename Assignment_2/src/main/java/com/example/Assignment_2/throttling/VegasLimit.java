@@ -0,0 +1,68 @@
+package com.example.Assignment_2.throttling;
+
+/**
+ * Delay-based limit after TCP Vegas. The lowest RTT seen is taken as the no-load RTT, and
+ * <code>limit * (1 - rttNoLoad / rtt)</code> estimates how many requests are queued at the
+ * downstream rather than being served. With few queued the limit grows, with many it shrinks,
+ * so the limit settles where latency starts to rise, before requests begin to fail.
+ *
+ * The thresholds scale with log10 of the limit (at least 1): grow by 6 log10 while at most
+ * log10 are queued, by log10 while fewer than 3 log10 are queued, and shrink by log10 once more
+ * than 6 log10 are queued or a request fails. Samples taken while less than half the limit is
+ * in use say nothing about the downstream and leave the limit alone. The no-load RTT is reset
+ * to the current RTT every probeInterval samples so it follows a downstream whose baseline
+ * latency has changed. Only successful requests are counted as samples.
+ */
+public class VegasLimit implements LimitAlgorithm {
+    
+    private final int probeInterval;
+    private double rttNoLoadMs;
+    private long samples;
+    
+    /**
+     * @param probeInterval Samples after which the no-load RTT is measured again
+     */
+    public VegasLimit(int probeInterval) {
+        this.probeInterval = Math.max(1, probeInterval);
+    }
+    
+    @Override
+    public int update(int limit, double rttMs, int inFlight, boolean dropped) {
+        int log = Math.max(1, (int) Math.log10(limit));
+        if (dropped) {
+            // A fast failure or a timeout says nothing about the no-load RTT
+            return limit - log;
+        }
+        samples++;
+        if (rttNoLoadMs == 0 || rttMs < rttNoLoadMs || samples % probeInterval == 0) {
+            rttNoLoadMs = rttMs;
+            return limit;
+        }
+        if (inFlight * 2 < limit) {
+            return limit;
+        }
+        int queued = (int) Math.ceil(limit * (1 - rttNoLoadMs / rttMs));
+        if (queued <= log) {
+            return limit + 6 * log;
+        }
+        if (queued < 3 * log) {
+            return limit + log;
+        }
+        if (queued > 6 * log) {
+            return limit - log;
+        }
+        return limit;
+    }
+    
+    @Override
+    public String name() {
+        return "vegas";
+    }
+    
+    /**
+     * @return Current no-load RTT estimate in ms, 0 before the first sample
+     */
+    public double getRttNoLoadMs() {
+        return rttNoLoadMs;
+    }
+}
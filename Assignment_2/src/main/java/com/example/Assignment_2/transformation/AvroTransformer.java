@@ -1,35 +1,191 @@
 package com.example.Assignment_2.transformation;
 
+import com.example.Assignment_2.exception.TransformationException;
 import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.RecordSchema;
+import com.example.Assignment_2.model.Utf8Slice;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.EncoderFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Map;
 
 /**
- * Transforms data records to Avro/CQL Map format.
+ * Transforms data records to Avro binary format.
  * Used for wide-column database sinks (Cassandra, Aerospike, DynamoDB, ScyllaDB).
+ *
+ * The schema is fixed, so the datum writer is built once and shared. It reads straight
+ * from the DataRecord instead of a GenericRecord copy, and each thread reuses its own
+ * encoder and output buffer; only the returned byte[] is allocated per record.
  */
 @Slf4j
 @Component
 public class AvroTransformer implements Transformer {
     
+    /**
+     * Wire schema of the payload. Field values keep their type when Avro has one for it
+     * (byte[] and ByteBuffer are written as bytes). Nested maps, lists and arrays are written
+     * as JSON text, as the JSON transformer writes them, and any other value as its string form.
+     */
+    public static final Schema SCHEMA = SchemaBuilder.record("FanOutRecord")
+            .namespace("com.example.fanout")
+            .fields()
+            .name("id").type().nullable().stringType().noDefault()
+            .name("sequence_number").type().longType().noDefault()
+            .name("timestamp").type().longType().noDefault()
+            .name("fields").type().map().values(SchemaBuilder.unionOf()
+                    .nullType().and()
+                    .booleanType().and()
+                    .intType().and()
+                    .longType().and()
+                    .floatType().and()
+                    .doubleType().and()
+                    .stringType().and()
+                    .bytesType()
+                    .endUnion())
+                .noDefault()
+            .endRecord();
+    
+    private static final int ID = 0;
+    private static final int SEQUENCE_NUMBER = 1;
+    private static final int TIMESTAMP = 2;
+    private static final int FIELDS = 3;
+    
+    private final RecordDatumWriter writer = new RecordDatumWriter();
+    private final ThreadLocal<EncodingBuffer> buffers = ThreadLocal.withInitial(EncodingBuffer::new);
+    
     @Override
     public Object transform(DataRecord record) {
-        // Create a CQL-compatible map structure
-        Map<String, Object> cqlMap = new HashMap<>();
-        cqlMap.put("id", record.getId());
-        cqlMap.put("sequence_number", record.getSequenceNumber());
-        cqlMap.put("fields", record.getFields());
-        cqlMap.put("timestamp", System.currentTimeMillis());
-        
-        // In production, this would be serialized to Avro binary format
-        return cqlMap;
+        EncodingBuffer buffer = buffers.get();
+        try {
+            buffer.output().reset();
+            writer.write(record, buffer.encoder());
+            return buffer.output().toByteArray();
+        } catch (IOException | RuntimeException e) {
+            log.error("Error transforming record {} to Avro", record.getId(), e);
+            throw new TransformationException("Avro transformation failed", e);
+        }
     }
     
     @Override
     public String getName() {
         return "Avro/CQL Transformer";
     }
+    
+    /**
+     * Per-thread output buffer with an encoder writing directly into it.
+     */
+    private record EncodingBuffer(OutputBuffer output, BinaryEncoder encoder) {
+        EncodingBuffer(OutputBuffer output) {
+            this(output, EncoderFactory.get().directBinaryEncoder(output, null));
+        }
+        
+        EncodingBuffer() {
+            this(new OutputBuffer(512));
+        }
+    }
+    
+    /**
+     * Datum writer that reads the payload fields directly from a DataRecord.
+     */
+    private static final class RecordDatumWriter extends GenericDatumWriter<Object> {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        
+        RecordDatumWriter() {
+            super(SCHEMA, new RecordData());
+        }
+        
+        @Override
+        protected void writeMap(Schema schema, Object datum, Encoder out) throws IOException {
+            if (!(datum instanceof DataRecord record)) {
+                super.writeMap(schema, datum, out);
+                return;
+            }
+            // Walk the record's fields by index instead of through a Map view
+            Schema valueSchema = schema.getValueType();
+            RecordSchema fieldNames = record.getSchema();
+            int size = record.size();
+            out.writeMapStart();
+            out.setItemCount(size);
+            for (int i = 0; i < size; i++) {
+                out.startItem();
+                out.writeString(fieldNames.name(i));
+                write(valueSchema, record.get(i), out);
+            }
+            out.writeMapEnd();
+        }
+        
+        @Override
+        protected void writeString(Object datum, Encoder out) throws IOException {
+            if (datum instanceof Utf8Slice slice) {
+                // Avro strings and bytes share the same binary encoding
+                out.writeBytes(slice.array(), slice.offset(), slice.byteLength());
+                return;
+            }
+            out.writeString(text(datum));
+        }
+        
+        private CharSequence text(Object datum) throws IOException {
+            if (datum instanceof CharSequence chars) {
+                return chars;
+            }
+            if (datum instanceof Map<?, ?> || datum instanceof Collection<?> || datum.getClass().isArray()) {
+                return objectMapper.writeValueAsString(datum);
+            }
+            if (datum instanceof BigDecimal decimal) {
+                return decimal.toPlainString();
+            }
+            return datum.toString();
+        }
+        
+        @Override
+        protected void writeBytes(Object datum, Encoder out) throws IOException {
+            if (datum instanceof byte[] bytes) {
+                out.writeBytes(bytes);
+                return;
+            }
+            super.writeBytes(datum, out);
+        }
+    }
+    
+    /**
+     * Data model that maps schema positions onto DataRecord properties.
+     */
+    private static final class RecordData extends GenericData {
+        @Override
+        public Object getField(Object record, String name, int position) {
+            DataRecord dataRecord = (DataRecord) record;
+            return switch (position) {
+                case ID -> dataRecord.getId();
+                case SEQUENCE_NUMBER -> dataRecord.getSequenceNumber();
+                case TIMESTAMP -> System.currentTimeMillis();
+                case FIELDS -> dataRecord;
+                default -> throw new IllegalArgumentException("Unknown field: " + name);
+            };
+        }
+        
+        @Override
+        protected String getSchemaName(Object datum) {
+            if (datum == null || datum instanceof Boolean || datum instanceof Integer
+                    || datum instanceof Long || datum instanceof Float || datum instanceof Double
+                    || datum instanceof CharSequence) {
+                return super.getSchemaName(datum);
+            }
+            if (datum instanceof byte[] || datum instanceof ByteBuffer) {
+                return Schema.Type.BYTES.getName();
+            }
+            return Schema.Type.STRING.getName();
+        }
+    }
 }
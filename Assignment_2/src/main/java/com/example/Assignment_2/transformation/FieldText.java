@@ -0,0 +1,25 @@
+package com.example.Assignment_2.transformation;
+
+import java.util.Base64;
+
+/**
+ * Text form of a field value for formats that carry every value as a string.
+ */
+final class FieldText {
+    
+    private FieldText() {
+    }
+    
+    /**
+     * Converts a field value to text. Bytes are base64 encoded, the way Jackson writes
+     * a byte[] in the JSON payload, so every text format carries them alike.
+     * @param value Field value, may be null
+     * @return The text, empty for null
+     */
+    static String of(Object value) {
+        if (value == null) {
+            return "";
+        }
+        return value instanceof byte[] bytes ? Base64.getEncoder().encodeToString(bytes) : value.toString();
+    }
+}
@@ -1,35 +1,130 @@
 package com.example.Assignment_2.transformation;
 
+import com.example.Assignment_2.exception.TransformationException;
 import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.RecordSchema;
+import com.example.Assignment_2.model.Utf8Slice;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Transforms data records to JSON format.
  * Used for REST API sinks that accept JSON payloads.
+ *
+ * The payload is serialized here, once, as UTF-8 bytes wrapped in a ByteBuffer, so the sink
+ * sends it as-is. Each thread keeps one JsonGenerator bound to its own recycled buffer and
+ * reuses it for every record; field names are pre-encoded SerializedStrings cached per column.
  */
 @Slf4j
 @Component
 public class JsonTransformer implements Transformer {
     
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString SEQUENCE_NUMBER = new SerializedString("sequenceNumber");
+    private static final SerializedString DATA = new SerializedString("data");
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, SerializedString> fieldNames = new ConcurrentHashMap<>();
+    private final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(this::newEncoder);
     
     @Override
     public Object transform(DataRecord record) {
-        Map<String, Object> output = new HashMap<>();
-        output.put("id", record.getId());
-        output.put("sequenceNumber", record.getSequenceNumber());
-        output.put("data", record.getFields());
-        output.put("timestamp", System.currentTimeMillis());
-        return output;
+        Encoder encoder = encoders.get();
+        try {
+            encoder.buffer().reset();
+            JsonGenerator generator = encoder.generator();
+            generator.writeStartObject();
+            generator.writeFieldName(ID);
+            generator.writeString(record.getId());
+            generator.writeFieldName(SEQUENCE_NUMBER);
+            generator.writeNumber(record.getSequenceNumber());
+            
+            generator.writeFieldName(DATA);
+            generator.writeStartObject();
+            RecordSchema schema = record.getSchema();
+            for (int i = 0; i < record.size(); i++) {
+                generator.writeFieldName(fieldName(schema.name(i)));
+                writeValue(generator, record.get(i));
+            }
+            generator.writeEndObject();
+            
+            generator.writeFieldName(TIMESTAMP);
+            generator.writeNumber(System.currentTimeMillis());
+            generator.writeEndObject();
+            generator.flush();
+            return ByteBuffer.wrap(encoder.buffer().toByteArray());
+        } catch (IOException | RuntimeException e) {
+            // A generator that failed part way still holds the open object contexts of this
+            // record, so drop it and let the next record on this thread create a new one
+            encoders.remove();
+            log.error("Error transforming record {} to JSON", record.getId(), e);
+            throw new TransformationException("JSON transformation failed", e);
+        }
     }
     
     @Override
     public String getName() {
         return "JSON Transformer";
     }
+    
+    private SerializedString fieldName(String column) {
+        return fieldNames.computeIfAbsent(column, SerializedString::new);
+    }
+    
+    private void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String s) {
+            generator.writeString(s);
+        } else if (value instanceof Utf8Slice s) {
+            generator.writeUTF8String(s.array(), s.offset(), s.byteLength());
+        } else if (value instanceof Integer i) {
+            generator.writeNumber(i);
+        } else if (value instanceof Long l) {
+            generator.writeNumber(l);
+        } else if (value instanceof Double d) {
+            generator.writeNumber(d);
+        } else if (value instanceof Float f) {
+            generator.writeNumber(f);
+        } else if (value instanceof BigDecimal d) {
+            generator.writeNumber(d);
+        } else if (value instanceof BigInteger i) {
+            generator.writeNumber(i);
+        } else if (value instanceof Boolean b) {
+            generator.writeBoolean(b);
+        } else {
+            objectMapper.writeValue(generator, value);
+        }
+    }
+    
+    private Encoder newEncoder() {
+        OutputBuffer buffer = new OutputBuffer(512);
+        try {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8);
+            // Records are written back to back as root values; no separator between them
+            generator.setRootValueSeparator(null);
+            return new Encoder(generator, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create JSON generator", e);
+        }
+    }
+    
+    /**
+     * Per-thread generator and the recycled buffer it writes into.
+     */
+    private record Encoder(JsonGenerator generator, OutputBuffer buffer) {
+    }
 }
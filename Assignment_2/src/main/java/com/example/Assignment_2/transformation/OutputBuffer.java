@@ -0,0 +1,57 @@
+package com.example.Assignment_2.transformation;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer the transformers serialize into.
+ *
+ * Each transformer keeps one per thread and resets it before every record, so the backing
+ * array is reused and only the copy returned by {@link #toByteArray()} is allocated per
+ * record. Unlike ByteArrayOutputStream it is unsynchronized, since it never leaves its thread.
+ */
+final class OutputBuffer extends OutputStream {
+    
+    private byte[] buf;
+    private int count;
+    
+    /**
+     * @param initialCapacity Bytes allocated up front; the buffer doubles when it runs out
+     */
+    OutputBuffer(int initialCapacity) {
+        this.buf = new byte[initialCapacity];
+    }
+    
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buf[count++] = (byte) b;
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+    
+    /**
+     * Discards the bytes written so far, keeping the backing array.
+     */
+    void reset() {
+        count = 0;
+    }
+    
+    /**
+     * @return A copy of the bytes written since the last reset
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+    
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, minCapacity));
+        }
+    }
+}
@@ -1,41 +1,207 @@
 package com.example.Assignment_2.transformation;
 
+import com.example.Assignment_2.exception.TransformationException;
 import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.RecordSchema;
+import com.example.Assignment_2.model.Utf8Slice;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.MessageOptions;
+import com.google.protobuf.Descriptors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * Transforms data records to Protobuf format.
  * Used for gRPC sinks that use Protocol Buffers for serialization.
- * 
- * Note: This is a simplified implementation. In production, you would generate
- * proper Protobuf classes using protoc compiler.
+ *
+ * Records are encoded as the FanOutRecord message described by {@link #DESCRIPTOR}:
+ * <pre>
+ * message FanOutRecord {
+ *   string id = 1;
+ *   int64 sequence_number = 2;
+ *   int64 timestamp = 3;
+ *   map&lt;string, string&gt; fields = 4;
+ * }
+ * </pre>
+ * The encoder writes the wire format directly from the DataRecord: a sizing pass computes
+ * the exact message length (needed anyway for the map-entry length prefixes), then a
+ * CodedOutputStream writes straight into an array of that size, so there is no
+ * intermediate message object, map copy or buffer copy.
  */
 @Slf4j
 @Component
 public class ProtobufTransformer implements Transformer {
     
+    public static final Descriptors.Descriptor DESCRIPTOR = buildDescriptor();
+    
+    private static final int ID_FIELD = 1;
+    private static final int SEQUENCE_NUMBER_FIELD = 2;
+    private static final int TIMESTAMP_FIELD = 3;
+    private static final int FIELDS_FIELD = 4;
+    private static final int ENTRY_KEY_FIELD = 1;
+    private static final int ENTRY_VALUE_FIELD = 2;
+    private static final int FIELDS_TAG_SIZE = CodedOutputStream.computeTagSize(FIELDS_FIELD);
+    
+    private final ThreadLocal<EntryScratch> scratch = ThreadLocal.withInitial(EntryScratch::new);
+    
     @Override
     public Object transform(DataRecord record) {
-        // In production, you would use generated Protobuf classes
-        // For this demo, we'll create a serializable representation
-        Map<String, Object> protobufFields = new HashMap<>();
-        protobufFields.put("id", record.getId());
-        protobufFields.put("sequence_number", record.getSequenceNumber());
-        protobufFields.put("fields", record.getFields());
-        protobufFields.put("timestamp", System.currentTimeMillis());
+        String id = record.getId();
+        long sequenceNumber = record.getSequenceNumber();
+        long timestamp = System.currentTimeMillis();
+        RecordSchema schema = record.getSchema();
+        int fieldCount = record.size();
+        EntryScratch entries = scratch.get().prepare(fieldCount);
         
-        // Return as string representation for demo
-        return protobufFields.toString().getBytes();
+        try {
+            int size = 0;
+            if (id != null && !id.isEmpty()) {
+                size += CodedOutputStream.computeStringSize(ID_FIELD, id);
+            }
+            if (sequenceNumber != 0) {
+                size += CodedOutputStream.computeInt64Size(SEQUENCE_NUMBER_FIELD, sequenceNumber);
+            }
+            size += CodedOutputStream.computeInt64Size(TIMESTAMP_FIELD, timestamp);
+            
+            for (int i = 0; i < fieldCount; i++) {
+                String key = schema.name(i);
+                Object raw = record.get(i);
+                CharSequence value = text(raw);
+                int entrySize = CodedOutputStream.computeStringSize(ENTRY_KEY_FIELD, key);
+                if (!value.isEmpty()) {
+                    entrySize += valueSize(value);
+                }
+                entries.keys[i] = key;
+                entries.values[i] = value;
+                entries.sizes[i] = entrySize;
+                size += FIELDS_TAG_SIZE + CodedOutputStream.computeUInt32SizeNoTag(entrySize) + entrySize;
+            }
+            
+            byte[] payload = new byte[size];
+            CodedOutputStream output = CodedOutputStream.newInstance(payload);
+            if (id != null && !id.isEmpty()) {
+                output.writeString(ID_FIELD, id);
+            }
+            if (sequenceNumber != 0) {
+                output.writeInt64(SEQUENCE_NUMBER_FIELD, sequenceNumber);
+            }
+            output.writeInt64(TIMESTAMP_FIELD, timestamp);
+            for (int j = 0; j < fieldCount; j++) {
+                output.writeTag(FIELDS_FIELD, 2); // length-delimited
+                output.writeUInt32NoTag(entries.sizes[j]);
+                output.writeString(ENTRY_KEY_FIELD, entries.keys[j]);
+                if (!entries.values[j].isEmpty()) {
+                    writeValue(output, entries.values[j]);
+                }
+            }
+            output.checkNoSpaceLeft();
+            return payload;
+        } catch (IOException | RuntimeException e) {
+            log.error("Error transforming record {} to Protobuf", id, e);
+            throw new TransformationException("Protobuf transformation failed", e);
+        } finally {
+            entries.clear(fieldCount);
+        }
     }
     
     @Override
     public String getName() {
         return "Protobuf Transformer";
     }
+    
+    /**
+     * String form of a field value for the map&lt;string, string&gt; entry. A Utf8Slice is
+     * kept as is, so its bytes are copied to the wire without decoding them.
+     */
+    private static CharSequence text(Object value) {
+        return value instanceof Utf8Slice slice ? slice : FieldText.of(value);
+    }
+    
+    private static int valueSize(CharSequence value) {
+        if (value instanceof Utf8Slice slice) {
+            // Already UTF-8: string fields are length-delimited bytes on the wire
+            return CodedOutputStream.computeTagSize(ENTRY_VALUE_FIELD)
+                    + CodedOutputStream.computeUInt32SizeNoTag(slice.byteLength()) + slice.byteLength();
+        }
+        return CodedOutputStream.computeStringSize(ENTRY_VALUE_FIELD, (String) value);
+    }
+    
+    private static void writeValue(CodedOutputStream output, CharSequence value) throws IOException {
+        if (value instanceof Utf8Slice slice) {
+            output.writeByteArray(ENTRY_VALUE_FIELD, slice.array(), slice.offset(), slice.byteLength());
+        } else {
+            output.writeString(ENTRY_VALUE_FIELD, (String) value);
+        }
+    }
+    
+    /**
+     * Per-thread arrays holding each map entry's key, value and size between the two passes.
+     */
+    private static final class EntryScratch {
+        private String[] keys = new String[16];
+        private CharSequence[] values = new CharSequence[16];
+        private int[] sizes = new int[16];
+        
+        EntryScratch prepare(int count) {
+            if (count > keys.length) {
+                int capacity = Math.max(count, keys.length << 1);
+                keys = new String[capacity];
+                values = new CharSequence[capacity];
+                sizes = new int[capacity];
+            }
+            return this;
+        }
+        
+        void clear(int count) {
+            int end = Math.min(count, keys.length);
+            Arrays.fill(keys, 0, end, null);
+            Arrays.fill(values, 0, end, null);
+        }
+    }
+    
+    private static Descriptors.Descriptor buildDescriptor() {
+        DescriptorProto fieldsEntry = DescriptorProto.newBuilder()
+                .setName("FieldsEntry")
+                .setOptions(MessageOptions.newBuilder().setMapEntry(true))
+                .addField(field("key", ENTRY_KEY_FIELD, FieldDescriptorProto.Type.TYPE_STRING))
+                .addField(field("value", ENTRY_VALUE_FIELD, FieldDescriptorProto.Type.TYPE_STRING))
+                .build();
+        DescriptorProto record = DescriptorProto.newBuilder()
+                .setName("FanOutRecord")
+                .addField(field("id", ID_FIELD, FieldDescriptorProto.Type.TYPE_STRING))
+                .addField(field("sequence_number", SEQUENCE_NUMBER_FIELD, FieldDescriptorProto.Type.TYPE_INT64))
+                .addField(field("timestamp", TIMESTAMP_FIELD, FieldDescriptorProto.Type.TYPE_INT64))
+                .addField(field("fields", FIELDS_FIELD, FieldDescriptorProto.Type.TYPE_MESSAGE).toBuilder()
+                        .setLabel(FieldDescriptorProto.Label.LABEL_REPEATED)
+                        .setTypeName(".fanout.FanOutRecord.FieldsEntry"))
+                .addNestedType(fieldsEntry)
+                .build();
+        FileDescriptorProto file = FileDescriptorProto.newBuilder()
+                .setName("fanout_record.proto")
+                .setPackage("fanout")
+                .setSyntax("proto3")
+                .addMessageType(record)
+                .build();
+        try {
+            return Descriptors.FileDescriptor.buildFrom(file, new Descriptors.FileDescriptor[0])
+                    .findMessageTypeByName("FanOutRecord");
+        } catch (Descriptors.DescriptorValidationException e) {
+            throw new IllegalStateException("Invalid FanOutRecord descriptor", e);
+        }
+    }
+    
+    private static FieldDescriptorProto field(String name, int number, FieldDescriptorProto.Type type) {
+        return FieldDescriptorProto.newBuilder()
+                .setName(name)
+                .setNumber(number)
+                .setType(type)
+                .setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL)
+                .build();
+    }
 }
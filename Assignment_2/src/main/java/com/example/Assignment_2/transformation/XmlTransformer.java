@@ -1,36 +1,73 @@
 package com.example.Assignment_2.transformation;
 
+import com.ctc.wstx.api.WstxOutputProperties;
+import com.example.Assignment_2.exception.TransformationException;
 import com.example.Assignment_2.model.DataRecord;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.example.Assignment_2.model.RecordSchema;
+import com.fasterxml.jackson.dataformat.xml.XmlFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Transforms data records to XML format.
  * Used for legacy message queue sinks that require XML payloads.
+ *
+ * Records are streamed through the StAX writer behind jackson-dataformat-xml straight from
+ * the DataRecord into a per-thread byte buffer, and returned as UTF-8 bytes. Each thread keeps
+ * one writer and reuses it for every record, writing the documents back to back. Column names
+ * are turned into valid element names once per schema, since every row of a file shares them;
+ * columns that sanitize to the same name get a numeric suffix.
+ * The document layout is unchanged from the map-based serializer legacy consumers read:
+ * <pre>
+ * &lt;HashMap&gt;&lt;id/&gt;&lt;sequenceNumber/&gt;&lt;data&gt;...&lt;/data&gt;&lt;timestamp/&gt;&lt;/HashMap&gt;
+ * </pre>
  */
 @Slf4j
 @Component
 public class XmlTransformer implements Transformer {
     
-    private final XmlMapper xmlMapper = new XmlMapper();
+    private static final String ROOT_ELEMENT = "HashMap";
+    
+    private final XMLOutputFactory outputFactory = newOutputFactory();
+    private final Map<String, String> elementNames = new ConcurrentHashMap<>();
+    private final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(this::newEncoder);
     
     @Override
     public Object transform(DataRecord record) {
-        Map<String, Object> output = new HashMap<>();
-        output.put("id", record.getId());
-        output.put("sequenceNumber", record.getSequenceNumber());
-        output.put("data", convertMapToXmlNodes(record.getFields()));
-        output.put("timestamp", System.currentTimeMillis());
-        
+        Encoder encoder = encoders.get();
         try {
-            return xmlMapper.writeValueAsString(output);
-        } catch (Exception e) {
-            log.error("Error transforming record to XML", e);
-            throw new RuntimeException("XML transformation failed", e);
+            encoder.buffer.reset();
+            XMLStreamWriter writer = encoder.writer;
+            writer.writeStartElement(ROOT_ELEMENT);
+            writeElement(writer, "id", record.getId() != null ? record.getId() : "");
+            writeElement(writer, "sequenceNumber", Long.toString(record.getSequenceNumber()));
+            
+            writer.writeStartElement("data");
+            String[] names = encoder.elementNames(record.getSchema());
+            for (int i = 0; i < record.size(); i++) {
+                writeElement(writer, names[i], FieldText.of(record.get(i)));
+            }
+            writer.writeEndElement();
+            
+            writeElement(writer, "timestamp", Long.toString(System.currentTimeMillis()));
+            writer.writeEndElement();
+            writer.flush();
+            return encoder.buffer.toByteArray();
+        } catch (XMLStreamException | RuntimeException e) {
+            // A failed record can leave the writer inside an open element, which every later
+            // document on it would be nested in; let this thread create a new writer instead
+            encoders.remove();
+            log.error("Error transforming record {} to XML", record.getId(), e);
+            throw new TransformationException("XML transformation failed", e);
         }
     }
     
@@ -39,11 +76,112 @@ public class XmlTransformer implements Transformer {
         return "XML Transformer";
     }
     
-    private Map<String, String> convertMapToXmlNodes(Map<String, Object> fields) {
-        Map<String, String> xmlFields = new HashMap<>();
-        fields.forEach((key, value) -> {
-            xmlFields.put(key, value != null ? value.toString() : "");
-        });
-        return xmlFields;
+    private void writeElement(XMLStreamWriter writer, String name, String text) throws XMLStreamException {
+        writer.writeStartElement(name);
+        writer.writeCharacters(text);
+        writer.writeEndElement();
+    }
+    
+    private String elementName(String column) {
+        return elementNames.computeIfAbsent(column, XmlTransformer::toElementName);
+    }
+    
+    /**
+     * Element names for the columns of a schema, in column order. A column whose sanitized
+     * name is already taken, by another column or an earlier suffix, gets the first free
+     * "_2", "_3", ... suffix, so "a b" and "a_b" stay two elements.
+     * @param schema Record schema
+     * @return Unique element names
+     */
+    String[] elementNames(RecordSchema schema) {
+        String[] names = new String[schema.size()];
+        Set<String> taken = new HashSet<>();
+        for (int i = 0; i < names.length; i++) {
+            names[i] = elementName(schema.name(i));
+            taken.add(names[i]);
+        }
+        Set<String> used = new HashSet<>();
+        for (int i = 0; i < names.length; i++) {
+            if (!used.add(names[i])) {
+                String base = names[i];
+                int suffix = 2;
+                while (taken.contains(base + "_" + suffix)) {
+                    suffix++;
+                }
+                names[i] = base + "_" + suffix;
+                taken.add(names[i]);
+                used.add(names[i]);
+            }
+        }
+        return names;
+    }
+    
+    private Encoder newEncoder() {
+        OutputBuffer buffer = new OutputBuffer(1024);
+        try {
+            return new Encoder(outputFactory.createXMLStreamWriter(buffer, StandardCharsets.UTF_8.name()), buffer);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to create XML writer", e);
+        }
+    }
+    
+    private static XMLOutputFactory newOutputFactory() {
+        XMLOutputFactory factory = new XmlFactory().getXMLOutputFactory();
+        // Each record is a root element of its own on the same writer
+        factory.setProperty(WstxOutputProperties.P_OUTPUT_VALIDATE_STRUCTURE, false);
+        return factory;
+    }
+    
+    /**
+     * Maps a column name to a valid XML element name by replacing characters
+     * that are not allowed in names with underscores.
+     * @param column Column name from the input header
+     * @return Element name
+     */
+    static String toElementName(String column) {
+        if (column == null || column.isEmpty()) {
+            return "_";
+        }
+        StringBuilder name = new StringBuilder(column.length() + 1);
+        if (!isNameStartChar(column.charAt(0))) {
+            name.append('_');
+        }
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            name.append(isNameChar(c) ? c : '_');
+        }
+        return name.toString();
+    }
+    
+    private static boolean isNameStartChar(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+    
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+    }
+    
+    /**
+     * Per-thread writer, the buffer it writes into and the element names of the last schema
+     * seen; records of one file share their schema, so the names are rarely rebuilt.
+     */
+    private final class Encoder {
+        private final XMLStreamWriter writer;
+        private final OutputBuffer buffer;
+        private RecordSchema schema;
+        private String[] names;
+        
+        Encoder(XMLStreamWriter writer, OutputBuffer buffer) {
+            this.writer = writer;
+            this.buffer = buffer;
+        }
+        
+        String[] elementNames(RecordSchema recordSchema) {
+            if (recordSchema != schema) {
+                names = XmlTransformer.this.elementNames(recordSchema);
+                schema = recordSchema;
+            }
+            return names;
+        }
     }
 }
@@ -0,0 +1,58 @@
+package com.example.Assignment_2.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutorConfigTest {
+    
+    @Test
+    public void testVirtualModeRunsTasksOnVirtualThreads() throws Exception {
+        // Arrange
+        FanOutConfig config = new FanOutConfig();
+        config.getThreadPool().setMode("virtual");
+        ExecutorService executor = new ExecutorConfig().fanOutExecutor(config);
+        
+        // Act
+        Thread worker = CompletableFuture.supplyAsync(Thread::currentThread, executor).get(5, TimeUnit.SECONDS);
+        ThreadFactory factory = ExecutorConfig.workerThreadFactory(config.getThreadPool(), "Drain-test-");
+        Thread drainWorker = factory.newThread(() -> { });
+        executor.shutdown();
+        
+        // Assert
+        assertTrue(worker.isVirtual());
+        assertTrue(worker.getName().startsWith("FanOut-Worker-"));
+        assertTrue(drainWorker.isVirtual());
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void testPlatformModeRunsTasksOnDaemonPoolThreads() throws Exception {
+        // Arrange
+        FanOutConfig config = new FanOutConfig();
+        ExecutorService executor = new ExecutorConfig().fanOutExecutor(config);
+        
+        // Act
+        Thread worker = CompletableFuture.supplyAsync(Thread::currentThread, executor).get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        
+        // Assert
+        assertFalse(worker.isVirtual());
+        assertTrue(worker.isDaemon());
+    }
+    
+    @Test
+    public void testUnknownModeIsRejected() {
+        // Arrange
+        FanOutConfig config = new FanOutConfig();
+        config.getThreadPool().setMode("fibers");
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ExecutorConfig().fanOutExecutor(config));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.Assignment_2.identity;
+
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.SinkEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnowflakeIdGeneratorTest {
+    
+    @Test
+    public void testIdsAreUniqueAcrossThreads() throws InterruptedException {
+        // Arrange
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        int threads = 4;
+        int perThread = 20_000;
+        long[][] ids = new long[threads][perThread];
+        List<Thread> workers = new ArrayList<>();
+        
+        // Act
+        for (int t = 0; t < threads; t++) {
+            long[] mine = ids[t];
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    mine[i] = generator.nextId();
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        
+        // Assert
+        Set<Long> unique = new HashSet<>();
+        for (long[] mine : ids) {
+            for (int i = 0; i < perThread; i++) {
+                assertTrue(mine[i] > 0);
+                if (i > 0) {
+                    assertTrue(mine[i] > mine[i - 1], "ids of one thread must increase");
+                }
+                assertTrue(unique.add(mine[i]), "duplicate id " + mine[i]);
+            }
+        }
+    }
+    
+    @Test
+    public void testCounterOverflowAndClockStepBackStayMonotonic() {
+        // Arrange
+        AtomicLong now = new AtomicLong(SnowflakeIdGenerator.EPOCH_MILLIS + 1_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, now::get);
+        
+        // Act
+        long previous = 0;
+        for (int i = 0; i < 5_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        now.addAndGet(-500);
+        long afterStepBack = generator.nextId();
+        
+        // Assert
+        assertTrue(afterStepBack > previous);
+        assertEquals(now.get() + 501, SnowflakeIdGenerator.timestampOf(previous), "counter carried into the next millisecond");
+        assertEquals(3, (afterStepBack >>> SnowflakeIdGenerator.COUNTER_BITS) & SnowflakeIdGenerator.MAX_NODE);
+    }
+    
+    @Test
+    public void testInvalidNodeIdRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE + 1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+    }
+    
+    @Test
+    public void testStringIdIsFormattedOnFirstUse() {
+        // Arrange
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        DataRecord record = new DataRecord();
+        SinkEvent event = SinkEvent.builder().record(record).build();
+        
+        // Act
+        generator.assign(record);
+        generator.assign(event);
+        
+        // Assert
+        assertEquals(Long.toString(record.getNumericId()), record.getId());
+        assertSame(record.getId(), record.getId());
+        assertEquals(Long.toString(event.getNumericEventId()), event.getEventId());
+        assertNotEquals(record.getId(), event.getEventId());
+    }
+    
+    @Test
+    public void testUuidGeneratorStillAvailable() {
+        // Arrange
+        DataRecord record = new DataRecord();
+        SinkEvent event = new SinkEvent();
+        
+        // Act
+        new UuidIdGenerator().assign(record);
+        new UuidIdGenerator().assign(event);
+        
+        // Assert
+        assertEquals(record.getId(), UUID.fromString(record.getId()).toString());
+        assertEquals(event.getEventId(), UUID.fromString(event.getEventId()).toString());
+        assertEquals(0, record.getNumericId());
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.Assignment_2.ingestion;
+
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.transformation.AvroTransformer;
+import com.example.Assignment_2.transformation.JsonTransformer;
+import com.example.Assignment_2.transformation.ProtobufTransformer;
+import com.example.Assignment_2.transformation.XmlTransformer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvroFileReaderTest {
+    
+    private static final Schema ADDRESS = SchemaBuilder.record("Address").fields()
+            .requiredString("city")
+            .requiredInt("zip")
+            .endRecord();
+    
+    private static final Schema USER = SchemaBuilder.record("User").fields()
+            .requiredLong("id")
+            .requiredString("name")
+            .optionalDouble("score")
+            .name("tags").type().array().items().stringType().noDefault()
+            .name("attributes").type().map().values().intType().noDefault()
+            .name("status").type().enumeration("Status").symbols("ACTIVE", "BLOCKED").noDefault()
+            .name("avatar").type().bytesType().noDefault()
+            .name("address").type(ADDRESS).noDefault()
+            .endRecord();
+    
+    private static final Schema BLOB = SchemaBuilder.record("Blob").fields()
+            .name("payload").type().bytesType().noDefault()
+            .name("digest").type().fixed("Digest").size(4).noDefault()
+            .endRecord();
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testReadsAllTypesWithEachCodec() throws IOException {
+        for (CodecFactory codec : List.of(CodecFactory.nullCodec(), CodecFactory.deflateCodec(6),
+                CodecFactory.snappyCodec())) {
+            // Arrange
+            Path file = writeUsers(tempDir.resolve("users-" + codec + ".avro"), 3, codec, 64 * 1024);
+            
+            // Act
+            List<DataRecord> records = read(new AvroFileReader(), file);
+            
+            // Assert
+            assertEquals(3, records.size(), codec.toString());
+            DataRecord second = records.get(1);
+            assertEquals(1L, second.get("id"));
+            assertEquals("user-1", second.get("name"));
+            assertEquals(1.5, second.get("score"));
+            assertNull(records.get(0).get("score"));
+            assertEquals(List.of("a", "b"), second.get("tags"));
+            assertEquals(Map.of("logins", 1), second.get("attributes"));
+            assertEquals("BLOCKED", second.get("status"));
+            assertArrayEquals(new byte[]{1, 2}, (byte[]) second.get("avatar"));
+            assertEquals(Map.of("city", "Paris", "zip", 75001), second.get("address"));
+            assertSame(records.get(0).getSchema(), second.getSchema());
+        }
+    }
+    
+    @Test
+    public void testParallelDecodingKeepsFileOrder() throws IOException {
+        // Arrange: small sync interval and chunk size, so many blocks per chunk and many chunks
+        Path file = writeUsers(tempDir.resolve("many.avro"), 5_000, CodecFactory.snappyCodec(), 2 * 1024);
+        
+        // Act
+        List<DataRecord> records = read(new AvroFileReader(4, 16 * 1024), file);
+        
+        // Assert
+        assertEquals(5_000, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals((long) i, records.get(i).get("id"));
+        }
+    }
+    
+    @Test
+    public void testCorruptSyncMarkerFails() throws IOException {
+        // Arrange
+        Path file = writeUsers(tempDir.resolve("corrupt.avro"), 100, CodecFactory.deflateCodec(6), 1024);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x01; // last byte of the final sync marker
+        Files.write(file, bytes);
+        
+        // Act & Assert
+        assertThrows(FanOutException.class, () -> read(new AvroFileReader(), file));
+        assertThrows(FanOutException.class, () -> read(new AvroFileReader(4, 1024), file));
+    }
+    
+    @Test
+    public void testFactorySelectsAvroReader() throws IOException {
+        // Arrange
+        Path file = writeUsers(tempDir.resolve("users.avro"), 2, CodecFactory.nullCodec(), 64 * 1024);
+        FileReaderFactory factory = new FileReaderFactory(new FanOutConfig(), new JsonlFileReader(),
+                new CsvFileReader(), new ByteCsvFileReader(), new FixedWidthFileReader(), new AvroFileReader());
+        
+        // Act
+        List<DataRecord> records;
+        try (Stream<DataRecord> stream = factory.readInput(file.toString())) {
+            records = stream.collect(Collectors.toList());
+        }
+        
+        // Assert
+        assertInstanceOf(AvroFileReader.class, factory.getReader(file.toString()));
+        assertEquals(2, records.size());
+    }
+    
+    @Test
+    public void testBytesAndFixedFieldsReachEveryTransformer() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("blobs.avro");
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(BLOB))) {
+            writer.create(BLOB, file.toFile());
+            GenericRecord blob = new GenericData.Record(BLOB);
+            blob.put("payload", ByteBuffer.wrap(new byte[]{1, 2, 3}));
+            blob.put("digest", new GenericData.Fixed(BLOB.getField("digest").schema(), new byte[]{-1, 0, 1, 2}));
+            writer.append(blob);
+        }
+        DataRecord record = read(new AvroFileReader(), file).get(0);
+        
+        // Act
+        ByteBuffer json = (ByteBuffer) new JsonTransformer().transform(record);
+        String xml = new String((byte[]) new XmlTransformer().transform(record), StandardCharsets.UTF_8);
+        DynamicMessage protobuf = DynamicMessage.parseFrom(ProtobufTransformer.DESCRIPTOR,
+                (byte[]) new ProtobufTransformer().transform(record));
+        GenericRecord avro = new GenericDatumReader<GenericRecord>(AvroTransformer.SCHEMA)
+                .read(null, DecoderFactory.get().binaryDecoder((byte[]) new AvroTransformer().transform(record), null));
+        
+        // Assert: base64 in the text formats, raw bytes in Avro
+        JsonNode data = new ObjectMapper().readTree(StandardCharsets.UTF_8.decode(json).toString()).get("data");
+        assertEquals("AQID", data.get("payload").asText());
+        assertEquals("/wABAg==", data.get("digest").asText());
+        
+        assertTrue(xml.contains("<payload>AQID</payload>"), xml);
+        assertTrue(xml.contains("<digest>/wABAg==</digest>"), xml);
+        
+        Map<String, String> entries = new HashMap<>();
+        FieldDescriptor fields = ProtobufTransformer.DESCRIPTOR.findFieldByName("fields");
+        for (Object entry : (List<?>) protobuf.getField(fields)) {
+            Message mapEntry = (Message) entry;
+            entries.put((String) mapEntry.getField(mapEntry.getDescriptorForType().findFieldByName("key")),
+                    (String) mapEntry.getField(mapEntry.getDescriptorForType().findFieldByName("value")));
+        }
+        assertEquals(Map.of("payload", "AQID", "digest", "/wABAg=="), entries);
+        
+        Map<?, ?> avroFields = (Map<?, ?>) avro.get("fields");
+        assertEquals(ByteBuffer.wrap(new byte[]{1, 2, 3}), avroFields.get(new Utf8("payload")));
+        assertEquals(ByteBuffer.wrap(new byte[]{-1, 0, 1, 2}), avroFields.get(new Utf8("digest")));
+    }
+    
+    private static Path writeUsers(Path file, int count, CodecFactory codec, int syncInterval) throws IOException {
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(USER))) {
+            writer.setCodec(codec);
+            writer.setSyncInterval(syncInterval);
+            writer.create(USER, file.toFile());
+            for (int i = 0; i < count; i++) {
+                GenericRecord address = new GenericData.Record(ADDRESS);
+                address.put("city", "Paris");
+                address.put("zip", 75001);
+                GenericRecord user = new GenericData.Record(USER);
+                user.put("id", (long) i);
+                user.put("name", "user-" + i);
+                user.put("score", i == 0 ? null : i * 1.5);
+                user.put("tags", List.of("a", "b"));
+                user.put("attributes", Map.of("logins", i));
+                user.put("status", new GenericData.EnumSymbol(USER.getField("status").schema(), i % 2 == 0 ? "ACTIVE" : "BLOCKED"));
+                user.put("avatar", ByteBuffer.wrap(new byte[]{1, 2}));
+                user.put("address", address);
+                writer.append(user);
+            }
+        }
+        return file;
+    }
+    
+    private static List<DataRecord> read(AvroFileReader reader, Path file) {
+        try (Stream<DataRecord> records = reader.readRecords(file.toString())) {
+            return records.collect(Collectors.toList());
+        }
+    }
+}
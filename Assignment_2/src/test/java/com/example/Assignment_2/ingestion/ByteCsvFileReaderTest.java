@@ -0,0 +1,136 @@
+package com.example.Assignment_2.ingestion;
+
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.Utf8Slice;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteCsvFileReaderTest {
+    
+    private static final String TRICKY_CSV = "id,comment,city\n"
+            + "1,\"line one\nline two\",Paris\n"
+            + "2,\"say \"\"hi\"\"\",Berlin\r\n"
+            + "\n"
+            + "3,,\"\"\r"
+            + "4,café \"quoted\" inside,Oslo\n"
+            + "5,\"a,b\"\n"
+            + "6,x,y,extra";
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testReadRecordsMatchesCommonsCsv() throws IOException {
+        // Arrange
+        Path file = write(TRICKY_CSV);
+        
+        // Act
+        List<DataRecord> expected = read(new CsvFileReader(), file);
+        List<DataRecord> actual = read(new ByteCsvFileReader(), file);
+        
+        // Assert
+        assertEquals(6, actual.size());
+        assertEquals(asStrings(expected), asStrings(actual));
+        assertInstanceOf(Utf8Slice.class, actual.get(0).get("comment"));
+        assertEquals("say \"hi\"", actual.get(1).get("comment").toString());
+        assertEquals("", actual.get(2).get("city").toString());
+        assertNull(actual.get(4).get("city"));
+    }
+    
+    @Test
+    public void testTokenizerHandlesRowsSpanningBufferRefills() throws IOException {
+        // Arrange: a 16-byte buffer splits every row, quote pair and CRLF somewhere
+        byte[] bytes = TRICKY_CSV.getBytes(StandardCharsets.UTF_8);
+        CsvTokenizer small = new CsvTokenizer(new ByteArrayInputStream(bytes), (byte) ',', 16);
+        CsvTokenizer whole = new CsvTokenizer(bytes, bytes.length, (byte) ',');
+        
+        // Act
+        List<List<String>> fromStream = rows(small);
+        List<List<String>> fromArray = rows(whole);
+        
+        // Assert
+        assertEquals(7, fromStream.size());
+        assertEquals(fromArray, fromStream);
+        assertEquals(List.of("4", "café \"quoted\" inside", "Oslo"), fromStream.get(4));
+    }
+    
+    @Test
+    public void testParallelReadMatchesSequentialOrder() throws IOException {
+        // Arrange
+        StringBuilder csv = new StringBuilder("id,comment,city\n");
+        for (int i = 0; i < 200; i++) {
+            switch (i % 3) {
+                case 0 -> csv.append(i).append(",\"line one\nline two\",Paris\n");
+                case 1 -> csv.append(i).append(",\"say \"\"hi\"\"\nbye\",Berlin\r\n");
+                default -> csv.append(i).append(",plain,Oslo\n");
+            }
+        }
+        Path file = write(csv.toString());
+        
+        // Act
+        List<DataRecord> sequential = read(new ByteCsvFileReader(), file);
+        List<DataRecord> parallel = read(new ByteCsvFileReader(4, 16), file);
+        
+        // Assert
+        assertEquals(200, parallel.size());
+        assertEquals(asStrings(sequential), asStrings(parallel));
+        assertEquals("199", parallel.get(199).get("id").toString());
+    }
+    
+    @Test
+    public void testUnterminatedQuoteFails() throws IOException {
+        Path file = write("a,b\n1,\"open\n");
+        
+        assertThrows(FanOutException.class, () -> read(new ByteCsvFileReader(), file));
+    }
+    
+    private List<List<String>> rows(CsvTokenizer tokenizer) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        int count;
+        while ((count = tokenizer.nextRow()) >= 0) {
+            List<String> row = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                row.add(tokenizer.field(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+    
+    private List<Map<String, String>> asStrings(List<DataRecord> records) {
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (DataRecord record : records) {
+            Map<String, String> row = new HashMap<>();
+            record.getFields().forEach((name, value) -> row.put(name, value != null ? value.toString() : null));
+            rows.add(row);
+        }
+        return rows;
+    }
+    
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("input.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+    
+    private List<DataRecord> read(FileReader reader, Path file) {
+        try (Stream<DataRecord> records = reader.readRecords(file.toString())) {
+            return records.collect(Collectors.toList());
+        }
+    }
+}
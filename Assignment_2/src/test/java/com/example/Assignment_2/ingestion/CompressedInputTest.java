@@ -0,0 +1,158 @@
+package com.example.Assignment_2.ingestion;
+
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.DataRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedInputTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testGzipCsvIsReadByCsvReader() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("users.csv.gz");
+        Files.write(file, gzip("id,name\n1,Alice\n2,Bob\n".getBytes(StandardCharsets.UTF_8), Deflater.DEFAULT_COMPRESSION));
+        FileReaderFactory factory = factory(1);
+        
+        // Act
+        List<DataRecord> records = read(factory, file.toString());
+        
+        // Assert
+        assertInstanceOf(CsvFileReader.class, factory.getReader(file.toString()));
+        assertEquals(2, records.size());
+        assertEquals("Bob", records.get(1).get("name"));
+    }
+    
+    @Test
+    public void testMultiMemberGzipIsDecodedInParallelAndInOrder() throws IOException {
+        // Arrange
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        for (int member = 0; member < 20; member++) {
+            StringBuilder lines = new StringBuilder();
+            for (int i = 0; i < 100; i++) {
+                lines.append("{\"id\":").append(member * 100 + i).append("}\n");
+            }
+            file.write(gzip(lines.toString().getBytes(StandardCharsets.UTF_8), Deflater.DEFAULT_COMPRESSION));
+        }
+        Path path = tempDir.resolve("events.jsonl.gz");
+        Files.write(path, file.toByteArray());
+        
+        // Act
+        List<DataRecord> records = read(factory(4), path.toString());
+        
+        // Assert
+        assertEquals(2000, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i, ((Number) records.get(i).get("id")).intValue());
+        }
+    }
+    
+    @Test
+    public void testGzipHeaderBytesInsideMemberAreNotTreatedAsMembers() throws IOException {
+        // Arrange: stored (uncompressed) deflate blocks keep a fake member header visible
+        byte[] fakeHeader = {0x1f, (byte) 0x8b, 0x08, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (int i = 0; i < 500; i++) {
+            content.write(fakeHeader);
+            content.write(("line " + i + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] original = content.toByteArray();
+        byte[] half = Arrays.copyOf(original, original.length / 2);
+        byte[] rest = Arrays.copyOfRange(original, half.length, original.length);
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(gzip(half, Deflater.NO_COMPRESSION));
+        file.write(gzip(rest, Deflater.NO_COMPRESSION));
+        Path path = tempDir.resolve("raw.bin.gz");
+        Files.write(path, file.toByteArray());
+        
+        // Act
+        byte[] decoded;
+        try (InputStream input = Compression.GZIP.open(path, 4)) {
+            assertInstanceOf(ParallelGzipInputStream.class, input);
+            decoded = input.readAllBytes();
+        }
+        
+        // Assert
+        assertArrayEquals(original, decoded);
+    }
+    
+    @Test
+    public void testDeflateFixedWidthIsStreamed() throws IOException {
+        // Arrange
+        String text = "id   name      \n1    Alice     \n2    Bob       \n";
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new DeflaterOutputStream(compressed)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        Path path = tempDir.resolve("users.txt.deflate");
+        Files.write(path, compressed.toByteArray());
+        
+        // Act
+        List<DataRecord> records = read(factory(1), path.toString());
+        
+        // Assert
+        assertEquals(2, records.size());
+        assertEquals("Alice", records.get(0).get("name"));
+        assertEquals("2", records.get(1).get("id"));
+    }
+    
+    @Test
+    public void testCorruptMemberFails() throws IOException {
+        // Arrange
+        byte[] member = gzip("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8), Deflater.DEFAULT_COMPRESSION);
+        byte[] corrupt = Arrays.copyOf(member, member.length * 2);
+        System.arraycopy(member, 0, corrupt, member.length, member.length);
+        corrupt[corrupt.length - 5] ^= 0x01; // CRC of the second member
+        Path path = tempDir.resolve("corrupt.jsonl.gz");
+        Files.write(path, corrupt);
+        
+        // Act & Assert
+        assertThrows(FanOutException.class, () -> read(factory(4), path.toString()));
+    }
+    
+    private static byte[] gzip(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private FileReaderFactory factory(int parallelism) {
+        FanOutConfig config = new FanOutConfig();
+        config.getInput().setParallelism(parallelism);
+        return new FileReaderFactory(config, new JsonlFileReader(), new CsvFileReader(),
+                new ByteCsvFileReader(), new FixedWidthFileReader(), new AvroFileReader());
+    }
+    
+    private List<DataRecord> read(FileReaderFactory factory, String input) {
+        try (Stream<DataRecord> records = factory.readInput(input)) {
+            return records.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.Assignment_2.ingestion;
+
+import com.example.Assignment_2.model.DataRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvFileReaderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testReadRecords() throws IOException {
+        // Arrange
+        Path file = write("id,name,city\n1,Alice,Paris\n2,Bob,Berlin\n");
+        
+        // Act
+        List<DataRecord> records = read(new CsvFileReader(), file);
+        
+        // Assert
+        assertEquals(2, records.size());
+        assertEquals("Alice", records.get(0).get("name"));
+        assertEquals("Berlin", records.get(1).get("city"));
+    }
+    
+    @Test
+    public void testParallelReadMatchesSequentialOrder() throws IOException {
+        // Arrange: quoted newlines, escaped quotes and CRLF rows spread over many tiny chunks
+        StringBuilder csv = new StringBuilder("id,comment,city\n");
+        for (int i = 0; i < 200; i++) {
+            switch (i % 4) {
+                case 0 -> csv.append(i).append(",\"line one\nline two\",Paris\n");
+                case 1 -> csv.append(i).append(",\"say \"\"hi\"\"\nbye\",Berlin\r\n");
+                case 2 -> csv.append(i).append(",plain,Oslo\n");
+                default -> csv.append(i).append(",\"café, \n\n ok\",Rome\n");
+            }
+        }
+        Path file = write(csv.toString());
+        
+        // Act
+        List<DataRecord> sequential = read(new CsvFileReader(), file);
+        List<DataRecord> parallel = read(new CsvFileReader(4, 16), file);
+        
+        // Assert
+        assertEquals(200, parallel.size());
+        assertEquals(sequential.stream().map(DataRecord::getFields).collect(Collectors.toList()),
+                parallel.stream().map(DataRecord::getFields).collect(Collectors.toList()));
+        for (int i = 0; i < parallel.size(); i++) {
+            assertEquals(String.valueOf(i), parallel.get(i).get("id"));
+        }
+        assertEquals("say \"hi\"\nbye", parallel.get(1).get("comment"));
+    }
+    
+    @Test
+    public void testParallelReadOfHeaderOnlyFile() throws IOException {
+        Path file = write("id,name\n");
+        
+        assertTrue(read(new CsvFileReader(4, 16), file).isEmpty());
+    }
+    
+    @Test
+    public void testSplitProducesContiguousChunksOnRecordBoundaries() throws IOException {
+        // Arrange
+        Path file = write("a,b\n\"x\ny\",1\n2,3\n\"4\n\",5\n6,7\n");
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Act
+            List<FileChunks.Chunk> chunks = FileChunks.split(channel, 4, 8, 2, true);
+            
+            // Assert
+            long expectedStart = 4;
+            for (FileChunks.Chunk chunk : chunks) {
+                assertEquals(expectedStart, chunk.start());
+                expectedStart += chunk.length();
+            }
+            assertEquals(channel.size(), expectedStart);
+            assertTrue(chunks.size() > 1);
+            List<Long> recordStarts = List.of(4L, 12L, 16L, 23L);
+            chunks.forEach(chunk -> assertTrue(recordStarts.contains(chunk.start()),
+                    "Chunk starts inside a record at " + chunk.start()));
+        }
+    }
+    
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("input.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+    
+    private List<DataRecord> read(CsvFileReader reader, Path file) {
+        try (Stream<DataRecord> records = reader.readRecords(file.toString())) {
+            return records.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.Assignment_2.ingestion;
+
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.FileProgress;
+import com.example.Assignment_2.resilience.Checkpoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileReaderFactoryTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testReadDirectoryMixesFormatsAndNumbersPerFile() throws IOException {
+        // Arrange
+        Files.writeString(tempDir.resolve("a.csv"), "id,name\n1,Alice\n2,Bob\n3,Carol\n");
+        Files.writeString(tempDir.resolve("b.jsonl"), "{\"id\":10}\n{\"id\":11}\n");
+        Files.writeString(tempDir.resolve("notes.md"), "not an input file\n");
+        FileReaderFactory factory = factory(3, "per-file");
+        
+        // Act
+        List<DataRecord> records = read(factory, tempDir.toString());
+        
+        // Assert
+        assertEquals(5, records.size());
+        Map<String, List<Long>> sequencesBySource = records.stream().collect(Collectors.groupingBy(
+                DataRecord::getSource, Collectors.mapping(DataRecord::getSequenceNumber, Collectors.toList())));
+        assertEquals(List.of(1L, 2L, 3L), sequencesBySource.get(tempDir.resolve("a.csv").toString()));
+        assertEquals(List.of(1L, 2L), sequencesBySource.get(tempDir.resolve("b.jsonl").toString()));
+        
+        List<FileProgress> progress = factory.getFileProgress();
+        assertEquals(2, progress.size());
+        assertTrue(progress.stream().allMatch(file -> file.getState() == FileProgress.State.DONE));
+        assertEquals(5, progress.stream().mapToLong(file -> file.getRecordsRead().get()).sum());
+    }
+    
+    @Test
+    public void testReadGlobMatchesNestedFilesAndKeepsFileOrder() throws IOException {
+        // Arrange
+        Files.createDirectories(tempDir.resolve("day1"));
+        Files.createDirectories(tempDir.resolve("day2"));
+        for (String day : List.of("day1", "day2")) {
+            StringBuilder csv = new StringBuilder("id\n");
+            for (int i = 0; i < 1000; i++) {
+                csv.append(i).append('\n');
+            }
+            Files.writeString(tempDir.resolve(day).resolve("drop.csv"), csv);
+            Files.writeString(tempDir.resolve(day).resolve("drop.jsonl"), "{\"id\":1}\n");
+        }
+        FileReaderFactory factory = factory(2, "global");
+        
+        // Act
+        List<DataRecord> records = read(factory, tempDir + "/**/*.csv");
+        
+        // Assert
+        assertEquals(2000, records.size());
+        assertEquals(2, factory.getFileProgress().size());
+        for (String day : List.of("day1", "day2")) {
+            String source = tempDir.resolve(day).resolve("drop.csv").toString();
+            List<String> ids = records.stream()
+                    .filter(record -> source.equals(record.getSource()))
+                    .map(record -> record.get("id").toString())
+                    .collect(Collectors.toList());
+            assertEquals(1000, ids.size());
+            assertEquals("0", ids.get(0));
+            assertEquals("999", ids.get(999));
+        }
+    }
+    
+    @Test
+    public void testFailedFileDoesNotStopTheOthers() throws IOException {
+        // Arrange
+        Files.writeString(tempDir.resolve("good.jsonl"), "{\"id\":1}\n{\"id\":2}\n");
+        Files.writeString(tempDir.resolve("bad.jsonl"), "{\"id\":1}\nnot json\n");
+        FileReaderFactory factory = factory(2, "global");
+        
+        // Act
+        List<DataRecord> records = read(factory, tempDir.toString());
+        
+        // Assert
+        assertEquals(3, records.size());
+        FileProgress bad = factory.getFileProgress().stream()
+                .filter(file -> file.getPath().endsWith("bad.jsonl"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(FileProgress.State.FAILED, bad.getState());
+    }
+    
+    @Test
+    public void testEmptyGlobFails() {
+        FileReaderFactory factory = factory(2, "global");
+        
+        assertThrows(FanOutException.class, () -> factory.readInput(tempDir + "/*.csv"));
+    }
+    
+    @Test
+    public void testResumeSeeksToCheckpointOffset() throws IOException {
+        // Arrange
+        Path jsonl = tempDir.resolve("events.jsonl");
+        Path csv = tempDir.resolve("events.csv");
+        Path fixed = tempDir.resolve("events.txt");
+        StringBuilder jsonlText = new StringBuilder();
+        StringBuilder csvText = new StringBuilder("id,name\n");
+        StringBuilder fixedText = new StringBuilder("id   name      \n");
+        for (int i = 1; i <= 50; i++) {
+            jsonlText.append("{\"id\":").append(i).append("}\n");
+            csvText.append(i).append(",\"n\n").append(i).append("\"\n");
+            fixedText.append(String.format("%-5d%-10s%n", i, "n" + i));
+        }
+        Files.writeString(jsonl, jsonlText);
+        Files.writeString(csv, csvText);
+        Files.writeString(fixed, fixedText);
+        
+        for (FileReader reader : List.of(new JsonlFileReader(), new JsonlFileReader(4, 64),
+                new ByteCsvFileReader(), new ByteCsvFileReader(4, 64),
+                new FixedWidthFileReader(), new FixedWidthFileReader(null, 4, 64))) {
+            Path file = reader instanceof JsonlFileReader ? jsonl : reader instanceof ByteCsvFileReader ? csv : fixed;
+            List<DataRecord> all;
+            try (Stream<DataRecord> records = reader.readRecords(file.toString())) {
+                all = records.collect(Collectors.toList());
+            }
+            
+            // Act
+            List<DataRecord> resumed;
+            try (Stream<DataRecord> records = reader.readRecords(file.toString(), all.get(29).getOffset())) {
+                resumed = records.collect(Collectors.toList());
+            }
+            
+            // Assert
+            assertEquals(20, resumed.size(), file.toString());
+            assertEquals("31", resumed.get(0).get("id").toString(), file.toString());
+            assertEquals(all.get(49).getOffset(), resumed.get(19).getOffset(), file.toString());
+        }
+    }
+    
+    @Test
+    public void testResumeWithoutSeekingDropsRecordsUpToTheOffset() throws IOException {
+        // Arrange: a reader that reports offsets but keeps the default readRecords(path, offset)
+        Path jsonl = tempDir.resolve("events.jsonl");
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= 50; i++) {
+            text.append("{\"id\":").append(i).append("}\n");
+        }
+        Files.writeString(jsonl, text);
+        JsonlFileReader jsonlReader = new JsonlFileReader();
+        FileReader reader = new FileReader() {
+            @Override
+            public Stream<DataRecord> readRecords(String filePath) {
+                return jsonlReader.readRecords(filePath);
+            }
+            
+            @Override
+            public Stream<DataRecord> readRecords(InputStream input, String fileName) {
+                return jsonlReader.readRecords(input, fileName);
+            }
+            
+            @Override
+            public boolean canHandle(String filePath) {
+                return true;
+            }
+            
+            @Override
+            public String getFileType() {
+                return "jsonl";
+            }
+        };
+        long offset;
+        try (Stream<DataRecord> records = reader.readRecords(jsonl.toString())) {
+            offset = records.skip(29).findFirst().orElseThrow().getOffset();
+        }
+        Path csv = tempDir.resolve("events.csv");
+        Files.writeString(csv, "id\n1\n2\n");
+        
+        // Act
+        List<DataRecord> resumed;
+        try (Stream<DataRecord> records = reader.readRecords(jsonl.toString(), offset)) {
+            resumed = records.collect(Collectors.toList());
+        }
+        List<DataRecord> withoutOffsets;
+        try (Stream<DataRecord> records = new CsvFileReader().readRecords(csv.toString(), 3)) {
+            withoutOffsets = records.collect(Collectors.toList());
+        }
+        
+        // Assert
+        assertEquals(20, resumed.size());
+        assertEquals("31", resumed.get(0).get("id").toString());
+        assertEquals(2, withoutOffsets.size());
+    }
+    
+    @Test
+    public void testResumeWithoutOffsetsSkipsBySequence() throws IOException {
+        // Arrange
+        Path csv = tempDir.resolve("events.csv");
+        Files.writeString(csv, "id\n1\n2\n3\n4\n");
+        FileReaderFactory factory = factory(1, "global");
+        Checkpoint checkpoint = new Checkpoint(csv.toString(), "key", "csv", 0, 3);
+        
+        // Act
+        List<DataRecord> records;
+        try (Stream<DataRecord> stream = factory.resumeInput(csv.toString(), checkpoint)) {
+            records = stream.collect(Collectors.toList());
+        }
+        
+        // Assert
+        assertEquals(1, records.size());
+        assertEquals("4", records.get(0).get("id"));
+    }
+    
+    private FileReaderFactory factory(int fileConcurrency, String sequenceNumbering) {
+        FanOutConfig config = new FanOutConfig();
+        config.getInput().setFileConcurrency(fileConcurrency);
+        config.getInput().setSequenceNumbering(sequenceNumbering);
+        return new FileReaderFactory(config, new JsonlFileReader(), new CsvFileReader(),
+                new ByteCsvFileReader(), new FixedWidthFileReader(), new AvroFileReader());
+    }
+    
+    private List<DataRecord> read(FileReaderFactory factory, String input) {
+        try (Stream<DataRecord> records = factory.readInput(input)) {
+            return records.collect(Collectors.toList());
+        }
+    }
+}
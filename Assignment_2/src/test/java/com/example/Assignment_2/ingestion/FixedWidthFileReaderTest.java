@@ -0,0 +1,154 @@
+package com.example.Assignment_2.ingestion;
+
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.DataRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FixedWidthFileReaderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testInfersColumnsFromHeader() throws IOException {
+        // Arrange
+        Path file = write("ID    First Name  City\n"
+                + "1     Alice       Paris\n"
+                + "\n"
+                + "22    Bob         São Paulo\r\n");
+        
+        // Act
+        List<DataRecord> records = read(new FixedWidthFileReader(), file);
+        
+        // Assert
+        assertEquals(2, records.size());
+        assertEquals("1", records.get(0).get("ID"));
+        assertEquals("Alice", records.get(0).get("First Name"));
+        assertEquals("Paris", records.get(0).get("City"));
+        assertEquals("22", records.get(1).get("ID"));
+        assertEquals("São Paulo", records.get(1).get("City"));
+    }
+    
+    @Test
+    public void testExplicitWidths() throws IOException {
+        Path file = write("1   Alice\n2   Bob  \n");
+        
+        try (Stream<DataRecord> stream = new FixedWidthFileReader().readRecords(file.toString(), new int[]{4, 5})) {
+            List<DataRecord> records = stream.collect(Collectors.toList());
+            assertEquals(2, records.size());
+            assertEquals("1", records.get(0).get("Column_1"));
+            assertEquals("Bob", records.get(1).get("Column_2"));
+        }
+    }
+    
+    @Test
+    public void testConfiguredLayoutParsesTypedColumns() throws IOException {
+        // Arrange: fixed-length records without line terminators, mainframe style
+        FanOutConfig config = new FanOutConfig();
+        FanOutConfig.FixedWidthConfig fixedWidth = config.getInput().getFixedWidth();
+        fixedWidth.setRecordLength(40);
+        fixedWidth.getColumns().add(column("id", -1, 6, "long"));
+        fixedWidth.getColumns().add(column("name", -1, 10, "string"));
+        fixedWidth.getColumns().add(column("age", -1, 4, "int"));
+        fixedWidth.getColumns().add(column("balance", -1, 12, "decimal"));
+        fixedWidth.getColumns().add(column("ratio", 32, 8, "double"));
+        Path file = write(String.format("%-6s%-10s%4s%12s%8s", "42", "Alice", "31", "-1234.50", "0.125")
+                + String.format("%-6s%-10s%4s%12s%8s", "-7", "Bob", "", "100", "3e2"));
+        
+        // Act
+        List<DataRecord> records = read(new FixedWidthFileReader(config), file);
+        
+        // Assert
+        assertEquals(2, records.size());
+        DataRecord alice = records.get(0);
+        assertEquals(42L, alice.get("id"));
+        assertEquals("Alice", alice.get("name"));
+        assertEquals(31, alice.get("age"));
+        assertEquals(new BigDecimal("-1234.50"), alice.get("balance"));
+        assertEquals(0.125, alice.get("ratio"));
+        DataRecord bob = records.get(1);
+        assertEquals(-7L, bob.get("id"));
+        assertNull(bob.get("age"));
+        assertEquals(new BigDecimal("100"), bob.get("balance"));
+        assertEquals(300.0, bob.get("ratio"));
+    }
+    
+    @Test
+    public void testDecimalWithExponent() throws IOException {
+        // Arrange
+        FanOutConfig config = new FanOutConfig();
+        config.getInput().getFixedWidth().getColumns().add(column("amount", 0, 8, "decimal"));
+        Path file = write("1.5E3   \n-25e-2   \n");
+        
+        // Act
+        List<DataRecord> records = read(new FixedWidthFileReader(config), file);
+        
+        // Assert
+        assertEquals(new BigDecimal("1.5E3"), records.get(0).get("amount"));
+        assertEquals(new BigDecimal("-0.25"), records.get(1).get("amount"));
+        assertThrows(FanOutException.class, () -> read(new FixedWidthFileReader(config), write("1.5E    \n")));
+    }
+    
+    @Test
+    public void testInvalidNumberThrows() throws IOException {
+        FanOutConfig config = new FanOutConfig();
+        config.getInput().getFixedWidth().getColumns().add(column("age", 0, 4, "int"));
+        Path file = write("12a \n");
+        
+        assertThrows(FanOutException.class, () -> read(new FixedWidthFileReader(config), file));
+    }
+    
+    @Test
+    public void testParallelReadMatchesSequentialOrder() throws IOException {
+        // Arrange
+        StringBuilder lines = new StringBuilder("NUM   NAME\n");
+        for (int i = 0; i < 500; i++) {
+            lines.append(String.format("%-6d%s%n", i, "name-" + i));
+        }
+        Path file = write(lines.toString());
+        
+        // Act
+        List<DataRecord> sequential = read(new FixedWidthFileReader(), file);
+        List<DataRecord> parallel = read(new FixedWidthFileReader(null, 4, 64), file);
+        
+        // Assert
+        assertEquals(500, parallel.size());
+        assertEquals(sequential.stream().map(DataRecord::getFields).collect(Collectors.toList()),
+                parallel.stream().map(DataRecord::getFields).collect(Collectors.toList()));
+        assertEquals("499", parallel.get(499).get("NUM"));
+    }
+    
+    private FanOutConfig.ColumnConfig column(String name, int offset, int width, String type) {
+        FanOutConfig.ColumnConfig column = new FanOutConfig.ColumnConfig();
+        column.setName(name);
+        column.setOffset(offset);
+        column.setWidth(width);
+        column.setType(type);
+        return column;
+    }
+    
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("input.fixed");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+    
+    private List<DataRecord> read(FixedWidthFileReader reader, Path file) {
+        try (Stream<DataRecord> records = reader.readRecords(file.toString())) {
+            return records.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.Assignment_2.ingestion;
+
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.DataRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FollowInputTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private FileReaderFactory factory;
+    private Thread reader;
+    private final BlockingQueue<DataRecord> records = new LinkedBlockingQueue<>();
+    
+    @AfterEach
+    public void stopFollowing() throws InterruptedException {
+        if (factory != null) {
+            factory.stopFollowing();
+        }
+        if (reader != null) {
+            reader.join(5000);
+        }
+    }
+    
+    @Test
+    public void testAppendedLinesAreRead() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("events.jsonl");
+        Files.writeString(file, "{\"id\":1}\n");
+        
+        // Act
+        follow(file, "jsonl");
+        assertEquals(List.of("1"), take(1));
+        append(file, "{\"id\":2}\n{\"id\":3}\n");
+        
+        // Assert
+        assertEquals(List.of("2", "3"), take(2));
+    }
+    
+    @Test
+    public void testRotatedCsvContinuesWithoutItsHeader() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("events.csv");
+        Files.writeString(file, "id,name\n1,Alice\n");
+        
+        // Act
+        follow(file, "csv");
+        assertEquals(List.of("1"), take(1));
+        append(file, "2,Bob\n");
+        Files.move(file, tempDir.resolve("events.csv.1"));
+        Files.writeString(file, "id,name\n3,Carol\n");
+        
+        // Assert
+        assertEquals(List.of("2", "3"), take(2));
+    }
+    
+    @Test
+    public void testTruncatedFileIsReadFromTheStart() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("events.jsonl");
+        Files.writeString(file, "{\"id\":1}\n{\"id\":2}\n");
+        
+        // Act
+        follow(file, "jsonl");
+        assertEquals(List.of("1", "2"), take(2));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+        }
+        Thread.sleep(100);
+        append(file, "{\"id\":9}\n");
+        
+        // Assert
+        assertEquals(List.of("9"), take(1));
+    }
+    
+    @Test
+    public void testDirectoryOfRolledFilesIsReadOldestFirst() throws Exception {
+        // Arrange
+        Path older = tempDir.resolve("b.jsonl");
+        Path newer = tempDir.resolve("a.jsonl");
+        Files.writeString(older, "{\"id\":1}\n");
+        Files.writeString(newer, "{\"id\":2}\n");
+        Files.setLastModifiedTime(older, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        Files.writeString(tempDir.resolve("ignored.csv"), "id\n99\n");
+        
+        // Act
+        follow(tempDir, "jsonl");
+        assertEquals(List.of("1", "2"), take(2));
+        Files.writeString(tempDir.resolve("c.jsonl"), "{\"id\":3}\n");
+        
+        // Assert
+        assertEquals(List.of("3"), take(1));
+    }
+    
+    @Test
+    public void testGlobCannotBeFollowed() {
+        factory = factory("jsonl");
+        
+        assertThrows(FanOutException.class, () -> factory.followInput(tempDir + "/*.jsonl"));
+    }
+    
+    private void follow(Path input, String fileType) {
+        factory = factory(fileType);
+        Stream<DataRecord> stream = factory.followInput(input.toString());
+        reader = new Thread(() -> {
+            try (stream) {
+                stream.forEach(records::add);
+            }
+        }, "Follow-Test-Reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+    
+    private List<String> take(int count) throws InterruptedException {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DataRecord record = records.poll(5, TimeUnit.SECONDS);
+            assertNotNull(record, "Timed out waiting for record " + (i + 1) + " of " + count);
+            ids.add(record.get("id").toString());
+        }
+        return ids;
+    }
+    
+    private static void append(Path file, String text) throws IOException {
+        Files.writeString(file, text, StandardOpenOption.APPEND);
+    }
+    
+    private static FileReaderFactory factory(String fileType) {
+        FanOutConfig config = new FanOutConfig();
+        config.getInput().setFileType(fileType);
+        config.getInput().setFollowPollMs(50);
+        return new FileReaderFactory(config, new JsonlFileReader(), new CsvFileReader(),
+                new ByteCsvFileReader(), new FixedWidthFileReader(), new AvroFileReader());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.Assignment_2.ingestion;
+
+import com.example.Assignment_2.exception.FanOutException;
+import com.example.Assignment_2.model.DataRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonlFileReaderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testReadRecordsKeepsTypedValues() throws IOException {
+        // Arrange
+        Path file = write("{\"name\":\"Alice\",\"age\":31,\"big\":12345678901,\"huge\":123456789012345678901,"
+                + "\"score\":9.5,\"active\":true,\"manager\":null,"
+                + "\"address\":{\"city\":\"Paris\",\"zip\":75001},\"tags\":[\"a\",1,false]}\n"
+                + "\n"
+                + "{\"name\":\"Bob\"}\n");
+        
+        // Act
+        List<DataRecord> records = read(new JsonlFileReader(), file);
+        
+        // Assert
+        assertEquals(2, records.size());
+        DataRecord alice = records.get(0);
+        assertEquals("Alice", alice.get("name"));
+        assertEquals(31, alice.get("age"));
+        assertEquals(12345678901L, alice.get("big"));
+        assertEquals(new BigInteger("123456789012345678901"), alice.get("huge"));
+        assertEquals(9.5, alice.get("score"));
+        assertEquals(true, alice.get("active"));
+        assertTrue(alice.getFields().containsKey("manager"));
+        assertNull(alice.get("manager"));
+        assertEquals(Map.of("city", "Paris", "zip", 75001), alice.get("address"));
+        assertEquals(List.of("a", 1, false), alice.get("tags"));
+        assertEquals("Bob", records.get(1).get("name"));
+    }
+    
+    @Test
+    public void testMalformedLineThrows() throws IOException {
+        Path file = write("{\"name\":\"Alice\"}\n{\"name\":\n");
+        
+        assertThrows(FanOutException.class, () -> read(new JsonlFileReader(), file));
+    }
+    
+    @Test
+    public void testNonObjectLineThrows() throws IOException {
+        Path file = write("[1,2,3]\n");
+        
+        assertThrows(FanOutException.class, () -> read(new JsonlFileReader(), file));
+    }
+    
+    @Test
+    public void testParallelReadMatchesSequentialOrder() throws IOException {
+        // Arrange
+        StringBuilder jsonl = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            jsonl.append("{\"id\":").append(i)
+                    .append(",\"text\":\"line ").append(i).append(" \\n with escaped newline\"")
+                    .append(",\"nested\":{\"even\":").append(i % 2 == 0).append("}}\n");
+        }
+        Path file = write(jsonl.toString());
+        
+        // Act
+        List<DataRecord> sequential = read(new JsonlFileReader(), file);
+        List<DataRecord> parallel = read(new JsonlFileReader(4, 64), file);
+        
+        // Assert
+        assertEquals(300, parallel.size());
+        assertEquals(sequential.stream().map(DataRecord::getFields).collect(Collectors.toList()),
+                parallel.stream().map(DataRecord::getFields).collect(Collectors.toList()));
+        for (int i = 0; i < parallel.size(); i++) {
+            assertEquals(i, parallel.get(i).get("id"));
+        }
+    }
+    
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("input.jsonl");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+    
+    private List<DataRecord> read(JsonlFileReader reader, Path file) {
+        try (Stream<DataRecord> records = reader.readRecords(file.toString())) {
+            return records.collect(Collectors.toList());
+        }
+    }
+}
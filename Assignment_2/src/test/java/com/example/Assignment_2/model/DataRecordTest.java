@@ -0,0 +1,78 @@
+package com.example.Assignment_2.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataRecordTest {
+    
+    @Test
+    public void testRecordsShareSchemaAndResolveByName() {
+        // Arrange
+        RecordSchema schema = RecordSchema.of("name", "age");
+        
+        // Act
+        DataRecord first = DataRecord.builder().schema(schema).values(new Object[]{"Alice", 31}).build();
+        DataRecord second = DataRecord.builder().schema(schema).values(new Object[]{"Bob", null}).build();
+        
+        // Assert
+        assertSame(first.getSchema(), second.getSchema());
+        assertEquals("Alice", first.get("name"));
+        assertEquals(31, first.get(1));
+        assertNull(second.get("age"));
+        assertNull(second.get("missing"));
+        assertEquals(2, second.size());
+        assertEquals(1, schema.indexOf("age"));
+        assertEquals(-1, schema.indexOf("missing"));
+    }
+    
+    @Test
+    public void testSetUnknownFieldExtendsOnlyThatRecord() {
+        // Arrange
+        RecordSchema schema = RecordSchema.of("name");
+        DataRecord first = DataRecord.builder().schema(schema).values(new Object[]{"Alice"}).build();
+        DataRecord second = DataRecord.builder().schema(schema).values(new Object[]{"Bob"}).build();
+        
+        // Act
+        first.set("city", "Paris");
+        first.set("name", "Alicia");
+        
+        // Assert
+        assertEquals(Map.of("name", "Alicia", "city", "Paris"), first.getFields());
+        assertEquals(Map.of("name", "Bob"), second.getFields());
+        assertEquals(1, schema.size());
+    }
+    
+    @Test
+    public void testFieldsViewWritesThrough() {
+        // Arrange
+        Map<String, Object> values = new HashMap<>();
+        values.put("a", 1);
+        values.put("b", 2);
+        DataRecord record = DataRecord.builder().fields(values).build();
+        
+        // Act
+        record.getFields().put("a", 10);
+        record.getFields().entrySet().forEach(entry -> {
+            if (entry.getKey().equals("b")) {
+                entry.setValue(20);
+            }
+        });
+        
+        // Assert
+        assertEquals(Map.of("a", 10, "b", 20), record.getFields());
+        assertEquals(10, record.get("a"));
+    }
+    
+    @Test
+    public void testSchemaRejectsDuplicateNamesAndMismatchedValues() {
+        assertThrows(IllegalArgumentException.class, () -> RecordSchema.of("a", "a"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DataRecord("1", 1, null, 0, RecordSchema.of("a"), new Object[2]));
+        assertTrue(RecordSchema.of("a", "b").matches(new String[]{"a", "b", "c"}, 2));
+        assertFalse(RecordSchema.of("a", "b").matches(new String[]{"b", "a"}, 2));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.Assignment_2.orchestrator;
+
+import com.example.Assignment_2.Assignment2Application;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the application in its own JVM following a CSV file, and sends it SIGTERM while the
+ * records already read are still queued for a rate-limited sink.
+ */
+public class FanOutOrchestratorShutdownTest {
+    
+    private static final int RECORDS = 20000;
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testSigtermWhileFollowingSendsEveryRecordAlreadyRead() throws Exception {
+        // Arrange
+        Path input = tempDir.resolve("input.csv");
+        StringBuilder csv = new StringBuilder("id,name,amount\n");
+        for (int i = 0; i < RECORDS; i++) {
+            csv.append(i).append(",name-").append(i).append(',').append(i * 1.5).append('\n');
+        }
+        Files.writeString(input, csv);
+        
+        Path output = tempDir.resolve("output.log");
+        Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Dspring.devtools.restart.enabled=false",
+                "-cp", System.getProperty("java.class.path"),
+                Assignment2Application.class.getName(),
+                "--server.port=0",
+                "--fanout.input.filePath=" + input,
+                "--fanout.input.fileType=csv",
+                "--fanout.input.follow=true",
+                "--fanout.checkpoint.enabled=false",
+                "--fanout.deadLetterPath=" + tempDir.resolve("dlq.txt"),
+                "--fanout.metricsIntervalSeconds=600",
+                "--fanout.sinks.rest-api.rateLimit=1")
+                .directory(tempDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start();
+        
+        try {
+            assertTrue(awaitFollowing(process, output), "Application did not start following");
+            Thread.sleep(1500);
+            
+            // Act
+            process.destroy();
+            boolean exited = process.waitFor(60, TimeUnit.SECONDS);
+            
+            // Assert
+            assertTrue(exited, "Application did not exit within 60 seconds of SIGTERM");
+            String log = Files.readString(output);
+            long processed = lastCount(log, "Total Processed");
+            long succeeded = lastCount(log, "Succeeded");
+            long failed = lastCount(log, "Failed");
+            assertTrue(processed > 0, log);
+            assertEquals(4 * processed, succeeded + failed, log);
+            assertTrue(log.contains("Cleanup completed"), log);
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+    
+    private static boolean awaitFollowing(Process process, Path output) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (System.nanoTime() < deadline && process.isAlive()) {
+            if (Files.exists(output) && Files.readString(output).contains("(following)")) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+    
+    private static long lastCount(String log, String label) {
+        Matcher matcher = Pattern.compile("(?m)^" + label + ": (\\d+)").matcher(log);
+        long count = -1;
+        while (matcher.find()) {
+            count = Long.parseLong(matcher.group(1));
+        }
+        assertTrue(count >= 0, label + " not reported:\n" + log);
+        return count;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.Assignment_2.orchestrator;
+
+import com.example.Assignment_2.config.ExecutorConfig;
+import com.example.Assignment_2.config.FanOutConfig;
+import com.example.Assignment_2.config.IdGeneratorConfig;
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.ingestion.AvroFileReader;
+import com.example.Assignment_2.ingestion.ByteCsvFileReader;
+import com.example.Assignment_2.ingestion.CsvFileReader;
+import com.example.Assignment_2.ingestion.FileReaderFactory;
+import com.example.Assignment_2.ingestion.FixedWidthFileReader;
+import com.example.Assignment_2.ingestion.JsonlFileReader;
+import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkEvent;
+import com.example.Assignment_2.model.SinkType;
+import com.example.Assignment_2.observability.MetricsCollector;
+import com.example.Assignment_2.sink.GrpcSink;
+import com.example.Assignment_2.sink.MessageQueueSink;
+import com.example.Assignment_2.sink.RestApiSink;
+import com.example.Assignment_2.sink.WideColumnDbSink;
+import com.example.Assignment_2.transformation.AvroTransformer;
+import com.example.Assignment_2.transformation.JsonTransformer;
+import com.example.Assignment_2.transformation.ProtobufTransformer;
+import com.example.Assignment_2.transformation.TransformerFactory;
+import com.example.Assignment_2.transformation.XmlTransformer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the orchestrator over a small CSV file with stub sinks that complete on the shared executor.
+ */
+public class FanOutOrchestratorTest {
+    
+    private static final int RECORDS = 50;
+    
+    @TempDir
+    Path tempDir;
+    
+    private ExecutorService executor;
+    private volatile boolean sinksThrow;
+    
+    @AfterEach
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testVirtualThreadRunSendsEveryEventAndLeavesTheExecutorToItsOwner() throws IOException {
+        // Arrange
+        FanOutConfig config = config("virtual");
+        MetricsCollector metrics = new MetricsCollector();
+        FanOutOrchestrator orchestrator = orchestrator(config, metrics);
+        
+        // Act
+        orchestrator.start();
+        
+        // Assert
+        assertEquals(RECORDS, metrics.getMetrics().getRecordsProcessed().get());
+        assertEquals(RECORDS * SinkType.values().length, metrics.getMetrics().getRecordsSucceeded().get());
+        assertFalse(executor.isShutdown(), "The executor bean is shut down by the container, not the orchestrator");
+    }
+    
+    @Test
+    public void testEventsOfABatchTheSinkRejectsAreRetriedThenDeadLettered() throws IOException {
+        // Arrange
+        FanOutConfig config = config("platform");
+        MetricsCollector metrics = new MetricsCollector();
+        FanOutOrchestrator orchestrator = orchestrator(config, metrics);
+        sinksThrow = true;
+        
+        // Act
+        orchestrator.start();
+        
+        // Assert
+        List<String> deadLetters = Files.readAllLines(Path.of(config.getDeadLetterPath()));
+        assertEquals(RECORDS * SinkType.values().length, deadLetters.size());
+        assertTrue(deadLetters.stream().allMatch(line -> line.endsWith("|3|Sink rejected the batch")));
+        assertEquals(0, metrics.getMetrics().getRecordsSucceeded().get());
+    }
+    
+    @Test
+    public void testRetriesAreDeadLetteredEvenWhenTheSharedExecutorIsShutDown() throws IOException {
+        // Arrange
+        FanOutConfig config = config("platform");
+        MetricsCollector metrics = new MetricsCollector();
+        FanOutOrchestrator orchestrator = orchestrator(config, metrics);
+        sinksThrow = true;
+        executor.shutdown();
+        
+        // Act
+        assertTimeoutPreemptively(Duration.ofSeconds(30), orchestrator::start);
+        
+        // Assert
+        List<String> deadLetters = Files.readAllLines(Path.of(config.getDeadLetterPath()));
+        assertEquals(RECORDS * SinkType.values().length, deadLetters.size());
+    }
+    
+    private FanOutConfig config(String threadPoolMode) throws IOException {
+        Path input = tempDir.resolve("input.csv");
+        StringBuilder csv = new StringBuilder("id,name,department\n");
+        for (int i = 1; i <= RECORDS; i++) {
+            csv.append(i).append(",Name ").append(i).append(",Engineering\n");
+        }
+        Files.writeString(input, csv);
+        
+        FanOutConfig config = new FanOutConfig();
+        config.getInput().setFilePath(input.toString());
+        config.getInput().setFileType("csv");
+        config.getInput().setBatchSize(10);
+        config.getInput().setLingerMs(1);
+        config.getThreadPool().setMode(threadPoolMode);
+        config.getCheckpoint().setEnabled(false);
+        config.setDeadLetterPath(tempDir.resolve("dlq.txt").toString());
+        Map<String, SinkConfig> sinks = new HashMap<>();
+        for (SinkType sinkType : SinkType.values()) {
+            sinks.put(sinkType.getKey(), SinkConfig.builder()
+                    .sinkType(sinkType.getKey())
+                    .rateLimit(100_000)
+                    .bufferSize(RECORDS)
+                    .maxRetries(3)
+                    .enabled(true)
+                    .build());
+        }
+        config.setSinks(sinks);
+        return config;
+    }
+    
+    private FanOutOrchestrator orchestrator(FanOutConfig config, MetricsCollector metrics) {
+        executor = new ExecutorConfig().fanOutExecutor(config);
+        return new FanOutOrchestrator(
+                new FileReaderFactory(config, new JsonlFileReader(), new CsvFileReader(), new ByteCsvFileReader(),
+                        new FixedWidthFileReader(), new AvroFileReader()),
+                new TransformerFactory(new JsonTransformer(), new XmlTransformer(),
+                        new ProtobufTransformer(), new AvroTransformer()),
+                metrics,
+                config,
+                new RestApiSink(executor) {
+                    @Override
+                    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+                        return stubSend(() -> successResults(events, 1));
+                    }
+                },
+                new GrpcSink(executor) {
+                    @Override
+                    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+                        return stubSend(() -> successResults(events, 1));
+                    }
+                },
+                new MessageQueueSink(executor) {
+                    @Override
+                    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+                        return stubSend(() -> successResults(events, 1));
+                    }
+                },
+                new WideColumnDbSink(executor) {
+                    @Override
+                    public CompletableFuture<List<ProcessingResult>> sendBatch(List<SinkEvent> events) {
+                        return stubSend(() -> successResults(events, 1));
+                    }
+                },
+                new IdGeneratorConfig().idGenerator(config));
+    }
+    
+    private CompletableFuture<List<ProcessingResult>> stubSend(Supplier<List<ProcessingResult>> results) {
+        if (sinksThrow) {
+            throw new IllegalStateException("Sink rejected the batch");
+        }
+        return CompletableFuture.supplyAsync(results, executor);
+    }
+}
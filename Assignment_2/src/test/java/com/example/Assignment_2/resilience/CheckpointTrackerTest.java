@@ -0,0 +1,137 @@
+package com.example.Assignment_2.resilience;
+
+import com.example.Assignment_2.model.SinkType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointTrackerTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testWatermarkWaitsForGaps() {
+        // Arrange
+        AckWatermark watermark = new AckWatermark(10);
+        
+        // Act
+        watermark.ack(12);
+        watermark.ack(13);
+        long withGap = watermark.get();
+        watermark.ack(11);
+        
+        // Assert
+        assertEquals(10, withGap);
+        assertEquals(13, watermark.get());
+    }
+    
+    @Test
+    public void testWatermarkRebasesOverLongRuns() {
+        // Arrange
+        AckWatermark watermark = new AckWatermark(0);
+        
+        // Act: ack in pairs, odd after even, across several rebases
+        for (long i = 1; i <= 20_000; i += 2) {
+            watermark.ack(i + 1);
+            watermark.ack(i);
+        }
+        watermark.ack(20_000); // duplicate, below the watermark
+        
+        // Assert
+        assertEquals(20_000, watermark.get());
+    }
+    
+    @Test
+    public void testWatermarkAcksRangesOverlappingItAndEachOther() {
+        // Arrange
+        AckWatermark watermark = new AckWatermark(0);
+        
+        // Act
+        watermark.ack(6, 9);
+        long withGap = watermark.get();
+        watermark.ack(1, 7);
+        watermark.ack(1, 9); // cumulative, entirely below the watermark
+        watermark.ack(8, 5_000);
+        
+        // Assert
+        assertEquals(0, withGap);
+        assertEquals(5_000, watermark.get());
+    }
+    
+    @Test
+    public void testCheckpointFollowsSlowestSink() throws IOException {
+        // Arrange
+        Path input = Files.writeString(tempDir.resolve("input.jsonl"), "{}\n{}\n{}\n");
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("checkpoint.properties").toString());
+        CheckpointTracker tracker = new CheckpointTracker(store, start(input), List.of(SinkType.GRPC, SinkType.REST_API));
+        for (long sequence = 1; sequence <= 3; sequence++) {
+            tracker.recordRead(sequence, sequence * 3);
+        }
+        
+        // Act
+        tracker.settled(SinkType.GRPC, 1);
+        tracker.settled(SinkType.GRPC, 2);
+        tracker.settled(SinkType.GRPC, 3);
+        tracker.settled(SinkType.REST_API, 2);
+        tracker.settled(SinkType.REST_API, 1);
+        tracker.write();
+        
+        // Assert
+        Checkpoint saved = store.load(input.toString()).orElseThrow();
+        assertEquals(2, saved.sequence());
+        assertEquals(6, saved.offset());
+        assertEquals("jsonl", saved.fileType());
+    }
+    
+    @Test
+    public void testCompletedRunRemovesCheckpoint() throws IOException {
+        // Arrange
+        Path input = Files.writeString(tempDir.resolve("input.jsonl"), "{}\n");
+        Path file = tempDir.resolve("checkpoint.properties");
+        CheckpointStore store = new CheckpointStore(file.toString());
+        CheckpointTracker tracker = new CheckpointTracker(store, start(input), List.of(SinkType.GRPC));
+        tracker.recordRead(1, 3);
+        tracker.settled(SinkType.GRPC, 1);
+        tracker.write();
+        boolean writtenBeforeClose = Files.exists(file);
+        
+        // Act
+        tracker.close(true);
+        
+        // Assert
+        assertTrue(writtenBeforeClose);
+        assertFalse(Files.exists(file));
+    }
+    
+    @Test
+    public void testCheckpointOfReplacedFileIsIgnored() throws IOException {
+        // Arrange
+        Path input = Files.writeString(tempDir.resolve("input.jsonl"), "{}\n");
+        CheckpointStore store = new CheckpointStore(tempDir.resolve("checkpoint.properties").toString());
+        store.save(start(input).advanceTo(3, 1));
+        
+        // Act
+        Optional<Checkpoint> sameFile = store.load(input.toString());
+        Files.delete(input);
+        Files.writeString(tempDir.resolve("other.jsonl"), "{\"id\":1}\n");
+        Files.move(tempDir.resolve("other.jsonl"), input);
+        Optional<Checkpoint> replacedFile = store.load(input.toString());
+        
+        // Assert
+        assertTrue(sameFile.isPresent());
+        assertTrue(replacedFile.isEmpty());
+        assertTrue(store.load(tempDir.resolve("another.jsonl").toString()).isEmpty());
+    }
+    
+    private static Checkpoint start(Path input) {
+        return new Checkpoint(input.toString(), CheckpointStore.identityOf(input), "jsonl", 0, 0);
+    }
+}
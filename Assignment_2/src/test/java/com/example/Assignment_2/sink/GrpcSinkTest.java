@@ -0,0 +1,196 @@
+package com.example.Assignment_2.sink;
+
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkEvent;
+import com.example.Assignment_2.model.SinkType;
+import io.grpc.Server;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.Assignment_2.sink.SinkEvents.events;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the sink end to end against an in-process EventCollector server.
+ */
+public class GrpcSinkTest {
+    
+    private final String serverName = InProcessServerBuilder.generateName();
+    private final Set<String> received = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger streams = new AtomicInteger();
+    private final AtomicInteger acksSent = new AtomicInteger();
+    private final List<ServerCallStreamObserver<byte[]>> paused = new CopyOnWriteArrayList<>();
+    private volatile int ackEvery = 16;
+    private volatile boolean pauseInbound;
+    private volatile boolean neverAck;
+    private volatile boolean failFirstStream;
+    private Server server;
+    private ExecutorService executor;
+    private GrpcSink sink;
+    
+    @BeforeEach
+    public void startServer() throws IOException {
+        ServerServiceDefinition service = ServerServiceDefinition.builder(CollectorProtocol.SERVICE)
+                .addMethod(CollectorProtocol.STREAM, ServerCalls.asyncBidiStreamingCall(this::collect))
+                .build();
+        server = InProcessServerBuilder.forName(serverName).addService(service).build().start();
+        executor = Executors.newFixedThreadPool(4);
+    }
+    
+    @AfterEach
+    public void stopServer() throws InterruptedException {
+        if (sink != null) {
+            sink.close();
+        }
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void testBatchesAreStreamedOverAllConnectionsAndAckedByRange() {
+        // Arrange
+        sink = sink(3, 5000);
+        List<CompletableFuture<List<ProcessingResult>>> futures = new ArrayList<>();
+        
+        // Act
+        for (int batch = 0; batch < 60; batch++) {
+            futures.add(sink.sendBatch(events(SinkType.GRPC, batch * 10, 10, 0)));
+        }
+        List<ProcessingResult> results = futures.stream().flatMap(f -> f.join().stream()).toList();
+        
+        // Assert
+        assertEquals(600, results.size());
+        assertTrue(results.stream().allMatch(ProcessingResult::isSuccess));
+        assertEquals(600, received.size());
+        assertEquals(3, streams.get(), "one long-lived stream per connection");
+        assertTrue(acksSent.get() < 600, "acks cover ranges, not single events");
+    }
+    
+    @Test
+    public void testWritesWaitForFlowControlWhileServerStopsReading() throws Exception {
+        // Arrange
+        pauseInbound = true;
+        sink = sink(1, 10_000);
+        String large = "x".repeat(8 * 1024);
+        
+        // Act
+        List<CompletableFuture<List<ProcessingResult>>> futures = new ArrayList<>();
+        for (int batch = 0; batch < 10; batch++) {
+            futures.add(sink.sendBatch(events(SinkType.GRPC, batch * 10, 10, 0, large)));
+        }
+        Thread.sleep(200);
+        int queuedWhilePaused = sink.queuedMessages();
+        paused.forEach(call -> call.request(Integer.MAX_VALUE));
+        
+        // Assert
+        assertTrue(queuedWhilePaused > 0, "writes stop once the stream is not ready");
+        for (CompletableFuture<List<ProcessingResult>> future : futures) {
+            assertTrue(future.get(10, TimeUnit.SECONDS).stream().allMatch(ProcessingResult::isSuccess));
+        }
+        assertEquals(0, sink.queuedMessages());
+        assertEquals(100, received.size());
+    }
+    
+    @Test
+    public void testStreamErrorFailsPendingBatchesAndNextBatchReconnects() {
+        // Arrange
+        failFirstStream = true;
+        sink = sink(1, 5000);
+        
+        // Act
+        List<ProcessingResult> failed = sink.sendBatch(events(SinkType.GRPC, 0, 5, 0)).join();
+        List<ProcessingResult> retried = sink.sendBatch(events(SinkType.GRPC, 0, 5, 0)).join();
+        
+        // Assert
+        assertTrue(failed.stream().noneMatch(ProcessingResult::isSuccess));
+        assertTrue(failed.get(0).getMessage().contains("UNAVAILABLE"));
+        assertTrue(retried.stream().allMatch(ProcessingResult::isSuccess));
+        assertEquals(2, streams.get());
+    }
+    
+    @Test
+    public void testMissingAckTimesOut() {
+        // Arrange
+        neverAck = true;
+        sink = sink(1, 200);
+        
+        // Act
+        List<ProcessingResult> results = sink.sendBatch(events(SinkType.GRPC, 0, 3, 0)).join();
+        
+        // Assert
+        assertTrue(results.stream().noneMatch(ProcessingResult::isSuccess));
+        assertTrue(results.get(0).getMessage().contains("not acknowledged"));
+    }
+    
+    private StreamObserver<byte[]> collect(StreamObserver<byte[]> responses) {
+        ServerCallStreamObserver<byte[]> call = (ServerCallStreamObserver<byte[]>) responses;
+        boolean fail = failFirstStream && streams.get() == 0;
+        streams.incrementAndGet();
+        if (pauseInbound) {
+            call.disableAutoRequest();
+            call.request(1);
+            paused.add(call);
+        }
+        return new StreamObserver<>() {
+            private long firstUnacked = 1;
+            
+            @Override
+            public synchronized void onNext(byte[] message) {
+                if (fail) {
+                    responses.onError(Status.UNAVAILABLE.withDescription("collector restarting").asRuntimeException());
+                    return;
+                }
+                CollectorProtocol.Event event = CollectorProtocol.decodeEvent(message);
+                received.add(new String(event.record(), StandardCharsets.UTF_8).substring(0, 8));
+                // Ack every ackEvery events, and whatever is left when a batch of 5 or 10 ends
+                if (!neverAck && (event.sequence() % ackEvery == 0 || event.sequence() % 5 == 0)) {
+                    responses.onNext(CollectorProtocol.encodeAck(firstUnacked, event.sequence()));
+                    acksSent.incrementAndGet();
+                    firstUnacked = event.sequence() + 1;
+                }
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+            }
+            
+            @Override
+            public void onCompleted() {
+                responses.onCompleted();
+            }
+        };
+    }
+    
+    private GrpcSink sink(int connections, long timeoutMs) {
+        SinkConfig config = SinkConfig.builder()
+                .sinkType(SinkType.GRPC.getKey())
+                .rateLimit(1000)
+                .connections(connections)
+                .maxInFlight(64)
+                .requestTimeoutMs(timeoutMs)
+                .build();
+        return new GrpcSink(config, executor, () -> InProcessChannelBuilder.forName(serverName).build());
+    }
+}
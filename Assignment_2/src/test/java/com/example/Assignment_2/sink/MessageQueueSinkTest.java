@@ -0,0 +1,292 @@
+package com.example.Assignment_2.sink;
+
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkEvent;
+import com.example.Assignment_2.model.SinkType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.example.Assignment_2.sink.SinkEvents.events;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Publishes through the sink to a {@link FileLogBroker} and reads the partition logs back.
+ */
+public class MessageQueueSinkTest {
+    
+    private static final String TOPIC = "fanout_events";
+    
+    @TempDir
+    Path tempDir;
+    
+    private ExecutorService executor;
+    private FileLogBroker broker;
+    private MessageQueueSink sink;
+    
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        if (sink != null) {
+            sink.close();
+        }
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void testRecordsAreStoredInTheirKeyPartitionInOrder() throws Exception {
+        // Arrange
+        sink = sink(4, 1, 512, "none");
+        List<List<SinkEvent>> batches = new ArrayList<>();
+        List<CompletableFuture<List<ProcessingResult>>> futures = new ArrayList<>();
+        
+        // Act
+        for (int batch = 0; batch < 20; batch++) {
+            batches.add(events(SinkType.MESSAGE_QUEUE, batch * 10, 10, 5));
+            futures.add(sink.sendBatch(batches.get(batch)));
+        }
+        
+        // Assert
+        for (int batch = 0; batch < 20; batch++) {
+            List<ProcessingResult> results = futures.get(batch).get(5, TimeUnit.SECONDS);
+            for (int i = 0; i < results.size(); i++) {
+                assertTrue(results.get(i).isSuccess());
+                assertEquals(batches.get(batch).get(i).getEventId(), results.get(i).getEventId());
+            }
+        }
+        Map<String, Integer> lastByKey = new HashMap<>();
+        int records = 0;
+        for (int partition = 0; partition < 4; partition++) {
+            long expectedOffset = 0;
+            for (FileLogBroker.Entry entry : broker.read(TOPIC, partition)) {
+                assertEquals(expectedOffset, entry.offset());
+                expectedOffset += entry.recordCount();
+                for (ProducerBatch.Message message : ProducerBatch.decode(entry.batch())) {
+                    assertEquals(partition, MessageQueueSink.partitionFor(message.key(), 4));
+                    String key = new String(message.key(), StandardCharsets.UTF_8);
+                    int value = Integer.parseInt(new String(message.value(), StandardCharsets.UTF_8));
+                    assertTrue(value > lastByKey.getOrDefault(key, -1), "Records of " + key + " out of order");
+                    lastByKey.put(key, value);
+                    records++;
+                }
+            }
+        }
+        assertEquals(200, records);
+        assertEquals(5, lastByKey.size());
+    }
+    
+    @Test
+    public void testLingerCollectsSinkBatchesIntoOneProducerBatch() throws Exception {
+        // Arrange
+        sink = sink(1, 300, 1 << 20, "none");
+        List<CompletableFuture<List<ProcessingResult>>> futures = new ArrayList<>();
+        
+        // Act
+        for (int batch = 0; batch < 5; batch++) {
+            futures.add(sink.sendBatch(events(SinkType.MESSAGE_QUEUE, batch * 10, 10, 5)));
+        }
+        boolean doneBeforeLinger = futures.get(0).isDone();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        
+        // Assert
+        assertFalse(doneBeforeLinger);
+        List<FileLogBroker.Entry> entries = broker.read(TOPIC, 0);
+        assertEquals(1, entries.size());
+        assertEquals(50, entries.get(0).recordCount());
+    }
+    
+    @Test
+    public void testFullBatchesAreSentWithoutWaitingForLinger() throws Exception {
+        // Arrange
+        sink = sink(1, 60_000, 256, "none");
+        
+        // Act
+        CompletableFuture<List<ProcessingResult>> future =
+                sink.sendBatch(events(SinkType.MESSAGE_QUEUE, 0, 40, 5, "x".repeat(40)));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (broker.read(TOPIC, 0).size() < 9 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        boolean doneBeforeClose = future.isDone();
+        sink.close();
+        
+        // Assert
+        assertFalse(doneBeforeClose, "The last, partly filled batch should wait for the linger time");
+        assertEquals(40, future.get(5, TimeUnit.SECONDS).size());
+        List<FileLogBroker.Entry> entries = broker.read(TOPIC, 0);
+        assertEquals(10, entries.size());
+        assertTrue(entries.stream().allMatch(entry -> entry.recordCount() == 4));
+        assertEquals(40, entries.stream().mapToInt(FileLogBroker.Entry::recordCount).sum());
+        sink = null;
+    }
+    
+    @Test
+    public void testCompressedBatchesRoundTrip() throws Exception {
+        for (String compression : List.of("gzip", "snappy")) {
+            // Arrange
+            sink = sink(tempDir.resolve(compression), 1, 1, 1 << 20, compression);
+            List<SinkEvent> events = events(SinkType.MESSAGE_QUEUE, 0, 100, 5, "<value>repeated</value>".repeat(10));
+            
+            // Act
+            sink.sendBatch(events).get(5, TimeUnit.SECONDS);
+            
+            // Assert
+            List<FileLogBroker.Entry> entries = broker.read(TOPIC, 0);
+            int stored = entries.stream().mapToInt(entry -> entry.batch().length).sum();
+            List<ProducerBatch.Message> messages = new ArrayList<>();
+            entries.forEach(entry -> messages.addAll(ProducerBatch.decode(entry.batch())));
+            assertEquals(100, messages.size());
+            for (int i = 0; i < 100; i++) {
+                assertArrayEquals((byte[]) events.get(i).getTransformedData(), messages.get(i).value());
+            }
+            assertTrue(stored < 100 * 200 / 4, compression + " stored " + stored + " bytes");
+            sink.close();
+            sink = null;
+        }
+    }
+    
+    @Test
+    public void testBrokerContinuesOffsetsAfterReopen() throws Exception {
+        // Arrange
+        sink = sink(2, 1, 512, "none");
+        sink.sendBatch(events(SinkType.MESSAGE_QUEUE, 0, 30, 5)).get(5, TimeUnit.SECONDS);
+        sink.close();
+        
+        // Act
+        sink = sink(2, 1, 512, "none");
+        sink.sendBatch(events(SinkType.MESSAGE_QUEUE, 30, 30, 5)).get(5, TimeUnit.SECONDS);
+        
+        // Assert
+        for (int partition = 0; partition < 2; partition++) {
+            long expectedOffset = 0;
+            for (FileLogBroker.Entry entry : broker.read(TOPIC, partition)) {
+                assertEquals(expectedOffset, entry.offset());
+                expectedOffset += entry.recordCount();
+            }
+        }
+        assertEquals(2, broker.partitions(TOPIC));
+    }
+    
+    @Test
+    public void testBrokerFailureFailsTheEventsOfTheBatch() throws Exception {
+        // Arrange
+        MessageBroker failing = new MessageBroker() {
+            @Override
+            public int partitions(String topic) {
+                return 1;
+            }
+            
+            @Override
+            public long append(String topic, int partition, byte[] batch, int recordCount) throws IOException {
+                throw new IOException("disk full");
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+        sink = new MessageQueueSink(config(1, 512, "none"), executor, failing);
+        
+        // Act
+        List<ProcessingResult> results =
+                sink.sendBatch(events(SinkType.MESSAGE_QUEUE, 0, 10, 5)).get(5, TimeUnit.SECONDS);
+        
+        // Assert
+        assertEquals(10, results.size());
+        assertTrue(results.stream().noneMatch(ProcessingResult::isSuccess));
+        assertTrue(results.get(0).getMessage().contains("disk full"));
+    }
+    
+    @Test
+    public void testRejectedWriteFailsItsBatchWithoutStallingTheNextOnes() throws Exception {
+        // Arrange: the pool refuses the first write only
+        executor.shutdownNow();
+        AtomicBoolean rejected = new AtomicBoolean();
+        executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()) {
+            @Override
+            public void execute(Runnable command) {
+                if (rejected.compareAndSet(false, true)) {
+                    throw new RejectedExecutionException("queue full");
+                }
+                super.execute(command);
+            }
+        };
+        sink = sink(1, 1, 256, "none");
+        
+        // Act: more producer batches than in-flight slots, so a leaked slot would block
+        List<ProcessingResult> results = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> sink.sendBatch(events(SinkType.MESSAGE_QUEUE, 0, 200, 5)).get(5, TimeUnit.SECONDS));
+        
+        // Assert
+        long failed = results.stream().filter(result -> !result.isSuccess()).count();
+        assertTrue(failed > 0 && failed < 200, "failed " + failed);
+        assertTrue(results.get(0).getMessage().contains("queue full"));
+        assertTrue(results.get(199).isSuccess());
+        assertEquals(200 - failed, broker.read(TOPIC, 0).stream().mapToInt(FileLogBroker.Entry::recordCount).sum());
+    }
+    
+    @Test
+    public void testWritesToAShutDownExecutorFailInsteadOfHanging() throws Exception {
+        // Arrange: the shared pool's policy, which silently drops tasks once it is shut down
+        executor.shutdownNow();
+        executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        sink = sink(1, 1, 256, "none");
+        executor.shutdown();
+        
+        // Act
+        List<ProcessingResult> results = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> sink.sendBatch(events(SinkType.MESSAGE_QUEUE, 0, 200, 5)).get(5, TimeUnit.SECONDS));
+        
+        // Assert
+        assertTrue(results.stream().noneMatch(ProcessingResult::isSuccess));
+        assertTrue(results.get(0).getMessage().contains("shut down"));
+    }
+    
+    private MessageQueueSink sink(int partitions, long lingerMs, int batchBytes, String compression) throws IOException {
+        return sink(tempDir, partitions, lingerMs, batchBytes, compression);
+    }
+    
+    private MessageQueueSink sink(Path directory, int partitions, long lingerMs, int batchBytes, String compression)
+            throws IOException {
+        broker = new FileLogBroker(directory, partitions);
+        return new MessageQueueSink(config(lingerMs, batchBytes, compression), executor, broker);
+    }
+    
+    private static SinkConfig config(long lingerMs, int batchBytes, String compression) {
+        SinkConfig.ProducerConfig producer = new SinkConfig.ProducerConfig();
+        producer.setKeyField("customer");
+        producer.setLingerMs(lingerMs);
+        producer.setBatchBytes(batchBytes);
+        producer.setCompression(compression);
+        return SinkConfig.builder()
+                .sinkType(SinkType.MESSAGE_QUEUE.getKey())
+                .rateLimit(1000)
+                .maxInFlight(4)
+                .producer(producer)
+                .build();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.Assignment_2.sink;
+
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkEvent;
+import com.example.Assignment_2.model.SinkType;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the sink against an in-process HTTP server stub.
+ */
+@Slf4j
+public class RestApiSinkTest {
+    
+    private HttpServer server;
+    private ExecutorService executor;
+    private RestApiSink sink;
+    private final AtomicReference<String> lastBody = new AtomicReference<>();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long delayMs;
+    
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.createContext("/events", exchange -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                if (delayMs > 0) {
+                    Thread.sleep(delayMs);
+                }
+                exchange.sendResponseHeaders(status, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrent.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+        executor = Executors.newFixedThreadPool(4);
+    }
+    
+    @AfterEach
+    public void stopServer() {
+        if (sink != null) {
+            sink.close();
+        }
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void testBatchIsPostedAsJsonArray() {
+        // Arrange
+        sink = sink(8, 5000);
+        
+        // Act
+        List<ProcessingResult> results = sink.sendBatch(List.of(event("{\"id\":1}"), event("{\"id\":2}"))).join();
+        
+        // Assert
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(ProcessingResult::isSuccess));
+        assertEquals("[{\"id\":1},{\"id\":2}]", lastBody.get());
+    }
+    
+    @Test
+    public void testErrorStatusFailsTheBatch() {
+        // Arrange
+        sink = sink(8, 5000);
+        status = 503;
+        
+        // Act
+        List<ProcessingResult> results = sink.sendBatch(List.of(event("{}"))).join();
+        
+        // Assert
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(0).getMessage().contains("503"));
+        assertNotNull(results.get(0).getException());
+    }
+    
+    @Test
+    public void testSlowResponseTimesOut() {
+        // Arrange
+        sink = sink(8, 100);
+        delayMs = 1000;
+        
+        // Act
+        List<ProcessingResult> results = sink.sendBatch(List.of(event("{}"))).join();
+        
+        // Assert
+        assertFalse(results.get(0).isSuccess());
+        assertInstanceOf(HttpTimeoutException.class, results.get(0).getException());
+    }
+    
+    @Test
+    public void testThroughputAndP99WithBoundedInFlight() throws InterruptedException {
+        // Arrange
+        int maxInFlight = 8;
+        int requests = 2_000;
+        sink = sink(maxInFlight, 5000);
+        delayMs = 1;
+        long[] latencies = new long[requests];
+        CountDownLatch done = new CountDownLatch(requests);
+        AtomicInteger failures = new AtomicInteger();
+        
+        // Act
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            CompletableFuture<List<ProcessingResult>> future = sink.sendBatch(List.of(event("{\"id\":" + i + "}")));
+            future.whenComplete((results, error) -> {
+                if (error != null || !results.get(0).isSuccess()) {
+                    failures.incrementAndGet();
+                } else {
+                    latencies[index] = results.get(0).getProcessingTimeMs();
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        // Assert
+        Arrays.sort(latencies);
+        long p99 = latencies[(int) (requests * 0.99) - 1];
+        double requestsPerSecond = requests / seconds;
+        log.info("REST sink: {} requests/s, p99 {} ms, max {} in flight",
+                Math.round(requestsPerSecond), p99, maxConcurrent.get());
+        assertEquals(0, failures.get());
+        assertTrue(maxConcurrent.get() <= maxInFlight, "at most " + maxInFlight + " requests in flight");
+        assertTrue(p99 < 5000, "p99 below the request timeout");
+    }
+    
+    private RestApiSink sink(int maxInFlight, long timeoutMs) {
+        SinkConfig config = SinkConfig.builder()
+                .sinkType(SinkType.REST_API.getKey())
+                .endpoint("http://127.0.0.1:" + server.getAddress().getPort() + "/events")
+                .rateLimit(1000)
+                .maxInFlight(maxInFlight)
+                .requestTimeoutMs(timeoutMs)
+                .build();
+        return new RestApiSink(config, executor);
+    }
+    
+    private static SinkEvent event(String json) {
+        ByteBuffer payload = ByteBuffer.wrap(("xx" + json).getBytes(StandardCharsets.UTF_8), 2, json.length()).slice();
+        return SinkEvent.builder()
+                .eventId(json)
+                .record(new DataRecord())
+                .sinkType(SinkType.REST_API)
+                .transformedData(payload)
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.Assignment_2.sink;
+
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.SinkEvent;
+import com.example.Assignment_2.model.SinkType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Numbered events for the sink tests. Event i has event id "i", record id "ri", a customer
+ * field "k(i % keys)" and a payload of i as eight digits followed by the padding, so tests
+ * can tell from a payload which event it came from.
+ */
+final class SinkEvents {
+    
+    private SinkEvents() {
+    }
+    
+    static List<SinkEvent> events(SinkType sinkType, int first, int count, int keys) {
+        return events(sinkType, first, count, keys, "");
+    }
+    
+    /**
+     * @param sinkType Sink the events are for
+     * @param first Number of the first event
+     * @param count Number of events
+     * @param keys Distinct customer keys, or 0 for records without a customer field
+     * @param padding Text appended to every payload
+     * @return The events, in order
+     */
+    static List<SinkEvent> events(SinkType sinkType, int first, int count, int keys, String padding) {
+        List<SinkEvent> events = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            DataRecord record = DataRecord.builder().id("r" + i).build();
+            if (keys > 0) {
+                record.set("customer", "k" + (i % keys));
+            }
+            events.add(SinkEvent.builder()
+                    .eventId(Integer.toString(i))
+                    .record(record)
+                    .sinkType(sinkType)
+                    .transformedData(payload(i, padding))
+                    .build());
+        }
+        return events;
+    }
+    
+    /**
+     * @param i Number of the event
+     * @param padding Text appended to the payload
+     * @return The payload of event i
+     */
+    static byte[] payload(int i, String padding) {
+        return String.format("%08d", i).concat(padding).getBytes(StandardCharsets.UTF_8);
+    }
+}
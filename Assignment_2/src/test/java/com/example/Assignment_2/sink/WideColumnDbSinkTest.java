@@ -0,0 +1,211 @@
+package com.example.Assignment_2.sink;
+
+import com.example.Assignment_2.config.SinkConfig;
+import com.example.Assignment_2.model.ProcessingResult;
+import com.example.Assignment_2.model.SinkEvent;
+import com.example.Assignment_2.model.SinkType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.Assignment_2.sink.SinkEvents.events;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes through the sink to an {@link InMemoryWideColumnStore} and reads the partitions back.
+ */
+public class WideColumnDbSinkTest {
+    
+    private static final String TABLE = "fan_out_events";
+    
+    private ExecutorService executor;
+    private InMemoryWideColumnStore store;
+    private WideColumnDbSink sink;
+    
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        store = new InMemoryWideColumnStore(3, 16, 0);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        if (sink != null) {
+            sink.close();
+        }
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void testRowsAreGroupedByPartitionAndWrittenToTheOwningNode() throws Exception {
+        // Arrange
+        sink = new WideColumnDbSink(config(100, 4), executor, store);
+        List<List<SinkEvent>> batches = new ArrayList<>();
+        List<CompletableFuture<List<ProcessingResult>>> futures = new ArrayList<>();
+        
+        // Act
+        for (int batch = 0; batch < 10; batch++) {
+            batches.add(events(SinkType.WIDE_COLUMN_DB, batch * 50, 50, 7));
+            futures.add(sink.sendBatch(batches.get(batch)));
+        }
+        
+        // Assert
+        for (int batch = 0; batch < 10; batch++) {
+            List<ProcessingResult> results = futures.get(batch).get(5, TimeUnit.SECONDS);
+            for (int i = 0; i < results.size(); i++) {
+                assertTrue(results.get(i).isSuccess());
+                assertEquals(batches.get(batch).get(i).getEventId(), results.get(i).getEventId());
+            }
+        }
+        assertEquals(0, store.misroutedWrites());
+        assertEquals(500, store.rowCount(TABLE));
+        long requests = store.ring().nodes().stream().mapToLong(store::requests).sum();
+        assertEquals(70, requests, "One request per partition per sink batch");
+        Map<String, byte[]> partition = store.partition(TABLE, "k3");
+        assertEquals(List.of("r3", "r10", "r17"), new ArrayList<>(partition.keySet()).subList(0, 3));
+        assertArrayEquals(SinkEvents.payload(10, ""), partition.get("r10"));
+    }
+    
+    @Test
+    public void testPartitionWritesAreSplitIntoBoundedBatches() throws Exception {
+        // Arrange
+        sink = new WideColumnDbSink(config(100, 4), executor, store);
+        
+        // Act
+        List<ProcessingResult> results =
+                sink.sendBatch(events(SinkType.WIDE_COLUMN_DB, 0, 250, 1)).get(5, TimeUnit.SECONDS);
+        
+        // Assert
+        assertTrue(results.stream().allMatch(ProcessingResult::isSuccess));
+        assertEquals(3, store.requests(store.ring().owner("k0")));
+        assertEquals(250, store.partition(TABLE, "k0").size());
+    }
+    
+    @Test
+    public void testRequestsInFlightAreLimitedPerNode() throws Exception {
+        // Arrange
+        InMemoryWideColumnStore slowStore = new InMemoryWideColumnStore(2, 16, 2000);
+        Map<String, AtomicInteger> active = new ConcurrentHashMap<>();
+        Map<String, Integer> peak = new ConcurrentHashMap<>();
+        WideColumnStore counting = new WideColumnStore() {
+            @Override
+            public TokenRing ring() {
+                return slowStore.ring();
+            }
+            
+            @Override
+            public void write(String node, String table, String partitionKey, List<Row> rows) {
+                int now = active.computeIfAbsent(node, n -> new AtomicInteger()).incrementAndGet();
+                peak.merge(node, now, Math::max);
+                try {
+                    slowStore.write(node, table, partitionKey, rows);
+                } finally {
+                    active.get(node).decrementAndGet();
+                }
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+        sink = new WideColumnDbSink(config(1, 2), executor, counting);
+        
+        // Act
+        List<ProcessingResult> results =
+                sink.sendBatch(events(SinkType.WIDE_COLUMN_DB, 0, 200, 40)).get(5, TimeUnit.SECONDS);
+        
+        // Assert
+        assertTrue(results.stream().allMatch(ProcessingResult::isSuccess));
+        assertEquals(200, slowStore.rowCount(TABLE));
+        assertEquals(2, peak.size());
+        peak.values().forEach(max -> assertTrue(max <= 2, "Peak of " + max + " requests on one node"));
+    }
+    
+    @Test
+    public void testEventWithoutPartitionKeyFailsAlone() throws Exception {
+        // Arrange
+        sink = new WideColumnDbSink(config(100, 4), executor, store);
+        List<SinkEvent> events = events(SinkType.WIDE_COLUMN_DB, 0, 3, 3);
+        events.get(1).getRecord().set("customer", null);
+        
+        // Act
+        List<ProcessingResult> results = sink.sendBatch(events).get(5, TimeUnit.SECONDS);
+        
+        // Assert
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertNotNull(results.get(1).getException());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals(2, store.rowCount(TABLE));
+    }
+    
+    @Test
+    public void testWritesToAShutDownExecutorFailInsteadOfHanging() throws Exception {
+        // Arrange: the shared pool's policy, which silently drops tasks once it is shut down
+        executor.shutdownNow();
+        executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        SinkConfig config = config(100, 4);
+        config.setMaxInFlight(1);
+        sink = new WideColumnDbSink(config, executor, store);
+        executor.shutdown();
+        
+        // Act: a second batch only gets a write slot if the first one gave its slot back
+        List<ProcessingResult> first = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> sink.sendBatch(events(SinkType.WIDE_COLUMN_DB, 0, 30, 3)).get(5, TimeUnit.SECONDS));
+        List<ProcessingResult> second = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> sink.sendBatch(events(SinkType.WIDE_COLUMN_DB, 30, 30, 3)).get(5, TimeUnit.SECONDS));
+        
+        // Assert
+        assertTrue(first.stream().noneMatch(ProcessingResult::isSuccess));
+        assertTrue(second.stream().noneMatch(ProcessingResult::isSuccess));
+        assertTrue(first.get(0).getMessage().contains("shut down"));
+        assertEquals(0, store.rowCount(TABLE));
+    }
+    
+    @Test
+    public void testTokenRingIsDeterministicAndSpreadsKeys() {
+        // Arrange
+        TokenRing ring = new TokenRing(List.of("a", "b", "c"), 16);
+        TokenRing sameRing = new TokenRing(List.of("a", "b", "c"), 16);
+        Map<String, Integer> keysPerNode = new HashMap<>();
+        
+        // Act
+        for (int i = 0; i < 3000; i++) {
+            String owner = ring.owner("key-" + i);
+            assertEquals(owner, sameRing.owner("key-" + i));
+            keysPerNode.merge(owner, 1, Integer::sum);
+        }
+        
+        // Assert
+        assertEquals(3, keysPerNode.size());
+        keysPerNode.values().forEach(count -> assertTrue(count > 500, "Only " + count + " keys on a node"));
+    }
+    
+    private static SinkConfig config(int maxBatchRows, int maxInFlightPerNode) {
+        SinkConfig.WideColumnConfig wideColumn = new SinkConfig.WideColumnConfig();
+        wideColumn.setPartitionKeyField("customer");
+        wideColumn.setMaxBatchRows(maxBatchRows);
+        wideColumn.setMaxInFlightPerNode(maxInFlightPerNode);
+        return SinkConfig.builder()
+                .sinkType(SinkType.WIDE_COLUMN_DB.getKey())
+                .rateLimit(1000)
+                .maxInFlight(64)
+                .wideColumn(wideColumn)
+                .build();
+    }
+}
@@ -6,6 +6,7 @@ import com.example.Assignment_2.model.SinkType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -83,4 +84,29 @@ public class BackpressureBufferTest {
         buffer.tryPut(event);
         assertFalse(buffer.isEmpty());
     }
+    
+    @Test
+    public void testPollBatchRespectsMaxSize() throws InterruptedException {
+        for (int i = 0; i < 7; i++) {
+            buffer.tryPut(SinkEvent.builder()
+                    .eventId("event-" + i)
+                    .sinkType(SinkType.GRPC)
+                    .build());
+        }
+        
+        List<SinkEvent> batch = buffer.pollBatch(5, 10, 10, TimeUnit.MILLISECONDS);
+        assertEquals(5, batch.size());
+        assertEquals("event-0", batch.get(0).getEventId());
+        assertEquals(2, buffer.size());
+        
+        // The remainder comes out once the linger time has passed
+        batch = buffer.pollBatch(5, 10, 10, TimeUnit.MILLISECONDS);
+        assertEquals(2, batch.size());
+        assertEquals("event-6", batch.get(1).getEventId());
+    }
+    
+    @Test
+    public void testPollBatchTimesOutWhenEmpty() throws InterruptedException {
+        assertTrue(buffer.pollBatch(5, 10, 10, TimeUnit.MILLISECONDS).isEmpty());
+    }
 }
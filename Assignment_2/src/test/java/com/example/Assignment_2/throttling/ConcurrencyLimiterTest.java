@@ -0,0 +1,170 @@
+package com.example.Assignment_2.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimiterTest {
+    
+    @Test
+    public void testAimdGrowsWhileBusyAndBacksOffOnFailure() {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdLimit(0.5), 10, 1, 100);
+        
+        // Act
+        for (int i = 0; i < 5; i++) {
+            takeAll(limiter);
+            drain(limiter, 10);
+        }
+        int grown = limiter.getLimit();
+        assertTrue(limiter.tryAcquire());
+        limiter.release(10, true);
+        
+        // Assert
+        assertTrue(grown > 10, "Limit should grow under load, was " + grown);
+        assertEquals(grown / 2, limiter.getLimit());
+        assertEquals(1, limiter.getDrops());
+    }
+    
+    @Test
+    public void testAimdKeepsLimitWhenMostlyIdle() {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdLimit(0.9), 20, 1, 100);
+        
+        // Act
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(5, false);
+        }
+        
+        // Assert
+        assertEquals(20, limiter.getLimit());
+    }
+    
+    @Test
+    public void testVegasSettlesNearDownstreamCapacity() {
+        // Arrange: a downstream that serves 16 requests at once in 10 ms and queues the rest
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new VegasLimit(100_000), 4, 1, 1000);
+        
+        // Act
+        for (int i = 0; i < 2000; i++) {
+            int inFlight = takeAll(limiter);
+            long rttMs = Math.round(10 * Math.max(1.0, inFlight / 16.0));
+            drain(limiter, rttMs);
+        }
+        
+        // Assert
+        int limit = limiter.getLimit();
+        assertTrue(limit >= 16 && limit <= 48, "Limit should settle near 16, was " + limit);
+        assertEquals(10.0, limiter.getMinRttMs());
+    }
+    
+    @Test
+    public void testVegasShrinksWhenLatencyRises() {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new VegasLimit(100_000), 100, 1, 1000);
+        takeAll(limiter);
+        drain(limiter, 10);
+        
+        // Act
+        for (int i = 0; i < 20; i++) {
+            takeAll(limiter);
+            drain(limiter, 40);
+        }
+        
+        // Assert
+        assertTrue(limiter.getLimit() < 100, "Limit should shrink, was " + limiter.getLimit());
+        assertTrue(limiter.getSmoothedRttMs() > 30);
+    }
+    
+    @Test
+    public void testVegasFailuresShrinkTheLimitWithoutSettingTheBaseline() {
+        // Arrange
+        VegasLimit vegas = new VegasLimit(100_000);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(vegas, 100, 1, 1000);
+        
+        // Act: a fast failure first, then successes at 10 ms and another fast failure
+        assertTrue(limiter.tryAcquire());
+        limiter.release(1, true);
+        int afterFirstFailure = limiter.getLimit();
+        takeAll(limiter);
+        drain(limiter, 10);
+        int beforeSecondFailure = limiter.getLimit();
+        assertTrue(limiter.tryAcquire());
+        limiter.release(1, true);
+        
+        // Assert
+        assertEquals(98, afterFirstFailure);
+        assertEquals(10.0, vegas.getRttNoLoadMs());
+        assertEquals(10.0, limiter.getMinRttMs());
+        assertEquals(beforeSecondFailure - (int) Math.log10(beforeSecondFailure), limiter.getLimit());
+        assertEquals(2, limiter.getDrops());
+    }
+    
+    @Test
+    public void testAcquireWaitsForAPermitAtTheLimit() throws InterruptedException {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdLimit(0.9), 2, 2, 2);
+        limiter.acquire();
+        limiter.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        
+        // Act
+        waiter.start();
+        boolean acquiredAtLimit = acquired.await(200, TimeUnit.MILLISECONDS);
+        limiter.release(1, false);
+        
+        // Assert
+        assertFalse(acquiredAtLimit);
+        assertTrue(acquired.await(2, TimeUnit.SECONDS));
+        assertEquals(2, limiter.getInFlight());
+        waiter.join();
+    }
+    
+    @Test
+    public void testLimitStaysWithinBounds() {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdLimit(0.5), 3, 2, 4);
+        
+        // Act
+        for (int i = 0; i < 10; i++) {
+            takeAll(limiter);
+            drain(limiter, 1);
+        }
+        int highest = limiter.getLimit();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(1, true);
+        }
+        
+        // Assert
+        assertEquals(4, highest);
+        assertEquals(2, limiter.getLimit());
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(new AimdLimit(0.9), 1, 0, 4));
+    }
+    
+    private static int takeAll(ConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            // take every permit, as a saturated sink would
+        }
+        return limiter.getInFlight();
+    }
+    
+    private static void drain(ConcurrencyLimiter limiter, long rttMs) {
+        // Every in-flight request completes with the same RTT
+        while (limiter.getInFlight() > 0) {
+            limiter.release(rttMs, false);
+        }
+    }
+}
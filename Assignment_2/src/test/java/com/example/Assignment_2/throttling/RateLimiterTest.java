@@ -3,7 +3,11 @@ package com.example.Assignment_2.throttling;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -66,4 +70,67 @@ public class RateLimiterTest {
         testThread.start();
         testThread.join(2000);
     }
+    
+    @Test
+    public void testAcquireAsyncCompletesWhenTokenAvailable() throws Exception {
+        assertTrue(rateLimiter.tryAcquire(10));
+        
+        long startTime = System.nanoTime();
+        CompletableFuture<Void> future = rateLimiter.acquireAsync(1);
+        assertFalse(future.isDone()); // Does not block the caller
+        
+        future.get(2, TimeUnit.SECONDS);
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        assertTrue(durationMs >= 50); // One token at 10/sec takes ~100ms
+    }
+    
+    @Test
+    public void testAcquireAsyncImmediateWhenTokensAvailable() {
+        assertTrue(rateLimiter.acquireAsync(3).isDone());
+    }
+    
+    @Test
+    public void testReserveReturnsIncreasingWaits() {
+        assertEquals(0, rateLimiter.reserve(10));
+        
+        long firstWait = rateLimiter.reserve(1);
+        long secondWait = rateLimiter.reserve(1);
+        assertTrue(firstWait > 0);
+        assertTrue(secondWait > firstWait);
+        
+        // Reserved slots are taken, so nothing is left for tryAcquire
+        assertFalse(rateLimiter.tryAcquire());
+    }
+    
+    @Test
+    public void testConcurrentTryAcquireGrantsOnlyBurst() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1, 100); // Burst of 100, negligible refill
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 50; i++) {
+                        if (limiter.tryAcquire()) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(2000);
+        }
+        
+        assertEquals(100, granted.get());
+    }
 }
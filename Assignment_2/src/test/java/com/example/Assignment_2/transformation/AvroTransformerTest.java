@@ -1,15 +1,34 @@
 package com.example.Assignment_2.transformation;
 
+import com.example.Assignment_2.ingestion.JsonlFileReader;
 import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.Utf8Slice;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.util.Utf8;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class AvroTransformerTest {
     
+    @TempDir
+    Path tempDir;
+    
     private AvroTransformer transformer;
     
     @BeforeEach
@@ -18,7 +37,7 @@ public class AvroTransformerTest {
     }
     
     @Test
-    public void testTransformValidRecord() {
+    public void testTransformValidRecord() throws IOException {
         // Arrange
         DataRecord record = DataRecord.builder()
                 .id("test-avro-001")
@@ -31,16 +50,95 @@ public class AvroTransformerTest {
         
         // Assert
         assertNotNull(result);
-        assertTrue(result instanceof Map);
+        assertTrue(result instanceof byte[]);
+        
+        GenericRecord decoded = decode((byte[]) result);
+        assertEquals("test-avro-001", decoded.get("id").toString());
+        assertEquals(4L, decoded.get("sequence_number"));
+        assertTrue((Long) decoded.get("timestamp") > 0);
         
-        @SuppressWarnings("unchecked")
-        Map<String, Object> map = (Map<String, Object>) result;
-        assertEquals("test-avro-001", map.get("id"));
-        assertEquals(4L, map.get("sequence_number"));
+        Map<?, ?> fields = (Map<?, ?>) decoded.get("fields");
+        assertEquals(new Utf8("val1"), fields.get(new Utf8("col1")));
+        assertEquals(new Utf8("val2"), fields.get(new Utf8("col2")));
+    }
+    
+    @Test
+    public void testTransformKeepsTypedValues() throws IOException {
+        Map<String, Object> values = new HashMap<>();
+        values.put("count", 42L);
+        values.put("ratio", 0.5);
+        values.put("active", true);
+        values.put("missing", null);
+        values.put("tags", List.of("a", "b"));
+        values.put("slice", new Utf8Slice("xcaf\u00e9x".getBytes(StandardCharsets.UTF_8), 1, 5));
+        DataRecord record = DataRecord.builder()
+                .id("test-avro-002")
+                .sequenceNumber(5L)
+                .fields(values)
+                .build();
+        
+        Map<?, ?> fields = (Map<?, ?>) decode((byte[]) transformer.transform(record)).get("fields");
+        assertEquals(42L, fields.get(new Utf8("count")));
+        assertEquals(0.5, fields.get(new Utf8("ratio")));
+        assertEquals(true, fields.get(new Utf8("active")));
+        assertTrue(fields.containsKey(new Utf8("missing")));
+        assertNull(fields.get(new Utf8("missing")));
+        assertEquals(new Utf8("[\"a\",\"b\"]"), fields.get(new Utf8("tags")));
+        assertEquals(new Utf8("caf\u00e9"), fields.get(new Utf8("slice")));
+    }
+    
+    @Test
+    public void testNestedJsonlValuesAreWrittenAsJson() throws IOException {
+        // Arrange
+        Path input = Files.writeString(tempDir.resolve("nested.jsonl"),
+                "{\"id\":\"n-1\",\"customer\":{\"name\":\"Ann\",\"tier\":2},"
+                        + "\"items\":[1,{\"sku\":\"x\"}],\"price\":1.5E+3,\"raw\":null}\n");
+        DataRecord record;
+        try (Stream<DataRecord> records = new JsonlFileReader().readRecords(input.toString())) {
+            record = records.findFirst().orElseThrow();
+        }
+        record.set("amount", new BigDecimal("1E+3"));
+        record.set("blob", ByteBuffer.wrap(new byte[] {1, 2, 3}));
+        
+        // Act
+        Map<?, ?> fields = (Map<?, ?>) decode((byte[]) transformer.transform(record)).get("fields");
+        
+        // Assert
+        assertEquals(new Utf8("{\"name\":\"Ann\",\"tier\":2}"), fields.get(new Utf8("customer")));
+        assertEquals(new Utf8("[1,{\"sku\":\"x\"}]"), fields.get(new Utf8("items")));
+        assertEquals(1500.0, fields.get(new Utf8("price")));
+        assertEquals(new Utf8("1000"), fields.get(new Utf8("amount")));
+        assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), fields.get(new Utf8("blob")));
+    }
+    
+    @Test
+    public void testReusedBufferDoesNotLeakBetweenRecords() throws IOException {
+        DataRecord large = DataRecord.builder()
+                .id("large")
+                .sequenceNumber(1L)
+                .fields(Map.of("payload", "x".repeat(2000)))
+                .build();
+        DataRecord small = DataRecord.builder()
+                .id("small")
+                .sequenceNumber(2L)
+                .fields(Map.of("payload", "y"))
+                .build();
+        
+        byte[] largeBytes = (byte[]) transformer.transform(large);
+        byte[] smallBytes = (byte[]) transformer.transform(small);
+        
+        assertTrue(smallBytes.length < largeBytes.length);
+        assertEquals("small", decode(smallBytes).get("id").toString());
+        assertEquals("large", decode(largeBytes).get("id").toString());
     }
     
     @Test
     public void testTransformerName() {
         assertEquals("Avro/CQL Transformer", transformer.getName());
     }
+    
+    private GenericRecord decode(byte[] bytes) throws IOException {
+        return new GenericDatumReader<GenericRecord>(AvroTransformer.SCHEMA)
+                .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    }
 }
@@ -1,16 +1,25 @@
 package com.example.Assignment_2.transformation;
 
 import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.RecordSchema;
+import com.example.Assignment_2.model.Utf8Slice;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class JsonTransformerTest {
     
+    private final ObjectMapper objectMapper = new ObjectMapper();
     private JsonTransformer transformer;
     
     @BeforeEach
@@ -19,7 +28,7 @@ public class JsonTransformerTest {
     }
     
     @Test
-    public void testTransformValidRecord() {
+    public void testTransformValidRecord() throws IOException {
         // Arrange
         DataRecord record = DataRecord.builder()
                 .id("test-123")
@@ -32,14 +41,60 @@ public class JsonTransformerTest {
         
         // Assert
         assertNotNull(result);
-        assertTrue(result instanceof Map);
+        assertTrue(result instanceof ByteBuffer);
         
-        @SuppressWarnings("unchecked")
-        Map<String, Object> map = (Map<String, Object>) result;
-        assertEquals("test-123", map.get("id"));
-        assertEquals(1L, map.get("sequenceNumber"));
-        assertNotNull(map.get("data"));
-        assertNotNull(map.get("timestamp"));
+        JsonNode json = parse(result);
+        assertEquals("test-123", json.get("id").asText());
+        assertEquals(1L, json.get("sequenceNumber").asLong());
+        assertEquals("John", json.get("data").get("name").asText());
+        assertEquals("30", json.get("data").get("age").asText());
+        assertTrue(json.get("timestamp").asLong() > 0);
+    }
+    
+    @Test
+    public void testTransformKeepsTypedValues() throws IOException {
+        Map<String, Object> values = new HashMap<>();
+        values.put("count", 42L);
+        values.put("ratio", 0.5);
+        values.put("active", true);
+        values.put("missing", null);
+        values.put("tags", List.of("a", "b"));
+        values.put("quote", "say \"hi\" \u2615");
+        DataRecord record = DataRecord.builder()
+                .id("test-789")
+                .sequenceNumber(3L)
+                .fields(values)
+                .build();
+        
+        JsonNode data = parse(transformer.transform(record)).get("data");
+        assertEquals(42L, data.get("count").asLong());
+        assertEquals(0.5, data.get("ratio").asDouble());
+        assertTrue(data.get("active").asBoolean());
+        assertTrue(data.get("missing").isNull());
+        assertEquals("b", data.get("tags").get(1).asText());
+        assertEquals("say \"hi\" \u2615", data.get("quote").asText());
+    }
+    
+    @Test
+    public void testReusedGeneratorStartsEachPayloadClean() throws IOException {
+        DataRecord first = DataRecord.builder()
+                .id("first")
+                .sequenceNumber(1L)
+                .fields(Map.of("payload", "x".repeat(2000)))
+                .build();
+        DataRecord second = DataRecord.builder()
+                .id("second")
+                .sequenceNumber(2L)
+                .fields(Map.of("payload", "y"))
+                .build();
+        
+        ByteBuffer firstBytes = (ByteBuffer) transformer.transform(first);
+        ByteBuffer secondBytes = (ByteBuffer) transformer.transform(second);
+        
+        assertEquals('{', secondBytes.get(0));
+        assertTrue(secondBytes.remaining() < firstBytes.remaining());
+        assertEquals("second", parse(secondBytes).get("id").asText());
+        assertEquals("first", parse(firstBytes).get("id").asText());
     }
     
     @Test
@@ -61,6 +116,30 @@ public class JsonTransformerTest {
         
         // Assert
         assertNotNull(result);
-        assertTrue(result instanceof Map);
+        assertTrue(result instanceof ByteBuffer);
+    }
+    
+    @Test
+    public void testTransformWritesUtf8SlicesWithEscaping() throws IOException {
+        // Arrange
+        byte[] row = "xxsay \"hé\"\n".getBytes(StandardCharsets.UTF_8);
+        DataRecord record = DataRecord.builder()
+                .id("test-789")
+                .schema(RecordSchema.of("comment"))
+                .values(new Object[]{new Utf8Slice(row, 2, row.length - 2)})
+                .build();
+        
+        // Act
+        JsonNode json = parse(transformer.transform(record));
+        
+        // Assert
+        assertEquals("say \"hé\"\n", json.get("data").get("comment").asText());
+    }
+    
+    private JsonNode parse(Object payload) throws IOException {
+        ByteBuffer buffer = ((ByteBuffer) payload).duplicate();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return objectMapper.readTree(bytes);
     }
 }
@@ -1,9 +1,17 @@
 package com.example.Assignment_2.transformation;
 
 import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.Utf8Slice;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,8 +44,65 @@ public class ProtobufTransformerTest {
         assertTrue(bytes.length > 0);
     }
     
+    @Test
+    public void testTransformProducesFanOutRecordMessage() throws InvalidProtocolBufferException {
+        Map<String, Object> values = new HashMap<>();
+        values.put("name", "Jane Doe");
+        values.put("age", 28);
+        values.put("note", "caf\u00e9 \u2615");
+        values.put("missing", null);
+        values.put("slice", new Utf8Slice("xcaf\u00e9x".getBytes(StandardCharsets.UTF_8), 1, 5));
+        DataRecord record = DataRecord.builder()
+                .id("test-790")
+                .sequenceNumber(300L)
+                .fields(values)
+                .build();
+        
+        DynamicMessage message = DynamicMessage.parseFrom(
+                ProtobufTransformer.DESCRIPTOR, (byte[]) transformer.transform(record));
+        
+        assertEquals("test-790", message.getField(field("id")));
+        assertEquals(300L, message.getField(field("sequence_number")));
+        assertTrue((Long) message.getField(field("timestamp")) > 0);
+        
+        Map<String, String> decoded = new HashMap<>();
+        for (Object entry : (List<?>) message.getField(field("fields"))) {
+            Message mapEntry = (Message) entry;
+            FieldDescriptor key = mapEntry.getDescriptorForType().findFieldByName("key");
+            FieldDescriptor value = mapEntry.getDescriptorForType().findFieldByName("value");
+            decoded.put((String) mapEntry.getField(key), (String) mapEntry.getField(value));
+        }
+        assertEquals(5, decoded.size());
+        assertEquals("Jane Doe", decoded.get("name"));
+        assertEquals("28", decoded.get("age"));
+        assertEquals("caf\u00e9 \u2615", decoded.get("note"));
+        assertEquals("", decoded.get("missing"));
+        assertEquals("caf\u00e9", decoded.get("slice"));
+    }
+    
+    @Test
+    public void testTransformManyFieldsGrowsScratch() throws InvalidProtocolBufferException {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            values.put("col" + i, "value" + i);
+        }
+        DataRecord record = DataRecord.builder()
+                .id("wide")
+                .sequenceNumber(1L)
+                .fields(values)
+                .build();
+        
+        DynamicMessage message = DynamicMessage.parseFrom(
+                ProtobufTransformer.DESCRIPTOR, (byte[]) transformer.transform(record));
+        assertEquals(100, message.getRepeatedFieldCount(field("fields")));
+    }
+    
     @Test
     public void testTransformerName() {
         assertEquals("Protobuf Transformer", transformer.getName());
     }
+    
+    private FieldDescriptor field(String name) {
+        return ProtobufTransformer.DESCRIPTOR.findFieldByName(name);
+    }
 }
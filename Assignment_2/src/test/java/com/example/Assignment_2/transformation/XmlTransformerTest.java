@@ -0,0 +1,134 @@
+package com.example.Assignment_2.transformation;
+
+import com.example.Assignment_2.model.DataRecord;
+import com.example.Assignment_2.model.RecordSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class XmlTransformerTest {
+    
+    private XmlTransformer transformer;
+    
+    @BeforeEach
+    public void setUp() {
+        transformer = new XmlTransformer();
+    }
+    
+    @Test
+    public void testTransformValidRecord() throws Exception {
+        // Arrange
+        DataRecord record = DataRecord.builder()
+                .id("test-xml-001")
+                .sequenceNumber(7L)
+                .fields(Map.of("name", "John", "city", "Paris"))
+                .build();
+        
+        // Act
+        Object result = transformer.transform(record);
+        
+        // Assert
+        assertTrue(result instanceof byte[]);
+        Element root = parse((byte[]) result);
+        assertEquals("HashMap", root.getTagName());
+        assertEquals("test-xml-001", text(root, "id"));
+        assertEquals("7", text(root, "sequenceNumber"));
+        assertTrue(Long.parseLong(text(root, "timestamp")) > 0);
+        assertEquals("John", text(root, "name"));
+        assertEquals("Paris", text(root, "city"));
+    }
+    
+    @Test
+    public void testTransformEscapesValuesAndElementNames() throws Exception {
+        Map<String, Object> values = new HashMap<>();
+        values.put("first name", "<b>José & co</b>");
+        values.put("1st", 42);
+        values.put("missing", null);
+        DataRecord record = DataRecord.builder()
+                .id("test-xml-002")
+                .sequenceNumber(8L)
+                .fields(values)
+                .build();
+        
+        byte[] bytes = (byte[]) transformer.transform(record);
+        
+        assertTrue(new String(bytes, StandardCharsets.UTF_8).contains("José"));
+        Element root = parse(bytes);
+        assertEquals("<b>José & co</b>", text(root, "first_name"));
+        assertEquals("42", text(root, "_1st"));
+        assertEquals("", text(root, "missing"));
+    }
+    
+    @Test
+    public void testColumnsSanitizedToTheSameNameStayDistinct() throws Exception {
+        // Arrange
+        RecordSchema schema = RecordSchema.of("a b", "a_b", "a_b_2", "a.b");
+        DataRecord record = DataRecord.builder()
+                .id("test-xml-003")
+                .sequenceNumber(9L)
+                .schema(schema)
+                .values(new Object[]{"space", "underscore", "suffixed", "dot"})
+                .build();
+        
+        // Act
+        Element root = parse((byte[]) transformer.transform(record));
+        
+        // Assert
+        assertArrayEquals(new String[]{"a_b", "a_b_3", "a_b_2", "a.b"}, transformer.elementNames(schema));
+        assertEquals("space", text(root, "a_b"));
+        assertEquals("underscore", text(root, "a_b_3"));
+        assertEquals("suffixed", text(root, "a_b_2"));
+        assertEquals("dot", text(root, "a.b"));
+    }
+    
+    @Test
+    public void testEachRecordIsAStandaloneDocument() throws Exception {
+        // Arrange
+        DataRecord first = DataRecord.builder().id("first").sequenceNumber(1L).fields(Map.of("name", "A")).build();
+        DataRecord second = DataRecord.builder().id("second").sequenceNumber(2L).fields(Map.of("city", "B")).build();
+        
+        // Act
+        byte[] firstBytes = (byte[]) transformer.transform(first);
+        byte[] secondBytes = (byte[]) transformer.transform(second);
+        
+        // Assert
+        assertEquals("first", text(parse(firstBytes), "id"));
+        Element root = parse(secondBytes);
+        assertEquals("second", text(root, "id"));
+        assertEquals("B", text(root, "city"));
+        assertEquals(0, root.getElementsByTagName("name").getLength());
+    }
+    
+    @Test
+    public void testToElementName() {
+        assertEquals("name", XmlTransformer.toElementName("name"));
+        assertEquals("order_id", XmlTransformer.toElementName("order id"));
+        assertEquals("_2024", XmlTransformer.toElementName("2024"));
+        assertEquals("_", XmlTransformer.toElementName(""));
+    }
+    
+    @Test
+    public void testTransformerName() {
+        assertEquals("XML Transformer", transformer.getName());
+    }
+    
+    private Element parse(byte[] bytes) throws Exception {
+        Document document = DocumentBuilderFactory.newInstance()
+                .newDocumentBuilder()
+                .parse(new ByteArrayInputStream(bytes));
+        return document.getDocumentElement();
+    }
+    
+    private String text(Element root, String tag) {
+        return root.getElementsByTagName(tag).item(0).getTextContent();
+    }
+}